@@ -0,0 +1,21 @@
+package eu.domibus.api.cache.distributed;
+
+import java.io.Serializable;
+
+/**
+ * Computes the new value of a distributed cache entry from its current value. In a cluster, the function is executed
+ * on the member owning the entry, atomically with regard to the other operations on the entry, so it must be serializable
+ * and available on all the members.
+ *
+ * @since 5.2
+ */
+@FunctionalInterface
+public interface DistributedCacheEntryFunction extends Serializable {
+
+    /**
+     * @param key   the key of the entry
+     * @param value the current value of the entry or null if there is no entry
+     * @return the new value of the entry or null to remove the entry
+     */
+    Object apply(String key, Object value);
+}
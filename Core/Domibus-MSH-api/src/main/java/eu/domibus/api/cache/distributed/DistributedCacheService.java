@@ -4,6 +4,7 @@ import eu.domibus.api.cache.DomibusCacheException;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Cosmin Baciu
@@ -70,6 +71,50 @@ public interface DistributedCacheService {
      */
     void evictEntryFromCache(String cacheName, String key) throws DomibusCacheException;
 
+    /**
+     * Gets several entries from the cache at once, with one call per cluster member owning some of the entries
+     * @param cacheName The cache name from which we get entries
+     * @param keys The keys of the entries
+     * @return The entries found in the cache; the keys without entry are not present in the result
+     * @throws DomibusCacheException if the cache does not exist
+     */
+    Map<String, Object> getEntriesFromCache(String cacheName, Set<String> keys) throws DomibusCacheException;
+
+    /**
+     * Adds several entries in the cache at once, with one call per cluster member owning some of the entries
+     * @param cacheName The cache name in which we add entries
+     * @param entries The entries to add in the cache
+     * @throws DomibusCacheException if the cache does not exist
+     */
+    void addEntriesInCache(String cacheName, Map<String, Object> entries) throws DomibusCacheException;
+
+    /**
+     * Evicts several entries from the cache at once, with one call per cluster member owning some of the entries
+     * @param cacheName The cache name from which we evict entries
+     * @param keys The keys of the entries
+     * @throws DomibusCacheException if the cache does not exist
+     */
+    void evictEntriesFromCache(String cacheName, Set<String> keys) throws DomibusCacheException;
+
+    /**
+     * Replaces atomically the value of an entry with the value computed from the current one, without reading and writing
+     * the entry in separate calls
+     * @param cacheName The cache name in which the entry is computed
+     * @param key The key of the entry
+     * @param function The function computing the new value from the current one
+     * @return The new value of the entry
+     * @throws DomibusCacheException if the cache does not exist
+     */
+    Object computeEntryInCache(String cacheName, String key, DistributedCacheEntryFunction function) throws DomibusCacheException;
+
+    /**
+     * Gets the statistics of the near cache of a distributed cache on the current cluster member
+     * @param cacheName The cache name
+     * @return The near cache statistics or null in a non cluster environment or when the cache has no near cache
+     * @throws DomibusCacheException if the cache does not exist
+     */
+    NearCacheStatistics getNearCacheStatistics(String cacheName) throws DomibusCacheException;
+
     /**
      * Get all cache names
      * @return the list of cache names
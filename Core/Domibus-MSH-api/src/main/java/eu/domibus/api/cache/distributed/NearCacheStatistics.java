@@ -0,0 +1,80 @@
+package eu.domibus.api.cache.distributed;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * The statistics of the local near cache of a distributed cache, on the current cluster member
+ *
+ * @since 5.2
+ */
+public class NearCacheStatistics {
+
+    protected final long ownedEntryCount;
+
+    protected final long hits;
+
+    protected final long misses;
+
+    protected final long invalidations;
+
+    protected final long evictions;
+
+    protected final long expirations;
+
+    public NearCacheStatistics(long ownedEntryCount, long hits, long misses, long invalidations, long evictions, long expirations) {
+        this.ownedEntryCount = ownedEntryCount;
+        this.hits = hits;
+        this.misses = misses;
+        this.invalidations = invalidations;
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+
+    /**
+     * @return the number of entries in the near cache
+     */
+    public long getOwnedEntryCount() {
+        return ownedEntryCount;
+    }
+
+    /**
+     * @return the number of reads served by the near cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of reads not found in the near cache and sent to the cluster
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of entries removed from the near cache because they were changed in the cluster
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("ownedEntryCount", ownedEntryCount)
+                .append("hits", hits)
+                .append("misses", misses)
+                .append("invalidations", invalidations)
+                .append("evictions", evictions)
+                .append("expirations", expirations)
+                .toString();
+    }
+}
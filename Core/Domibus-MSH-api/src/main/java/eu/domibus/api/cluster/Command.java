@@ -29,6 +29,7 @@ public class Command {
     public static final String RELOAD_TLS_TRUSTSTORE = "RELOAD_TLS_TRUSTSTORE";
     public static final String DOMAIN_ADDED = "DOMAIN_ADDED";
     public static final String DOMAIN_REMOVED = "DOMAIN_REMOVED";
+    public static final String DICTIONARY_ENTRY_CREATED = "DICTIONARY_ENTRY_CREATED";
 
     private long entityId;
     protected String commandName;
@@ -12,5 +12,8 @@ public class CommandProperty {
     public static final String PMODE_PARTY_NAMES = "PMODE_PARTY_NAMES";
     public static final String FINAL_RECIPIENTS = "FINAL_RECIPIENTS";
 
+    public static final String DICTIONARY_NAME = "DICTIONARY_NAME";
+    public static final String ENTITY_ID = "ENTITY_ID";
+
     private CommandProperty() {}
 }
@@ -87,4 +87,9 @@ public interface SignalService {
     void signalKeyStoreUpdate(Domain domain);
 
     void signalDomainsRemoved(String domainCode);
+
+    /**
+     * Signals the creation of a dictionary entry so that the other servers in the cluster can add it to their dictionary caches
+     */
+    void signalDictionaryEntryCreated(String dictionaryName, long entityId);
 }
@@ -49,6 +49,11 @@ public class JMSMessageBuilder {
         return this;
     }
 
+    public JMSMessageBuilder deliveryDelay(Long deliveryDelay) {
+        jmsMessage.setDeliveryDelay(deliveryDelay);
+        return this;
+    }
+
     public JMSMessageBuilder properties(Map<String, String> properties) {
         jmsMessage.setProperties(properties);
         return this;
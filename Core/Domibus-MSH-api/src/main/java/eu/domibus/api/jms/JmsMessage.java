@@ -20,6 +20,7 @@ public class JmsMessage {
     protected Date timestamp;
     protected String content;
     protected Integer priority;
+    protected Long deliveryDelay;
     protected Map<String, String> customProperties;
     protected Map<String, String> properties = new HashMap<>();
 
@@ -79,6 +80,17 @@ public class JmsMessage {
         this.priority = priority;
     }
 
+    /**
+     * The delay in milliseconds after which the message is delivered to the consumers
+     */
+    public Long getDeliveryDelay() {
+        return deliveryDelay;
+    }
+
+    public void setDeliveryDelay(Long deliveryDelay) {
+        this.deliveryDelay = deliveryDelay;
+    }
+
     public Map<String, String> getJMSProperties() {
         Map<String, String> jmsProperties = new HashMap<>();
         for (String key : properties.keySet()) {
@@ -10,9 +10,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.activation.DataHandler;
 import javax.persistence.*;
+import java.io.File;
 import java.util.Objects;
 import java.util.Set;
 
@@ -30,6 +32,7 @@ import java.util.Set;
 })
 @Entity
 @Table(name = "TB_PART_INFO")
+@DynamicUpdate
 public class PartInfo extends AbstractBaseEntity implements Comparable<PartInfo> {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PartInfo.class);
@@ -56,6 +59,18 @@ public class PartInfo extends AbstractBaseEntity implements Comparable<PartInfo>
     @Basic(fetch = FetchType.EAGER)
     protected byte[] binaryData;
 
+    /**
+     * The file containing the stored payload when it is streamed into the database instead of being loaded in {@link #binaryData}
+     */
+    @Transient
+    protected File binaryDataFile;
+
+    /**
+     * The digest of the original payload, computed while storing it
+     */
+    @Transient
+    protected byte[] payloadDigest;
+
     @Column(name = "FILENAME")
     protected String fileName;
 
@@ -108,6 +123,26 @@ public class PartInfo extends AbstractBaseEntity implements Comparable<PartInfo>
         this.binaryData = binaryData;
     }
 
+    @Transient
+    public File getBinaryDataFile() {
+        return binaryDataFile;
+    }
+
+    @Transient
+    public void setBinaryDataFile(File binaryDataFile) {
+        this.binaryDataFile = binaryDataFile;
+    }
+
+    @Transient
+    public byte[] getPayloadDigest() {
+        return payloadDigest;
+    }
+
+    @Transient
+    public void setPayloadDigest(byte[] payloadDigest) {
+        this.payloadDigest = payloadDigest;
+    }
+
     public void setFileName(String fileName) {
         this.fileName = fileName;
     }
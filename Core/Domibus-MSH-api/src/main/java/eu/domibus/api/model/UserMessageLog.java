@@ -23,6 +23,23 @@ import java.util.Date;
                         "and 1 <= userMessageLog.sendAttempts " +
                         "and userMessageLog.sendAttempts <= userMessageLog.sendAttemptsMax " +
                         "and (userMessageLog.scheduled is null or userMessageLog.scheduled=false)"),
+        @NamedQuery(name = "UserMessageLog.findRetryMessagesNextAttempt",
+                query = "select userMessageLog.entityId, userMessageLog.nextAttempt " +
+                        "from UserMessageLog userMessageLog " +
+                        "where userMessageLog.entityId >= :MIN_ENTITY_ID " +
+                        "and userMessageLog.entityId < :MAX_ENTITY_ID " +
+                        "and userMessageLog.messageStatus.messageStatus = eu.domibus.api.model.MessageStatus.WAITING_FOR_RETRY " +
+                        "and userMessageLog.nextAttempt < :MAX_NEXT_ATTEMPT " +
+                        "and 1 <= userMessageLog.sendAttempts " +
+                        "and userMessageLog.sendAttempts <= userMessageLog.sendAttemptsMax " +
+                        "and (userMessageLog.scheduled is null or userMessageLog.scheduled=false)"),
+        @NamedQuery(name = "UserMessageLog.findRetryMessagesByEntityIds",
+                query = "select userMessageLog " +
+                        "from UserMessageLog userMessageLog " +
+                        "join fetch userMessageLog.userMessage " +
+                        "where userMessageLog.entityId in :ENTITY_IDS " +
+                        "and userMessageLog.messageStatus.messageStatus = eu.domibus.api.model.MessageStatus.WAITING_FOR_RETRY " +
+                        "and (userMessageLog.scheduled is null or userMessageLog.scheduled=false)"),
         @NamedQuery(name = "UserMessageLog.findReadyToPullMessages", query = "SELECT um.messageId, um.timestamp FROM UserMessageLog as ml join ml.userMessage um where ml.messageStatus.messageStatus=eu.domibus.api.model.MessageStatus.READY_TO_PULL order by um.timestamp desc"),
         @NamedQuery(name = "UserMessageLog.getMessageStatusById", query = "select userMessageLog.messageStatus from UserMessageLog userMessageLog where userMessageLog.userMessage.messageId=:MESSAGE_ID"),
         @NamedQuery(name = "UserMessageLog.getMessageStatusByIdAndRole", query = "select userMessageLog.messageStatus from UserMessageLog userMessageLog where userMessageLog.userMessage.messageId=:MESSAGE_ID and userMessageLog.mshRole.role=:MSH_ROLE"),
@@ -143,6 +160,63 @@ import java.util.Date;
                         "and uml.modificationTime is not null                                                                 " +
                         "and uml.modificationTime < :DATE                                                                     "+
                         "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false)"),
+        @NamedQuery(name = "UserMessageLog.findDeletedUserMessageEntityIdsOlderThan",
+                query = "SELECT uml.entityId " +
+                        "FROM UserMessageLog uml " +
+                        "INNER JOIN uml.userMessage um " +
+                        "INNER JOIN uml.messageStatus mstat " +
+                        "INNER JOIN um.mpc mpc " +
+                        "where mstat.messageStatus = eu.domibus.api.model.MessageStatus.DELETED " +
+                        "and mpc.value = :MPC " +
+                        "and uml.deleted IS NOT NULL " +
+                        "and uml.deleted < :DATE " +
+                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false) " +
+                        "and uml.entityId > :LAST_ENTITY_ID " +
+                        "order by uml.entityId"),
+        @NamedQuery(name = "UserMessageLog.findUndownloadedUserMessageEntityIdsOlderThan",
+                query = "SELECT uml.entityId " +
+                        "FROM UserMessageLog uml " +
+                        "INNER JOIN uml.userMessage um " +
+                        "INNER JOIN uml.messageStatus mstat " +
+                        "INNER JOIN um.mpc mpc " +
+                        "where (mstat.messageStatus = eu.domibus.api.model.MessageStatus.RECEIVED or mstat.messageStatus = eu.domibus.api.model.MessageStatus.RECEIVED_WITH_WARNINGS) " +
+                        "and mpc.value = :MPC " +
+                        "and uml.deleted is null " +
+                        "and uml.received < :DATE " +
+                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false) " +
+                        "and uml.entityId > :LAST_ENTITY_ID " +
+                        "order by uml.entityId"),
+        @NamedQuery(name = "UserMessageLog.findDownloadedUserMessageEntityIdsOlderThan",
+                query = "SELECT uml.entityId " +
+                        "FROM UserMessageLog uml " +
+                        "INNER JOIN uml.userMessage um " +
+                        "INNER JOIN uml.messageStatus mstat " +
+                        "INNER JOIN um.mpc mpc " +
+                        "where mstat.messageStatus = eu.domibus.api.model.MessageStatus.DOWNLOADED " +
+                        "and mpc.value = :MPC " +
+                        "and uml.downloaded is not null and uml.downloaded < :DATE " +
+                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false) " +
+                        "and uml.entityId > :LAST_ENTITY_ID " +
+                        "order by uml.entityId"),
+        @NamedQuery(name = "UserMessageLog.findSentUserMessageEntityIdsOlderThan",
+                query = "SELECT uml.entityId " +
+                        "FROM UserMessageLog uml " +
+                        "INNER JOIN uml.userMessage um " +
+                        "INNER JOIN uml.messageStatus mstat " +
+                        "INNER JOIN um.mpc mpc " +
+                        "where (mstat.messageStatus = eu.domibus.api.model.MessageStatus.ACKNOWLEDGED or mstat.messageStatus = eu.domibus.api.model.MessageStatus.SEND_FAILURE) " +
+                        "and mpc.value = :MPC " +
+                        "and uml.modificationTime is not null " +
+                        "and uml.modificationTime < :DATE " +
+                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false) " +
+                        "and uml.entityId > :LAST_ENTITY_ID " +
+                        "order by uml.entityId"),
+        @NamedQuery(name = "UserMessageLog.findUserMessagesToNotifyOnDeletion",
+                query = "SELECT new eu.domibus.api.model.UserMessageLogDto(um.entityId,um.messageId,uml.backend,p) " +
+                        "FROM UserMessageLog uml " +
+                        "INNER JOIN uml.userMessage um " +
+                        "left join um.messageProperties p " +
+                        "where uml.entityId in :IDS"),
         @NamedQuery(name = "UserMessageLog.findAllMessages",
                 query = "SELECT um.entityId                 as " + UserMessageLogDto.ENTITY_ID + "             ,     " +
                         "       um.messageId                as " + UserMessageLogDto.MESSAGE_ID + "            ,     " +
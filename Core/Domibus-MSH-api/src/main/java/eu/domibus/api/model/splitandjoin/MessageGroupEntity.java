@@ -24,6 +24,8 @@ import java.math.BigInteger;
         @NamedQuery(name = "MessageGroupEntity.findByUserMessageEntityIdWithMessageHeader", query = "SELECT gr FROM MessageFragmentEntity frag join frag.group gr join fetch gr.messageHeaderEntity where frag.entityId= :USER_MESSAGE_ENTITY_ID"),
         @NamedQuery(name = "MessageGroupEntity.findByGroupId", query = "SELECT c FROM MessageGroupEntity c where c.groupId=:GROUP_ID"),
         @NamedQuery(name = "MessageGroupEntity.findByGroupIdWithMessageHeader", query = "SELECT c FROM MessageGroupEntity c left join fetch c.messageHeaderEntity where c.groupId=:GROUP_ID"),
+        @NamedQuery(name = "MessageGroupEntity.incrementSentFragments", query = "UPDATE MessageGroupEntity c set c.sentFragments = coalesce(c.sentFragments, 0) + 1 where c.groupId=:GROUP_ID"),
+        @NamedQuery(name = "MessageGroupEntity.incrementReceivedFragments", query = "UPDATE MessageGroupEntity c set c.receivedFragments = coalesce(c.receivedFragments, 0) + 1 where c.groupId=:GROUP_ID"),
         @NamedQuery(name = "MessageGroupEntity.findReceivedNonExpiredOrRejected", query = "SELECT c FROM MessageGroupEntity c where c.mshRole.role = :MSH_ROLE " +
                 "and c.fragmentCount <> c.receivedFragments and ( (c.rejected is null or c.rejected=false) or (c.expired is null or c.expired=false) )"),
         @NamedQuery(name = "MessageGroupEntity.findSendNonExpiredOrRejected", query = "SELECT c FROM MessageGroupEntity c, UserMessageLog msg join msg.userMessage um where c.mshRole.role = :MSH_ROLE " +
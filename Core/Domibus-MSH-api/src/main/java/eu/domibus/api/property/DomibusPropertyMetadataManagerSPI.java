@@ -83,6 +83,10 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_CRL_BY_URL_CACHE_ENABLED = "domibus.certificate.crlByUrl.cache.enabled";
     String DOMIBUS_CRL_BY_CERT_CACHE_ENABLED = "domibus.certificate.crlByCert.cache.enabled";
     String DOMIBUS_CERTIFICATE_CRL_EXCLUDED_PROTOCOLS = "domibus.certificate.crl.excludedProtocols";
+    String DOMIBUS_CERTIFICATE_CRL_STORE_ENABLED = "domibus.certificate.crl.store.enabled";
+    String DOMIBUS_CERTIFICATE_CRL_STORE_REFRESH_BEFORE = "domibus.certificate.crl.store.refreshBefore";
+    String DOMIBUS_CERTIFICATE_CRL_STORE_MAX_STALE = "domibus.certificate.crl.store.maxStale";
+    String DOMIBUS_CERTIFICATE_CRL_STORE_LOCATION = "domibus.certificate.crl.store.location";
     String DOMIBUS_CERTIFICATE_CRL_HTTP_TIMEOUT = "domibus.certificate.crl.http.timeout";
     String DOMIBUS_PLUGIN_LOGIN_MAXIMUM_ATTEMPT = "domibus.plugin.login.maximum.attempt";
     String DOMIBUS_PLUGIN_LOGIN_SUSPENSION_TIME = "domibus.plugin.login.suspension.time";
@@ -105,8 +109,12 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_PAYLOAD_BUSINESS_CONTENT_ATTACHMENT = "businessContentAttachment";
     String DOMIBUS_PAYLOAD_BUSINESS_CONTENT_ATTACHMENT_ENABLED = "domibus.payload.business.content.attachment.enabled";
     String DOMIBUS_MSH_MESSAGEID_SUFFIX = "domibus.msh.messageid.suffix";
+    String DOMIBUS_MSH_MESSAGEID_GENERATOR = "domibus.msh.messageid.generator";
     String DOMIBUS_MSH_RETRY_MESSAGE_EXPIRATION_DELAY = "domibus.msh.retry.messageExpirationDelay";
     String DOMIBUS_MSH_RETRY_TIMEOUT_DELAY = "domibus.msh.retry.timeoutDelay";
+    String DOMIBUS_MSH_RETRY_SCHEDULER_ENABLED = "domibus.msh.retry.scheduler.enabled";
+    String DOMIBUS_MSH_RETRY_SCHEDULER_LOOK_AHEAD = "domibus.msh.retry.scheduler.lookAhead";
+    String DOMIBUS_MSH_RETRY_SCHEDULER_BATCH_SIZE = "domibus.msh.retry.scheduler.batchSize";
     String DOMIBUS_DYNAMICDISCOVERY_USE_DYNAMIC_DISCOVERY = "domibus.dynamicdiscovery.useDynamicDiscovery";
     String DOMIBUS_SMLZONE = "domibus.smlzone";
     String DOMIBUS_DYNAMICDISCOVERY_CLIENT_SPECIFICATION = "domibus.dynamicdiscovery.client.specification";
@@ -122,6 +130,8 @@ public interface DomibusPropertyMetadataManagerSPI {
 
 
     String DOMIBUS_LIST_PENDING_MESSAGES_MAX_COUNT = "domibus.listPendingMessages.maxCount";
+    String DOMIBUS_LIST_PENDING_MESSAGES_INDEX_ENABLED = "domibus.listPendingMessages.index.enabled";
+    String DOMIBUS_LIST_PENDING_MESSAGES_INDEX_RECONCILIATION_CRON = "domibus.listPendingMessages.index.reconciliation.cron";
     String DOMIBUS_JMS_CONNECTION_FACTORY_SESSION_CACHE_SIZE = "domibus.jms.connectionFactory.session.cache.size";
     String DOMIBUS_JMS_QUEUE_MAX_BROWSE_SIZE = "domibus.jms.queue.maxBrowseSize";
     String DOMIBUS_JMS_INTERNAL_QUEUE_EXPRESSION = "domibus.jms.internalQueue.expression";
@@ -139,6 +149,10 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_SEND_MESSAGE_MESSAGE_ID_PATTERN = "domibus.sendMessage.messageIdPattern";
     String DOMIBUS_PARTYINFO_ROLES_VALIDATION_ENABLED = "domibus.partyinfo.roles.validation.enabled";
     String DOMIBUS_PMODE_LEGCONFIGURATION_MPC_VALIDATION_ENABLED = "domibus.pmode.legconfiguration.mpc.validation.enabled";
+    String DOMIBUS_PMODE_EXCHANGE_CONTEXT_CACHE_MAX_SIZE = "domibus.pmode.exchangeContext.cache.maxSize";
+    String DOMIBUS_DICTIONARY_CACHE_ENABLED = "domibus.dictionary.cache.enabled";
+    String DOMIBUS_DICTIONARY_CACHE_MAX_ENTRIES = "domibus.dictionary.cache.maxEntries";
+    String DOMIBUS_DICTIONARY_CACHE_WARM_UP = "domibus.dictionary.cache.warmUp";
     String DOMIBUS_DATE_TIME_PATTERN_ON_RECEIVING = "domibus.datetime.pattern.onreceiving";
     String DOMIBUS_DATE_TIME_PATTERN_ON_SENDING = "domibus.datetime.pattern.onsending";
     String DOMIBUS_DISPATCHER_CONNECTION_TIMEOUT = "domibus.dispatcher.connectionTimeout";
@@ -156,6 +170,7 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SENT_MAX_DELETE = "domibus.retentionWorker.message.retention.sent.max.delete";
     String DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_PAYLOAD_DELETED_MAX_DELETE = "domibus.retentionWorker.message.retention.payload_deleted.max.delete";
     String DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_BATCH_DELETE = "domibus.retentionWorker.message.retention.batch.delete";
+    String DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_STREAMING_ENABLED = "domibus.retentionWorker.message.retention.streaming.enabled";
     String DOMIBUS_RETENTION_JMS_CONCURRENCY = "domibus.retention.jms.concurrency";
     String DOMIBUS_PARTITIONS_DROP_CHECK_MESSAGES_EARCHIVED = "domibus.partitions.drop.check.messages.earchived";
     String DOMIBUS_DISPATCH_EBMS_ERROR_UNRECOVERABLE_RETRY = "domibus.dispatch.ebms.error.unrecoverable.retry";
@@ -300,6 +315,8 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_PULL_MPC_INITIATOR_SEPARATOR = "domibus.pull.mpc_initiator_separator";
     String DOMIBUS_PULL_RECEIPT_QUEUE_CONCURRENCY = "domibus.pull.receipt.queue.concurrency";
     String DOMIBUS_PULL_QUEUE_CONCURENCY = "domibus.pull.queue.concurency";
+    String DOMIBUS_PULL_LEASE_BATCH_SIZE = "domibus.pull.lease.batchSize";
+    String DOMIBUS_PULL_LEASE_DURATION = "domibus.pull.lease.duration";
 
     String DOMIBUS_EXTENSION_IAM_AUTHENTICATION_IDENTIFIER = "domibus.extension.iam.authentication.identifier";
     String DOMIBUS_EXTENSION_IAM_AUTHORIZATION_IDENTIFIER = "domibus.extension.iam.authorization.identifier";
@@ -310,6 +327,10 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_PAYLOAD_TEMP_JOB_RETENTION_DIRECTORIES = "domibus.payload.temp.job.retention.directories";
     String DOMIBUS_PAYLOAD_LIMIT_28ATTACHMENTS_PER_MESSAGE = "domibus.payload.limit.28attachments.per.message";
     String DOMIBUS_PAYLOAD_DECOMPRESSION_VALIDATION_ACTIVE = "domibus.payload.decompression.validation.active";
+    String DOMIBUS_PAYLOAD_DATABASE_STREAMING_ENABLED = "domibus.payload.database.streaming.enabled";
+    String DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_ENABLED = "domibus.payload.compression.adaptive.enabled";
+    String DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_SAMPLE_SIZE = "domibus.payload.compression.adaptive.sampleSize";
+    String DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_MIN_GAIN = "domibus.payload.compression.adaptive.minGain";
     String DOMIBUS_INSTANCE_NAME = "domibus.instance.name";
 
     String DOMIBUS_CONFIG_LOCATION = "domibus.config.location";
@@ -388,6 +409,8 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_JDBC_DATASOURCE_QUARTZ_JNDI_NAME = "domibus.jdbc.datasource.quartz.jndi.name";
     String DOMIBUS_METRICS_MONITOR_JMS_QUEUES_REFRESH_PERIOD = "domibus.metrics.monitor.jms.queues.refresh.period";
     String DOMIBUS_METRICS_MONITOR_JMS_QUEUES_SHOW_DLQ_ONLY = "domibus.metrics.monitor.jms.queues.show.dlq.only";
+    String DOMIBUS_METRICS_MONITOR_STAGES = "domibus.metrics.monitor.stages";
+    String DOMIBUS_METRICS_MONITOR_STAGES_SLOWEST_MESSAGES = "domibus.metrics.monitor.stages.slowest.messages";
     String DOMIBUS_SCHEMAFACTORY = "domibus.javax.xml.validation.SchemaFactory";
     String DOMIBUS_RESEND_BUTTON_ENABLED_RECEIVED_MINUTES = "domibus.ui.resend.action.enabled.received.minutes";
     String DOMIBUS_UI_SESSION_SECURE = "domibus.ui.session.secure";
@@ -401,6 +424,7 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_ERRORLOG_CLEANER_BATCH_SIZE = "domibus.errorlog.cleaner.batch.size";
 
     String DOMIBUS_DYNAMICDISCOVERY_LOOKUP_CACHE_TTL ="domibus.dynamicdiscovery.lookup.cache.ttl";
+    String DOMIBUS_DYNAMICDISCOVERY_LOOKUP_CACHE_REFRESH_AHEAD = "domibus.dynamicdiscovery.lookup.cache.refreshAhead";
     String DOMIBUS_DYNAMICDISCOVERY_CLEAN_RETENTION_CRON = "domibus.dynamicdiscovery.lookup.clean.retention.cron";
     String DOMIBUS_DYNAMICDISCOVERY_CLEAN_RETENTION_HOURS = "domibus.dynamicdiscovery.lookup.clean.retention.hours";
 
@@ -412,6 +436,7 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_EARCHIVE_SANITY_DELAY = "domibus.earchive.sanitizer.messagesCheck.delay.hours";
     String DOMIBUS_EARCHIVE_BATCH_SIZE = "domibus.earchive.batch.size";
     String DOMIBUS_EARCHIVE_BATCH_SIZE_PAYLOAD = "domibus.earchive.batch.size.payload";
+    String DOMIBUS_EARCHIVE_EXPORT_THREADS = "domibus.earchive.export.threads";
     String DOMIBUS_EARCHIVE_BATCH_MAX = "domibus.earchive.batch.max";
     String DOMIBUS_EARCHIVE_BATCH_RETRY_TIMEOUT = "domibus.earchive.batch.retry.timeout";
     String DOMIBUS_EARCHIVE_BATCH_MPCS = "domibus.earchive.batch.mpcs";
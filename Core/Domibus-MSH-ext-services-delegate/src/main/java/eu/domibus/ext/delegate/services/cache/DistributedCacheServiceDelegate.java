@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Delegate service for the distributed cache
@@ -56,6 +57,21 @@ public class DistributedCacheServiceDelegate implements DistributedCacheExtServi
         distributedCacheService.evictEntryFromCache(cacheName, key);
     }
 
+    @Override
+    public Map<String, Object> getEntriesFromCache(String cacheName, Set<String> keys) throws CacheExtServiceException {
+        return distributedCacheService.getEntriesFromCache(cacheName, keys);
+    }
+
+    @Override
+    public void addEntriesInCache(String cacheName, Map<String, Object> entries) throws CacheExtServiceException {
+        distributedCacheService.addEntriesInCache(cacheName, entries);
+    }
+
+    @Override
+    public void evictEntriesFromCache(String cacheName, Set<String> keys) throws CacheExtServiceException {
+        distributedCacheService.evictEntriesFromCache(cacheName, keys);
+    }
+
     @Override
     public List<String> getDistributedCacheNames() {
         return distributedCacheService.getDistributedCacheNames();
@@ -27,6 +27,11 @@ public class JmsMessageCreator implements MessageCreator {
             message.setJMSPriority(priority);
             message.setStringProperty(InternalJmsMessage.MESSAGE_PRIORITY_USED, "true");
         }
+
+        Long deliveryDelay = internalJmsMessage.getDeliveryDelay();
+        if (deliveryDelay != null && deliveryDelay > 0) {
+            message.setLongProperty(InternalJmsMessage.MESSAGE_DELIVERY_DELAY, deliveryDelay);
+        }
         return message;
     }
 
@@ -11,7 +11,7 @@ import javax.jms.Message;
 import javax.jms.MessageProducer;
 
 /**
- * Custom JMS Template implementation that uses priority set on the JMS Message
+ * Custom JMS Template implementation that uses priority and the delivery delay set on the JMS Message
  *
  * @author Cosmin Baciu
  * @since 4.2
@@ -31,7 +31,25 @@ public class PriorityJmsTemplate extends JmsTemplate {
             LOG.trace("Using message priority [{}]", messagePriority);
             priority = messagePriority;
         }
+        if (message.propertyExists(InternalJmsMessage.MESSAGE_DELIVERY_DELAY)) {
+            long deliveryDelay = message.getLongProperty(InternalJmsMessage.MESSAGE_DELIVERY_DELAY);
+            LOG.debug("Sending message with priority [{}] and delivery delay [{}] ms", priority, deliveryDelay);
+            doSendWithDeliveryDelay(producer, message, priority, deliveryDelay);
+            return;
+        }
         LOG.debug("Sending message with priority [{}]", priority);
         producer.send(message, getDeliveryMode(), priority, getTimeToLive());
     }
+
+    /**
+     * Sends the message using the JMS 2.0 delivery delay of the producer. The producer might be cached and reused so the delay is reset after sending.
+     */
+    protected void doSendWithDeliveryDelay(MessageProducer producer, Message message, int priority, long deliveryDelay) throws JMSException {
+        producer.setDeliveryDelay(deliveryDelay);
+        try {
+            producer.send(message, getDeliveryMode(), priority, getTimeToLive());
+        } finally {
+            producer.setDeliveryDelay(0);
+        }
+    }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import mockit.Expectations;
 import mockit.Injectable;
 import mockit.Tested;
 import mockit.Verifications;
+import mockit.VerificationsInOrder;
 import mockit.integration.junit4.JMockit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -76,4 +77,37 @@ public class PriorityJmsTemplateTest {
             producer.send(message, DeliveryMode.PERSISTENT, messagePriority, timeToLive);
         }};
     }
-}
\ No newline at end of file
+
+    @Test
+    public void doSendWithDeliveryDelay(@Injectable MessageProducer producer,
+                                        @Injectable Message message) throws JMSException {
+        Integer defaultPriority = 4;
+        Long timeToLive = 23L;
+        long deliveryDelay = 5000L;
+
+        new Expectations(priorityJmsTemplate) {{
+            priorityJmsTemplate.getPriority();
+            result = defaultPriority;
+
+            message.propertyExists(InternalJmsMessage.MESSAGE_DELIVERY_DELAY);
+            result = true;
+
+            message.getLongProperty(InternalJmsMessage.MESSAGE_DELIVERY_DELAY);
+            result = deliveryDelay;
+
+            priorityJmsTemplate.getDeliveryMode();
+            result = DeliveryMode.PERSISTENT;
+
+            priorityJmsTemplate.getTimeToLive();
+            result = timeToLive;
+        }};
+
+        priorityJmsTemplate.doSend(producer, message);
+
+        new VerificationsInOrder() {{
+            producer.setDeliveryDelay(deliveryDelay);
+            producer.send(message, DeliveryMode.PERSISTENT, defaultPriority, timeToLive);
+            producer.setDeliveryDelay(0);
+        }};
+    }
+}
@@ -12,6 +12,8 @@ public class InternalJmsMessage {
 
 	public static final String MESSAGE_PRIORITY_USED = "messagePriorityUsed";
 
+	public static final String MESSAGE_DELIVERY_DELAY = "messageDeliveryDelay";
+
 	public enum MessageType {
 		TEXT_MESSAGE,
 		MAP_MESSAGE
@@ -23,6 +25,7 @@ public class InternalJmsMessage {
 	protected String content;
 	protected Date timestamp;
 	protected Integer priority;
+	protected Long deliveryDelay;
 	protected MessageType messageType = MessageType.TEXT_MESSAGE;
 
 	protected Map<String, String> properties = new HashMap<>();
@@ -127,6 +130,17 @@ public class InternalJmsMessage {
 		this.priority = priority;
 	}
 
+	/**
+	 * The delay in milliseconds after which the message is delivered to the consumers
+	 */
+	public Long getDeliveryDelay() {
+		return deliveryDelay;
+	}
+
+	public void setDeliveryDelay(Long deliveryDelay) {
+		this.deliveryDelay = deliveryDelay;
+	}
+
 	@Override
 	public String toString() {
 		return new org.apache.commons.lang3.builder.ToStringBuilder(this)
@@ -33,4 +33,11 @@ public class ClusterCacheServiceNotifier implements DomibusCacheServiceNotifier
 
         signalService.signalClear2LCCaches();
     }
+
+    @Override
+    public void notifyDictionaryEntryCreated(String dictionaryName, long entityId) {
+        LOG.debug("Received notification about the creation of dictionary entry [{}] with id [{}]", dictionaryName, entityId);
+
+        signalService.signalDictionaryEntryCreated(dictionaryName, entityId);
+    }
 }
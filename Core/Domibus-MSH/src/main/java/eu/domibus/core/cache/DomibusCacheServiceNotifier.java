@@ -9,4 +9,6 @@ public interface DomibusCacheServiceNotifier {
     void notifyClearAllCaches();
 
     void notifyClear2LCaches();
+
+    void notifyDictionaryEntryCreated(String dictionaryName, long entityId);
 }
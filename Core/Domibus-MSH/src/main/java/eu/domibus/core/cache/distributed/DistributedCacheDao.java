@@ -6,7 +6,10 @@ import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.DistributedObject;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import com.hazelcast.nearcache.NearCacheStats;
 import eu.domibus.api.cache.DomibusCacheException;
+import eu.domibus.api.cache.distributed.DistributedCacheEntryFunction;
+import eu.domibus.api.cache.distributed.NearCacheStatistics;
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.core.cache.distributed.configuration.DomibusDistributedCacheConfigurationHelper;
 import eu.domibus.logging.DomibusLogger;
@@ -17,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
 
@@ -140,6 +144,49 @@ public class DistributedCacheDao {
         LOGGER.info("Removed key [{}] from cache [{}]", key, cacheName);
     }
 
+    /**
+     * The entries present in the near cache are read locally, the others with one call per member owning some of them
+     */
+    public Map<String, Object> getEntriesFromCache(String cacheName, Set<String> keys) {
+        validateCacheExists(cacheName);
+        final IMap<String, Object> cache = createCacheIfNeeded(cacheName);
+        LOGGER.debug("Getting [{}] entries from cache [{}]", keys.size(), cacheName);
+        return cache.getAll(keys);
+    }
+
+    public void addEntriesInCache(String cacheName, Map<String, Object> entries) {
+        validateCacheExists(cacheName);
+        final IMap<String, Object> cache = createCacheIfNeeded(cacheName);
+        cache.setAll(entries);
+        LOGGER.info("Added [{}] entries in cache [{}]", entries.size(), cacheName);
+    }
+
+    public void removeEntriesFromCache(String cacheName, Set<String> keys) {
+        validateCacheExists(cacheName);
+        final IMap<String, Object> cache = createCacheIfNeeded(cacheName);
+        cache.executeOnKeys(keys, new DistributedCacheEntryProcessor(DistributedCacheEntryProcessor.REMOVE));
+        LOGGER.info("Removed keys [{}] from cache [{}]", keys, cacheName);
+    }
+
+    public Object computeEntryInCache(String cacheName, String key, DistributedCacheEntryFunction function) {
+        validateCacheExists(cacheName);
+        final IMap<String, Object> cache = createCacheIfNeeded(cacheName);
+        LOGGER.debug("Computing entry [{}] in cache [{}]", key, cacheName);
+        return cache.executeOnKey(key, new DistributedCacheEntryProcessor(function));
+    }
+
+    public NearCacheStatistics getNearCacheStatistics(String cacheName) {
+        validateCacheExists(cacheName);
+        final IMap<String, Object> cache = createCacheIfNeeded(cacheName);
+        final NearCacheStats nearCacheStats = cache.getLocalMapStats().getNearCacheStats();
+        if (nearCacheStats == null) {
+            LOGGER.debug("Cache [{}] has no near cache", cacheName);
+            return null;
+        }
+        return new NearCacheStatistics(nearCacheStats.getOwnedEntryCount(), nearCacheStats.getHits(), nearCacheStats.getMisses(),
+                nearCacheStats.getInvalidations(), nearCacheStats.getEvictions(), nearCacheStats.getExpirations());
+    }
+
     public Map<String, Object> getEntriesFromCache(String cacheName) {
         validateCacheExists(cacheName);
         return createCacheIfNeeded(cacheName);
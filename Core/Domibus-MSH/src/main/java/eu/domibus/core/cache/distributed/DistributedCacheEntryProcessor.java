@@ -0,0 +1,35 @@
+package eu.domibus.core.cache.distributed;
+
+import com.hazelcast.map.EntryProcessor;
+import eu.domibus.api.cache.distributed.DistributedCacheEntryFunction;
+
+import java.util.Map;
+
+/**
+ * Applies a {@link DistributedCacheEntryFunction} on the cluster member owning the entry, so that the entry is read and
+ * written without sending its value back and forth. Setting a null value removes the entry.
+ *
+ * @since 5.2
+ */
+public class DistributedCacheEntryProcessor implements EntryProcessor<String, Object, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Removes the entry
+     */
+    protected static final DistributedCacheEntryFunction REMOVE = (key, value) -> null;
+
+    protected final DistributedCacheEntryFunction function;
+
+    public DistributedCacheEntryProcessor(DistributedCacheEntryFunction function) {
+        this.function = function;
+    }
+
+    @Override
+    public Object process(Map.Entry<String, Object> entry) {
+        final Object newValue = function.apply(entry.getKey(), entry.getValue());
+        entry.setValue(newValue);
+        return newValue;
+    }
+}
@@ -2,15 +2,20 @@ package eu.domibus.core.cache.distributed;
 
 import eu.domibus.api.cache.DomibusCacheException;
 import eu.domibus.api.cache.DomibusLocalCacheService;
+import eu.domibus.api.cache.distributed.DistributedCacheEntryFunction;
 import eu.domibus.api.cache.distributed.DistributedCacheService;
+import eu.domibus.api.cache.distributed.NearCacheStatistics;
 import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Cosmin Baciu
@@ -26,6 +31,11 @@ public class DistributedCacheServiceImpl implements DistributedCacheService {
     protected DomibusLocalCacheService domibusLocalCacheService;
     protected DomibusConfigurationService domibusConfigurationService;
 
+    /**
+     * Serializes the computations of the entries of each local cache, in a non cluster environment
+     */
+    protected final Map<String, Object> localComputeLocks = new ConcurrentHashMap<>();
+
     public DistributedCacheServiceImpl(@Autowired(required = false) DistributedCacheDao distributedCacheDao,//in single tenancy this bean is not created so the injection is not required
                                        DomibusLocalCacheService domibusLocalCacheService,
                                        DomibusConfigurationService domibusConfigurationService) {
@@ -92,6 +102,68 @@ public class DistributedCacheServiceImpl implements DistributedCacheService {
         domibusLocalCacheService.evictEntryFromCache(cacheName, key);
     }
 
+    @Override
+    public Map<String, Object> getEntriesFromCache(String cacheName, Set<String> keys) {
+        if (isClusterDeployment()) {
+            return distributedCacheDao.getEntriesFromCache(cacheName, keys);
+        }
+        //for single instance defaults to local cache
+        Map<String, Object> result = new HashMap<>();
+        for (String key : keys) {
+            final Object value = domibusLocalCacheService.getEntryFromCache(cacheName, key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void addEntriesInCache(String cacheName, Map<String, Object> entries) {
+        if (isClusterDeployment()) {
+            distributedCacheDao.addEntriesInCache(cacheName, entries);
+            return;
+        }
+        //for single instance defaults to local cache
+        entries.forEach((key, value) -> domibusLocalCacheService.addEntryInCache(cacheName, key, value));
+    }
+
+    @Override
+    public void evictEntriesFromCache(String cacheName, Set<String> keys) {
+        if (isClusterDeployment()) {
+            distributedCacheDao.removeEntriesFromCache(cacheName, keys);
+            return;
+        }
+        //for single instance defaults to local cache
+        keys.forEach(key -> domibusLocalCacheService.evictEntryFromCache(cacheName, key));
+    }
+
+    @Override
+    public Object computeEntryInCache(String cacheName, String key, DistributedCacheEntryFunction function) {
+        if (isClusterDeployment()) {
+            return distributedCacheDao.computeEntryInCache(cacheName, key, function);
+        }
+        //for single instance defaults to local cache
+        synchronized (localComputeLocks.computeIfAbsent(cacheName, name -> new Object())) {
+            final Object newValue = function.apply(key, domibusLocalCacheService.getEntryFromCache(cacheName, key));
+            if (newValue == null) {
+                domibusLocalCacheService.evictEntryFromCache(cacheName, key);
+            } else {
+                domibusLocalCacheService.addEntryInCache(cacheName, key, newValue);
+            }
+            return newValue;
+        }
+    }
+
+    @Override
+    public NearCacheStatistics getNearCacheStatistics(String cacheName) {
+        if (isClusterDeployment()) {
+            return distributedCacheDao.getNearCacheStatistics(cacheName);
+        }
+        LOGGER.debug("No near cache for cache [{}] in a non cluster environment", cacheName);
+        return null;
+    }
+
     @Override
     public List<String> getDistributedCacheNames() {
         if (isClusterDeployment()) {
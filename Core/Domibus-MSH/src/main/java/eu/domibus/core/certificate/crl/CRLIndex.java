@@ -0,0 +1,221 @@
+package eu.domibus.core.certificate.crl;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.util.*;
+
+/**
+ * Immutable index of the serial numbers revoked by a CRL, grouped by certificate issuer (an indirect CRL can revoke
+ * certificates of several issuers). The serial numbers of each issuer are kept sorted in a single byte array, so that
+ * the revocation check is a binary search instead of a lookup in the parsed CRL.
+ *
+ * @since 5.2
+ */
+public class CRLIndex {
+
+    protected static final int FORMAT_VERSION = 1;
+
+    protected final String url;
+
+    protected final long thisUpdate;
+
+    /**
+     * 0 if the CRL does not specify its next update
+     */
+    protected final long nextUpdate;
+
+    protected final long loadedAt;
+
+    protected final Map<X500Principal, RevokedSerials> revokedSerialsByIssuer;
+
+    protected CRLIndex(String url, long thisUpdate, long nextUpdate, long loadedAt, Map<X500Principal, RevokedSerials> revokedSerialsByIssuer) {
+        this.url = url;
+        this.thisUpdate = thisUpdate;
+        this.nextUpdate = nextUpdate;
+        this.loadedAt = loadedAt;
+        this.revokedSerialsByIssuer = revokedSerialsByIssuer;
+    }
+
+    public static CRLIndex fromCRL(String url, X509CRL crl, long loadedAt) {
+        final Map<X500Principal, List<byte[]>> serialsByIssuer = new HashMap<>();
+        final Set<? extends X509CRLEntry> revokedCertificates = crl.getRevokedCertificates();
+        if (revokedCertificates != null) {
+            for (X509CRLEntry entry : revokedCertificates) {
+                // the certificate issuer is only present in the entries of indirect CRLs
+                final X500Principal issuer = entry.getCertificateIssuer() != null ? entry.getCertificateIssuer() : crl.getIssuerX500Principal();
+                serialsByIssuer.computeIfAbsent(issuer, key -> new ArrayList<>()).add(entry.getSerialNumber().toByteArray());
+            }
+        }
+
+        final Map<X500Principal, RevokedSerials> revokedSerialsByIssuer = new HashMap<>();
+        serialsByIssuer.forEach((issuer, serials) -> revokedSerialsByIssuer.put(issuer, RevokedSerials.of(serials)));
+        return new CRLIndex(url, crl.getThisUpdate().getTime(), crl.getNextUpdate() != null ? crl.getNextUpdate().getTime() : 0, loadedAt, revokedSerialsByIssuer);
+    }
+
+    public boolean isRevoked(X509Certificate cert) {
+        final RevokedSerials revokedSerials = revokedSerialsByIssuer.get(cert.getIssuerX500Principal());
+        return revokedSerials != null && revokedSerials.contains(cert.getSerialNumber());
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public long getThisUpdate() {
+        return thisUpdate;
+    }
+
+    public long getNextUpdate() {
+        return nextUpdate;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public int getRevokedCount() {
+        return revokedSerialsByIssuer.values().stream().mapToInt(RevokedSerials::size).sum();
+    }
+
+    /**
+     * @return the approximate memory used by the serial numbers, in bytes
+     */
+    public long getIndexSize() {
+        return revokedSerialsByIssuer.values().stream().mapToLong(RevokedSerials::getIndexSize).sum();
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(url);
+        out.writeLong(thisUpdate);
+        out.writeLong(nextUpdate);
+        out.writeLong(loadedAt);
+        out.writeInt(revokedSerialsByIssuer.size());
+        for (Map.Entry<X500Principal, RevokedSerials> entry : revokedSerialsByIssuer.entrySet()) {
+            writeBytes(out, entry.getKey().getEncoded());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    public static CRLIndex readFrom(DataInputStream in) throws IOException {
+        final int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported CRL index format [" + version + "]");
+        }
+        final String url = in.readUTF();
+        final long thisUpdate = in.readLong();
+        final long nextUpdate = in.readLong();
+        final long loadedAt = in.readLong();
+        final int issuerCount = in.readInt();
+        final Map<X500Principal, RevokedSerials> revokedSerialsByIssuer = new HashMap<>();
+        for (int i = 0; i < issuerCount; i++) {
+            final X500Principal issuer = new X500Principal(readBytes(in));
+            revokedSerialsByIssuer.put(issuer, RevokedSerials.readFrom(in));
+        }
+        return new CRLIndex(url, thisUpdate, nextUpdate, loadedAt, revokedSerialsByIssuer);
+    }
+
+    protected static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    protected static byte[] readBytes(DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Serial numbers (two's complement encoding) sorted by length and then by unsigned byte values, stored one after
+     * the other in {@code serials}; the serial number {@code i} starts at {@code offsets[i]} and ends at {@code offsets[i + 1]}.
+     */
+    protected static class RevokedSerials {
+
+        protected static final Comparator<byte[]> SERIAL_ORDER = (first, second) -> compare(first, 0, first.length, second);
+
+        protected final byte[] serials;
+
+        protected final int[] offsets;
+
+        protected RevokedSerials(byte[] serials, int[] offsets) {
+            this.serials = serials;
+            this.offsets = offsets;
+        }
+
+        protected static RevokedSerials of(List<byte[]> serialList) {
+            serialList.sort(SERIAL_ORDER);
+            final int[] offsets = new int[serialList.size() + 1];
+            for (int i = 0; i < serialList.size(); i++) {
+                offsets[i + 1] = offsets[i] + serialList.get(i).length;
+            }
+            final byte[] serials = new byte[offsets[serialList.size()]];
+            for (int i = 0; i < serialList.size(); i++) {
+                System.arraycopy(serialList.get(i), 0, serials, offsets[i], serialList.get(i).length);
+            }
+            return new RevokedSerials(serials, offsets);
+        }
+
+        protected boolean contains(BigInteger serialNumber) {
+            final byte[] serial = serialNumber.toByteArray();
+            int low = 0;
+            int high = size() - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int comparison = compare(serials, offsets[middle], offsets[middle + 1], serial);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        protected int size() {
+            return offsets.length - 1;
+        }
+
+        protected long getIndexSize() {
+            return serials.length + 4L * offsets.length;
+        }
+
+        protected static int compare(byte[] array, int from, int to, byte[] serial) {
+            final int length = to - from;
+            if (length != serial.length) {
+                return Integer.compare(length, serial.length);
+            }
+            for (int i = 0; i < length; i++) {
+                final int comparison = Integer.compare(array[from + i] & 0xff, serial[i] & 0xff);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return 0;
+        }
+
+        protected void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(offsets.length);
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            writeBytes(out, serials);
+        }
+
+        protected static RevokedSerials readFrom(DataInputStream in) throws IOException {
+            final int[] offsets = new int[in.readInt()];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = in.readInt();
+            }
+            return new RevokedSerials(readBytes(in), offsets);
+        }
+    }
+}
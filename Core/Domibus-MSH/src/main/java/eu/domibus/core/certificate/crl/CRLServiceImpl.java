@@ -37,6 +37,9 @@ public class CRLServiceImpl implements CRLService {
     @Autowired
     private DomibusLocalCacheService domibusLocalCacheService;
 
+    @Autowired
+    protected CRLStore crlStore;
+
     private volatile List<String> supportedCrlProtocols;
 
     private Object supportedCrlProtocolsLock = new Object();
@@ -97,6 +100,14 @@ public class CRLServiceImpl implements CRLService {
     }
 
     protected boolean isCertificateRevoked(X509Certificate cert, String crlDistributionPointURL) {
+        if (crlStore.isEnabled()) {
+            LOG.debug("Checking the certificate against the indexed CRL [{}]", crlDistributionPointURL);
+            if (crlStore.isRevoked(cert, crlDistributionPointURL)) {
+                LOG.warn("The certificate is revoked by CRL: " + crlDistributionPointURL);
+                return true;
+            }
+            return false;
+        }
         boolean useCache = BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_CRL_BY_URL_CACHE_ENABLED));
         LOG.debug("CRL by url cache is [{}]", useCache ? "enabled" : "disabled");
         X509CRL crl = crlUtil.downloadCRL(crlDistributionPointURL, useCache);
@@ -141,6 +152,7 @@ public class CRLServiceImpl implements CRLService {
         LOG.debug("Clearing supported Crl protocols and cache.");
         this.supportedCrlProtocols = null;
         this.domibusLocalCacheService.clearCache(DomibusLocalCacheService.CRL_BY_CERT);
+        this.crlStore.clear();
     }
 
 }
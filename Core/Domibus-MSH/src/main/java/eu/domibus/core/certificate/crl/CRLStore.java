@@ -0,0 +1,215 @@
+package eu.domibus.core.certificate.crl;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
+
+/**
+ * Keeps the CRLs of the distribution points as {@link CRLIndex}es, so that the revocation check does not download or parse the CRL.
+ * <p>
+ * An index is refreshed in the background once its CRL is about to expire (a few minutes before its next update) while
+ * the current index is still used. The index is downloaded synchronously only the first time or when it expired for
+ * more than the configured maximum staleness. The indexes are saved on disk and reloaded after a restart.
+ *
+ * @since 5.2
+ */
+@Service
+public class CRLStore {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(CRLStore.class);
+
+    protected static final String INDEX_FILE_EXTENSION = ".idx";
+
+    protected final CRLUtil crlUtil;
+
+    protected final DomibusPropertyProvider domibusPropertyProvider;
+
+    protected final DomainTaskExecutor domainTaskExecutor;
+
+    protected final MetricRegistry metricRegistry;
+
+    protected final Map<String, CRLIndex> indexes = new ConcurrentHashMap<>();
+
+    protected final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public CRLStore(CRLUtil crlUtil, DomibusPropertyProvider domibusPropertyProvider, DomainTaskExecutor domainTaskExecutor, MetricRegistry metricRegistry) {
+        this.crlUtil = crlUtil;
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.domainTaskExecutor = domainTaskExecutor;
+        this.metricRegistry = metricRegistry;
+    }
+
+    public boolean isEnabled() {
+        return BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_CERTIFICATE_CRL_STORE_ENABLED));
+    }
+
+    /**
+     * @param cert                    the certificate to be checked
+     * @param crlDistributionPointURL the distribution point of the CRL
+     * @return true if the certificate is revoked by the CRL of the distribution point
+     * @throws DomibusCRLException if the CRL could not be downloaded
+     */
+    public boolean isRevoked(X509Certificate cert, String crlDistributionPointURL) throws DomibusCRLException {
+        return getIndex(crlDistributionPointURL).isRevoked(cert);
+    }
+
+    protected CRLIndex getIndex(String crlURL) {
+        final long now = System.currentTimeMillis();
+        CRLIndex index = indexes.get(crlURL);
+        if (index == null) {
+            index = loadFromDisk(crlURL);
+        }
+        if (index == null || now >= getExpiration(index) + getMaxStale()) {
+            LOG.debug("No usable index for the CRL [{}]: downloading it", crlURL);
+            return refresh(crlURL);
+        }
+        if (now >= getExpiration(index) - getRefreshBefore()) {
+            scheduleRefresh(crlURL);
+        }
+        return index;
+    }
+
+    /**
+     * The time after which the CRL is expected to be replaced: its next update or, if it does not specify one, the time it was loaded plus the maximum staleness
+     */
+    protected long getExpiration(CRLIndex index) {
+        if (index.getNextUpdate() > 0) {
+            return index.getNextUpdate();
+        }
+        return index.getLoadedAt() + getMaxStale();
+    }
+
+    protected void scheduleRefresh(String crlURL) {
+        if (!refreshing.add(crlURL)) {
+            LOG.trace("The CRL [{}] is already being refreshed", crlURL);
+            return;
+        }
+        LOG.debug("Refreshing the CRL [{}] in the background", crlURL);
+        try {
+            domainTaskExecutor.submit(() -> {
+                try {
+                    refresh(crlURL);
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not refresh the CRL [{}]: the current one is used until it becomes too old", crlURL, e);
+                } finally {
+                    refreshing.remove(crlURL);
+                }
+            }, false);
+        } catch (RuntimeException e) {
+            refreshing.remove(crlURL);
+            LOG.warn("Could not schedule the refresh of the CRL [{}]", crlURL, e);
+        }
+    }
+
+    protected CRLIndex refresh(String crlURL) {
+        final X509CRL crl = crlUtil.downloadCRL(crlURL, false);
+        final CRLIndex index = CRLIndex.fromCRL(crlURL, crl, System.currentTimeMillis());
+        LOG.debug("Indexed [{}] revoked certificates of the CRL [{}], next update [{}]", index.getRevokedCount(), crlURL, crl.getNextUpdate());
+        putIndex(index);
+        saveToDisk(index);
+        return index;
+    }
+
+    protected void putIndex(CRLIndex index) {
+        if (indexes.put(index.getUrl(), index) == null) {
+            registerMetrics(index.getUrl());
+        }
+    }
+
+    protected void registerMetrics(String crlURL) {
+        metricRegistry.gauge(name(CRLStore.class, crlURL, "revoked_certificates"), () -> indexGauge(crlURL, index -> (long) index.getRevokedCount()));
+        metricRegistry.gauge(name(CRLStore.class, crlURL, "index_bytes"), () -> indexGauge(crlURL, CRLIndex::getIndexSize));
+        metricRegistry.gauge(name(CRLStore.class, crlURL, "age_seconds"), () -> indexGauge(crlURL, index -> TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - index.getLoadedAt())));
+        metricRegistry.gauge(name(CRLStore.class, crlURL, "seconds_to_expiration"), () -> indexGauge(crlURL, index -> TimeUnit.MILLISECONDS.toSeconds(getExpiration(index) - System.currentTimeMillis())));
+    }
+
+    protected Gauge<Long> indexGauge(String crlURL, ToLongFunction<CRLIndex> value) {
+        return () -> {
+            final CRLIndex index = indexes.get(crlURL);
+            return index == null ? null : value.applyAsLong(index);
+        };
+    }
+
+    protected CRLIndex loadFromDisk(String crlURL) {
+        final File indexFile = getIndexFile(crlURL);
+        if (indexFile == null || !indexFile.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            final CRLIndex index = CRLIndex.readFrom(in);
+            if (!StringUtils.equals(crlURL, index.getUrl())) {
+                LOG.warn("The file [{}] contains the index of the CRL [{}] instead of [{}]", indexFile, index.getUrl(), crlURL);
+                return null;
+            }
+            LOG.debug("Loaded the index of the CRL [{}] from file [{}]", crlURL, indexFile);
+            putIndex(index);
+            return index;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not load the index of the CRL [{}] from file [{}]", crlURL, indexFile, e);
+            return null;
+        }
+    }
+
+    protected void saveToDisk(CRLIndex index) {
+        final File indexFile = getIndexFile(index.getUrl());
+        if (indexFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(indexFile.getParentFile().toPath());
+            final File tempFile = File.createTempFile(indexFile.getName(), null, indexFile.getParentFile());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                index.writeTo(out);
+            }
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            LOG.debug("Saved the index of the CRL [{}] into file [{}]", index.getUrl(), indexFile);
+        } catch (IOException e) {
+            LOG.warn("Could not save the index of the CRL [{}] into file [{}]", index.getUrl(), indexFile, e);
+        }
+    }
+
+    protected File getIndexFile(String crlURL) {
+        final String location = domibusPropertyProvider.getProperty(DOMIBUS_CERTIFICATE_CRL_STORE_LOCATION);
+        if (StringUtils.isBlank(location)) {
+            return null;
+        }
+        return new File(location, DigestUtils.sha256Hex(crlURL) + INDEX_FILE_EXTENSION);
+    }
+
+    protected long getRefreshBefore() {
+        return TimeUnit.SECONDS.toMillis(domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_CRL_STORE_REFRESH_BEFORE));
+    }
+
+    protected long getMaxStale() {
+        return TimeUnit.SECONDS.toMillis(domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_CRL_STORE_MAX_STALE));
+    }
+
+    /**
+     * Removes the indexes from memory; they are reloaded from disk or downloaded when used
+     */
+    public void clear() {
+        LOG.debug("Clearing the CRL indexes");
+        indexes.clear();
+    }
+}
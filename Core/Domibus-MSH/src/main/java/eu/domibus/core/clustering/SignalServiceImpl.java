@@ -209,6 +209,21 @@ public class SignalServiceImpl implements SignalService {
         signalDomainOperation(domainCode, Command.DOMAIN_REMOVED);
     }
 
+    @Override
+    public void signalDictionaryEntryCreated(String dictionaryName, long entityId) {
+        Domain domain = domainContextProvider.getCurrentDomainSafely();
+        String domainCode = domain == null ? null : domain.getCode();
+        LOG.debug("Signaling creation of dictionary entry [{}] with id [{}] on [{}] domain", dictionaryName, entityId, domainCode);
+
+        Map<String, String> commandProperties = new HashMap<>();
+        commandProperties.put(Command.COMMAND, Command.DICTIONARY_ENTRY_CREATED);
+        commandProperties.put(CommandProperty.DICTIONARY_NAME, dictionaryName);
+        commandProperties.put(CommandProperty.ENTITY_ID, String.valueOf(entityId));
+        commandProperties.put(MessageConstants.DOMAIN, domainCode);
+
+        sendMessage(commandProperties);
+    }
+
     private void signalOperation(String domainCode, String command) {
         LOG.debug("Signaling [{}] command on [{}] domain", command, domainCode);
 
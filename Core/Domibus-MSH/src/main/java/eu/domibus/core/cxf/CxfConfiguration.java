@@ -1,12 +1,19 @@
 package eu.domibus.core.cxf;
 
 import eu.domibus.core.ebms3.ws.attachment.AttachmentCleanupInterceptor;
+import eu.domibus.core.metrics.MessageStage;
+import eu.domibus.core.metrics.StageTimingInterceptor;
+import eu.domibus.core.metrics.StageTimingService;
 import eu.domibus.core.ssl.offload.SslOffloadService;
 import org.apache.cxf.Bus;
+import org.apache.cxf.binding.soap.saaj.SAAJInInterceptor;
 import org.apache.cxf.bus.spring.BusExtensionPostProcessor;
 import org.apache.cxf.bus.spring.BusWiringBeanFactoryPostProcessor;
+import org.apache.cxf.phase.Phase;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
+import org.apache.cxf.ws.security.wss4j.PolicyBasedWSS4JInInterceptor;
+import org.apache.cxf.ws.security.wss4j.PolicyBasedWSS4JOutInterceptor;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -56,4 +63,29 @@ public class CxfConfiguration {
                                                                            EndpointReferenceType target) throws IOException {
         return new DomibusURLConnectionHTTPConduit(domibusHttpsURLConnectionFactory, sslOffloadService, bus, endpointInfo, target);
     }
+
+    @Bean("securityStageStartInInterceptor")
+    public StageTimingInterceptor securityStageStartInInterceptor(StageTimingService stageTimingService) {
+        StageTimingInterceptor interceptor = StageTimingInterceptor.startBefore(Phase.PRE_PROTOCOL, PolicyBasedWSS4JInInterceptor.class.getName(), MessageStage.SECURITY, stageTimingService);
+        interceptor.addAfter(SAAJInInterceptor.class.getName());
+        return interceptor;
+    }
+
+    @Bean("securityStageStopInInterceptor")
+    public StageTimingInterceptor securityStageStopInInterceptor(StageTimingService stageTimingService) {
+        return StageTimingInterceptor.stopAfter(Phase.PRE_PROTOCOL, PolicyBasedWSS4JInInterceptor.class.getName(), MessageStage.SECURITY, stageTimingService);
+    }
+
+    /**
+     * The signing and encryption are done by an interceptor added to the chain by {@link PolicyBasedWSS4JOutInterceptor}
+     */
+    @Bean("securityStageStartOutInterceptor")
+    public StageTimingInterceptor securityStageStartOutInterceptor(StageTimingService stageTimingService) {
+        return StageTimingInterceptor.startBefore(Phase.POST_PROTOCOL, PolicyBasedWSS4JOutInterceptor.PolicyBasedWSS4JOutInterceptorInternal.class.getName(), MessageStage.SECURITY, stageTimingService);
+    }
+
+    @Bean("securityStageStopOutInterceptor")
+    public StageTimingInterceptor securityStageStopOutInterceptor(StageTimingService stageTimingService) {
+        return StageTimingInterceptor.stopAfter(Phase.POST_PROTOCOL, PolicyBasedWSS4JOutInterceptor.PolicyBasedWSS4JOutInterceptorInternal.class.getName(), MessageStage.SECURITY, stageTimingService);
+    }
 }
@@ -19,10 +19,21 @@ public class ArchivingFileDTO {
 
     private Path path;
 
+    /**
+     * The file holding the content as it is archived (not encrypted and not compressed), if any; the content is then
+     * copied from this file instead of being read from the input stream
+     */
+    private Path sourceFile;
+
     public ArchivingFileDTO(InputStream inputStream, Long size, String mimeType) {
+        this(inputStream, size, mimeType, null);
+    }
+
+    public ArchivingFileDTO(InputStream inputStream, Long size, String mimeType, Path sourceFile) {
         this.inputStream = inputStream;
         this.size = size;
         this.mimeType = mimeType;
+        this.sourceFile = sourceFile;
     }
 
     public InputStream getInputStream() {
@@ -45,6 +56,10 @@ public class ArchivingFileDTO {
         this.path = path;
     }
 
+    public Path getSourceFile() {
+        return sourceFile;
+    }
+
     public String getCheckSum() {
         return checkSum;
     }
@@ -60,6 +75,7 @@ public class ArchivingFileDTO {
                 ", size=" + size +
                 ", mimeType='" + mimeType + '\'' +
                 ", path=" + path +
+                ", sourceFile=" + sourceFile +
                 ", checkSum=" + checkSum +
                 '}';
     }
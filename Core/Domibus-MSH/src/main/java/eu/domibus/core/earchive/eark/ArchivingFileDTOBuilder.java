@@ -1,11 +1,13 @@
 package eu.domibus.core.earchive.eark;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 
 public class ArchivingFileDTOBuilder {
     private InputStream inputStream;
     private Long size;
     private String mimeType;
+    private Path sourceFile;
 
     public static ArchivingFileDTOBuilder getInstance(){
         return new ArchivingFileDTOBuilder();
@@ -26,7 +28,12 @@ public class ArchivingFileDTOBuilder {
         return this;
     }
 
+    public ArchivingFileDTOBuilder setSourceFile(Path sourceFile) {
+        this.sourceFile = sourceFile;
+        return this;
+    }
+
     public ArchivingFileDTO build() {
-        return new ArchivingFileDTO(inputStream, size, mimeType);
+        return new ArchivingFileDTO(inputStream, size, mimeType, sourceFile);
     }
 }
\ No newline at end of file
@@ -30,8 +30,13 @@ import javax.xml.datatype.DatatypeFactory;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.GregorianCalendar;
@@ -50,6 +55,7 @@ public class EARKSIPFileService {
 
     private static final String SHA256_CHECKSUMTYPE = "SHA-256";
     public static final String SHA_256 = "sha256:";
+    protected static final int COPY_BUFFER_SIZE = 64 * 1024;
 
     @Autowired
     private MetricRegistry metricRegistry;
@@ -94,6 +100,32 @@ public class EARKSIPFileService {
         }
     }
 
+    /**
+     * Copies the source file through file channels and updates the digest with the copied bytes, so that the checksum
+     * does not require reading the file a second time
+     */
+    @Timer(clazz = EARKSIPFileService.class, value = "earchive_copyDataFile")
+    @Counter(clazz = EARKSIPFileService.class, value = "earchive_copyDataFile")
+    public void copyDataFile(Path path, Path sourceFile, MessageDigest messageDigest) {
+        try {
+            Files.createDirectories(path.getParent());
+            try (FileChannel source = FileChannel.open(sourceFile, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                final ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    messageDigest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new DomibusEArchiveException("Could not copy file [" + sourceFile + "] to [" + path.toFile().getAbsolutePath() + "]", e);
+        }
+    }
+
     @Timer(clazz = EARKSIPFileService.class, value = "earchive23_getChecksum")
     @Counter(clazz = EARKSIPFileService.class, value = "earchive23_getChecksum")
     public String getChecksum(Path path) {
@@ -29,6 +29,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -131,6 +132,14 @@ public class EArchivingFileService {
         if (partInfo.getPayloadDatahandler() == null) {
             throw new DomibusEArchiveExportException(DomibusCoreErrorCode.DOM_009, entityId, "Could not find attachment for [" + partInfo.getHref() + "], messageId [" + partInfo.getUserMessage().getMessageId() + "] and entityId [" + entityId + "]");
         }
+        if (isPlainFile(partInfo)) {
+            LOG.debug("Attachment [{}] of entityId [{}] is copied from file [{}]", partInfo.getHref(), entityId, partInfo.getFileName());
+            return ArchivingFileDTOBuilder.getInstance()
+                    .setMimeType(partInfo.getMime())
+                    .setSize(partInfo.getLength())
+                    .setSourceFile(Paths.get(partInfo.getFileName()))
+                    .build();
+        }
         try {
             return ArchivingFileDTOBuilder.getInstance()
                     .setMimeType(partInfo.getMime())
@@ -142,6 +151,13 @@ public class EArchivingFileService {
         }
     }
 
+    /**
+     * @return true if the payload is stored as it is archived in the file system (not encrypted and not compressed)
+     */
+    protected boolean isPlainFile(PartInfo partInfo) {
+        return StringUtils.isNotBlank(partInfo.getFileName()) && !partInfo.isEncrypted() && BooleanUtils.isNotTrue(partInfo.getCompressed());
+    }
+
     protected String getFileName(PartInfo info, String extension) {
         return getBaseName(info) + ".attachment" + extension;
     }
@@ -4,6 +4,10 @@ import eu.domibus.api.earchive.DomibusEArchiveException;
 import eu.domibus.api.exceptions.DomibusCoreErrorCode;
 import eu.domibus.api.earchive.DomibusEArchiveExportException;
 import eu.domibus.api.earchive.EArchiveRequestType;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainCallable;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.util.FileServiceUtil;
 import eu.domibus.core.earchive.BatchEArchiveDTO;
 import eu.domibus.core.earchive.EArchiveBatchUserMessage;
@@ -17,9 +21,11 @@ import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.roda_project.commons_ip.utils.IPException;
 import org.roda_project.commons_ip2.model.IPConstants;
 import org.roda_project.commons_ip2.model.MetsWrapper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
@@ -32,9 +38,13 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_EARCHIVE_EXPORT_THREADS;
 
 /**
  * @author François Gautier
@@ -47,6 +57,7 @@ public class FileSystemEArchivePersistence implements EArchivePersistence {
     public static final String BATCH_JSON = "batch.json";
     public static final String FOLDER_REPRESENTATION_1 = IPConstants.REPRESENTATIONS_FOLDER + "representation1" + IPConstants.ZIP_PATH_SEPARATOR;
     public static final String BATCH_JSON_PATH = FOLDER_REPRESENTATION_1 + IPConstants.DATA_FOLDER + BATCH_JSON;
+    protected static final String EXPORT_THREAD_NAME_PREFIX = "domibus-earchive-export-";
 
     protected final EArchiveFileStorageProvider storageProvider;
 
@@ -59,19 +70,26 @@ public class FileSystemEArchivePersistence implements EArchivePersistence {
     private final EArchivingEventService eArchivingEventService;
     private final FileServiceUtil fileServiceUtil;
 
+    private final DomibusPropertyProvider domibusPropertyProvider;
+
+    private final DomainContextProvider domainContextProvider;
 
     public FileSystemEArchivePersistence(EArchiveFileStorageProvider storageProvider,
                                          DomibusVersionService domibusVersionService,
                                          EArchivingFileService eArchivingFileService,
                                          EARKSIPFileService earksipFileService,
                                          EArchivingEventService eArchivingEventService,
-                                         FileServiceUtil fileServiceUtil) {
+                                         FileServiceUtil fileServiceUtil,
+                                         DomibusPropertyProvider domibusPropertyProvider,
+                                         DomainContextProvider domainContextProvider) {
         this.storageProvider = storageProvider;
         this.domibusVersionService = domibusVersionService;
         this.eArchivingFileService = eArchivingFileService;
         this.eArkSipBuilderService = earksipFileService;
         this.eArchivingEventService = eArchivingEventService;
         this.fileServiceUtil = fileServiceUtil;
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.domainContextProvider = domainContextProvider;
     }
 
     @Override
@@ -130,39 +148,100 @@ public class FileSystemEArchivePersistence implements EArchivePersistence {
 
     }
 
+    /**
+     * Writes the files of the messages, several messages at a time on a dedicated thread pool when configured so, and adds
+     * them to the METS in the order of the messages. The pool is not shared with the JMS consumers and the other tasks,
+     * so that the calling thread waiting for the written messages can not starve them.
+     */
     protected void addRepresentation1(List<EArchiveBatchUserMessage> userMessageEntityIds, Path batchDirectory, MetsWrapper mainMETSWrapper) {
         eArkSipBuilderService.addBatchJsonToMETS(mainMETSWrapper, BATCH_JSON_PATH);
-        for (EArchiveBatchUserMessage eArchiveBatchUserMessage : userMessageEntityIds) {
-            LOG.debug("Add messageId [{}]", eArchiveBatchUserMessage.getMessageId());
-            addUserMessage(eArchiveBatchUserMessage, batchDirectory, mainMETSWrapper);
+        final int threads = Math.min(getExportThreads(), userMessageEntityIds.size());
+        if (threads <= 1) {
+            for (EArchiveBatchUserMessage eArchiveBatchUserMessage : userMessageEntityIds) {
+                addToMETS(writeUserMessage(eArchiveBatchUserMessage, batchDirectory), mainMETSWrapper);
+            }
+            return;
+        }
+
+        LOG.debug("Writing [{}] messages with [{}] threads", userMessageEntityIds.size(), threads);
+        final Domain domain = domainContextProvider.getCurrentDomainSafely();
+        final Deque<Future<List<Pair<String, ArchivingFileDTO>>>> pendingMessages = new ArrayDeque<>(threads);
+        final ExecutorService exportExecutor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory(EXPORT_THREAD_NAME_PREFIX));
+        try {
+            for (EArchiveBatchUserMessage eArchiveBatchUserMessage : userMessageEntityIds) {
+                if (pendingMessages.size() == threads) {
+                    addToMETS(getWrittenFiles(pendingMessages.poll()), mainMETSWrapper);
+                }
+                pendingMessages.add(exportExecutor.submit(new DomainCallable<>(domainContextProvider,
+                        () -> writeUserMessage(eArchiveBatchUserMessage, batchDirectory), domain)));
+            }
+            while (!pendingMessages.isEmpty()) {
+                addToMETS(getWrittenFiles(pendingMessages.poll()), mainMETSWrapper);
+            }
+        } finally {
+            pendingMessages.forEach(future -> future.cancel(true));
+            exportExecutor.shutdownNow();
+        }
+    }
+
+    protected int getExportThreads() {
+        final Integer threads = domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_EXPORT_THREADS);
+        return threads == null ? 1 : threads;
+    }
+
+    protected List<Pair<String, ArchivingFileDTO>> getWrittenFiles(Future<List<Pair<String, ArchivingFileDTO>>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DomibusEArchiveException("Interrupted while writing the eArchive structure", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DomibusEArchiveException("Could not write the eArchive structure", e.getCause());
         }
     }
 
-    private void addUserMessage(EArchiveBatchUserMessage eArchiveBatchUserMessage, Path batchDirectory, MetsWrapper mainMETSWrapper) {
+    protected void addToMETS(List<Pair<String, ArchivingFileDTO>> writtenFiles, MetsWrapper mainMETSWrapper) {
+        for (Pair<String, ArchivingFileDTO> writtenFile : writtenFiles) {
+            eArkSipBuilderService.addDataFileInfoToMETS(mainMETSWrapper, writtenFile.getKey(), writtenFile.getValue());
+        }
+    }
+
+    /**
+     * @return the files written, with their path relative to the representation
+     */
+    protected List<Pair<String, ArchivingFileDTO>> writeUserMessage(EArchiveBatchUserMessage eArchiveBatchUserMessage, Path batchDirectory) {
+        LOG.debug("Add messageId [{}]", eArchiveBatchUserMessage.getMessageId());
         Map<String, ArchivingFileDTO> archivingFile = eArchivingFileService.getArchivingFiles(eArchiveBatchUserMessage.getUserMessageEntityId());
+        String messageFolder = fileServiceUtil.URLEncode(eArchiveBatchUserMessage.getMessageId());
+        Path dir = Paths.get(batchDirectory.toFile().getAbsolutePath(), "representations", "representation1", "data", messageFolder);
 
+        List<Pair<String, ArchivingFileDTO>> writtenFiles = new ArrayList<>(archivingFile.size());
         for (Map.Entry<String, ArchivingFileDTO> file : archivingFile.entrySet()) {
             LOG.trace("Process file [{}]", file.getKey());
-            String messageFolder = fileServiceUtil.URLEncode(eArchiveBatchUserMessage.getMessageId());
-
             String relativePathToMessageFolder = IPConstants.DATA_FOLDER + messageFolder + IPConstants.ZIP_PATH_SEPARATOR + file.getKey();
-
-            Path dir = Paths.get(batchDirectory.toFile().getAbsolutePath(), "representations", "representation1", "data", messageFolder);
             Path path = Paths.get(dir.toFile().getAbsolutePath(), file.getKey());
 
             ArchivingFileDTO archivingFileDTO = file.getValue();
             archivingFileDTO.setPath(path);
             MessageDigest instance = getMessageDigest();
 
-            try (InputStream inputStream = archivingFileDTO.getInputStream();
-                 InputStream digestInputStream = new DigestInputStream(inputStream, instance)) {
-                eArkSipBuilderService.createDataFile(path, digestInputStream);
-            } catch (IOException e) {
-                throw new DomibusEArchiveException("Could not createDataFile on dir [" + dir + "] and file [" + archivingFileDTO + "]", e);
+            if (archivingFileDTO.getSourceFile() != null) {
+                eArkSipBuilderService.copyDataFile(path, archivingFileDTO.getSourceFile(), instance);
+            } else {
+                try (InputStream inputStream = archivingFileDTO.getInputStream();
+                     InputStream digestInputStream = new DigestInputStream(inputStream, instance)) {
+                    eArkSipBuilderService.createDataFile(path, digestInputStream);
+                } catch (IOException e) {
+                    throw new DomibusEArchiveException("Could not createDataFile on dir [" + dir + "] and file [" + archivingFileDTO + "]", e);
+                }
             }
             archivingFileDTO.setCheckSum(Hex.encodeHexString(instance.digest()));
-            eArkSipBuilderService.addDataFileInfoToMETS(mainMETSWrapper, relativePathToMessageFolder, archivingFileDTO);
+            writtenFiles.add(Pair.of(relativePathToMessageFolder, archivingFileDTO));
         }
+        return writtenFiles;
     }
 
     private static MessageDigest getMessageDigest() {
@@ -13,6 +13,7 @@ import eu.domibus.core.ebms3.sender.interceptor.HttpHeaderOutInterceptor;
 import eu.domibus.core.logging.cxf.DomibusLoggingEventSender;
 import eu.domibus.core.ebms3.receiver.interceptor.MessageResponseSentBackendNotifierInterceptor;
 import eu.domibus.core.message.nonrepudiation.SaveRawEnvelopeInterceptor;
+import eu.domibus.core.metrics.StageTimingInterceptor;
 import eu.domibus.core.message.pull.SaveRawPulledMessageInterceptor;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
@@ -61,13 +62,19 @@ public class MSHWebserviceConfiguration {
                         HttpHeaderOutInterceptor httpHeaderOutInterceptor,
                         @Qualifier("domibusSetCodeValueFaultOutInterceptor") SetCodeValueFaultOutInterceptor setCodeValueFaultOutInterceptor,
                         FaultInHandler faultInHandler,
-                        MessageResponseSentBackendNotifierInterceptor messageResponseSentBackendNotifierInterceptor) {
+                        MessageResponseSentBackendNotifierInterceptor messageResponseSentBackendNotifierInterceptor,
+                        @Qualifier("securityStageStartInInterceptor") StageTimingInterceptor securityStageStartInInterceptor,
+                        @Qualifier("securityStageStopInInterceptor") StageTimingInterceptor securityStageStopInInterceptor,
+                        @Qualifier("securityStageStartOutInterceptor") StageTimingInterceptor securityStageStartOutInterceptor,
+                        @Qualifier("securityStageStopOutInterceptor") StageTimingInterceptor securityStageStopOutInterceptor) {
         EndpointImpl endpoint = new EndpointImpl(domibusBus, mshWebservice);
         Map<String, Object> endpointProperties = getEndpointProperties(ehCacheTokenStore, simpleKeystorePasswordCallback, wss4JMultiDomainCryptoProvider);
         endpoint.setProperties(endpointProperties);
-        endpoint.setInInterceptors(Arrays.asList(domibusReadyInterceptor, setDomainInInterceptor, trustSenderInterceptor, setPolicyInServerInterceptor, propertyValueExchangeInterceptor, httpHeaderInInterceptor));
+        endpoint.setInInterceptors(Arrays.asList(domibusReadyInterceptor, setDomainInInterceptor, trustSenderInterceptor, setPolicyInServerInterceptor, propertyValueExchangeInterceptor, httpHeaderInInterceptor,
+                securityStageStartInInterceptor, securityStageStopInInterceptor));
         endpoint.setOutInterceptors(Arrays.asList(clearMDCInterceptor, setPolicyOutInterceptorServer, saveRawPulledMessageInterceptor,
-                httpHeaderOutInterceptor, saveRawEnvelopeInterceptor, messageResponseSentBackendNotifierInterceptor));
+                httpHeaderOutInterceptor, saveRawEnvelopeInterceptor, messageResponseSentBackendNotifierInterceptor,
+                securityStageStartOutInterceptor, securityStageStopOutInterceptor));
         endpoint.setOutFaultInterceptors(Arrays.asList(setCodeValueFaultOutInterceptor, clearMDCInterceptor));
         endpoint.setFeatures(Arrays.asList(loggingFeature));
         endpoint.setHandlers(Arrays.asList(faultInHandler));
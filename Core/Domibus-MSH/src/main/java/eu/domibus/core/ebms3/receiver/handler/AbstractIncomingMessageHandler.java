@@ -11,6 +11,8 @@ import eu.domibus.core.ebms3.mapper.Ebms3Converter;
 import eu.domibus.core.message.UserMessageErrorCreator;
 import eu.domibus.core.message.UserMessageHandlerService;
 import eu.domibus.core.metrics.Counter;
+import eu.domibus.core.metrics.MessagePipeline;
+import eu.domibus.core.metrics.StageTimingService;
 import eu.domibus.core.metrics.Timer;
 import eu.domibus.core.plugin.notification.BackendNotificationService;
 import eu.domibus.core.pmode.provider.PModeProvider;
@@ -63,6 +65,9 @@ public abstract class AbstractIncomingMessageHandler implements IncomingMessageH
     @Autowired
     protected MetricRegistry metricRegistry;
 
+    @Autowired
+    protected StageTimingService stageTimingService;
+
     @Override
     @Timer(clazz = AbstractIncomingMessageHandler.class, value = "processMessage")
     @Counter(clazz = AbstractIncomingMessageHandler.class, value = "processMessage")
@@ -105,6 +110,8 @@ public abstract class AbstractIncomingMessageHandler implements IncomingMessageH
         SOAPMessage responseMessage;
         LOG.info("Using pmodeKey {}", pmodeKey);
         final LegConfiguration legConfiguration = pModeProvider.getLegConfiguration(pmodeKey);
+        stageTimingService.begin(MessagePipeline.RECEIVE, userMessage.getMessageId());
+        stageTimingService.setLeg(legConfiguration.getName());
         try {
             responseMessage = processMessage(legConfiguration, pmodeKey, request, ebms3Messaging, testMessage);
             LOG.businessInfo(testMessage ? DomibusMessageCode.BUS_TEST_MESSAGE_RECEIVED : DomibusMessageCode.BUS_MESSAGE_RECEIVED,
@@ -122,6 +129,8 @@ public abstract class AbstractIncomingMessageHandler implements IncomingMessageH
                 LOG.businessError(DomibusMessageCode.BUS_BACKEND_NOTIFICATION_FAILED, ex, ebms3Messaging.getUserMessage().getMessageInfo().getMessageId());
             }
             throw new WebServiceException(e);
+        } finally {
+            stageTimingService.end();
         }
         return responseMessage;
     }
@@ -15,6 +15,9 @@ import eu.domibus.core.ebms3.sender.client.DispatchClientDefaultProvider;
 import eu.domibus.core.message.TestMessageValidator;
 import eu.domibus.core.message.UserMessageErrorCreator;
 import eu.domibus.core.crypto.SecurityProfileService;
+import eu.domibus.core.metrics.MessagePipeline;
+import eu.domibus.core.metrics.MessageStage;
+import eu.domibus.core.metrics.StageTimingService;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.logging.DomibusMessageCode;
@@ -57,14 +60,18 @@ public class SetPolicyInServerInterceptor extends SetPolicyInInterceptor {
 
     private final SecurityProfileService securityProfileService;
 
+    protected final StageTimingService stageTimingService;
+
     public SetPolicyInServerInterceptor(ServerInMessageLegConfigurationFactory serverInMessageLegConfigurationFactory,
                                         TestMessageValidator testMessageValidator, Ebms3Converter ebms3Converter,
-                                        UserMessageErrorCreator userMessageErrorCreator, SecurityProfileService securityProfileService) {
+                                        UserMessageErrorCreator userMessageErrorCreator, SecurityProfileService securityProfileService,
+                                        StageTimingService stageTimingService) {
         this.serverInMessageLegConfigurationFactory = serverInMessageLegConfigurationFactory;
         this.testMessageValidator = testMessageValidator;
         this.ebms3Converter = ebms3Converter;
         this.userMessageErrorCreator = userMessageErrorCreator;
         this.securityProfileService = securityProfileService;
+        this.stageTimingService = stageTimingService;
     }
 
     @Override
@@ -95,10 +102,15 @@ public class SetPolicyInServerInterceptor extends SetPolicyInInterceptor {
             message.getExchange().put(MessageConstants.EMBS3_MESSAGING_OBJECT, ebms3Messaging);
             message.put(DispatchClientDefaultProvider.MESSAGING_KEY_CONTEXT_PROPERTY, ebms3Messaging);
 
-            LegConfigurationExtractor legConfigurationExtractor = serverInMessageLegConfigurationFactory.extractMessageConfiguration(message, ebms3Messaging);
-            if (legConfigurationExtractor == null) return;
+            stageTimingService.start(MessageStage.PMODE_LOOKUP);
+            try {
+                LegConfigurationExtractor legConfigurationExtractor = serverInMessageLegConfigurationFactory.extractMessageConfiguration(message, ebms3Messaging);
+                if (legConfigurationExtractor == null) return;
 
-            legConfiguration = legConfigurationExtractor.extractMessageConfiguration();
+                legConfiguration = legConfigurationExtractor.extractMessageConfiguration();
+            } finally {
+                stageTimingService.stop(MessageStage.PMODE_LOOKUP, MessagePipeline.RECEIVE, legConfiguration != null ? legConfiguration.getName() : null);
+            }
             policyName = legConfiguration.getSecurity().getPolicy();
             Policy policy = policyService.parsePolicy("policies" + File.separator + policyName, legConfiguration.getSecurity().getProfile());
 
@@ -30,6 +30,9 @@ import eu.domibus.core.message.nonrepudiation.NonRepudiationService;
 import eu.domibus.core.message.reliability.ReliabilityChecker;
 import eu.domibus.core.message.reliability.ReliabilityService;
 import eu.domibus.core.metrics.Counter;
+import eu.domibus.core.metrics.MessagePipeline;
+import eu.domibus.core.metrics.MessageStage;
+import eu.domibus.core.metrics.StageTimingService;
 import eu.domibus.core.metrics.Timer;
 import eu.domibus.core.pmode.provider.PModeProvider;
 import eu.domibus.core.util.SoapUtil;
@@ -108,6 +111,9 @@ public abstract class AbstractUserMessageSender implements MessageSender {
     @Autowired
     SignalMessageSoapEnvelopeSpiDelegate signalMessageSoapEnvelopeSpiDelegate;
 
+    @Autowired
+    protected StageTimingService stageTimingService;
+
     @Override
     @Timer(clazz = AbstractUserMessageSender.class, value = "outgoing_user_message")
     @Counter(clazz = AbstractUserMessageSender.class, value = "outgoing_user_message")
@@ -127,6 +133,7 @@ public abstract class AbstractUserMessageSender implements MessageSender {
         LegConfiguration legConfiguration = null;
         final String pModeKey;
 
+        stageTimingService.begin(MessagePipeline.SEND, messageId);
         try {
             try {
                 validateBeforeSending(userMessage);
@@ -139,10 +146,16 @@ public abstract class AbstractUserMessageSender implements MessageSender {
                 return;
             }
 
-            pModeKey = pModeProvider.findUserMessageExchangeContext(userMessage, MSHRole.SENDING).getPmodeKey();
-            getLog().debug("PMode found [{}]", pModeKey);
-            legConfiguration = pModeProvider.getLegConfiguration(pModeKey);
+            stageTimingService.start(MessageStage.PMODE_LOOKUP);
+            try {
+                pModeKey = pModeProvider.findUserMessageExchangeContext(userMessage, MSHRole.SENDING).getPmodeKey();
+                getLog().debug("PMode found [{}]", pModeKey);
+                legConfiguration = pModeProvider.getLegConfiguration(pModeKey);
+            } finally {
+                stageTimingService.stop(MessageStage.PMODE_LOOKUP);
+            }
             getLog().info("Found leg [{}] for PMode key [{}]", legConfiguration.getName(), pModeKey);
+            stageTimingService.setLeg(legConfiguration.getName());
 
             try {
                 smartCheckDestinationParty(userMessage, userMessageLog);
@@ -194,13 +207,23 @@ public abstract class AbstractUserMessageSender implements MessageSender {
 
             String receiverUrl = pModeService.getReceiverPartyEndpoint(receiverParty.getName(), receiverParty.getEndpoint(), userMessageServiceHelper.getFinalRecipientValue(userMessage));
             requestSoapMessage = userMessageSoapEnvelopeSpiDelegate.beforeSigningAndEncryption(requestSoapMessage);
-            responseSoapMessage = mshDispatcher.dispatch(requestSoapMessage, receiverUrl, policy, legConfiguration, pModeKey);
+            stageTimingService.start(MessageStage.HTTP_DISPATCH);
+            try {
+                responseSoapMessage = mshDispatcher.dispatch(requestSoapMessage, receiverUrl, policy, legConfiguration, pModeKey);
+            } finally {
+                stageTimingService.stop(MessageStage.HTTP_DISPATCH);
+            }
             signalMessageSoapEnvelopeSpiDelegate.afterReceiving(responseSoapMessage);
 
             requestRawXMLMessage = soapUtil.getRawXMLMessage(requestSoapMessage);
-            responseResult = responseHandler.verifyResponse(responseSoapMessage, messageId);
+            stageTimingService.start(MessageStage.RECEIPT_HANDLING);
+            try {
+                responseResult = responseHandler.verifyResponse(responseSoapMessage, messageId);
 
-            reliabilityCheckResult = reliabilityChecker.check(requestSoapMessage, responseSoapMessage, responseResult, legConfiguration);
+                reliabilityCheckResult = reliabilityChecker.check(requestSoapMessage, responseSoapMessage, responseResult, legConfiguration);
+            } finally {
+                stageTimingService.stop(MessageStage.RECEIPT_HANDLING);
+            }
         } catch (final SOAPFaultException soapFEx) {
             getLog().error("A SOAP fault occurred when sending message with ID [{}]", messageId, soapFEx);
             if (soapFEx.getCause() instanceof Fault && soapFEx.getCause().getCause() instanceof EbMS3Exception) {
@@ -228,7 +251,13 @@ public abstract class AbstractUserMessageSender implements MessageSender {
             }
 
             getLog().debug("Finally handle reliability");
-            reliabilityService.handleReliability(userMessage, userMessageLog, reliabilityCheckResult, requestRawXMLMessage, responseSoapMessage, responseResult, legConfiguration, attempt);
+            stageTimingService.start(MessageStage.RECEIPT_HANDLING);
+            try {
+                reliabilityService.handleReliability(userMessage, userMessageLog, reliabilityCheckResult, requestRawXMLMessage, responseSoapMessage, responseResult, legConfiguration, attempt);
+            } finally {
+                stageTimingService.stop(MessageStage.RECEIPT_HANDLING);
+                stageTimingService.end();
+            }
             if (ReliabilityChecker.CheckResult.OK == reliabilityCheckResult) {
                 getLog().businessInfo(isTestMessage ? DomibusMessageCode.BUS_TEST_MESSAGE_SEND_SUCCESS : DomibusMessageCode.BUS_MESSAGE_SEND_SUCCESS,
                         userMessage.getPartyInfo().getFromParty(), userMessage.getPartyInfo().getToParty());
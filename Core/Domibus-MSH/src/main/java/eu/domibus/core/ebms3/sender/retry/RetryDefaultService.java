@@ -23,7 +23,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static eu.domibus.api.model.DomibusDatePrefixedSequenceIdGeneratorGenerator.*;
 import static java.time.format.DateTimeFormatter.ofPattern;
@@ -90,9 +94,45 @@ public class RetryDefaultService implements RetryService {
         LOG.trace("Enqueueing message for retrial with entityId [{}]", messageEntityId);
 
         final UserMessage userMessage = userMessageDao.findByEntityId(messageEntityId);
+        if (!isReadyForRetry(userMessage)) {
+            return;
+        }
+        final UserMessageLog userMessageLog = userMessageLogDao.findByEntityIdSafely(messageEntityId);
+        userMessageService.scheduleSending(userMessage, userMessageLog);
+    }
+
+    /**
+     * Enqueues in a single transaction the messages to be retried, the JMS message of each one being delivered at its next attempt.
+     * The user messages and their logs are loaded with a single query; the messages which are no longer waiting for retry are skipped.
+     * A failure rolls back the whole batch.
+     *
+     * @param retries The messages to be enqueued for retrial
+     * @param now The time used to compute the delivery delay of each message
+     */
+    @Override
+    @Transactional
+    public void enqueueMessages(List<ScheduledRetry> retries, Date now) {
+        final List<Long> entityIds = retries.stream().map(ScheduledRetry::getEntityId).collect(Collectors.toList());
+        final Map<Long, UserMessageLog> userMessageLogs = userMessageLogDao.findRetryMessagesByEntityIds(entityIds).stream()
+                .collect(Collectors.toMap(UserMessageLog::getEntityId, Function.identity()));
+
+        for (ScheduledRetry retry : retries) {
+            final UserMessageLog userMessageLog = userMessageLogs.get(retry.getEntityId());
+            if (userMessageLog == null) {
+                LOG.debug("Message with entityId [{}] is no longer waiting for retry", retry.getEntityId());
+                continue;
+            }
+            final UserMessage userMessage = userMessageLog.getUserMessage();
+            if (isReadyForRetry(userMessage)) {
+                userMessageService.scheduleSending(userMessage, userMessageLog, retry.getDelay(now));
+            }
+        }
+    }
+
+    protected boolean isReadyForRetry(UserMessage userMessage) {
         if(userMessage.isSourceMessage()) {
             LOG.debug("Source message [{}] not scheduled for retry.", userMessage.getMessageId());
-            return;
+            return false;
         }
         LOG.trace("Enqueueing message for retrial [{}]", userMessage.getMessageId());
 
@@ -101,28 +141,23 @@ public class RetryDefaultService implements RetryService {
         boolean invalidConfig = updateRetryLoggingService.failIfInvalidConfig(userMessage, legConfiguration);
         if (invalidConfig) {
             LOG.warn("Message was not enqueued: invalid LegConfiguration for message [{}]", userMessage.getMessageId());
-            return;
+            return false;
         }
 
         boolean setAsExpired = updateRetryLoggingService.failIfExpired(userMessage, legConfiguration);
         if (setAsExpired) {
             LOG.debug("Message [{}] was marked as expired", userMessage.getMessageId());
-            return;
+            return false;
         }
-        final UserMessageLog userMessageLog = userMessageLogDao.findByEntityIdSafely(messageEntityId);
-        userMessageService.scheduleSending(userMessage, userMessageLog);
+        return true;
     }
 
     @Override
     public List<Long> getMessagesNotAlreadyScheduled() {
         List<Long> result = new ArrayList<>();
 
-        int maxRetryTimeout = getMaxRetryTimeout();
-        int retryTimeoutDelay = domibusPropertyProvider.getIntegerProperty(DOMIBUS_MSH_RETRY_TIMEOUT_DELAY);
-
-        LOG.trace("maxRetryTimeout [{}] retryTimeoutDelay [{}]", maxRetryTimeout, retryTimeoutDelay);
-        long minEntityId = createMinEntityId(maxRetryTimeout + retryTimeoutDelay);
-        long maxEntityId = getCurrentTimeMaxEntityId();
+        long minEntityId = getRetryMinEntityId();
+        long maxEntityId = getRetryMaxEntityId();
 
 
         LOG.trace("minEntityId [{}] maxEntityId [{}]", minEntityId, maxEntityId);
@@ -136,6 +171,23 @@ public class RetryDefaultService implements RetryService {
         return messageEntityIdsToSend;
     }
 
+    /**
+     * The lowest entity id of the messages searched for retry, based on the highest retry timeout of the legs
+     */
+    @Override
+    public long getRetryMinEntityId() {
+        int maxRetryTimeout = getMaxRetryTimeout();
+        int retryTimeoutDelay = domibusPropertyProvider.getIntegerProperty(DOMIBUS_MSH_RETRY_TIMEOUT_DELAY);
+
+        LOG.trace("maxRetryTimeout [{}] retryTimeoutDelay [{}]", maxRetryTimeout, retryTimeoutDelay);
+        return createMinEntityId(maxRetryTimeout + retryTimeoutDelay);
+    }
+
+    @Override
+    public long getRetryMaxEntityId() {
+        return getCurrentTimeMaxEntityId();
+    }
+
     /**
      * Method called by job to reset waiting_for_receipt messages into ready to pull.
      */
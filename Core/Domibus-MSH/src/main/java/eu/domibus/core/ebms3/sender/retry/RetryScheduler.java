@@ -0,0 +1,97 @@
+package eu.domibus.core.ebms3.sender.retry;
+
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.message.UserMessageLogDao;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.time.DateUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
+
+/**
+ * Schedules the messages waiting for retry whose next attempt falls within the look-ahead interval.
+ * The messages are loaded with a single query, ordered by their next attempt and enqueued in batches with a JMS delivery delay,
+ * so that each message is sent at its next attempt regardless of the execution interval of the {@link SendRetryWorker}.
+ *
+ * @since 5.2
+ */
+@Service
+public class RetryScheduler {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(RetryScheduler.class);
+
+    protected final DomibusPropertyProvider domibusPropertyProvider;
+
+    protected final UserMessageLogDao userMessageLogDao;
+
+    protected final RetryService retryService;
+
+    public RetryScheduler(DomibusPropertyProvider domibusPropertyProvider, UserMessageLogDao userMessageLogDao, RetryService retryService) {
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.userMessageLogDao = userMessageLogDao;
+        this.retryService = retryService;
+    }
+
+    public boolean isEnabled() {
+        return BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_MSH_RETRY_SCHEDULER_ENABLED));
+    }
+
+    public void scheduleRetries() {
+        final Date now = new Date();
+        final Date maxNextAttempt = DateUtils.addSeconds(now, domibusPropertyProvider.getIntegerProperty(DOMIBUS_MSH_RETRY_SCHEDULER_LOOK_AHEAD));
+
+        final PriorityQueue<ScheduledRetry> retries = loadRetries(maxNextAttempt);
+        if (retries.isEmpty()) {
+            LOG.trace("No message found to be retried before [{}]", maxNextAttempt);
+            return;
+        }
+        LOG.debug("Scheduling [{}] messages to be retried before [{}]", retries.size(), maxNextAttempt);
+
+        final int batchSize = Math.max(1, domibusPropertyProvider.getIntegerProperty(DOMIBUS_MSH_RETRY_SCHEDULER_BATCH_SIZE));
+        List<ScheduledRetry> batch = new ArrayList<>(batchSize);
+        while (!retries.isEmpty()) {
+            batch.add(retries.poll());
+            if (batch.size() == batchSize || retries.isEmpty()) {
+                enqueueBatch(batch, now);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    protected PriorityQueue<ScheduledRetry> loadRetries(Date maxNextAttempt) {
+        final PriorityQueue<ScheduledRetry> retries = new PriorityQueue<>(ScheduledRetry.NEXT_ATTEMPT_ORDER);
+        final long minEntityId = retryService.getRetryMinEntityId();
+        final long maxEntityId = retryService.getRetryMaxEntityId();
+        retries.addAll(userMessageLogDao.findRetryMessagesDueBefore(minEntityId, maxEntityId, maxNextAttempt));
+        return retries;
+    }
+
+    /**
+     * Enqueues the batch in a single transaction; if it fails, the messages are enqueued again one by one, each one
+     * in its own transaction, so that a single failing message does not prevent the others from being retried
+     */
+    protected void enqueueBatch(List<ScheduledRetry> batch, Date now) {
+        try {
+            retryService.enqueueMessages(batch, now);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not enqueue the retry batch [{}], enqueueing the messages one by one", batch, e);
+            batch.forEach(retry -> enqueueRetry(retry, now));
+        }
+    }
+
+    protected void enqueueRetry(ScheduledRetry retry, Date now) {
+        try {
+            retryService.enqueueMessages(Collections.singletonList(retry), now);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not enqueue message with entityId [{}]", retry.getEntityId(), e);
+        }
+    }
+}
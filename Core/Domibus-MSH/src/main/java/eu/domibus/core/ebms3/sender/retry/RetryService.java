@@ -1,5 +1,6 @@
 package eu.domibus.core.ebms3.sender.retry;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -10,6 +11,12 @@ public interface RetryService {
 
     void enqueueMessage(long messageEntityId);
 
+    void enqueueMessages(List<ScheduledRetry> retries, Date now);
+
+    long getRetryMinEntityId();
+
+    long getRetryMaxEntityId();
+
     List<Long> getMessagesNotAlreadyScheduled();
 
     void resetWaitingForReceiptPullMessages();
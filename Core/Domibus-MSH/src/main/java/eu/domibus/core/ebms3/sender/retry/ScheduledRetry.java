@@ -0,0 +1,53 @@
+package eu.domibus.core.ebms3.sender.retry;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Comparator;
+import java.util.Date;
+
+/**
+ * A message waiting for retry together with the time of its next send attempt
+ *
+ * @since 5.2
+ */
+public class ScheduledRetry {
+
+    public static final Comparator<ScheduledRetry> NEXT_ATTEMPT_ORDER = Comparator
+            .comparing(ScheduledRetry::getNextAttempt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ScheduledRetry::getEntityId);
+
+    protected final long entityId;
+
+    protected final Date nextAttempt;
+
+    public ScheduledRetry(long entityId, Date nextAttempt) {
+        this.entityId = entityId;
+        this.nextAttempt = nextAttempt;
+    }
+
+    public long getEntityId() {
+        return entityId;
+    }
+
+    public Date getNextAttempt() {
+        return nextAttempt;
+    }
+
+    /**
+     * Returns the delay in milliseconds between the given time and the next attempt; 0 if the next attempt is already due
+     */
+    public long getDelay(Date now) {
+        if (nextAttempt == null) {
+            return 0;
+        }
+        return Math.max(0, nextAttempt.getTime() - now.getTime());
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("entityId", entityId)
+                .append("nextAttempt", nextAttempt)
+                .toString();
+    }
+}
@@ -30,6 +30,9 @@ public class SendRetryWorker extends DomibusQuartzJobBean {
     @Autowired
     protected RetryService retryService;
 
+    @Autowired
+    protected RetryScheduler retryScheduler;
+
     @Autowired
     protected AuthUtils authUtils;
 
@@ -44,6 +47,11 @@ public class SendRetryWorker extends DomibusQuartzJobBean {
         }
 
         try {
+            if (retryScheduler.isEnabled()) {
+                retryScheduler.scheduleRetries();
+                return;
+            }
+
             final List<Long> messagesNotAlreadyQueued = retryService.getMessagesNotAlreadyScheduled();
 
             LOG.trace("There are [{}] retry messages", messagesNotAlreadyQueued.size());
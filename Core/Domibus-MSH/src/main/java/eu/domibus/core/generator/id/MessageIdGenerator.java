@@ -1,11 +1,22 @@
 
 package eu.domibus.core.generator.id;
 
-import com.fasterxml.uuid.NoArgGenerator;
+import eu.domibus.api.exceptions.DomibusCoreErrorCode;
+import eu.domibus.api.exceptions.DomibusCoreException;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_MSH_MESSAGEID_GENERATOR;
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_MSH_MESSAGEID_SUFFIX;
 
 /**
@@ -13,20 +24,73 @@ import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_
  */
 @Service("messageIdGenerator")
 public class MessageIdGenerator {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(MessageIdGenerator.class);
+
     private static final String MESSAGE_ID_SUFFIX_PROPERTY = DOMIBUS_MSH_MESSAGEID_SUFFIX;
 
     @Autowired
     protected DomibusPropertyProvider domibusPropertyProvider;
 
     @Autowired
-    protected NoArgGenerator uuidGenerator;
+    protected DomainContextProvider domainContextProvider;
+
+    @Autowired
+    protected List<UniqueIdGenerator> uniqueIdGenerators;
+
+    /**
+     * The message id suffix per domain code, cleared when the suffix property changes
+     */
+    protected final Map<String, String> messageIdSuffixes = new ConcurrentHashMap<>();
+
+    protected volatile UniqueIdGenerator uniqueIdGenerator;
 
     public String generateMessageId() {
-        String messageIdSuffix = domibusPropertyProvider.getProperty(MESSAGE_ID_SUFFIX_PROPERTY);
-        return uuidGenerator.generate() + "@" + messageIdSuffix;
+        return getUniqueIdGenerator().generate() + "@" + getMessageIdSuffix();
     }
 
     public String generatePullRequestId() {
-        return uuidGenerator.generate().toString();
+        return getUniqueIdGenerator().generate();
+    }
+
+    public void resetMessageIdSuffix() {
+        LOG.debug("Clearing the cached message id suffixes");
+        messageIdSuffixes.clear();
+    }
+
+    public void resetUniqueIdGenerator() {
+        uniqueIdGenerator = null;
+    }
+
+    protected String getMessageIdSuffix() {
+        final Domain domain = domainContextProvider.getCurrentDomainSafely();
+        if (domain == null) {
+            return domibusPropertyProvider.getProperty(MESSAGE_ID_SUFFIX_PROPERTY);
+        }
+        String messageIdSuffix = messageIdSuffixes.get(domain.getCode());
+        if (messageIdSuffix == null) {
+            messageIdSuffix = domibusPropertyProvider.getProperty(domain, MESSAGE_ID_SUFFIX_PROPERTY);
+            if (messageIdSuffix != null) {
+                messageIdSuffixes.put(domain.getCode(), messageIdSuffix);
+            }
+        }
+        return messageIdSuffix;
+    }
+
+    protected UniqueIdGenerator getUniqueIdGenerator() {
+        UniqueIdGenerator result = uniqueIdGenerator;
+        if (result == null) {
+            result = findUniqueIdGenerator(domibusPropertyProvider.getProperty(DOMIBUS_MSH_MESSAGEID_GENERATOR));
+            uniqueIdGenerator = result;
+        }
+        return result;
+    }
+
+    protected UniqueIdGenerator findUniqueIdGenerator(String name) {
+        final String generatorName = StringUtils.defaultIfBlank(name, TimeBasedUniqueIdGenerator.NAME);
+        return uniqueIdGenerators.stream()
+                .filter(generator -> StringUtils.equalsIgnoreCase(generatorName, generator.getName()))
+                .findFirst()
+                .orElseThrow(() -> new DomibusCoreException(DomibusCoreErrorCode.DOM_001, "Could not find the message id generator [" + generatorName + "]"));
     }
 }
@@ -0,0 +1,31 @@
+package eu.domibus.core.generator.id;
+
+import com.fasterxml.uuid.NoArgGenerator;
+import org.springframework.stereotype.Service;
+
+/**
+ * Generates time based (version 1) UUIDs, using the MAC address of this server.
+ *
+ * @since 5.2
+ */
+@Service
+public class TimeBasedUniqueIdGenerator implements UniqueIdGenerator {
+
+    public static final String NAME = "timeBased";
+
+    protected final NoArgGenerator uuidGenerator;
+
+    public TimeBasedUniqueIdGenerator(NoArgGenerator uuidGenerator) {
+        this.uuidGenerator = uuidGenerator;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String generate() {
+        return uuidGenerator.generate().toString();
+    }
+}
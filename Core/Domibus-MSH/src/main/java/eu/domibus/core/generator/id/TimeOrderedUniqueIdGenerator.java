@@ -0,0 +1,88 @@
+package eu.domibus.core.generator.id;
+
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time ordered UUIDs, laid out as the version 7 UUIDs: the first 48 bits are the Unix timestamp in
+ * milliseconds, followed by a 12 bits counter and 62 random bits.
+ * <p>
+ * The timestamp and the counter are taken from a single atomic sequence, so the identifiers generated by this server
+ * are strictly increasing, even when several identifiers are generated within the same millisecond. Consecutive
+ * identifiers are therefore inserted next to each other in the indexes on the message id. The random bits come from a
+ * {@link SecureRandom} per thread, so that the identifiers cannot be predicted without contending on a shared instance,
+ * and the identifier is formatted directly from its bits, without creating a {@link java.util.UUID}.
+ *
+ * @since 5.2
+ */
+@Service
+public class TimeOrderedUniqueIdGenerator implements UniqueIdGenerator {
+
+    public static final String NAME = "timeOrdered";
+
+    protected static final int COUNTER_BITS = 12;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The last timestamp (in milliseconds) shifted left by {@link #COUNTER_BITS}, combined with the counter
+     */
+    private final AtomicLong lastSequence = new AtomicLong();
+
+    private final ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(SecureRandom::new);
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String generate() {
+        final long sequence = nextSequence(currentTimeMillis());
+        final long mostSigBits = ((sequence >>> COUNTER_BITS) << 16) | 0x7000L | (sequence & 0xFFFL);
+        final long leastSigBits = (random.get().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return format(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Returns the sequence for the given time; if the clock did not move forward (or went backwards), the previous
+     * sequence is incremented, overflowing the counter into the timestamp if needed.
+     */
+    protected long nextSequence(long timeMillis) {
+        final long candidate = timeMillis << COUNTER_BITS;
+        long last;
+        long next;
+        do {
+            last = lastSequence.get();
+            next = candidate > last ? candidate : last + 1;
+        } while (!lastSequence.compareAndSet(last, next));
+        return next;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    protected String format(long mostSigBits, long leastSigBits) {
+        final char[] chars = new char[36];
+        writeHex(chars, 0, mostSigBits >>> 32, 8);
+        chars[8] = '-';
+        writeHex(chars, 9, mostSigBits >>> 16, 4);
+        chars[13] = '-';
+        writeHex(chars, 14, mostSigBits, 4);
+        chars[18] = '-';
+        writeHex(chars, 19, leastSigBits >>> 48, 4);
+        chars[23] = '-';
+        writeHex(chars, 24, leastSigBits, 12);
+        return new String(chars);
+    }
+
+    private void writeHex(char[] chars, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
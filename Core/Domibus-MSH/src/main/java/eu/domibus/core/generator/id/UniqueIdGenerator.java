@@ -0,0 +1,22 @@
+package eu.domibus.core.generator.id;
+
+/**
+ * Generates the unique part of the message identifiers, a UUID in its canonical string representation.
+ * <p>
+ * The implementation used by {@link MessageIdGenerator} is selected by name with the property
+ * {@code domibus.msh.messageid.generator}.
+ *
+ * @since 5.2
+ */
+public interface UniqueIdGenerator {
+
+    /**
+     * @return the name used to select this generator
+     */
+    String getName();
+
+    /**
+     * @return a new unique identifier, safe to be called concurrently
+     */
+    String generate();
+}
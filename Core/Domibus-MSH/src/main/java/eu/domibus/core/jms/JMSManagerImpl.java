@@ -104,6 +104,9 @@ public class JMSManagerImpl implements JMSManager {
     @Autowired
     protected DomibusPropertyProvider domibusPropertyProvider;
 
+    @Autowired
+    protected PendingNotificationService pendingNotificationService;
+
     @Override
     public SortedMap<String, JMSDestination> getDestinations() {
         Map<String, InternalJMSDestination> destinations = internalJmsManager.findDestinationsGroupedByFQName();
@@ -320,6 +323,7 @@ public class JMSManagerImpl implements JMSManager {
         }
 
         List<JMSMessageDomainDTO> jmsMessageDomains = getJMSMessageDomain(source, messageIds);
+        List<JmsMessage> pendingNotifications = getPendingNotifications(source, messageIds);
 
         int deleteMessages = internalJmsManager.deleteMessages(source, messageIds);
         if (deleteMessages == 0) {
@@ -330,6 +334,7 @@ public class JMSManagerImpl implements JMSManager {
                     "Actual: [{}], Expected [{}]", messageIds, source, deleteMessages, messageIds.length);
         }
         LOG.debug("Jms Message Ids [{}] deleted from the source queue [{}] ", messageIds, source);
+        removePendingNotifications(source, pendingNotifications);
         jmsMessageDomains.forEach(jmsMessageDomainDTO -> auditService.addJmsMessageDeletedAudit(jmsMessageDomainDTO.getJmsMessageId(),
                 source, jmsMessageDomainDTO.getDomainCode()));
     }
@@ -338,6 +343,9 @@ public class JMSManagerImpl implements JMSManager {
     public void deleteAllMessages(String source) {
         LOG.debug("Starting to delete all JMS messages from the source: {}", source);
         internalJmsManager.deleteAllMessages(source);
+        if (pendingNotificationService.isEnabled()) {
+            pendingNotificationService.removeAll(getQueueNames(source));
+        }
         LOG.debug("Finish to delete all JMS messages from the source: {}", source);
     }
 
@@ -347,11 +355,13 @@ public class JMSManagerImpl implements JMSManager {
         validateMessagesMove(source, jmsDestination, messageIds);
 
         List<JMSMessageDomainDTO> jmsMessageDomains = getJMSMessageDomain(source, messageIds);
+        List<JmsMessage> pendingNotifications = getPendingNotifications(source, messageIds);
 
         int movedMessageCount = internalJmsManager.moveMessages(source, destination, messageIds);
         if (movedMessageCount == 0) {
             throw new IllegalStateException("Failed to move messages from source [" + source + "] to destination [" + destination + "]: " + Arrays.toString(messageIds));
         }
+        removePendingNotifications(source, pendingNotifications);
 
         logAndAudit(source, destination, Arrays.asList(messageIds), movedMessageCount, jmsMessageDomains);
     }
@@ -383,6 +393,9 @@ public class JMSManagerImpl implements JMSManager {
         if (movedMessageCount == 0) {
             throw new MessageNotFoundException(String.format("Failed to move messages from source [%s] to destination [%s] with the selector [%s]", source, destination, completeSelector));
         }
+        if (pendingNotificationService.isEnabled()) {
+            removePendingNotifications(source, jmsMessageMapper.convert(messagesToMove));
+        }
 
         logAndAudit(source, destination, messageIds, movedMessageCount, jmsMessageDomains);
     }
@@ -472,6 +485,38 @@ public class JMSManagerImpl implements JMSManager {
         return false;
     }
 
+    /**
+     * @return the messages about to be deleted or moved, read only when their pending notifications are indexed
+     */
+    protected List<JmsMessage> getPendingNotifications(String source, String[] jmsMessageIds) {
+        if (!pendingNotificationService.isEnabled()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(jmsMessageIds)
+                .map(jmsMessageId -> getMessage(source, jmsMessageId))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    protected void removePendingNotifications(String source, List<JmsMessage> messages) {
+        final List<String> queueNames = getQueueNames(source);
+        for (JmsMessage message : messages) {
+            final String messageId = message.getCustomStringProperty(MessageConstants.MESSAGE_ID);
+            final String notificationType = message.getCustomStringProperty(MessageConstants.NOTIFICATION_TYPE);
+            if (messageId != null && notificationType != null) {
+                pendingNotificationService.remove(queueNames, messageId, NotificationType.valueOf(notificationType));
+            }
+        }
+    }
+
+    /**
+     * @return the names the notifications sent to the queue may have been recorded with: the queue name with or without its JMS module
+     */
+    protected List<String> getQueueNames(String source) {
+        String shortQueueName = source.contains("!") ? source.substring(source.lastIndexOf('!') + 1) : source;
+        return StringUtils.equals(source, shortQueueName) ? Collections.singletonList(source) : Arrays.asList(source, shortQueueName);
+    }
+
     protected List<JMSMessageDomainDTO> getJMSMessageDomain(String source, String[] messageIds) {
         return Arrays.stream(messageIds).map(jmsMessageId -> new JMSMessageDomainDTO(jmsMessageId,
                 retrieveDomainFromJMSMessage(source, jmsMessageId))).collect(Collectors.toList());
@@ -553,6 +598,10 @@ public class JMSManagerImpl implements JMSManager {
     }
 
     protected Collection<String> getQueueElements(String queueName, final NotificationType notificationType, final String finalRecipient) {
+        if (pendingNotificationService.isEnabled()) {
+            final int intMaxPendingMessagesRetrieveCount = domibusPropertyProvider.getIntegerProperty(DomibusPropertyMetadataManagerSPI.DOMIBUS_LIST_PENDING_MESSAGES_MAX_COUNT);
+            return pendingNotificationService.findMessageIds(queueName, notificationType, finalRecipient, intMaxPendingMessagesRetrieveCount);
+        }
         return browseQueue(queueName, notificationType, finalRecipient);
     }
 
@@ -599,6 +648,10 @@ public class JMSManagerImpl implements JMSManager {
         }
 
         JmsMessage message = consumeMessage(queueName, messageId);
+        if (pendingNotificationService.isEnabled()) {
+            // the notification is removed once consumed, or when it was not found in the queue anymore
+            pendingNotificationService.remove(queueName, messageId, NotificationType.MESSAGE_RECEIVED);
+        }
         if (message == null) {
             LOG.businessError(DomibusMessageCode.BUS_MSG_NOT_FOUND, messageId);
             throw new MessageNotFoundException(messageId, " pending for download");
@@ -19,6 +19,7 @@ public class JMSMessageMapper {
         InternalJmsMessage result = new InternalJmsMessage();
         result.setId(message.getId());
         result.setPriority(message.getPriority());
+        result.setDeliveryDelay(message.getDeliveryDelay());
         result.setJmsCorrelationId(message.getJmsCorrelationId());
         result.setContent(message.getContent());
         result.setTimestamp(message.getTimestamp());
@@ -32,6 +33,7 @@ public class JMSMessageMapper {
         JmsMessage result = new JmsMessage();
         result.setId(message.getId());
         result.setPriority(message.getPriority());
+        result.setDeliveryDelay(message.getDeliveryDelay());
         result.setJmsCorrelationId(message.getJmsCorrelationId());
         result.setContent(message.getContent());
         result.setTimestamp(message.getTimestamp());
@@ -0,0 +1,144 @@
+package eu.domibus.core.jms;
+
+import eu.domibus.common.NotificationType;
+import eu.domibus.core.dao.BasicDao;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @since 5.2
+ */
+@Repository
+public class PendingNotificationDao extends BasicDao<PendingNotificationEntity> {
+
+    public PendingNotificationDao() {
+        super(PendingNotificationEntity.class);
+    }
+
+    /**
+     * Finds the next page of pending notifications, in the order they were enqueued
+     *
+     * @param queueName        the notification queue
+     * @param notificationType the notification type
+     * @param finalRecipient   the final recipient of the messages or null for all final recipients
+     * @param lastEntityId     the entity id of the last notification of the previous page or 0 for the first page
+     * @param pageSize         the maximum number of notifications returned
+     * @return the pending notifications
+     */
+    public List<PendingNotificationEntity> findPage(String queueName, NotificationType notificationType, String finalRecipient, long lastEntityId, int pageSize) {
+        final TypedQuery<PendingNotificationEntity> query;
+        if (finalRecipient == null) {
+            query = em.createNamedQuery("PendingNotificationEntity.findByQueueAndType", PendingNotificationEntity.class);
+        } else {
+            query = em.createNamedQuery("PendingNotificationEntity.findByQueueTypeAndFinalRecipient", PendingNotificationEntity.class);
+            query.setParameter("FINAL_RECIPIENT", finalRecipient);
+        }
+        query.setParameter("QUEUE_NAME", queueName);
+        query.setParameter("NOTIFICATION_TYPE", notificationType);
+        query.setParameter("LAST_ENTITY_ID", lastEntityId);
+        query.setMaxResults(pageSize);
+        return query.getResultList();
+    }
+
+    /**
+     * @return the number of deleted notifications
+     */
+    @Transactional
+    public int delete(String queueName, String messageId, NotificationType notificationType) {
+        final Query query = em.createNamedQuery("PendingNotificationEntity.deleteByQueueAndMessageId");
+        query.setParameter("QUEUE_NAME", queueName);
+        query.setParameter("MESSAGE_ID", messageId);
+        query.setParameter("NOTIFICATION_TYPE", notificationType);
+        return query.executeUpdate();
+    }
+
+    /**
+     * @param queueNames the names the notification queue may have been recorded with
+     * @return the number of deleted notifications
+     */
+    @Transactional
+    public int delete(Collection<String> queueNames, String messageId, NotificationType notificationType) {
+        final Query query = em.createNamedQuery("PendingNotificationEntity.deleteByQueueNamesAndMessageId");
+        query.setParameter("QUEUE_NAMES", queueNames);
+        query.setParameter("MESSAGE_ID", messageId);
+        query.setParameter("NOTIFICATION_TYPE", notificationType);
+        return query.executeUpdate();
+    }
+
+    /**
+     * @return the number of deleted notifications
+     */
+    @Transactional
+    public int deleteByQueueNames(Collection<String> queueNames) {
+        final Query query = em.createNamedQuery("PendingNotificationEntity.deleteByQueueNames");
+        query.setParameter("QUEUE_NAMES", queueNames);
+        return query.executeUpdate();
+    }
+
+    /**
+     * Deletes the notifications of the user messages about to be deleted
+     *
+     * @return the number of deleted notifications
+     */
+    @Transactional
+    public int deleteByUserMessageEntityIds(List<Long> ids) {
+        final Query query = em.createNamedQuery("PendingNotificationEntity.deleteByUserMessageEntityIds");
+        query.setParameter("IDS", ids);
+        return query.executeUpdate();
+    }
+
+    /**
+     * Deletes the notifications of the user messages which do not exist anymore, e.g. whose partition was dropped
+     *
+     * @return the number of deleted notifications
+     */
+    @Transactional
+    public int deleteWithoutUserMessage() {
+        return em.createNamedQuery("PendingNotificationEntity.deleteWithoutUserMessage").executeUpdate();
+    }
+
+    /**
+     * @return the number of deleted notifications
+     */
+    @Transactional
+    public int deleteByEntityIds(List<Long> entityIds) {
+        final Query query = em.createNamedQuery("PendingNotificationEntity.deleteByEntityIds");
+        query.setParameter("ENTITY_IDS", entityIds);
+        return query.executeUpdate();
+    }
+
+    public List<String> findQueueNames() {
+        return em.createNamedQuery("PendingNotificationEntity.findQueueNames", String.class).getResultList();
+    }
+
+    /**
+     * @return the entity id of the last enqueued notification or 0 if there is none
+     */
+    public long findMaxEntityId() {
+        final Long maxEntityId = em.createNamedQuery("PendingNotificationEntity.findMaxEntityId", Long.class).getSingleResult();
+        return maxEntityId == null ? 0 : maxEntityId;
+    }
+
+    /**
+     * Finds the next page of pending notifications of all types sent to the queue up to the given notification
+     *
+     * @param queueName    the notification queue
+     * @param lastEntityId the entity id of the last notification of the previous page or 0 for the first page
+     * @param maxEntityId  the entity id of the last notification returned
+     * @param pageSize     the maximum number of notifications returned
+     * @return the pending notifications
+     */
+    public List<PendingNotificationEntity> findPageByQueue(String queueName, long lastEntityId, long maxEntityId, int pageSize) {
+        final TypedQuery<PendingNotificationEntity> query = em.createNamedQuery("PendingNotificationEntity.findByQueue", PendingNotificationEntity.class);
+        query.setParameter("QUEUE_NAME", queueName);
+        query.setParameter("LAST_ENTITY_ID", lastEntityId);
+        query.setParameter("MAX_ENTITY_ID", maxEntityId);
+        query.setMaxResults(pageSize);
+        return query.getResultList();
+    }
+}
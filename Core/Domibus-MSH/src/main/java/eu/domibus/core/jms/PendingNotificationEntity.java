@@ -0,0 +1,106 @@
+package eu.domibus.core.jms;
+
+import eu.domibus.api.model.AbstractBaseEntity;
+import eu.domibus.common.NotificationType;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import javax.persistence.*;
+
+/**
+ * A notification sent to the notification queue of a plugin and not yet consumed, indexed by queue, notification type
+ * and final recipient so that the pending messages are listed without browsing the queue.
+ *
+ * @since 5.2
+ */
+@NamedQueries({
+        @NamedQuery(name = "PendingNotificationEntity.findByQueueAndType", query = "select pn from PendingNotificationEntity pn " +
+                "where pn.queueName=:QUEUE_NAME and pn.notificationType=:NOTIFICATION_TYPE and pn.entityId > :LAST_ENTITY_ID order by pn.entityId"),
+        @NamedQuery(name = "PendingNotificationEntity.findByQueueTypeAndFinalRecipient", query = "select pn from PendingNotificationEntity pn " +
+                "where pn.queueName=:QUEUE_NAME and pn.notificationType=:NOTIFICATION_TYPE and pn.finalRecipient=:FINAL_RECIPIENT and pn.entityId > :LAST_ENTITY_ID order by pn.entityId"),
+        @NamedQuery(name = "PendingNotificationEntity.deleteByQueueAndMessageId", query = "delete from PendingNotificationEntity pn " +
+                "where pn.queueName=:QUEUE_NAME and pn.messageId=:MESSAGE_ID and pn.notificationType=:NOTIFICATION_TYPE"),
+        @NamedQuery(name = "PendingNotificationEntity.deleteByQueueNamesAndMessageId", query = "delete from PendingNotificationEntity pn " +
+                "where pn.queueName in :QUEUE_NAMES and pn.messageId=:MESSAGE_ID and pn.notificationType=:NOTIFICATION_TYPE"),
+        @NamedQuery(name = "PendingNotificationEntity.deleteByQueueNames", query = "delete from PendingNotificationEntity pn where pn.queueName in :QUEUE_NAMES"),
+        @NamedQuery(name = "PendingNotificationEntity.deleteByUserMessageEntityIds", query = "delete from PendingNotificationEntity pn " +
+                "where pn.messageId in (select um.messageId from UserMessage um where um.entityId in :IDS)"),
+        @NamedQuery(name = "PendingNotificationEntity.deleteWithoutUserMessage", query = "delete from PendingNotificationEntity pn " +
+                "where not exists (select um.entityId from UserMessage um where um.messageId = pn.messageId)"),
+        @NamedQuery(name = "PendingNotificationEntity.deleteByEntityIds", query = "delete from PendingNotificationEntity pn where pn.entityId in :ENTITY_IDS"),
+        @NamedQuery(name = "PendingNotificationEntity.findQueueNames", query = "select distinct pn.queueName from PendingNotificationEntity pn"),
+        @NamedQuery(name = "PendingNotificationEntity.findMaxEntityId", query = "select max(pn.entityId) from PendingNotificationEntity pn"),
+        @NamedQuery(name = "PendingNotificationEntity.findByQueue", query = "select pn from PendingNotificationEntity pn " +
+                "where pn.queueName=:QUEUE_NAME and pn.entityId > :LAST_ENTITY_ID and pn.entityId <= :MAX_ENTITY_ID order by pn.entityId"),
+})
+@Entity
+@Table(name = "TB_PENDING_NOTIFICATION")
+public class PendingNotificationEntity extends AbstractBaseEntity {
+
+    @Column(name = "MESSAGE_ID")
+    protected String messageId;
+
+    @Column(name = "QUEUE_NAME")
+    protected String queueName;
+
+    @Column(name = "BACKEND_NAME")
+    protected String backendName;
+
+    @Column(name = "NOTIFICATION_TYPE")
+    @Enumerated(EnumType.STRING)
+    protected NotificationType notificationType;
+
+    @Column(name = "FINAL_RECIPIENT")
+    protected String finalRecipient;
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+    }
+
+    public String getQueueName() {
+        return queueName;
+    }
+
+    public void setQueueName(String queueName) {
+        this.queueName = queueName;
+    }
+
+    public String getBackendName() {
+        return backendName;
+    }
+
+    public void setBackendName(String backendName) {
+        this.backendName = backendName;
+    }
+
+    public NotificationType getNotificationType() {
+        return notificationType;
+    }
+
+    public void setNotificationType(NotificationType notificationType) {
+        this.notificationType = notificationType;
+    }
+
+    public String getFinalRecipient() {
+        return finalRecipient;
+    }
+
+    public void setFinalRecipient(String finalRecipient) {
+        this.finalRecipient = finalRecipient;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .appendSuper(super.toString())
+                .append("messageId", messageId)
+                .append("queueName", queueName)
+                .append("backendName", backendName)
+                .append("notificationType", notificationType)
+                .append("finalRecipient", finalRecipient)
+                .toString();
+    }
+}
@@ -0,0 +1,41 @@
+package eu.domibus.core.jms;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.security.AuthUtils;
+import eu.domibus.core.scheduler.DomibusQuartzJobBean;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Removes from the index the notifications which are not pending anymore although they were not consumed
+ *
+ * @since 5.2
+ */
+@DisallowConcurrentExecution
+public class PendingNotificationReconciliationWorker extends DomibusQuartzJobBean {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PendingNotificationReconciliationWorker.class);
+
+    @Autowired
+    protected PendingNotificationService pendingNotificationService;
+
+    @Autowired
+    private AuthUtils authUtils;
+
+    @Override
+    protected void executeJob(JobExecutionContext context, Domain domain) {
+        if (!pendingNotificationService.isEnabled()) {
+            LOG.trace("Nothing to do: the pending notifications are not indexed");
+            return;
+        }
+        pendingNotificationService.reconcile();
+    }
+
+    @Override
+    public void setQuartzJobSecurityContext() {
+        authUtils.setAuthenticationToSecurityContext("pendingNotificationReconciliation_user", "pendingNotificationReconciliation_password");
+    }
+}
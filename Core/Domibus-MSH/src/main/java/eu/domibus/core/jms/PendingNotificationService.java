@@ -0,0 +1,184 @@
+package eu.domibus.core.jms;
+
+import eu.domibus.api.jms.JMSManager;
+import eu.domibus.api.jms.JmsMessage;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.common.NotificationType;
+import eu.domibus.messaging.MessageConstants;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_LIST_PENDING_MESSAGES_INDEX_ENABLED;
+
+/**
+ * Keeps the index of the notifications pending in the plugin notification queues in sync with the queues: a notification
+ * is added when it is sent to the queue and removed when it is consumed by the plugin listener, removed from pending,
+ * deleted or moved by an admin or when its message is deleted. The notifications removed by the broker itself (e.g.
+ * expired or moved to the DLQ) are removed by {@link #reconcile()}.
+ *
+ * @since 5.2
+ */
+@Service
+public class PendingNotificationService {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PendingNotificationService.class);
+
+    /**
+     * The number of notifications read at once when all the pending messages are listed
+     */
+    protected static final int PAGE_SIZE = 1000;
+
+    protected final PendingNotificationDao pendingNotificationDao;
+
+    protected final DomibusPropertyProvider domibusPropertyProvider;
+
+    protected final JMSManager jmsManager;
+
+    public PendingNotificationService(PendingNotificationDao pendingNotificationDao, DomibusPropertyProvider domibusPropertyProvider,
+                                      @Lazy JMSManager jmsManager) {
+        this.pendingNotificationDao = pendingNotificationDao;
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.jmsManager = jmsManager;
+    }
+
+    public boolean isEnabled() {
+        return BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_LIST_PENDING_MESSAGES_INDEX_ENABLED));
+    }
+
+    @Transactional
+    public void add(String queueName, String backendName, String messageId, NotificationType notificationType, String finalRecipient) {
+        PendingNotificationEntity pendingNotification = new PendingNotificationEntity();
+        pendingNotification.setQueueName(queueName);
+        pendingNotification.setBackendName(backendName);
+        pendingNotification.setMessageId(messageId);
+        pendingNotification.setNotificationType(notificationType);
+        pendingNotification.setFinalRecipient(finalRecipient);
+        pendingNotificationDao.create(pendingNotification);
+        LOG.debug("Added pending notification [{}]", pendingNotification);
+    }
+
+    /**
+     * @return true if the notification was pending
+     */
+    @Transactional
+    public boolean remove(String queueName, String messageId, NotificationType notificationType) {
+        final int deleted = pendingNotificationDao.delete(queueName, messageId, notificationType);
+        LOG.debug("Removed [{}] pending notifications [{}] of message [{}] from queue [{}]", deleted, notificationType, messageId, queueName);
+        return deleted > 0;
+    }
+
+    /**
+     * Removes the notification of the message deleted from or moved out of the queue by an admin
+     *
+     * @param queueNames the names the queue may have been recorded with
+     */
+    @Transactional
+    public void remove(Collection<String> queueNames, String messageId, NotificationType notificationType) {
+        final int deleted = pendingNotificationDao.delete(queueNames, messageId, notificationType);
+        LOG.debug("Removed [{}] pending notifications [{}] of message [{}] from queues [{}]", deleted, notificationType, messageId, queueNames);
+    }
+
+    /**
+     * Removes all the notifications of the queue emptied by an admin
+     *
+     * @param queueNames the names the queue may have been recorded with
+     */
+    @Transactional
+    public void removeAll(Collection<String> queueNames) {
+        final int deleted = pendingNotificationDao.deleteByQueueNames(queueNames);
+        LOG.debug("Removed [{}] pending notifications from queues [{}]", deleted, queueNames);
+    }
+
+    /**
+     * Removes the notifications of the user messages about to be deleted
+     *
+     * @param ids the entity ids of the user messages
+     */
+    @Transactional
+    public void removeByUserMessages(List<Long> ids) {
+        final int deleted = pendingNotificationDao.deleteByUserMessageEntityIds(ids);
+        LOG.debug("Removed [{}] pending notifications of the deleted user messages", deleted);
+    }
+
+    /**
+     * Removes the notifications whose user message does not exist anymore and the ones not found in their queue anymore,
+     * e.g. because the broker expired them or moved them to the DLQ.
+     * <p>
+     * The notifications of a queue are read before the queue is browsed: a notification committed before it is browsed is
+     * either found in the queue or consumed, in which case it is removed by the consumer anyway.
+     */
+    public void reconcile() {
+        int deleted = pendingNotificationDao.deleteWithoutUserMessage();
+        LOG.debug("Removed [{}] pending notifications of the deleted user messages", deleted);
+
+        final long maxEntityId = pendingNotificationDao.findMaxEntityId();
+        for (String queueName : pendingNotificationDao.findQueueNames()) {
+            deleted += reconcile(queueName, maxEntityId);
+        }
+        if (deleted > 0) {
+            LOG.info("Removed [{}] notifications which were not pending anymore", deleted);
+        }
+    }
+
+    protected int reconcile(String queueName, long maxEntityId) {
+        final Map<String, List<Long>> entityIdsByNotification = new HashMap<>();
+        long lastEntityId = 0;
+        List<PendingNotificationEntity> page;
+        do {
+            page = pendingNotificationDao.findPageByQueue(queueName, lastEntityId, maxEntityId, PAGE_SIZE);
+            for (PendingNotificationEntity pendingNotification : page) {
+                entityIdsByNotification.computeIfAbsent(getNotificationKey(pendingNotification.getMessageId(), pendingNotification.getNotificationType().name()),
+                        key -> new ArrayList<>()).add(pendingNotification.getEntityId());
+                lastEntityId = pendingNotification.getEntityId();
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        final List<JmsMessage> queuedNotifications = jmsManager.browseClusterMessages(queueName, MessageConstants.NOTIFICATION_TYPE + " IS NOT NULL");
+        for (JmsMessage queuedNotification : queuedNotifications) {
+            entityIdsByNotification.remove(getNotificationKey(queuedNotification.getCustomStringProperty(MessageConstants.MESSAGE_ID),
+                    queuedNotification.getCustomStringProperty(MessageConstants.NOTIFICATION_TYPE)));
+        }
+
+        final List<Long> staleEntityIds = new ArrayList<>();
+        entityIdsByNotification.values().forEach(staleEntityIds::addAll);
+        int deleted = 0;
+        for (int i = 0; i < staleEntityIds.size(); i += PAGE_SIZE) {
+            deleted += pendingNotificationDao.deleteByEntityIds(staleEntityIds.subList(i, Math.min(i + PAGE_SIZE, staleEntityIds.size())));
+        }
+        LOG.debug("Removed [{}] notifications not found in queue [{}]", deleted, queueName);
+        return deleted;
+    }
+
+    protected String getNotificationKey(String messageId, String notificationType) {
+        return notificationType + ":" + messageId;
+    }
+
+    /**
+     * @param maxCount the maximum number of message ids returned or 0 for all of them
+     * @return the ids of the messages having a pending notification, in the order the notifications were enqueued
+     */
+    @Transactional(readOnly = true)
+    public Collection<String> findMessageIds(String queueName, NotificationType notificationType, String finalRecipient, int maxCount) {
+        final List<String> result = new ArrayList<>();
+        long lastEntityId = 0;
+        while (true) {
+            final int pageSize = maxCount == 0 ? PAGE_SIZE : Math.min(PAGE_SIZE, maxCount - result.size());
+            final List<PendingNotificationEntity> page = pendingNotificationDao.findPage(queueName, notificationType, finalRecipient, lastEntityId, pageSize);
+            for (PendingNotificationEntity pendingNotification : page) {
+                result.add(pendingNotification.getMessageId());
+            }
+            if (page.size() < pageSize || (maxCount != 0 && result.size() >= maxCount)) {
+                break;
+            }
+            lastEntityId = page.get(page.size() - 1).getEntityId();
+        }
+        LOG.debug("Found [{}] pending notifications [{}] in queue [{}] for final recipient [{}]", result.size(), notificationType, queueName, finalRecipient);
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package eu.domibus.core.message;
+
+import eu.domibus.api.exceptions.RequestValidationException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Position of a message log entry in a keyset paginated search: the entity id of the entry and, when sorting on the
+ * received date, its received date.
+ * <p>
+ * The cursor is exchanged with the clients as a string: {@code <entityId>} or {@code <receivedMillis>-<entityId>}.
+ *
+ * @since 5.2
+ */
+public class MessageLogCursor {
+
+    private static final String SEPARATOR = "-";
+
+    private final long entityId;
+
+    private final Date received;
+
+    public MessageLogCursor(long entityId, Date received) {
+        this.entityId = entityId;
+        this.received = received;
+    }
+
+    public static MessageLogCursor valueOf(String cursor) {
+        if (StringUtils.isBlank(cursor)) {
+            return null;
+        }
+        try {
+            if (!StringUtils.contains(cursor, SEPARATOR)) {
+                return new MessageLogCursor(Long.parseLong(cursor), null);
+            }
+            final long received = Long.parseLong(StringUtils.substringBefore(cursor, SEPARATOR));
+            final long entityId = Long.parseLong(StringUtils.substringAfter(cursor, SEPARATOR));
+            return new MessageLogCursor(entityId, new Date(received));
+        } catch (NumberFormatException e) {
+            throw new RequestValidationException("Invalid message log cursor [" + cursor + "]");
+        }
+    }
+
+    public long getEntityId() {
+        return entityId;
+    }
+
+    public Date getReceived() {
+        return received;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MessageLogCursor that = (MessageLogCursor) o;
+        return entityId == that.entityId && Objects.equals(received, that.received);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entityId, received);
+    }
+
+    @Override
+    public String toString() {
+        if (received == null) {
+            return String.valueOf(entityId);
+        }
+        return received.getTime() + SEPARATOR + entityId;
+    }
+}
@@ -1,5 +1,6 @@
 package eu.domibus.core.message;
 
+import eu.domibus.api.exceptions.RequestValidationException;
 import eu.domibus.api.model.DomibusBaseEntity;
 import eu.domibus.common.MSHRole;
 import eu.domibus.common.MessageStatus;
@@ -99,4 +100,34 @@ public abstract class MessageLogDao<F extends DomibusBaseEntity> extends ListDao
         return result;
     }
 
+    /**
+     * Keyset pagination: returns the positions of the entries following the given cursor, without offset.
+     *
+     * @param cursor the position of the last entry of the previous page or null for the first page
+     * @param max    the maximum number of positions returned
+     */
+    public List<MessageLogCursor> findCursorsPaged(MessageLogCursor cursor, int max, String column, boolean asc, Map<String, Object> filters) {
+        MessageLogInfoFilter filterService = getMessageLogInfoFilter();
+        final boolean sortOnReceived = filterService.isKeysetSortOnReceived(column);
+        if (cursor != null && sortOnReceived && cursor.getReceived() == null) {
+            throw new RequestValidationException("Cursor [" + cursor + "] cannot be used when sorting on [" + column + "]");
+        }
+        String keysetQuery = filterService.getKeysetQuery(column, asc, filters, cursor != null);
+        TypedQuery<Object[]> typedQuery = em.createQuery(keysetQuery, Object[].class);
+        TypedQuery<Object[]> queryParameterized = filterService.applyParameters(typedQuery, filters);
+        if (cursor != null) {
+            queryParameterized.setParameter(MessageLogInfoFilter.CURSOR_ENTITY_ID, cursor.getEntityId());
+            if (sortOnReceived) {
+                queryParameterized.setParameter(MessageLogInfoFilter.CURSOR_RECEIVED, cursor.getReceived());
+            }
+        }
+        queryParameterized.setMaxResults(max);
+
+        List<MessageLogCursor> result = new ArrayList<>();
+        for (Object[] row : queryParameterized.getResultList()) {
+            result.add(new MessageLogCursor(((Number) row[0]).longValue(), sortOnReceived ? (Date) row[1] : null));
+        }
+        return result;
+    }
+
 }
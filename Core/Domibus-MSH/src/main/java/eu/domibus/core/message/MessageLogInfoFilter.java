@@ -3,6 +3,7 @@ package eu.domibus.core.message;
 import com.google.common.collect.Maps;
 import eu.domibus.api.exceptions.DomibusCoreErrorCode;
 import eu.domibus.api.exceptions.DomibusCoreException;
+import eu.domibus.api.exceptions.RequestValidationException;
 import eu.domibus.api.model.ServiceEntity;
 import eu.domibus.core.dao.SingleValueDictionaryDao;
 import eu.domibus.core.message.dictionary.*;
@@ -60,6 +61,9 @@ public abstract class MessageLogInfoFilter {
     public static final String MAX_ENTITY_ID = "maxEntityId";
     public static final String RECEIVED_FROM = "receivedFrom";
     public static final String RECEIVED_TO = "receivedTo";
+    public static final String ENTITY_IDS = "entityIds";
+    public static final String CURSOR_ENTITY_ID = "cursorEntityId";
+    public static final String CURSOR_RECEIVED = "cursorReceived";
 
     Map<String, FilterParameterExtractor> parameterExtractors = new HashMap<>();
 
@@ -117,6 +121,7 @@ public abstract class MessageLogInfoFilter {
                 return LOG_RECEIVED;
             case MIN_ENTITY_ID:
             case MAX_ENTITY_ID:
+            case ENTITY_IDS:
                 return LOG_MESSAGE_ENTITY_ID;
             case "sendAttempts":
                 return LOG_SEND_ATTEMPTS;
@@ -164,6 +169,10 @@ public abstract class MessageLogInfoFilter {
         String usedColumn = getHQLKey(sortColumn);
         if (!StringUtils.isBlank(usedColumn)) {
             result.append(" order by ").append(usedColumn).append(asc ? " asc" : " desc");
+            // the entries of a cursor page are ordered like the keyset, the entity id breaking the ties
+            if (filters.get(ENTITY_IDS) != null && !StringUtils.equals(usedColumn, LOG_MESSAGE_ENTITY_ID)) {
+                result.append(", ").append(LOG_MESSAGE_ENTITY_ID).append(asc ? " asc" : " desc");
+            }
         }
         return result;
     }
@@ -191,7 +200,7 @@ public abstract class MessageLogInfoFilter {
             return " >= :";
         } else if (StringUtils.equalsAny(filterKey, RECEIVED_TO, MAX_ENTITY_ID)) {
             return " <= :";
-        } else if (StringUtils.equalsAny(filterKey, MESSAGE_SERVICE_TYPE, MESSAGE_SERVICE_VALUE, PROPERTY_FROM_PARTY_ID, PROPERTY_TO_PARTY_ID)) {
+        } else if (StringUtils.equalsAny(filterKey, MESSAGE_SERVICE_TYPE, MESSAGE_SERVICE_VALUE, PROPERTY_FROM_PARTY_ID, PROPERTY_TO_PARTY_ID, ENTITY_IDS)) {
             return " IN :";
         }
         return " = :";
@@ -334,6 +343,52 @@ public abstract class MessageLogInfoFilter {
         return result.toString();
     }
 
+    /**
+     * Constructs the query returning the entity id and the received date of the entries following the cursor, in the
+     * order of the keyset (the sort column, if any, then the entity id). Only the joins needed by the filters are used.
+     *
+     * @param column the sort column: null or entityId to sort on the entity id only, or received
+     * @param cursor true if the query should contain the cursor parameters
+     */
+    public String getKeysetQuery(String column, boolean asc, Map<String, Object> filters, boolean cursor) {
+        final boolean sortOnReceived = isKeysetSortOnReceived(column);
+        StringBuilder result = new StringBuilder(getQuery(filters, "select " + LOG_MESSAGE_ENTITY_ID + ", " + LOG_RECEIVED));
+
+        final String operator = asc ? " > :" : " < :";
+        if (cursor) {
+            setSeparator(result.toString(), result);
+            if (sortOnReceived) {
+                result.append("(").append(LOG_RECEIVED).append(operator).append(CURSOR_RECEIVED)
+                        .append(" or (").append(LOG_RECEIVED).append(" = :").append(CURSOR_RECEIVED)
+                        .append(" and ").append(LOG_MESSAGE_ENTITY_ID).append(operator).append(CURSOR_ENTITY_ID).append("))");
+            } else {
+                result.append(LOG_MESSAGE_ENTITY_ID).append(operator).append(CURSOR_ENTITY_ID);
+            }
+        }
+
+        final String direction = asc ? " asc" : " desc";
+        result.append(" order by ");
+        if (sortOnReceived) {
+            result.append(LOG_RECEIVED).append(direction).append(", ");
+        }
+        result.append(LOG_MESSAGE_ENTITY_ID).append(direction);
+        return result.toString();
+    }
+
+    /**
+     * @return true if the keyset is made of the received date and the entity id, false if it is made of the entity id only
+     * @throws RequestValidationException if the column cannot be used for keyset pagination
+     */
+    public boolean isKeysetSortOnReceived(String column) {
+        if (StringUtils.isBlank(column) || StringUtils.equals(column, "entityId")) {
+            return false;
+        }
+        if (StringUtils.equals(column, "received")) {
+            return true;
+        }
+        throw new RequestValidationException("Column [" + column + "] is not supported for the cursor based search; please use [received] or [entityId]");
+    }
+
     public String getCountQueryBody(Map<String, Object> allFilters) {
         final Map<String, Object> filters = getNonEmptyParams(allFilters);
 
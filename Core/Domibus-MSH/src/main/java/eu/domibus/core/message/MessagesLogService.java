@@ -16,6 +16,17 @@ public interface MessagesLogService {
 
     MessageLogResultRO countAndFindPaged(MessageType messageType, int from, int max, String orderByColumn, boolean asc, Map<String, Object> filters, List<String> fields);
 
+    /**
+     * Keyset (cursor based) variant of {@link #countAndFindPaged}: the page is located using the position of the last entry
+     * of the previous page instead of an offset, so its cost does not depend on the page number.
+     *
+     * @param cursor           the {@link MessageLogResultRO#getNextCursor()} of the previous page or null for the first page
+     * @param orderByColumn    null or entityId to sort on the entity id, or received
+     * @param approximateCount if true, the messages are counted up to {@link MessagesLogServiceImpl#APPROXIMATE_COUNT_LIMIT}:
+     *                         when there are more, the limit is returned as an estimated count
+     */
+    MessageLogResultRO findPagedByCursor(MessageType messageType, String cursor, int max, String orderByColumn, boolean asc, boolean approximateCount, Map<String, Object> filters, List<String> fields);
+
     List<MessageLogInfo> findAllInfoCSV(MessageType messageType, int max, String orderByColumn, boolean asc, Map<String, Object> filters, List<String> fields);
 
 }
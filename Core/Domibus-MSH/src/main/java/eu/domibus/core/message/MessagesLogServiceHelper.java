@@ -23,4 +23,15 @@ public interface MessagesLogServiceHelper {
      */
     long calculateNumberOfMessages(MessageLogDaoBase dao, Map<String, Object> filters, MessageLogResultRO result);
 
+    /**
+     * Calculates the number of messages based on filters, counting them up to the given limit
+     *
+     * @param dao     common denominator between dao classes
+     * @param filters the current filters
+     * @param result  needed to set the count and estimate flag
+     * @param limit   the number of messages above which the count is estimated to the limit; 0 or less to always count them
+     * @return returns the count whick can be real or estimated, in case the limit is achieved
+     */
+    long calculateNumberOfMessages(MessageLogDaoBase dao, Map<String, Object> filters, MessageLogResultRO result, int limit);
+
 }
@@ -27,9 +27,14 @@ public class MessagesLogServiceHelperImpl implements MessagesLogServiceHelper {
 
     @Override
     public long calculateNumberOfMessages(MessageLogDaoBase dao, Map<String, Object> filters, MessageLogResultRO result) {
+        Integer limit = domibusPropertyProvider.getIntegerProperty(DOMIBUS_UI_MESSAGE_LOGS_COUNT_LIMIT);
+        return calculateNumberOfMessages(dao, filters, result, limit);
+    }
+
+    @Override
+    public long calculateNumberOfMessages(MessageLogDaoBase dao, Map<String, Object> filters, MessageLogResultRO result, int limit) {
         long count;
         boolean isEstimated;
-        Integer limit = domibusPropertyProvider.getIntegerProperty(DOMIBUS_UI_MESSAGE_LOGS_COUNT_LIMIT);
         if (limit > 0 && dao.hasMoreEntriesThan(filters, limit)) {
             count = limit;
             isEstimated = true;
@@ -10,12 +10,15 @@ import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.web.rest.ro.MessageLogRO;
 import eu.domibus.web.rest.ro.MessageLogResultRO;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static eu.domibus.core.message.MessageLogInfoFilter.ENTITY_IDS;
+
 /**
  * @author Federico Martini
  * @author Ion Perpegel
@@ -26,6 +29,8 @@ public class MessagesLogServiceImpl implements MessagesLogService {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(MessagesLogServiceImpl.class);
 
+    public static final int APPROXIMATE_COUNT_LIMIT = 1000;
+
     private final Set<MessageStatus> hasNoEnvelopes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
             MessageStatus.SEND_FAILURE,
             MessageStatus.WAITING_FOR_RETRY,
@@ -71,12 +76,38 @@ public class MessagesLogServiceImpl implements MessagesLogService {
         MessageLogDao dao = getMessageLogDao(messageType);
         List<MessageLogInfo> resultList = countAndFilter(dao, from, max, column, asc, filters, fields, result);
 
-        List<MessageLogRO> convertedList = resultList.stream()
-                .map(messageLogInfo -> messageCoreConverter.messageLogInfoToMessageLogRO(messageLogInfo))
-                .collect(Collectors.toList());
+        setMessageLogEntries(result, resultList);
 
-        setCanDownloadMessageAndEnvelope(convertedList);
-        result.setMessageLogEntries(convertedList);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MessageLogResultRO findPagedByCursor(MessageType messageType, String cursor, int max, String column, boolean asc, boolean approximateCount, Map<String, Object> filters, List<String> fields) {
+        MessageLogResultRO result = new MessageLogResultRO();
+
+        MessageLogDao dao = getMessageLogDao(messageType);
+        // one more entry is read to know if there is a next page
+        List<MessageLogCursor> cursors = dao.findCursorsPaged(MessageLogCursor.valueOf(cursor), max + 1, column, asc, filters);
+        final boolean hasNextPage = cursors.size() > max;
+        if (hasNextPage) {
+            cursors = cursors.subList(0, max);
+            result.setNextCursor(cursors.get(cursors.size() - 1).toString());
+        }
+
+        List<MessageLogInfo> resultList = findAllInfoByCursors(dao, cursors, column, asc, filters, fields);
+
+        if (approximateCount) {
+            LOG.debug("Counting the messages up to [{}]", APPROXIMATE_COUNT_LIMIT);
+            messagesLogServiceHelper.calculateNumberOfMessages(dao, filters, result, APPROXIMATE_COUNT_LIMIT);
+        } else {
+            messagesLogServiceHelper.calculateNumberOfMessages(dao, filters, result);
+        }
+
+        setMessageLogEntries(result, resultList);
 
         return result;
     }
@@ -107,6 +138,35 @@ public class MessagesLogServiceImpl implements MessagesLogService {
         return resultList;
     }
 
+    /**
+     * Loads the entries of the page found by the keyset query; the entity ids are used as filter, so only the entries of
+     * the page are read.
+     */
+    protected List<MessageLogInfo> findAllInfoByCursors(MessageLogDao dao, List<MessageLogCursor> cursors, String column, boolean asc,
+                                                        Map<String, Object> filters, List<String> fields) {
+        if (cursors.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final Map<String, Object> pageFilters = new HashMap<>(filters);
+        pageFilters.put(ENTITY_IDS, cursors.stream().map(MessageLogCursor::getEntityId).collect(Collectors.toList()));
+        final String sortColumn = StringUtils.isBlank(column) || StringUtils.equals(column, "entityId") ? ENTITY_IDS : column;
+
+        List<MessageLogInfo> resultList = dao.findAllInfoPaged(0, cursors.size(), sortColumn, asc, pageFilters, fields);
+        resultList.forEach(msgInfo -> {
+            messageLogDictionaryDataService.addDictionaryData(fields, msgInfo);
+        });
+        return resultList;
+    }
+
+    protected void setMessageLogEntries(MessageLogResultRO result, List<MessageLogInfo> resultList) {
+        List<MessageLogRO> convertedList = resultList.stream()
+                .map(messageLogInfo -> messageCoreConverter.messageLogInfoToMessageLogRO(messageLogInfo))
+                .collect(Collectors.toList());
+
+        setCanDownloadMessageAndEnvelope(convertedList);
+        result.setMessageLogEntries(convertedList);
+    }
+
     protected void setCanDownloadMessageAndEnvelope(List<MessageLogRO> resultList) {
         LOG.debug("Check whether the message's can download or not.");
         for (MessageLogRO messageLogRO : resultList) {
@@ -2,12 +2,23 @@ package eu.domibus.core.message;
 
 import eu.domibus.api.model.PartInfo;
 import eu.domibus.core.dao.BasicDao;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.hibernate.Session;
 import org.hibernate.jpa.QueryHints;
 import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.sql.PreparedStatement;
 import java.util.List;
 
 /**
@@ -17,6 +28,10 @@ import java.util.List;
 @Repository
 public class PartInfoDao extends BasicDao<PartInfo> {
 
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PartInfoDao.class);
+
+    protected static final String UPDATE_BINARY_DATA = "UPDATE TB_PART_INFO SET BINARY_DATA = ? WHERE ID_PK = ?";
+
     public PartInfoDao() {
         super(PartInfo.class);
     }
@@ -54,4 +69,49 @@ public class PartInfoDao extends BasicDao<PartInfo> {
         query.setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false);
         return query.getResultList();
     }
+
+    /**
+     * Streams the payload stored in the {@link PartInfo#getBinaryDataFile()} into the BINARY_DATA column of the already
+     * persisted part info, without loading it in memory. The file is deleted once the current transaction completes.
+     */
+    public void saveBinaryData(final PartInfo partInfo) {
+        final File binaryDataFile = partInfo.getBinaryDataFile();
+        if (binaryDataFile == null) {
+            return;
+        }
+        em.flush();
+        LOG.debug("Streaming the payload [{}] from the file [{}] into the database", partInfo.getHref(), binaryDataFile);
+        em.unwrap(Session.class).doWork(connection -> {
+            try (InputStream inputStream = Files.newInputStream(binaryDataFile.toPath());
+                 PreparedStatement statement = connection.prepareStatement(UPDATE_BINARY_DATA)) {
+                statement.setBinaryStream(1, inputStream, binaryDataFile.length());
+                statement.setLong(2, partInfo.getEntityId());
+                statement.executeUpdate();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the payload [" + partInfo.getHref() + "] from the file [" + binaryDataFile + "]", e);
+            }
+        });
+        deleteAfterCompletion(binaryDataFile);
+    }
+
+    protected void deleteAfterCompletion(final File binaryDataFile) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteBinaryDataFile(binaryDataFile);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                deleteBinaryDataFile(binaryDataFile);
+            }
+        });
+    }
+
+    protected void deleteBinaryDataFile(final File binaryDataFile) {
+        try {
+            Files.deleteIfExists(binaryDataFile.toPath());
+        } catch (IOException e) {
+            LOG.warn("Could not delete the payload file [{}]", binaryDataFile, e);
+        }
+    }
 }
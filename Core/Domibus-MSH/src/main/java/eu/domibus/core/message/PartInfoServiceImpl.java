@@ -32,6 +32,7 @@ import javax.activation.DataHandler;
 import javax.activation.DataSource;
 import javax.crypto.Cipher;
 import javax.mail.util.ByteArrayDataSource;
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -68,6 +69,7 @@ public class PartInfoServiceImpl implements PartInfoService {
     public void create(PartInfo partInfo, UserMessage userMessage) {
         partInfo.setUserMessage(userMessage);
         partInfoDao.create(partInfo);
+        partInfoDao.saveBinaryData(partInfo);
     }
 
     @Override
@@ -231,6 +233,13 @@ public class PartInfoServiceImpl implements PartInfoService {
             createPayloadDataHandler(partInfo, fsDataSource);
             return;
         }
+        /* Create payload data handler from the payload streamed into the database */
+        File binaryDataFile = partInfo.getBinaryDataFile();
+        if (partInfo.getBinaryData() == null && binaryDataFile != null) {
+            LOG.debug("LoadBinary from the streamed file: [{}]", binaryDataFile);
+            createPayloadDataHandler(partInfo, new AutoCloseFileDataSource(binaryDataFile.getAbsolutePath()));
+            return;
+        }
         /* Create payload data handler from binaryData (byte[]) */
         byte[] binaryData = partInfo.getBinaryData();
         if (binaryData == null) {
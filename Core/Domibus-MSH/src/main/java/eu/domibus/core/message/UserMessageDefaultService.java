@@ -22,6 +22,7 @@ import eu.domibus.core.audit.AuditService;
 import eu.domibus.core.converter.MessageCoreMapper;
 import eu.domibus.core.error.ErrorLogService;
 import eu.domibus.core.jms.DispatchMessageCreator;
+import eu.domibus.core.jms.PendingNotificationService;
 import eu.domibus.core.message.acknowledge.MessageAcknowledgementDao;
 import eu.domibus.core.message.attempt.MessageAttemptDao;
 import eu.domibus.core.message.converter.MessageConverterService;
@@ -195,6 +196,9 @@ public class UserMessageDefaultService implements UserMessageService {
     @Autowired
     private PlatformTransactionManager transactionManager;
 
+    @Autowired
+    protected PendingNotificationService pendingNotificationService;
+
     @PersistenceContext(unitName = JPAConstants.PERSISTENCE_UNIT_NAME)
     protected EntityManager em;
 
@@ -279,6 +283,17 @@ public class UserMessageDefaultService implements UserMessageService {
         scheduleSending(userMessage, userMessageLog, getDispatchMessageCreator(userMessage.getMessageId(), userMessage.getEntityId()).createMessage());
     }
 
+    /**
+     * Schedules the sending of the message, the JMS message being delivered only after the given delay in milliseconds
+     */
+    public void scheduleSending(UserMessage userMessage, UserMessageLog userMessageLog, long deliveryDelay) {
+        final JmsMessage jmsMessage = getDispatchMessageCreator(userMessage.getMessageId(), userMessage.getEntityId()).createMessage();
+        if (deliveryDelay > 0) {
+            jmsMessage.setDeliveryDelay(deliveryDelay);
+        }
+        scheduleSending(userMessage, userMessageLog, jmsMessage);
+    }
+
     protected DispatchMessageCreator getDispatchMessageCreator(String userMessageId, long userMessageEntityId) {
         return new DispatchMessageCreator(userMessageId, userMessageEntityId);
     }
@@ -689,6 +704,9 @@ public class UserMessageDefaultService implements UserMessageService {
         logDeleted("Deleted [{}] deleteErrorLogsByMessageIdInError.", deleteResult);
         deleteResult = messageAcknowledgementDao.deleteMessageAcknowledgementsByMessageIds(ids);
         logDeleted("Deleted [{}] deleteMessageAcknowledgementsByMessageIds.", deleteResult);
+        if (pendingNotificationService.isEnabled()) {
+            pendingNotificationService.removeByUserMessages(ids);
+        }
 
         deleteResult = userMessageDao.deleteMessages(ids);
         logDeleted("Deleted [{}] userMessages.", deleteResult);
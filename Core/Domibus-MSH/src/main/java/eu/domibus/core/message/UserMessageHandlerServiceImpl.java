@@ -26,6 +26,8 @@ import eu.domibus.core.message.receipt.AS4ReceiptService;
 import eu.domibus.core.message.splitandjoin.MessageGroupDao;
 import eu.domibus.core.message.splitandjoin.SplitAndJoinService;
 import eu.domibus.core.metrics.Counter;
+import eu.domibus.core.metrics.MessageStage;
+import eu.domibus.core.metrics.StageTimingService;
 import eu.domibus.core.metrics.Timer;
 import eu.domibus.core.payload.PayloadProfileValidator;
 import eu.domibus.core.payload.persistence.InvalidPayloadSizeException;
@@ -164,6 +166,9 @@ public class UserMessageHandlerServiceImpl implements UserMessageHandlerService
     @Autowired
     protected MetricRegistry metricRegistry;
 
+    @Autowired
+    protected StageTimingService stageTimingService;
+
     @Override
     @Timer(clazz = UserMessageHandlerServiceImpl.class, value = "handleNewUserMessage")
     @Counter(clazz = UserMessageHandlerServiceImpl.class, value = "handleNewUserMessage")
@@ -171,16 +176,18 @@ public class UserMessageHandlerServiceImpl implements UserMessageHandlerService
         //check if the message is sent to the same Domibus instance
         final boolean selfSendingFlag = pModeProvider.checkSelfSending(pmodeKey);
 
-        final SOAPMessage responseMessage = as4ReceiptService.generateReceipt(
-                request,
-                userMessage,
-                legConfiguration.getReliability().getReplyPattern(),
-                legConfiguration.getReliability().isNonRepudiation(),
-                false,
-                selfSendingFlag);
-
+        stageTimingService.start(MessageStage.RECEIPT_HANDLING);
+        final SOAPMessage responseMessage;
         SignalMessageResult signalMessageResult = null;
         try {
+            responseMessage = as4ReceiptService.generateReceipt(
+                    request,
+                    userMessage,
+                    legConfiguration.getReliability().getReplyPattern(),
+                    legConfiguration.getReliability().isNonRepudiation(),
+                    false,
+                    selfSendingFlag);
+
             signalMessageResult = as4ReceiptService.generateResponse(responseMessage, selfSendingFlag);
         } catch (final SOAPException e) {
             LOG.businessError(DomibusMessageCode.BUS_MESSAGE_RECEIPT_FAILURE);
@@ -191,6 +198,8 @@ public class UserMessageHandlerServiceImpl implements UserMessageHandlerService
                     .cause(e)
                     .mshRole(MSHRole.RECEIVING)
                     .build();
+        } finally {
+            stageTimingService.stop(MessageStage.RECEIPT_HANDLING);
         }
 
         try {
@@ -325,12 +334,18 @@ public class UserMessageHandlerServiceImpl implements UserMessageHandlerService
         if (ebms3MessageFragmentType != null) {
             LOG.debug("Received UserMessage fragment");
 
+            splitAndJoinService.joinReceivedFragment(ebms3MessageFragmentType.getGroupId(), ebms3MessageFragmentType.getFragmentNum(), partInfoList);
             splitAndJoinService.incrementReceivedFragments(ebms3MessageFragmentType.getGroupId(), backendName);
         }
     }
 
     private void notifyMessageReceived(UserMessage userMessage, String messageId, BackendFilter matchingBackendFilter, String backendName) throws PluginMessageReceiveException {
-        backendNotificationService.notifyMessageReceived(matchingBackendFilter, userMessage);
+        stageTimingService.start(MessageStage.JMS_ENQUEUE);
+        try {
+            backendNotificationService.notifyMessageReceived(matchingBackendFilter, userMessage);
+        } finally {
+            stageTimingService.stop(MessageStage.JMS_ENQUEUE);
+        }
     }
 
     /**
@@ -391,6 +406,7 @@ public class UserMessageHandlerServiceImpl implements UserMessageHandlerService
             }
         }
 
+        stageTimingService.start(MessageStage.PAYLOAD_PERSISTENCE);
         try {
             messagingService.storeMessagePayloads(userMessage, partInfoList, MSHRole.RECEIVING, legConfiguration, backendName);
         } catch (CompressionException exc) {
@@ -413,6 +429,8 @@ public class UserMessageHandlerServiceImpl implements UserMessageHandlerService
                     .cause(e)
                     .mshRole(MSHRole.RECEIVING)
                     .build();
+        } finally {
+            stageTimingService.stop(MessageStage.PAYLOAD_PERSISTENCE);
         }
 
         try {
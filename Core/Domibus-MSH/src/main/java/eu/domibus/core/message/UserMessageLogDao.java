@@ -4,6 +4,7 @@ import eu.domibus.api.messaging.DuplicateMessageFoundException;
 import eu.domibus.api.model.*;
 import eu.domibus.api.util.DateUtil;
 import eu.domibus.core.earchive.EArchiveBatchUserMessage;
+import eu.domibus.core.ebms3.sender.retry.ScheduledRetry;
 import eu.domibus.core.message.dictionary.NotificationStatusDao;
 import eu.domibus.core.metrics.Counter;
 import eu.domibus.core.metrics.Timer;
@@ -28,6 +29,7 @@ import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -85,6 +87,32 @@ public class UserMessageLogDao extends MessageLogDao<UserMessageLog> {
         return query.getResultList();
     }
 
+    /**
+     * Finds the messages waiting for retry in the given entity id range whose next attempt is before the given date
+     */
+    public List<ScheduledRetry> findRetryMessagesDueBefore(final long minEntityId, final long maxEntityId, final Date maxNextAttempt) {
+        TypedQuery<Object[]> query = this.em.createNamedQuery("UserMessageLog.findRetryMessagesNextAttempt", Object[].class);
+        query.setParameter("MIN_ENTITY_ID", minEntityId);
+        query.setParameter("MAX_ENTITY_ID", maxEntityId);
+        query.setParameter("MAX_NEXT_ATTEMPT", maxNextAttempt);
+
+        return query.getResultList().stream()
+                .map(row -> new ScheduledRetry((Long) row[0], (Date) row[1]))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Loads in a single query the logs and the user messages of the given messages, if they are still waiting for retry
+     */
+    public List<UserMessageLog> findRetryMessagesByEntityIds(final List<Long> entityIds) {
+        TypedQuery<UserMessageLog> query = this.em.createNamedQuery("UserMessageLog.findRetryMessagesByEntityIds", UserMessageLog.class);
+        query.setParameter("ENTITY_IDS", entityIds);
+
+        final List<UserMessageLog> userMessageLogs = query.getResultList();
+        userMessageLogs.forEach(this::initializeChildren);
+        return userMessageLogs;
+    }
+
     public List<EArchiveBatchUserMessage> findMessagesForArchivingAsc(long lastUserMessageLogId, long maxEntityIdToArchived, int batchMaxSize) {
         LOG.debug("UserMessageLog.findMessagesForArchivingAsc -> lastUserMessageLogId : [{}] maxEntityIdToArchived : [{}] size : [{}] ",
                 lastUserMessageLogId,
@@ -370,6 +398,55 @@ public class UserMessageLogDao extends MessageLogDao<UserMessageLog> {
         return getMessagesOlderThan(date, mpc, expiredSentMessagesLimit, "UserMessageLog.findSentUserMessagesWithPayloadNotClearedOlderThan", eArchiveIsActive);
     }
 
+    public List<Long> findDeletedUserMessageEntityIdsOlderThan(Date date, String mpc, long lastEntityId, int maxResults, boolean eArchiveIsActive) {
+        return findEntityIdsOlderThan(date, mpc, lastEntityId, maxResults, "UserMessageLog.findDeletedUserMessageEntityIdsOlderThan", eArchiveIsActive);
+    }
+
+    public List<Long> findUndownloadedUserMessageEntityIdsOlderThan(Date date, String mpc, long lastEntityId, int maxResults, boolean eArchiveIsActive) {
+        return findEntityIdsOlderThan(date, mpc, lastEntityId, maxResults, "UserMessageLog.findUndownloadedUserMessageEntityIdsOlderThan", eArchiveIsActive);
+    }
+
+    public List<Long> findDownloadedUserMessageEntityIdsOlderThan(Date date, String mpc, long lastEntityId, int maxResults, boolean eArchiveIsActive) {
+        return findEntityIdsOlderThan(date, mpc, lastEntityId, maxResults, "UserMessageLog.findDownloadedUserMessageEntityIdsOlderThan", eArchiveIsActive);
+    }
+
+    public List<Long> findSentUserMessageEntityIdsOlderThan(Date date, String mpc, long lastEntityId, int maxResults, boolean eArchiveIsActive) {
+        return findEntityIdsOlderThan(date, mpc, lastEntityId, maxResults, "UserMessageLog.findSentUserMessageEntityIdsOlderThan", eArchiveIsActive);
+    }
+
+    /**
+     * Returns the next page of expired entity ids, ordered ascending and strictly greater than lastEntityId, so that the
+     * retention can walk the expired messages without offsets and without loading their metadata.
+     */
+    private List<Long> findEntityIdsOlderThan(Date date, String mpc, long lastEntityId, int maxResults, String queryName, boolean eArchiveIsActive) {
+        TypedQuery<Long> query = em.createNamedQuery(queryName, Long.class);
+        query.setParameter("DATE", date);
+        query.setParameter("MPC", mpc);
+        query.setParameter("EARCHIVE_IS_ACTIVE", eArchiveIsActive);
+        query.setParameter("LAST_ENTITY_ID", lastEntityId);
+        query.setMaxResults(maxResults);
+        return query.getResultList();
+    }
+
+    /**
+     * Returns one {@link UserMessageLogDto} per message, holding all its properties, to be used for the deletion notifications
+     */
+    public List<UserMessageLogDto> findUserMessagesToNotifyOnDeletion(List<Long> entityIds) {
+        if (CollectionUtils.isEmpty(entityIds)) {
+            return new ArrayList<>();
+        }
+        TypedQuery<UserMessageLogDto> query = em.createNamedQuery("UserMessageLog.findUserMessagesToNotifyOnDeletion", UserMessageLogDto.class);
+        query.setParameter("IDS", entityIds);
+        Map<Long, UserMessageLogDto> messages = new LinkedHashMap<>();
+        for (UserMessageLogDto row : query.getResultList()) {
+            UserMessageLogDto message = messages.putIfAbsent(row.getEntityId(), row);
+            if (message != null) {
+                message.getProperties().putAll(row.getProperties());
+            }
+        }
+        return new ArrayList<>(messages.values());
+    }
+
     @Transactional(readOnly = true)
     public int getAllMessagesWithStatus(String mpc, MessageStatus messageStatus, String partitionName) {
         return getMessagesNewerThan(null, mpc, messageStatus, partitionName);
@@ -208,6 +208,7 @@ public class UserMessagePayloadServiceImpl implements UserMessagePayloadService
     public void persistUpdatedPayloads(List<PartInfo> partInfos) {
         for (PartInfo partInfo : partInfos) {
             partInfoDao.merge(partInfo);
+            partInfoDao.saveBinaryData(partInfo);
         }
     }
 }
@@ -0,0 +1,157 @@
+package eu.domibus.core.message.compression;
+
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
+
+/**
+ * Decides if compressing a payload is worthwhile, based on a sample of its first bytes: payloads which are already
+ * compressed (PDF, ZIP, images, etc.) have an entropy close to 8 bits per byte and are not reduced by compression.
+ *
+ * @since 5.2
+ */
+@Service
+public class AdaptiveCompressionService {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(AdaptiveCompressionService.class);
+
+    /**
+     * Entropy (in bits per byte) above which the sample is considered as not compressible, without trying to compress it
+     */
+    protected static final double MAX_COMPRESSIBLE_ENTROPY = 7.9;
+
+    protected static final int DEFAULT_SAMPLE_SIZE = 65536;
+
+    protected static final int DEFAULT_MIN_GAIN = 10;
+
+    protected final DomibusPropertyProvider domibusPropertyProvider;
+
+    protected final CompressionStatisticsService compressionStatisticsService;
+
+    public AdaptiveCompressionService(DomibusPropertyProvider domibusPropertyProvider, CompressionStatisticsService compressionStatisticsService) {
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.compressionStatisticsService = compressionStatisticsService;
+    }
+
+    public boolean isAdaptiveCompressionEnabled() {
+        return BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_ENABLED));
+    }
+
+    /**
+     * @return a stream allowing to read the sample of the payload and then the whole payload, or the given stream if the
+     * adaptive compression is not enabled
+     */
+    public InputStream prepareForSampling(InputStream inputStream) {
+        if (!isAdaptiveCompressionEnabled()) {
+            return inputStream;
+        }
+        return new BufferedInputStream(inputStream, getSampleSize());
+    }
+
+    /**
+     * Reads the first bytes of the payload; the stream is reset, so the whole payload can be read afterwards.
+     *
+     * @param inputStream the stream returned by {@link #prepareForSampling(InputStream)}
+     * @return the sample or null if the adaptive compression is not enabled
+     */
+    public byte[] readSample(InputStream inputStream) throws IOException {
+        if (!isAdaptiveCompressionEnabled() || !inputStream.markSupported()) {
+            return null;
+        }
+        final int sampleSize = getSampleSize();
+        final byte[] sample = new byte[sampleSize];
+        inputStream.mark(sampleSize);
+        int length = 0;
+        int read;
+        while (length < sampleSize && (read = inputStream.read(sample, length, sampleSize - length)) != -1) {
+            length += read;
+        }
+        inputStream.reset();
+        return length == sampleSize ? sample : Arrays.copyOf(sample, length);
+    }
+
+    /**
+     * @return false if the estimated size reduction of the payload is lower than the configured minimum gain
+     */
+    public boolean isCompressionWorthwhile(String href, String legName, byte[] sample) {
+        if (sample == null || sample.length == 0) {
+            return true;
+        }
+        final int minGain = getMinGain();
+        final double entropy = computeEntropy(sample);
+        final double gain = entropy > MAX_COMPRESSIBLE_ENTROPY ? 0 : estimateGain(sample);
+        LOG.debug("Payload [{}]: sample of [{}] bytes, entropy [{}] bits per byte, estimated compression gain [{}]%", href, sample.length, entropy, gain);
+
+        if (gain < minGain) {
+            LOG.debug("Skipping the compression of payload [{}]: the estimated gain [{}]% is lower than [{}]%", href, gain, minGain);
+            compressionStatisticsService.recordSkippedCompression(legName);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the Shannon entropy of the sample, in bits per byte (between 0 and 8)
+     */
+    protected double computeEntropy(byte[] sample) {
+        final int[] frequencies = new int[256];
+        for (byte b : sample) {
+            frequencies[b & 0xFF]++;
+        }
+        double entropy = 0;
+        for (int frequency : frequencies) {
+            if (frequency == 0) {
+                continue;
+            }
+            final double probability = (double) frequency / sample.length;
+            entropy -= probability * (Math.log(probability) / Math.log(2));
+        }
+        return entropy;
+    }
+
+    /**
+     * @return the size reduction of the sample, in percent, when compressed with the fastest level
+     */
+    protected double estimateGain(byte[] sample) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(sample);
+            deflater.finish();
+            final byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                deflater.deflate(buffer);
+            }
+            return 100.0 * (sample.length - deflater.getBytesWritten()) / sample.length;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    protected int getSampleSize() {
+        final Integer sampleSize = domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_SAMPLE_SIZE);
+        if (sampleSize == null || sampleSize <= 0) {
+            LOG.debug("Invalid sample size [{}]: using the default sample size of [{}] bytes", sampleSize, DEFAULT_SAMPLE_SIZE);
+            return DEFAULT_SAMPLE_SIZE;
+        }
+        return sampleSize;
+    }
+
+    protected int getMinGain() {
+        final Integer minGain = domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_MIN_GAIN);
+        if (minGain == null) {
+            LOG.debug("Minimum compression gain not set: using the default minimum gain of [{}]%", DEFAULT_MIN_GAIN);
+            return DEFAULT_MIN_GAIN;
+        }
+        return minGain;
+    }
+}
@@ -47,6 +47,9 @@ public class CompressionService {
     @Autowired
     protected DomibusPropertyProvider domibusPropertyProvider;
 
+    @Autowired
+    protected AdaptiveCompressionService adaptiveCompressionService;
+
     /**
      * This method is responsible for compression of payloads in a ebMS3 AS4 conformant way in case of {@link eu.domibus.api.model.MSHRole#SENDING}
      *
@@ -57,6 +60,16 @@ public class CompressionService {
      * @throws EbMS3Exception if an problem occurs during the compression or the mimetype was missing
      */
     public boolean handleCompression(String messageId, PartInfo partInfo, final LegConfiguration legConfigForMessage) throws EbMS3Exception {
+        return handleCompression(messageId, partInfo, legConfigForMessage, null);
+    }
+
+    /**
+     * Same as {@link #handleCompression(String, PartInfo, LegConfiguration)}; in addition, the compression is skipped
+     * when the sample of the payload shows that the compression is not worthwhile.
+     *
+     * @param sample the first bytes of the payload, as read by {@link AdaptiveCompressionService#readSample(InputStream)}; may be null
+     */
+    public boolean handleCompression(String messageId, PartInfo partInfo, final LegConfiguration legConfigForMessage, byte[] sample) throws EbMS3Exception {
         if (partInfo == null) {
             return false;
         }
@@ -111,6 +124,10 @@ public class CompressionService {
             return false;
         }
 
+        if (!adaptiveCompressionService.isCompressionWorthwhile(partInfo.getHref(), legConfigForMessage.getName(), sample)) {
+            return false;
+        }
+
         final PartProperty compressionProperty = partPropertyDictionaryService.findOrCreatePartProperty(MessageConstants.COMPRESSION_PROPERTY_KEY, MessageConstants.COMPRESSION_PROPERTY_VALUE, null);
         partInfo.getPartProperties().add(compressionProperty);
         final CompressedDataSource compressedDataSource = new CompressedDataSource(partInfo.getPayloadDatahandler().getDataSource());
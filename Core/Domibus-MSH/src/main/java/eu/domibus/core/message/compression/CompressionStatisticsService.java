@@ -0,0 +1,52 @@
+package eu.domibus.core.message.compression;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Records the compression statistics of the outgoing payloads per leg in the metrics registry: original and compressed
+ * sizes, bytes saved, compression ratio, time spent and number of payloads whose compression was skipped.
+ *
+ * @since 5.2
+ */
+@Service
+public class CompressionStatisticsService {
+
+    protected static final String UNKNOWN_LEG = "unknown";
+
+    protected final MetricRegistry metricRegistry;
+
+    public CompressionStatisticsService(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * @param legName          the leg of the message
+     * @param originalLength   the size of the payload before compression
+     * @param compressedLength the size of the stored payload
+     * @param durationNanos    the time spent storing the compressed payload
+     */
+    public void recordCompression(String legName, long originalLength, long compressedLength, long durationNanos) {
+        final String leg = getLegName(legName);
+        metricRegistry.counter(name(CompressionService.class, leg, "original_bytes")).inc(originalLength);
+        metricRegistry.counter(name(CompressionService.class, leg, "compressed_bytes")).inc(compressedLength);
+        metricRegistry.counter(name(CompressionService.class, leg, "saved_bytes")).inc(Math.max(0, originalLength - compressedLength));
+        if (originalLength > 0) {
+            metricRegistry.histogram(name(CompressionService.class, leg, "ratio_percent")).update(compressedLength * 100 / originalLength);
+        }
+        metricRegistry.timer(name(CompressionService.class, leg, "timer")).update(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSkippedCompression(String legName) {
+        metricRegistry.counter(name(CompressionService.class, getLegName(legName), "skipped")).inc();
+    }
+
+    protected String getLegName(String legName) {
+        return StringUtils.defaultIfBlank(legName, UNKNOWN_LEG);
+    }
+}
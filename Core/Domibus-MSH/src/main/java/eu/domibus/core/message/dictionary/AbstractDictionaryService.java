@@ -3,23 +3,59 @@ package eu.domibus.core.message.dictionary;
 import eu.domibus.api.exceptions.DomibusCoreErrorCode;
 import eu.domibus.api.exceptions.DomibusCoreException;
 import eu.domibus.api.model.AbstractBaseEntity;
+import eu.domibus.core.dao.BasicDao;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import javax.persistence.PersistenceException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 /**
  * @author Ion Perpegel
  * @since 5.0
  */
-public abstract class AbstractDictionaryService {
+public abstract class AbstractDictionaryService<T extends AbstractBaseEntity> {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(AbstractDictionaryService.class);
 
-    protected <T extends AbstractBaseEntity> T findOrCreateEntity(Callable<T> findTask, Callable<T> findOrCreateTask, String entityDescription) {
+    @Autowired
+    protected DictionaryCacheService dictionaryCacheService;
+
+    /**
+     * The name identifying the dictionary in the cache and in the cluster notifications
+     */
+    public abstract String getDictionaryName();
+
+    protected abstract BasicDao<T> getDictionaryDao();
+
+    /**
+     * Returns the cache key of an existing entry, built from the same values used to look it up
+     */
+    protected abstract List<Object> getCacheKey(T entity);
+
+    protected T findOrCreateEntity(List<Object> cacheKey, Callable<T> findTask, Callable<T> findOrCreateTask, String entityDescription) {
+        final Long entityId = dictionaryCacheService.getEntityId(getDictionaryName(), cacheKey);
+        if (entityId != null) {
+            // loaded in the persistence context of the caller, from the second level cache of the dictionary entities
+            final T entity = getDictionaryDao().read(entityId);
+            if (entity != null) {
+                LOG.trace("Dictionary entry [{}] found in cache with id [{}]", entityDescription, entityId);
+                return entity;
+            }
+        }
+
+        final T entity = findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        dictionaryCacheService.addEntry(getDictionaryName(), cacheKey, entity);
+        return entity;
+    }
+
+    private T findOrCreateEntity(Callable<T> findTask, Callable<T> findOrCreateTask, String entityDescription) {
         T entity = callTask(findTask);
         if (entity != null) {
             LOG.debug("Dictionary entry [{}] found with id [{}]", entityDescription, entity.getEntityId());
@@ -40,11 +76,36 @@ public abstract class AbstractDictionaryService {
             }
             entity = callTask(findTask);
             LOG.debug("Dictionary entry [{}] created with id [{}]", entityDescription, entity.getEntityId());
+            dictionaryCacheService.notifyEntryCreated(getDictionaryName(), entity.getEntityId());
             return entity;
         }
     }
 
-    private <T> T callTask(Callable<T> task) {
+    /**
+     * Adds the entry created on another server in the cluster to the cache of the current domain
+     */
+    public void loadCacheEntry(long entityId) {
+        final T entity = getDictionaryDao().read(entityId);
+        if (entity == null) {
+            LOG.debug("Dictionary entry [{}] with id [{}] not found", getDictionaryName(), entityId);
+            return;
+        }
+        dictionaryCacheService.addEntry(getDictionaryName(), getCacheKey(entity), entity);
+    }
+
+    /**
+     * Adds all the existing entries to the cache of the current domain
+     */
+    public void loadCacheEntries() {
+        final Map<List<Object>, Long> entries = new LinkedHashMap<>();
+        for (T entity : getDictionaryDao().findAll()) {
+            entries.put(getCacheKey(entity), entity.getEntityId());
+        }
+        LOG.debug("Loading [{}] entries of dictionary [{}] in cache", entries.size(), getDictionaryName());
+        dictionaryCacheService.addEntries(getDictionaryName(), entries);
+    }
+
+    private <R> R callTask(Callable<R> task) {
         try {
             return task.call();
         } catch (RuntimeException ex) {
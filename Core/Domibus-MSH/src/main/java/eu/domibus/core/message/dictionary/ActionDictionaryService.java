@@ -1,10 +1,13 @@
 package eu.domibus.core.message.dictionary;
 
 import eu.domibus.api.model.ActionEntity;
+import eu.domibus.core.dao.BasicDao;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -12,7 +15,7 @@ import java.util.concurrent.Callable;
  * @since 5.0
  */
 @Service
-public class ActionDictionaryService extends AbstractDictionaryService {
+public class ActionDictionaryService extends AbstractDictionaryService<ActionEntity> {
 
     protected ActionDao actionDao;
 
@@ -28,7 +31,22 @@ public class ActionDictionaryService extends AbstractDictionaryService {
         Callable<ActionEntity> findOrCreateTask = () -> actionDao.findOrCreateAction(value);
         String entityDescription = "ActionEntity value=[" + value + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(Arrays.asList(value), findTask, findOrCreateTask, entityDescription);
+    }
+
+    @Override
+    public String getDictionaryName() {
+        return ActionEntity.class.getSimpleName();
+    }
+
+    @Override
+    protected BasicDao<ActionEntity> getDictionaryDao() {
+        return actionDao;
+    }
+
+    @Override
+    protected List<Object> getCacheKey(ActionEntity entity) {
+        return Arrays.asList(entity.getValue());
     }
 
 }
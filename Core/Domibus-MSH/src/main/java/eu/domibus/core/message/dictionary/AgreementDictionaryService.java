@@ -1,9 +1,12 @@
 package eu.domibus.core.message.dictionary;
 
 import eu.domibus.api.model.AgreementRefEntity;
+import eu.domibus.core.dao.BasicDao;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -11,7 +14,7 @@ import java.util.concurrent.Callable;
  * @since 5.0
  */
 @Service
-public class AgreementDictionaryService extends AbstractDictionaryService {
+public class AgreementDictionaryService extends AbstractDictionaryService<AgreementRefEntity> {
 
     protected AgreementDao agreementDao;
 
@@ -27,7 +30,22 @@ public class AgreementDictionaryService extends AbstractDictionaryService {
         Callable<AgreementRefEntity> findOrCreateTask = () -> agreementDao.findOrCreateAgreement(value, type);
         String entityDescription = "AgreementRefEntity value=[" + value + "] type=[" + type + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(Arrays.asList(value, type), findTask, findOrCreateTask, entityDescription);
+    }
+
+    @Override
+    public String getDictionaryName() {
+        return AgreementRefEntity.class.getSimpleName();
+    }
+
+    @Override
+    protected BasicDao<AgreementRefEntity> getDictionaryDao() {
+        return agreementDao;
+    }
+
+    @Override
+    protected List<Object> getCacheKey(AgreementRefEntity entity) {
+        return Arrays.asList(entity.getValue(), entity.getType());
     }
 
 }
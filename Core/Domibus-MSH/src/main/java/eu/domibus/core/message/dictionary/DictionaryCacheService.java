@@ -0,0 +1,156 @@
+package eu.domibus.core.message.dictionary;
+
+import eu.domibus.api.model.AbstractBaseEntity;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.cache.DomibusCacheServiceNotifier;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DICTIONARY_CACHE_ENABLED;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DICTIONARY_CACHE_MAX_ENTRIES;
+
+/**
+ * In memory cache of the ids of the message dictionary entries, per domain and dictionary.
+ * <p>
+ * Only the ids are cached, the entities being loaded by id in the persistence context of the caller (see
+ * {@link AbstractDictionaryService}) so that no entity instance is shared between sessions and threads. The dictionary
+ * entries are never updated nor deleted once created, so the cached ids never become stale. The ids of a dictionary are
+ * kept in a map that is replaced on each addition (copy on write): lookups do not lock and only the rare additions pay
+ * for copying the map.
+ *
+ * @since 5.2
+ */
+@Service
+public class DictionaryCacheService {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(DictionaryCacheService.class);
+
+    protected final ConcurrentMap<String, ConcurrentMap<String, Map<List<Object>, Long>>> entriesByDomain = new ConcurrentHashMap<>();
+
+    protected DomainContextProvider domainContextProvider;
+
+    protected DomibusPropertyProvider domibusPropertyProvider;
+
+    protected List<DomibusCacheServiceNotifier> domibusCacheServiceNotifierList;
+
+    public DictionaryCacheService(DomainContextProvider domainContextProvider,
+                                  DomibusPropertyProvider domibusPropertyProvider,
+                                  @Lazy List<DomibusCacheServiceNotifier> domibusCacheServiceNotifierList) {
+        this.domainContextProvider = domainContextProvider;
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.domibusCacheServiceNotifierList = domibusCacheServiceNotifierList;
+    }
+
+    /**
+     * @return the id of the cached entry of the dictionary for the current domain or null if not cached
+     */
+    public Long getEntityId(String dictionaryName, List<Object> key) {
+        final Domain domain = domainContextProvider.getCurrentDomainSafely();
+        if (domain == null || !isCacheEnabled()) {
+            return null;
+        }
+        final Map<String, Map<List<Object>, Long>> dictionaries = entriesByDomain.get(domain.getCode());
+        if (dictionaries == null) {
+            return null;
+        }
+        final Map<List<Object>, Long> entries = dictionaries.get(dictionaryName);
+        if (entries == null) {
+            return null;
+        }
+        return entries.get(key);
+    }
+
+    public void addEntry(String dictionaryName, List<Object> key, AbstractBaseEntity entity) {
+        if (entity == null) {
+            return;
+        }
+        addEntries(dictionaryName, Collections.singletonMap(key, entity.getEntityId()));
+    }
+
+    public void addEntries(String dictionaryName, Map<List<Object>, Long> newEntries) {
+        final Domain domain = domainContextProvider.getCurrentDomainSafely();
+        if (domain == null || !isCacheEnabled() || newEntries.isEmpty()) {
+            return;
+        }
+        final int maxEntries = getMaxEntries();
+        entriesByDomain.computeIfAbsent(domain.getCode(), code -> new ConcurrentHashMap<>())
+                .compute(dictionaryName, (name, entries) -> {
+                    final int size = entries == null ? 0 : entries.size();
+                    if (size >= maxEntries) {
+                        LOG.debug("Maximum number of cached entries [{}] reached for dictionary [{}] on domain [{}]", maxEntries, dictionaryName, domain);
+                        return entries;
+                    }
+                    final Map<List<Object>, Long> copy = entries == null ? new HashMap<>() : new HashMap<>(entries);
+                    for (Map.Entry<List<Object>, Long> newEntry : newEntries.entrySet()) {
+                        if (copy.size() >= maxEntries) {
+                            LOG.debug("Maximum number of cached entries [{}] reached for dictionary [{}] on domain [{}]", maxEntries, dictionaryName, domain);
+                            break;
+                        }
+                        copy.put(newEntry.getKey(), newEntry.getValue());
+                    }
+                    return Collections.unmodifiableMap(copy);
+                });
+    }
+
+    /**
+     * Publishes the creation of a dictionary entry to the other servers in the cluster, once the current transaction
+     * (if any) is committed
+     */
+    public void notifyEntryCreated(String dictionaryName, long entityId) {
+        if (!isCacheEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            doNotifyEntryCreated(dictionaryName, entityId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                doNotifyEntryCreated(dictionaryName, entityId);
+            }
+        });
+    }
+
+    protected void doNotifyEntryCreated(String dictionaryName, long entityId) {
+        domibusCacheServiceNotifierList
+                .forEach(notifier -> notifier.notifyDictionaryEntryCreated(dictionaryName, entityId));
+    }
+
+    public void clear(String domainCode) {
+        LOG.debug("Clearing the dictionary caches of domain [{}]", domainCode);
+        entriesByDomain.remove(domainCode);
+    }
+
+    public int size(String dictionaryName) {
+        final Domain domain = domainContextProvider.getCurrentDomainSafely();
+        final Map<String, Map<List<Object>, Long>> dictionaries = domain == null ? null : entriesByDomain.get(domain.getCode());
+        if (dictionaries == null || dictionaries.get(dictionaryName) == null) {
+            return 0;
+        }
+        return dictionaries.get(dictionaryName).size();
+    }
+
+    protected boolean isCacheEnabled() {
+        return BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_DICTIONARY_CACHE_ENABLED));
+    }
+
+    protected int getMaxEntries() {
+        final Integer maxEntries = domibusPropertyProvider.getIntegerProperty(DOMIBUS_DICTIONARY_CACHE_MAX_ENTRIES);
+        return maxEntries == null ? 0 : maxEntries;
+    }
+}
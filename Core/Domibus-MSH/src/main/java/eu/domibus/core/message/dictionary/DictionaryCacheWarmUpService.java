@@ -0,0 +1,81 @@
+package eu.domibus.core.message.dictionary;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainService;
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
+import eu.domibus.api.multitenancy.DomainsAware;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DICTIONARY_CACHE_ENABLED;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DICTIONARY_CACHE_WARM_UP;
+
+/**
+ * Loads the existing message dictionary entries in the {@link DictionaryCacheService} at startup, when configured.
+ *
+ * @since 5.2
+ */
+@Service
+public class DictionaryCacheWarmUpService implements DomainsAware {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(DictionaryCacheWarmUpService.class);
+
+    protected List<AbstractDictionaryService<?>> dictionaryServices;
+    protected DictionaryCacheService dictionaryCacheService;
+    protected DomibusPropertyProvider domibusPropertyProvider;
+    protected DomainTaskExecutor domainTaskExecutor;
+    protected DomainService domainService;
+
+    public DictionaryCacheWarmUpService(List<AbstractDictionaryService<?>> dictionaryServices,
+                                        DictionaryCacheService dictionaryCacheService,
+                                        DomibusPropertyProvider domibusPropertyProvider,
+                                        DomainTaskExecutor domainTaskExecutor,
+                                        DomainService domainService) {
+        this.dictionaryServices = dictionaryServices;
+        this.dictionaryCacheService = dictionaryCacheService;
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.domainTaskExecutor = domainTaskExecutor;
+        this.domainService = domainService;
+    }
+
+    public void warmUp() {
+        domainService.getDomains().forEach(this::warmUp);
+    }
+
+    @Override
+    public void onDomainAdded(Domain domain) {
+        warmUp(domain);
+    }
+
+    @Override
+    public void onDomainRemoved(Domain domain) {
+        dictionaryCacheService.clear(domain.getCode());
+    }
+
+    protected void warmUp(Domain domain) {
+        if (!isWarmUpEnabled(domain)) {
+            LOG.debug("Dictionary cache warm up is disabled for domain [{}]", domain);
+            return;
+        }
+        LOG.info("Loading the message dictionaries in cache for domain [{}]", domain);
+        domainTaskExecutor.submit(() -> {
+            for (AbstractDictionaryService<?> dictionaryService : dictionaryServices) {
+                try {
+                    dictionaryService.loadCacheEntries();
+                } catch (Exception e) {
+                    LOG.warn("Could not load dictionary [{}] in cache for domain [{}]", dictionaryService.getDictionaryName(), domain, e);
+                }
+            }
+        }, domain);
+    }
+
+    protected boolean isWarmUpEnabled(Domain domain) {
+        return BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(domain, DOMIBUS_DICTIONARY_CACHE_ENABLED))
+                && BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(domain, DOMIBUS_DICTIONARY_CACHE_WARM_UP));
+    }
+}
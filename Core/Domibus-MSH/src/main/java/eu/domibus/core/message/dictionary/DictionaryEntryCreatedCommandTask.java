@@ -0,0 +1,50 @@
+package eu.domibus.core.message.dictionary;
+
+import eu.domibus.api.cluster.Command;
+import eu.domibus.api.cluster.CommandProperty;
+import eu.domibus.core.clustering.CommandTask;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds to the local dictionary cache the entries created on another server in the cluster
+ *
+ * @since 5.2
+ */
+@Service
+public class DictionaryEntryCreatedCommandTask implements CommandTask {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(DictionaryEntryCreatedCommandTask.class);
+
+    protected List<AbstractDictionaryService<?>> dictionaryServices;
+
+    public DictionaryEntryCreatedCommandTask(List<AbstractDictionaryService<?>> dictionaryServices) {
+        this.dictionaryServices = dictionaryServices;
+    }
+
+    @Override
+    public boolean canHandle(String command) {
+        return StringUtils.equalsIgnoreCase(Command.DICTIONARY_ENTRY_CREATED, command);
+    }
+
+    @Override
+    public void execute(Map<String, String> properties) {
+        final String dictionaryName = properties.get(CommandProperty.DICTIONARY_NAME);
+        final String entityId = properties.get(CommandProperty.ENTITY_ID);
+        LOG.debug("Dictionary entry created command for dictionary [{}] and entity id [{}]", dictionaryName, entityId);
+
+        if (StringUtils.isBlank(dictionaryName) || !StringUtils.isNumeric(entityId)) {
+            LOG.warn("Invalid dictionary entry created command: dictionary [{}], entity id [{}]", dictionaryName, entityId);
+            return;
+        }
+        dictionaryServices.stream()
+                .filter(dictionaryService -> StringUtils.equals(dictionaryName, dictionaryService.getDictionaryName()))
+                .findFirst()
+                .ifPresent(dictionaryService -> dictionaryService.loadCacheEntry(Long.parseLong(entityId)));
+    }
+}
@@ -1,8 +1,11 @@
 package eu.domibus.core.message.dictionary;
 
 import eu.domibus.api.model.MessageProperty;
+import eu.domibus.core.dao.BasicDao;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -10,7 +13,7 @@ import java.util.concurrent.Callable;
  * @since 5.0
  */
 @Service
-public class MessagePropertyDictionaryService extends AbstractDictionaryService {
+public class MessagePropertyDictionaryService extends AbstractDictionaryService<MessageProperty> {
     protected MessagePropertyDao messagePropertyDao;
 
     public MessagePropertyDictionaryService(MessagePropertyDao messagePropertyDao) {
@@ -22,7 +25,22 @@ public class MessagePropertyDictionaryService extends AbstractDictionaryService
         Callable<MessageProperty> findOrCreateTask = () -> messagePropertyDao.findOrCreateProperty(name, value, type);
         String entityDescription = "MessageProperty name=[" + name + "] value=[" + value + "] type=[" + type + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(Arrays.asList(name, value, type), findTask, findOrCreateTask, entityDescription);
+    }
+
+    @Override
+    public String getDictionaryName() {
+        return MessageProperty.class.getSimpleName();
+    }
+
+    @Override
+    protected BasicDao<MessageProperty> getDictionaryDao() {
+        return messagePropertyDao;
+    }
+
+    @Override
+    protected List<Object> getCacheKey(MessageProperty entity) {
+        return Arrays.asList(entity.getName(), entity.getValue(), entity.getType());
     }
 
 }
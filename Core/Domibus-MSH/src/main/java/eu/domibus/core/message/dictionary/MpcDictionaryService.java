@@ -1,10 +1,13 @@
 package eu.domibus.core.message.dictionary;
 
 import eu.domibus.api.model.MpcEntity;
+import eu.domibus.core.dao.BasicDao;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -12,7 +15,7 @@ import java.util.concurrent.Callable;
  * @since 5.0
  */
 @Service
-public class MpcDictionaryService extends AbstractDictionaryService {
+public class MpcDictionaryService extends AbstractDictionaryService<MpcEntity> {
 
     protected MpcDao mpcDao;
 
@@ -28,7 +31,22 @@ public class MpcDictionaryService extends AbstractDictionaryService {
         Callable<MpcEntity> findOrCreateTask = () -> mpcDao.findOrCreateMpc(value);
         String entityDescription = "MpcEntity value=[" + value + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(Arrays.asList(value), findTask, findOrCreateTask, entityDescription);
+    }
+
+    @Override
+    public String getDictionaryName() {
+        return MpcEntity.class.getSimpleName();
+    }
+
+    @Override
+    protected BasicDao<MpcEntity> getDictionaryDao() {
+        return mpcDao;
+    }
+
+    @Override
+    protected List<Object> getCacheKey(MpcEntity entity) {
+        return Arrays.asList(entity.getValue());
     }
 
 }
@@ -1,10 +1,13 @@
 package eu.domibus.core.message.dictionary;
 
 import eu.domibus.api.model.PartProperty;
+import eu.domibus.core.dao.BasicDao;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -12,7 +15,7 @@ import java.util.concurrent.Callable;
  * @since 5.0
  */
 @Service
-public class PartPropertyDictionaryService extends AbstractDictionaryService {
+public class PartPropertyDictionaryService extends AbstractDictionaryService<PartProperty> {
 
     protected PartPropertyDao partPropertyDao;
 
@@ -28,7 +31,22 @@ public class PartPropertyDictionaryService extends AbstractDictionaryService {
         Callable<PartProperty> findOrCreateTask = () -> partPropertyDao.findOrCreateProperty(name, value, type);
         String entityDescription = "PartProperty name=[" + name + "] value=[" + value + "] type=[" + type + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(Arrays.asList(name, value, type), findTask, findOrCreateTask, entityDescription);
+    }
+
+    @Override
+    public String getDictionaryName() {
+        return PartProperty.class.getSimpleName();
+    }
+
+    @Override
+    protected BasicDao<PartProperty> getDictionaryDao() {
+        return partPropertyDao;
+    }
+
+    @Override
+    protected List<Object> getCacheKey(PartProperty entity) {
+        return Arrays.asList(entity.getName(), entity.getValue(), entity.getType());
     }
 
 }
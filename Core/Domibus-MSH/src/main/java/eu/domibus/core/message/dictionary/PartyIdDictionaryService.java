@@ -1,9 +1,12 @@
 package eu.domibus.core.message.dictionary;
 
 import eu.domibus.api.model.PartyId;
+import eu.domibus.core.dao.BasicDao;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -11,7 +14,7 @@ import java.util.concurrent.Callable;
  * @since 5.0
  */
 @Service
-public class PartyIdDictionaryService extends AbstractDictionaryService {
+public class PartyIdDictionaryService extends AbstractDictionaryService<PartyId> {
 
     protected PartyIdDao partyIdDao;
 
@@ -24,7 +27,22 @@ public class PartyIdDictionaryService extends AbstractDictionaryService {
         Callable<PartyId> findOrCreateTask = () -> partyIdDao.findOrCreateParty(value, type);
         String entityDescription = "PartyId value=[" + value + "] type=[" + type + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(Arrays.asList(value, type), findTask, findOrCreateTask, entityDescription);
+    }
+
+    @Override
+    public String getDictionaryName() {
+        return PartyId.class.getSimpleName();
+    }
+
+    @Override
+    protected BasicDao<PartyId> getDictionaryDao() {
+        return partyIdDao;
+    }
+
+    @Override
+    protected List<Object> getCacheKey(PartyId entity) {
+        return Arrays.asList(entity.getValue(), entity.getType());
     }
 
 }
@@ -1,10 +1,13 @@
 package eu.domibus.core.message.dictionary;
 
 import eu.domibus.api.model.PartyRole;
+import eu.domibus.core.dao.BasicDao;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -12,7 +15,7 @@ import java.util.concurrent.Callable;
  * @since 5.0
  */
 @Service
-public class PartyRoleDictionaryService extends AbstractDictionaryService {
+public class PartyRoleDictionaryService extends AbstractDictionaryService<PartyRole> {
 
     protected PartyRoleDao partyRoleDao;
 
@@ -28,7 +31,22 @@ public class PartyRoleDictionaryService extends AbstractDictionaryService {
         Callable<PartyRole> findOrCreateTask = () -> partyRoleDao.findOrCreateRole(value);
         String entityDescription = "PartyRole value=[" + value + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(Arrays.asList(value), findTask, findOrCreateTask, entityDescription);
+    }
+
+    @Override
+    public String getDictionaryName() {
+        return PartyRole.class.getSimpleName();
+    }
+
+    @Override
+    protected BasicDao<PartyRole> getDictionaryDao() {
+        return partyRoleDao;
+    }
+
+    @Override
+    protected List<Object> getCacheKey(PartyRole entity) {
+        return Arrays.asList(entity.getValue());
     }
 
 }
@@ -1,10 +1,13 @@
 package eu.domibus.core.message.dictionary;
 
 import eu.domibus.api.model.ServiceEntity;
+import eu.domibus.core.dao.BasicDao;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -12,7 +15,7 @@ import java.util.concurrent.Callable;
  * @since 5.0
  */
 @Service
-public class ServiceDictionaryService extends AbstractDictionaryService {
+public class ServiceDictionaryService extends AbstractDictionaryService<ServiceEntity> {
 
     protected ServiceDao serviceDao;
 
@@ -28,7 +31,22 @@ public class ServiceDictionaryService extends AbstractDictionaryService {
         Callable<ServiceEntity> findOrCreateTask = () -> serviceDao.findOrCreateService(value, type);
         String entityDescription = "ServiceEntity value=[" + value + "] type=[" + type + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(Arrays.asList(value, type), findTask, findOrCreateTask, entityDescription);
+    }
+
+    @Override
+    public String getDictionaryName() {
+        return ServiceEntity.class.getSimpleName();
+    }
+
+    @Override
+    protected BasicDao<ServiceEntity> getDictionaryDao() {
+        return serviceDao;
+    }
+
+    @Override
+    protected List<Object> getCacheKey(ServiceEntity entity) {
+        return Arrays.asList(entity.getValue(), entity.getType());
     }
 
 }
@@ -1,5 +1,6 @@
 package eu.domibus.core.message.pull;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -11,6 +12,26 @@ public interface MessagingLockDao {
 
     PullMessageId getNextPullMessageToProcess(String initiator, String mpc);
 
+    /**
+     * Claims a block of messages ready to be pulled, skipping the messages locked by other transactions. The claimed
+     * messages are not returned by the other claims until the lease expiration.
+     *
+     * @param batchSize       the maximum number of messages claimed
+     * @param leaseExpiration the date until which the messages are reserved for the caller
+     * @return the claimed messages
+     */
+    List<MessagingLock> claimNextPullMessagesToProcess(String initiator, String mpc, int batchSize, Date leaseExpiration);
+
+    /**
+     * Locks a message previously claimed with {@link #claimNextPullMessagesToProcess}, if it is still ready to be pulled
+     * and the lease of the caller is still valid.
+     *
+     * @param entityId        the id of the messaging lock
+     * @param leaseExpiration the lease expiration used when the message was claimed
+     * @return the message to process or null if it has been processed, removed or claimed by another node in the meantime
+     */
+    PullMessageId getClaimedPullMessageToProcess(long entityId, Date leaseExpiration);
+
     MessagingLock getLock(String messageId);
 
     void save(MessagingLock messagingLock);
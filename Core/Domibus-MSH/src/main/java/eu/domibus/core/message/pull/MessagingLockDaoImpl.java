@@ -5,14 +5,18 @@ import eu.domibus.api.property.DataBaseEngine;
 import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.api.util.DateUtil;
 import eu.domibus.common.JPAConstants;
+import eu.domibus.core.scheduler.ReprogrammableService;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.*;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -40,6 +44,8 @@ public class MessagingLockDaoImpl implements MessagingLockDao {
 
     private static final String CURRENT_TIMESTAMP = "CURRENT_TIMESTAMP";
 
+    private static final String BATCH_SIZE = "BATCH_SIZE";
+
     @PersistenceContext(unitName = JPAConstants.PERSISTENCE_UNIT_NAME)
     private EntityManager entityManager;
 
@@ -47,9 +53,12 @@ public class MessagingLockDaoImpl implements MessagingLockDao {
 
     private final DomibusConfigurationService domibusConfigurationService;
 
-    public MessagingLockDaoImpl(DateUtil dateUtil, DomibusConfigurationService domibusConfigurationService) {
+    private final ReprogrammableService reprogrammableService;
+
+    public MessagingLockDaoImpl(DateUtil dateUtil, DomibusConfigurationService domibusConfigurationService, ReprogrammableService reprogrammableService) {
         this.dateUtil = dateUtil;
         this.domibusConfigurationService = domibusConfigurationService;
+        this.reprogrammableService = reprogrammableService;
     }
 
 
@@ -65,29 +74,7 @@ public class MessagingLockDaoImpl implements MessagingLockDao {
             q.setParameter(CURRENT_TIMESTAMP, dateUtil.getUtcDate());
             final MessagingLock messagingLock = (MessagingLock) q.getSingleResult();
             LOG.debug("[getNextPullMessageToProcess]:id[{}] locked", messagingLock.getEntityId());
-            final String messageId = messagingLock.getMessageId();
-            final int sendAttempts = messagingLock.getSendAttempts();
-            final int sendAttemptsMax = messagingLock.getSendAttemptsMax();
-            final Date messageStaled = messagingLock.getStaled();
-
-            final Timestamp currentDate = new Timestamp(System.currentTimeMillis());
-            LOG.debug("expiration date[{}], current date[{}] ", messageStaled, currentDate);
-            if (messageStaled.compareTo(currentDate) < 0) {
-                messagingLock.setMessageState(MessageState.DEL);
-                return new PullMessageId(messageId, EXPIRED, String.format("Maximum time to send the message has been reached:[%tc]", messageStaled));
-            }
-            LOG.debug("sendattempts[{}], sendattemptsmax[{}]", sendAttempts, sendAttemptsMax);
-            if (sendAttempts >= sendAttemptsMax) {
-                messagingLock.setMessageState(MessageState.DEL);
-                return new PullMessageId(messageId, EXPIRED, String.format("Maximum number of attempts to send the message has been reached:[%d]", sendAttempts));
-            }
-            if (sendAttempts >= 0) {
-                messagingLock.setMessageState(MessageState.PROCESS);
-            }
-            if (sendAttempts > 0) {
-                return new PullMessageId(messageId, RETRY);
-            }
-            return new PullMessageId(messageId);
+            return getPullMessageToProcess(messagingLock);
         } catch (NoResultException ne) {
             LOG.trace("No message to lock found for for mpc=[{}], initiator=[{}]", mpc, initiator, ne);
             return null;
@@ -99,6 +86,104 @@ public class MessagingLockDaoImpl implements MessagingLockDao {
 
     }
 
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<MessagingLock> claimNextPullMessagesToProcess(final String initiator, final String mpc, final int batchSize, final Date leaseExpiration) {
+        String sqlString = (DataBaseEngine.ORACLE == domibusConfigurationService.getDataBaseEngine() ? "MessagingLock.lockBatchQuerySkipBlocked_Oracle" :
+                "MessagingLock.lockBatchQuerySkipBlocked_MySQL");
+        Query q = entityManager.createNamedQuery(sqlString, MessagingLock.class);
+        q.setParameter(MPC, mpc);
+        q.setParameter(INITIATOR, initiator);
+        q.setParameter(CURRENT_TIMESTAMP, dateUtil.getUtcDate());
+        final List<MessagingLock> messagingLocks;
+        if (DataBaseEngine.ORACLE == domibusConfigurationService.getDataBaseEngine()) {
+            messagingLocks = fetchLockedRows(q, batchSize);
+        } else {
+            q.setParameter(BATCH_SIZE, batchSize);
+            messagingLocks = q.getResultList();
+        }
+        for (MessagingLock messagingLock : messagingLocks) {
+            // the lease is stored as next attempt, so that the message is not claimed by another node before it expires
+            reprogrammableService.setRescheduleInfo(messagingLock, leaseExpiration);
+        }
+        LOG.debug("[claimNextPullMessagesToProcess]:[{}] messages claimed until [{}] for mpc=[{}], initiator=[{}]", messagingLocks.size(), leaseExpiration, mpc, initiator);
+        return messagingLocks;
+    }
+
+    /**
+     * Oracle filters on ROWNUM before skipping the locked rows, so the batch size can not be part of the query: with
+     * SKIP LOCKED, the rows are locked while they are fetched, so only the first rows of the cursor are fetched.
+     */
+    protected List<MessagingLock> fetchLockedRows(final Query query, final int batchSize) {
+        final List<MessagingLock> messagingLocks = new ArrayList<>(batchSize);
+        try (ScrollableResults results = query.unwrap(org.hibernate.query.Query.class)
+                .setFetchSize(batchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (messagingLocks.size() < batchSize && results.next()) {
+                messagingLocks.add((MessagingLock) results.get(0));
+            }
+        }
+        return messagingLocks;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public PullMessageId getClaimedPullMessageToProcess(final long entityId, final Date leaseExpiration) {
+        try {
+            final MessagingLock messagingLock = entityManager.find(MessagingLock.class, entityId, LockModeType.PESSIMISTIC_WRITE);
+            if (messagingLock == null || MessageState.READY != messagingLock.getMessageState()) {
+                LOG.debug("[getClaimedPullMessageToProcess]:id[{}] not ready to be pulled anymore", entityId);
+                return null;
+            }
+            if (!isLeaseOwner(messagingLock, leaseExpiration)) {
+                LOG.debug("[getClaimedPullMessageToProcess]:id[{}] lease until [{}] expired or claimed by another node", entityId, leaseExpiration);
+                return null;
+            }
+            LOG.debug("[getClaimedPullMessageToProcess]:id[{}] locked", entityId);
+            return getPullMessageToProcess(messagingLock);
+        } catch (Exception e) {
+            LOG.error("MessageLock lock could not be acquired for id=[{}]", entityId, e);
+            return null;
+        }
+    }
+
+    /**
+     * The lease expiration is stored as next attempt when the message is claimed: a different next attempt means that the
+     * lease expired and the message was claimed again.
+     */
+    protected boolean isLeaseOwner(final MessagingLock messagingLock, final Date leaseExpiration) {
+        final Date nextAttempt = messagingLock.getNextAttempt();
+        return nextAttempt != null
+                && nextAttempt.getTime() == leaseExpiration.getTime()
+                && leaseExpiration.after(dateUtil.getUtcDate());
+    }
+
+    protected PullMessageId getPullMessageToProcess(final MessagingLock messagingLock) {
+        final String messageId = messagingLock.getMessageId();
+        final int sendAttempts = messagingLock.getSendAttempts();
+        final int sendAttemptsMax = messagingLock.getSendAttemptsMax();
+        final Date messageStaled = messagingLock.getStaled();
+
+        final Timestamp currentDate = new Timestamp(System.currentTimeMillis());
+        LOG.debug("expiration date[{}], current date[{}] ", messageStaled, currentDate);
+        if (messageStaled.compareTo(currentDate) < 0) {
+            messagingLock.setMessageState(MessageState.DEL);
+            return new PullMessageId(messageId, EXPIRED, String.format("Maximum time to send the message has been reached:[%tc]", messageStaled));
+        }
+        LOG.debug("sendattempts[{}], sendattemptsmax[{}]", sendAttempts, sendAttemptsMax);
+        if (sendAttempts >= sendAttemptsMax) {
+            messagingLock.setMessageState(MessageState.DEL);
+            return new PullMessageId(messageId, EXPIRED, String.format("Maximum number of attempts to send the message has been reached:[%d]", sendAttempts));
+        }
+        if (sendAttempts >= 0) {
+            messagingLock.setMessageState(MessageState.PROCESS);
+        }
+        if (sendAttempts > 0) {
+            return new PullMessageId(messageId, RETRY);
+        }
+        return new PullMessageId(messageId);
+    }
+
     public MessagingLock getLock(final String messageId) {
         try {
             LOG.debug("Message[{}] Getting lock", messageId);
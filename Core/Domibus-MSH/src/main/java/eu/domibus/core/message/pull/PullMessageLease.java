@@ -0,0 +1,39 @@
+package eu.domibus.core.message.pull;
+
+import java.util.Date;
+
+/**
+ * A message ready to be pulled, claimed in advance by this server until the lease expiration.
+ *
+ * @since 5.2
+ */
+public class PullMessageLease {
+
+    private final long entityId;
+
+    private final String messageId;
+
+    private final Date leaseExpiration;
+
+    public PullMessageLease(long entityId, String messageId, Date leaseExpiration) {
+        this.entityId = entityId;
+        this.messageId = messageId;
+        this.leaseExpiration = leaseExpiration;
+    }
+
+    public long getEntityId() {
+        return entityId;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public Date getLeaseExpiration() {
+        return leaseExpiration;
+    }
+
+    public boolean isExpired(Date currentDate) {
+        return !leaseExpiration.after(currentDate);
+    }
+}
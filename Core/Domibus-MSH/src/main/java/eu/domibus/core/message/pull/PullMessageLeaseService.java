@@ -0,0 +1,134 @@
+package eu.domibus.core.message.pull;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.multitenancy.DomainsAware;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PULL_LEASE_BATCH_SIZE;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PULL_LEASE_DURATION;
+
+/**
+ * Serves the pull requests from blocks of messages claimed in advance, per domain, initiator and mpc.
+ * <p>
+ * A block of messages ready to be pulled is claimed with a single query and kept in memory; each message is then only
+ * locked by its id when a pull request is served. The claim is stored in the database as the next attempt of the
+ * messages: if this server stops before serving them, the messages become available to the other servers once the
+ * lease expires.
+ *
+ * @since 5.2
+ */
+@Service
+public class PullMessageLeaseService implements DomainsAware {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PullMessageLeaseService.class);
+
+    private static final String KEY_SEPARATOR = "|";
+
+    protected final ConcurrentMap<String, Queue<PullMessageLease>> leases = new ConcurrentHashMap<>();
+
+    protected final MessagingLockDao messagingLockDao;
+
+    protected final DomibusPropertyProvider domibusPropertyProvider;
+
+    protected final DomainContextProvider domainContextProvider;
+
+    public PullMessageLeaseService(MessagingLockDao messagingLockDao,
+                                   DomibusPropertyProvider domibusPropertyProvider,
+                                   DomainContextProvider domainContextProvider) {
+        this.messagingLockDao = messagingLockDao;
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.domainContextProvider = domainContextProvider;
+    }
+
+    public boolean isBatchPullEnabled() {
+        return getBatchSize() > 1;
+    }
+
+    /**
+     * @return the next message to be pulled by the initiator on the mpc or null if there is none
+     */
+    public PullMessageId getNextPullMessageToProcess(final String initiator, final String mpc) {
+        final Queue<PullMessageLease> queue = leases.computeIfAbsent(getKey(initiator, mpc), key -> new ConcurrentLinkedQueue<>());
+
+        PullMessageId pullMessageId = getNextPullMessageToProcess(queue);
+        if (pullMessageId != null) {
+            return pullMessageId;
+        }
+
+        claimPullMessages(initiator, mpc, queue);
+        return getNextPullMessageToProcess(queue);
+    }
+
+    protected PullMessageId getNextPullMessageToProcess(Queue<PullMessageLease> queue) {
+        PullMessageLease lease;
+        while ((lease = queue.poll()) != null) {
+            if (lease.isExpired(new Date())) {
+                LOG.debug("Lease of message [{}] expired", lease.getMessageId());
+                continue;
+            }
+            final PullMessageId pullMessageId = messagingLockDao.getClaimedPullMessageToProcess(lease.getEntityId(), lease.getLeaseExpiration());
+            if (pullMessageId != null) {
+                return pullMessageId;
+            }
+        }
+        return null;
+    }
+
+    protected void claimPullMessages(final String initiator, final String mpc, Queue<PullMessageLease> queue) {
+        final Date leaseExpiration = getLeaseExpiration();
+        final List<MessagingLock> messagingLocks;
+        try {
+            messagingLocks = messagingLockDao.claimNextPullMessagesToProcess(initiator, mpc, getBatchSize(), leaseExpiration);
+        } catch (Exception e) {
+            LOG.error("Messages could not be claimed for mpc=[{}], initiator=[{}]", mpc, initiator, e);
+            return;
+        }
+        for (MessagingLock messagingLock : messagingLocks) {
+            queue.add(new PullMessageLease(messagingLock.getEntityId(), messagingLock.getMessageId(), leaseExpiration));
+        }
+        LOG.debug("[{}] messages claimed for mpc=[{}], initiator=[{}]", messagingLocks.size(), mpc, initiator);
+    }
+
+    @Override
+    public void onDomainAdded(Domain domain) {
+        // the leases are created on demand
+    }
+
+    @Override
+    public void onDomainRemoved(Domain domain) {
+        final String prefix = domain.getCode() + KEY_SEPARATOR;
+        leases.keySet().removeIf(key -> StringUtils.startsWith(key, prefix));
+    }
+
+    /**
+     * The lease expiration is truncated to seconds, as the dates may be stored without milliseconds in the database
+     */
+    protected Date getLeaseExpiration() {
+        final long leaseDuration = TimeUnit.SECONDS.toMillis(domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LEASE_DURATION));
+        final long expiration = System.currentTimeMillis() + leaseDuration;
+        return new Date(expiration - expiration % 1000);
+    }
+
+    protected int getBatchSize() {
+        final Integer batchSize = domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LEASE_BATCH_SIZE);
+        return batchSize == null ? 1 : batchSize;
+    }
+
+    protected String getKey(final String initiator, final String mpc) {
+        final Domain domain = domainContextProvider.getCurrentDomain();
+        return domain.getCode() + KEY_SEPARATOR + StringUtils.lowerCase(initiator) + KEY_SEPARATOR + mpc;
+    }
+}
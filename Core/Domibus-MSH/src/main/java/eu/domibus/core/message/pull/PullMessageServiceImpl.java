@@ -87,6 +87,9 @@ public class PullMessageServiceImpl implements PullMessageService {
     @Autowired
     private ReprogrammableService reprogrammableService;
 
+    @Autowired
+    protected PullMessageLeaseService pullMessageLeaseService;
+
     /**
      * {@inheritDoc}
      */
@@ -177,7 +180,11 @@ public class PullMessageServiceImpl implements PullMessageService {
     public String getPullMessageId(final String initiator, final String mpc) {
             PullMessageId pullMessageId = null;
             try {
-                pullMessageId = messagingLockDao.getNextPullMessageToProcess(initiator, mpc);
+                if (pullMessageLeaseService.isBatchPullEnabled()) {
+                    pullMessageId = pullMessageLeaseService.getNextPullMessageToProcess(initiator, mpc);
+                } else {
+                    pullMessageId = messagingLockDao.getNextPullMessageToProcess(initiator, mpc);
+                }
             } catch (Exception ex) {
                 LOG.error("Error while locking message ", ex);
             }
@@ -1,5 +1,7 @@
 package eu.domibus.core.message.retention;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import eu.domibus.api.jms.JMSManager;
 import eu.domibus.api.jms.JMSMessageBuilder;
 import eu.domibus.api.jms.JmsMessage;
@@ -28,8 +30,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.jms.Queue;
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
 import static eu.domibus.jms.spi.InternalJMSConstants.RETENTION_MESSAGE_QUEUE;
 import static eu.domibus.messaging.MessageConstants.*;
@@ -76,6 +80,9 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
     @Autowired
     private BackendNotificationService backendNotificationService;
 
+    @Autowired
+    private MetricRegistry metricRegistry;
+
     @Override
     public boolean handlesDeletionStrategy(String retentionStrategy) {
         return DeletionStrategy.DEFAULT == DeletionStrategy.valueOf(retentionStrategy);
@@ -131,6 +138,11 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
         LOG.debug("Deleting expired downloaded messages for MPC [{}] using deleteMessagesLimit [{}], messageRetentionMinutes [{}], metadataRetentionOffset [{}]",
                 mpc, deleteMessagesLimit, messageRetentionMinutes, metadataRetentionOffset);
         Date messageRetentionDate = DateUtils.addMinutes(new Date(), messageRetentionMinutes * -1);
+        if (pModeProvider.isDeleteMessageMetadataByMpcURI(mpc) && metadataRetentionOffset == 0 && isStreamingDeletionEnabled()) {
+            deleteExpiredMessagesInChunks(mpc, deleteMessagesLimit, (lastEntityId, maxResults) ->
+                    userMessageLogDao.findDownloadedUserMessageEntityIdsOlderThan(messageRetentionDate, mpc, lastEntityId, maxResults, eArchiveIsActive));
+            return;
+        }
         List<UserMessageLogDto> messagesToClean = userMessageLogDao.getDownloadedUserMessagesOlderThan(messageRetentionDate,
                 mpc, deleteMessagesLimit, eArchiveIsActive);
         if (pModeProvider.isDeleteMessageMetadataByMpcURI(mpc) && metadataRetentionOffset == 0) {
@@ -151,6 +163,11 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
         LOG.debug("Deleting expired not-downloaded messages for MPC [{}] using deleteMessagesLimit [{}], messageRetentionMinutes [{}], metadataRetentionOffset [{}]",
                 mpc, deleteMessagesLimit, messageRetentionMinutes, metadataRetentionOffset);
         Date payloadRetentionLimit = DateUtils.addMinutes(new Date(), messageRetentionMinutes * -1);
+        if (pModeProvider.isDeleteMessageMetadataByMpcURI(mpc) && metadataRetentionOffset == 0 && isStreamingDeletionEnabled()) {
+            deleteExpiredMessagesInChunks(mpc, deleteMessagesLimit, (lastEntityId, maxResults) ->
+                    userMessageLogDao.findUndownloadedUserMessageEntityIdsOlderThan(payloadRetentionLimit, mpc, lastEntityId, maxResults, eArchiveIsActive));
+            return;
+        }
         List<UserMessageLogDto> messagesToClean = userMessageLogDao.getUndownloadedUserMessagesOlderThan(payloadRetentionLimit,
                 mpc, deleteMessagesLimit, eArchiveIsActive);
         if (pModeProvider.isDeleteMessageMetadataByMpcURI(mpc) && metadataRetentionOffset == 0) {
@@ -173,9 +190,14 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
                 mpc, deleteMessagesLimit, messageRetentionMinutes, metadataRetentionOffset);
         Date messageRetentionDate = DateUtils.addMinutes(new Date(), messageRetentionMinutes * -1);
         if (pModeProvider.isDeleteMessageMetadataByMpcURI(mpc) && metadataRetentionOffset == 0) {
-            List<UserMessageLogDto> messagesToClean = userMessageLogDao.getSentUserMessagesOlderThan(messageRetentionDate,
-                    mpc, deleteMessagesLimit, true, eArchiveIsActive);
-            deleteMessageMetadataAndPayload(mpc, messagesToClean);
+            if (isStreamingDeletionEnabled()) {
+                deleteExpiredMessagesInChunks(mpc, deleteMessagesLimit, (lastEntityId, maxResults) ->
+                        userMessageLogDao.findSentUserMessageEntityIdsOlderThan(messageRetentionDate, mpc, lastEntityId, maxResults, eArchiveIsActive));
+            } else {
+                List<UserMessageLogDto> messagesToClean = userMessageLogDao.getSentUserMessagesOlderThan(messageRetentionDate,
+                        mpc, deleteMessagesLimit, true, eArchiveIsActive);
+                deleteMessageMetadataAndPayload(mpc, messagesToClean);
+            }
         }
 
         List<UserMessageLogDto> messagesToClean = userMessageLogDao.getSentUserMessagesOlderThan(messageRetentionDate,
@@ -194,11 +216,48 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
         LOG.debug("Deleting expired deleted messages for MPC [{}] using deleteMessagesLimit [{}], metadataRetentionOffset [{}]",
                 mpc, deleteMessagesLimit, metadataRetentionOffset);
         Date messageRetentionDate = DateUtils.addMinutes(new Date(), 1 - metadataRetentionOffset);  // give 1 minute for the previous state
+        if (isStreamingDeletionEnabled()) {
+            deleteExpiredMessagesInChunks(mpc, deleteMessagesLimit, (lastEntityId, maxResults) ->
+                    userMessageLogDao.findDeletedUserMessageEntityIdsOlderThan(messageRetentionDate, mpc, lastEntityId, maxResults, eArchiveIsActive));
+            return;
+        }
         final List<UserMessageLogDto> messagesToClean = userMessageLogDao.getDeletedUserMessagesOlderThan(messageRetentionDate,
                 mpc, deleteMessagesLimit, eArchiveIsActive);
         deleteMessageMetadataAndPayload(mpc, messagesToClean);
     }
 
+    /**
+     * Deletes the expired messages chunk by chunk: only the entity ids of the next chunk are loaded, in ascending order
+     * starting after the last deleted one, and each chunk is deleted in bulk (metadata, payload files and plugin
+     * notifications) before the next one is fetched.
+     */
+    protected void deleteExpiredMessagesInChunks(String mpc, Integer deleteMessagesLimit, BiFunction<Long, Integer, List<Long>> expiredEntityIdsFinder) {
+        final int maxBatch = getRetentionMaxBatch(mpc);
+        final Meter deletedMessages = metricRegistry.meter(name(MessageRetentionDefaultService.class, "retention_deleteExpiredMessages", mpc, "deleted"));
+        long lastEntityId = 0;
+        int deleted = 0;
+        while (deleted < deleteMessagesLimit) {
+            final List<Long> entityIds = expiredEntityIdsFinder.apply(lastEntityId, Math.min(maxBatch, deleteMessagesLimit - deleted));
+            if (CollectionUtils.isEmpty(entityIds)) {
+                break;
+            }
+            LOG.debug("Deleting a chunk of [{}] expired messages using mpc [{}]", entityIds.size(), mpc);
+            userMessageDefaultService.deleteMessages(userMessageLogDao.findUserMessagesToNotifyOnDeletion(entityIds));
+            deleted += entityIds.size();
+            deletedMessages.mark(entityIds.size());
+            lastEntityId = entityIds.get(entityIds.size() - 1);
+        }
+        LOG.debug("Deleted [{}] expired messages using mpc [{}]", deleted, mpc);
+    }
+
+    protected boolean isStreamingDeletionEnabled() {
+        return BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_STREAMING_ENABLED));
+    }
+
+    protected int getRetentionMaxBatch(String mpc) {
+        return pModeProvider.getRetentionMaxBatchByMpcURI(mpc, domibusPropertyProvider.getIntegerProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_BATCH_DELETE));
+    }
+
     private void deleteMessagePayload(List<UserMessageLogDto> messagesToClean) {
         if (CollectionUtils.isEmpty(messagesToClean)) {
             LOG.debug("Found 0 message payloads to delete");
@@ -230,7 +289,7 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
         final boolean isDeleteMessageMetadata = pModeProvider.isDeleteMessageMetadataByMpcURI(mpc);
         LOG.trace("isDeleteMessageMetadata [{}]", isDeleteMessageMetadata);
         if (isDeleteMessageMetadata) { // delete in batch
-            final int maxBatch = pModeProvider.getRetentionMaxBatchByMpcURI(mpc, domibusPropertyProvider.getIntegerProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_BATCH_DELETE));
+            final int maxBatch = getRetentionMaxBatch(mpc);
             LOG.debug("Bulk delete messages, maxBatch [{}]", maxBatch);
             deleteMessages(userMessageLogs, maxBatch);
             return;
@@ -12,6 +12,7 @@ import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import java.util.List;
 
@@ -54,6 +55,39 @@ public class MessageGroupDao extends BasicDao<MessageGroupEntity> {
         return DataAccessUtils.singleResult(namedQuery.getResultList());
     }
 
+    /**
+     * Increments the sent fragments of the group with an update statement, which locks the group row until the end of the transaction
+     *
+     * @return the group reloaded after the increment or null if the group does not exist
+     */
+    @Transactional
+    public MessageGroupEntity incrementSentFragments(String groupId) {
+        return incrementFragments("MessageGroupEntity.incrementSentFragments", groupId);
+    }
+
+    /**
+     * Increments the received fragments of the group with an update statement, which locks the group row until the end of the transaction
+     *
+     * @return the group reloaded after the increment or null if the group does not exist
+     */
+    @Transactional
+    public MessageGroupEntity incrementReceivedFragments(String groupId) {
+        return incrementFragments("MessageGroupEntity.incrementReceivedFragments", groupId);
+    }
+
+    protected MessageGroupEntity incrementFragments(String queryName, String groupId) {
+        final Query query = em.createNamedQuery(queryName);
+        query.setParameter("GROUP_ID", groupId);
+        if (query.executeUpdate() == 0) {
+            LOG.debug("Group [{}] not found", groupId);
+            return null;
+        }
+        final MessageGroupEntity messageGroupEntity = findByGroupId(groupId);
+        // the group may already be managed with the values read before the update
+        em.refresh(messageGroupEntity);
+        return messageGroupEntity;
+    }
+
     public List<MessageGroupEntity> findOngoingReceivedNonExpiredOrRejected() {
         TypedQuery<MessageGroupEntity> query = this.em.createNamedQuery("MessageGroupEntity.findReceivedNonExpiredOrRejected", MessageGroupEntity.class);
         query.setParameter("MSH_ROLE", MSHRole.RECEIVING);
@@ -41,6 +41,7 @@ import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.messaging.MessageConstants;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -60,7 +61,9 @@ import javax.xml.soap.SOAPMessage;
 import javax.xml.transform.TransformerException;
 import java.io.*;
 import java.math.BigInteger;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -82,6 +85,9 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
     public static final String BOUNDARY = "boundary";
     public static final String START = "start";
     public static final String FRAGMENT_FILENAME_SEPARATOR = "_";
+    public static final String JOINED_FILE_PREFIX = "joined_";
+    public static final String INCOMPLETE_JOIN_SUFFIX = ".incomplete";
+    public static final String JOINED_FRAGMENTS_SUFFIX = ".fragments";
 
     public static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(SplitAndJoinDefaultService.class);
     public static final String ERROR_MESSAGE_GROUP_HAS_EXPIRED = "Group has expired";
@@ -575,6 +581,7 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
         LOG.debug("Marking the group [{}] as rejected", groupId);
         messageGroupEntity.setRejected(true);
         messageGroupDao.update(messageGroupEntity);
+        deleteJoinedFile(messageGroupEntity);
 
         final UserMessage sourceUserMessage = userMessageDao.findByGroupEntityId(messageGroupEntity.getEntityId());
         setSourceMessageAsFailed(sourceUserMessage);
@@ -594,6 +601,7 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
         LOG.debug("Marking the group [{}] as rejected", groupId);
         messageGroupEntity.setRejected(true);
         messageGroupDao.update(messageGroupEntity);
+        deleteJoinedFile(messageGroupEntity);
 
         final List<UserMessage> userMessageFragments = userMessageDao.findUserMessageByGroupId(groupId);
         if (userMessageFragments == null || userMessageFragments.isEmpty()) {
@@ -617,22 +625,30 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
     }
 
     @Override
-    public synchronized void incrementSentFragments(String groupId) {
+    public void incrementSentFragments(String groupId) {
         LOG.debug("Incrementing the sentFragments count for group [{}]", groupId);
 
-        final MessageGroupEntity groupEntity = messageGroupDao.findByGroupId(groupId);
-        groupEntity.incrementSentFragments();
-        messageGroupDao.update(groupEntity);
+        final MessageGroupEntity groupEntity = messageGroupDao.incrementSentFragments(groupId);
+        if (groupEntity == null) {
+            LOG.warn("Group not found [{}]: could not increment the sentFragments count", groupId);
+            return;
+        }
         LOG.debug("Sent fragments [{}] out of [{}] for group [{}]", groupEntity.getSentFragments(), groupEntity.getFragmentCount(), groupId);
     }
 
+    /**
+     * The count is incremented in the database, so that the concurrent fragments of a group are serialized on the group row only
+     * and the rejoin is scheduled once, by the transaction which received the last fragment, on any node of the cluster
+     */
     @Override
-    public synchronized void incrementReceivedFragments(String groupId, String backendName) {
+    public void incrementReceivedFragments(String groupId, String backendName) {
         LOG.debug("Incrementing receivedFragments count for group [{}]", groupId);
 
-        final MessageGroupEntity groupEntity = messageGroupDao.findByGroupId(groupId);
-        groupEntity.incrementReceivedFragments();
-        messageGroupDao.update(groupEntity);
+        final MessageGroupEntity groupEntity = messageGroupDao.incrementReceivedFragments(groupId);
+        if (groupEntity == null) {
+            LOG.warn("Group not found [{}]: could not increment the receivedFragments count", groupId);
+            return;
+        }
 
         LOG.debug("Received fragments [{}] out of expected [{}] for group [{}]", groupEntity.getReceivedFragments(), groupEntity.getFragmentCount(), groupEntity.getGroupId());
 
@@ -698,51 +714,43 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
 
         LOG.debug("Splitting SourceMessage [{}] into [{}] fragments, bytesPerSplit [{}], remainingBytes [{}]", sourceMessageFile, fragmentCount, bytesPerSplit, remainingBytes);
 
-        int maxReadBufferSize = PayloadPersistence.DEFAULT_BUFFER_SIZE;
-        try (RandomAccessFile raf = new RandomAccessFile(sourceMessageFile, "r")) {
+        try (FileChannel sourceChannel = FileChannel.open(sourceMessageFile.toPath(), StandardOpenOption.READ)) {
+            long position = 0;
             for (int index = 1; index <= fragmentCount; index++) {
                 final String fragmentFileName = getFragmentFileName(storageDirectory, sourceMessageFile.getName(), index);
                 result.add(fragmentFileName);
-                saveFragmentPayload(bytesPerSplit, maxReadBufferSize, raf, fragmentFileName);
+                saveFragmentPayload(sourceChannel, position, bytesPerSplit, fragmentFileName);
+                position += bytesPerSplit;
             }
             if (remainingBytes > 0) {
                 final String remainingFragmentFileName = getFragmentFileName(storageDirectory, sourceMessageFile.getName(), (fragmentCount + 1));
                 result.add(remainingFragmentFileName);
-
-                try (final FileOutputStream outputStream = new FileOutputStream(remainingFragmentFileName);
-                     final BufferedOutputStream bw = new BufferedOutputStream(outputStream)) {
-                    copyToOutputStream(raf, bw, remainingBytes);
-                }
+                saveFragmentPayload(sourceChannel, position, remainingBytes, remainingFragmentFileName);
             }
         }
         return result;
     }
 
-    protected void saveFragmentPayload(long bytesPerSplit, int maxReadBufferSize, RandomAccessFile raf, final String fragmentFileName) throws IOException {
+    protected void saveFragmentPayload(FileChannel sourceChannel, long position, long size, final String fragmentFileName) throws IOException {
         LOG.debug("Saving fragment file [{}]", fragmentFileName);
 
-        try (final FileOutputStream fileOutputStream = new FileOutputStream(fragmentFileName);
-             BufferedOutputStream bw = new BufferedOutputStream(fileOutputStream)) {
-            if (bytesPerSplit > maxReadBufferSize) {
-                long numReads = bytesPerSplit / maxReadBufferSize;
-                long numRemainingRead = bytesPerSplit % maxReadBufferSize;
-                for (int index = 0; index < numReads; index++) {
-                    copyToOutputStream(raf, bw, maxReadBufferSize);
-                }
-                if (numRemainingRead > 0) {
-                    copyToOutputStream(raf, bw, numRemainingRead);
-                }
-            } else {
-                copyToOutputStream(raf, bw, bytesPerSplit);
-            }
+        try (FileChannel fragmentChannel = FileChannel.open(Paths.get(fragmentFileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            transferTo(sourceChannel, position, size, fragmentChannel);
         }
     }
 
-    protected void copyToOutputStream(RandomAccessFile raf, BufferedOutputStream bw, long numBytes) throws IOException {
-        byte[] buf = new byte[(int) numBytes];
-        int val = raf.read(buf);
-        if (val != -1) {
-            bw.write(buf);
+    /**
+     * Copies a region of the source file at the current position of the target file, letting the operating system
+     * transfer the bytes directly between the two files when supported
+     */
+    protected void transferTo(FileChannel sourceChannel, long position, long size, FileChannel targetChannel) throws IOException {
+        long transferred = 0;
+        while (transferred < size) {
+            final long count = sourceChannel.transferTo(position + transferred, size - transferred, targetChannel);
+            if (count <= 0) {
+                throw new EOFException("Could not transfer [" + size + "] bytes from position [" + position + "]: only [" + transferred + "] bytes available");
+            }
+            transferred += count;
         }
     }
 
@@ -761,57 +769,189 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
         if (StringUtils.isEmpty(temporaryDirectoryLocation)) {
             throw new SplitAndJoinException("Could not rejoin fragments: the property [" + PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION + "] is not defined");
         }
-        String sourceFileName = generateSourceFileName(temporaryDirectoryLocation);
-        String outputFileName = sourceFileName;
-        final boolean sourceMessageCompressed = isSourceMessageCompressed(messageGroupEntity);
-        if (sourceMessageCompressed) {
-            outputFileName = sourceFileName + "_compressed";
-        }
 
-        final File outputFile = new File(outputFileName);
+        try {
+            if (isSourceMessageCompressed(messageGroupEntity)) {
+                final File sourceFile = new File(generateSourceFileName(temporaryDirectoryLocation));
+                LOG.debug("Decompressing files [{}] for group [{}] into file [{}]", fragmentFilesInOrder, messageGroupEntity.getGroupId(), sourceFile);
+                decompressGzip(fragmentFilesInOrder, sourceFile);
+                return sourceFile;
+            }
 
-        LOG.debug("Merging files [{}] for group [{}] into file [{}]", fragmentFilesInOrder, messageGroupEntity.getGroupId(), outputFile);
+            final File joinedFile = getJoinedFile(temporaryDirectoryLocation, messageGroupEntity);
+            if (isJoinedFileComplete(joinedFile, messageGroupEntity)) {
+                LOG.debug("Using file [{}] joined while receiving the fragments of group [{}]", joinedFile, messageGroupEntity.getGroupId());
+                deleteJoinMarkers(joinedFile);
+                return joinedFile;
+            }
 
-        try (OutputStream mergingStream = new FileOutputStream(outputFile)) {
-            mergeFiles(fragmentFilesInOrder, mergingStream);
+            LOG.debug("Merging files [{}] for group [{}] into file [{}]", fragmentFilesInOrder, messageGroupEntity.getGroupId(), joinedFile);
+            mergeFiles(fragmentFilesInOrder, joinedFile);
+            deleteJoinMarkers(joinedFile);
+            return joinedFile;
         } catch (IOException exp) {
             throw new SplitAndJoinException("Could not rejoin fragments", exp);
         }
-        if (!sourceMessageCompressed) {
-            return outputFile;
+    }
+
+    @Override
+    public void joinReceivedFragment(String groupId, Long fragmentNumber, List<PartInfo> partInfoList) {
+        final MessageGroupEntity messageGroupEntity = messageGroupDao.findByGroupId(groupId);
+        if (messageGroupEntity == null || isSourceMessageCompressed(messageGroupEntity)) {
+            LOG.debug("Fragment [{}] of group [{}] will be rejoined when all the fragments are received", fragmentNumber, groupId);
+            return;
+        }
+        final String temporaryDirectoryLocation = domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
+        final String fragmentFileName = CollectionUtils.isEmpty(partInfoList) ? null : partInfoList.get(0).getFileName();
+        if (StringUtils.isAnyBlank(temporaryDirectoryLocation, fragmentFileName)) {
+            LOG.debug("Fragment [{}] of group [{}] is not stored on disk: it will be rejoined when all the fragments are received", fragmentNumber, groupId);
+            return;
+        }
+
+        final File fragmentFile = new File(fragmentFileName);
+        final File joinedFile = getJoinedFile(temporaryDirectoryLocation, messageGroupEntity);
+        final long position = getFragmentPosition(messageGroupEntity, fragmentNumber, fragmentFile.length());
+        if (position < 0) {
+            LOG.debug("Could not determine the position of fragment [{}] of group [{}]", fragmentNumber, groupId);
+            markJoinIncomplete(joinedFile);
+            return;
+        }
+
+        LOG.debug("Writing fragment [{}] of group [{}] at position [{}] of file [{}]", fragmentNumber, groupId, position, joinedFile);
+        try (FileChannel fragmentChannel = FileChannel.open(fragmentFile.toPath(), StandardOpenOption.READ);
+             FileChannel joinedChannel = FileChannel.open(joinedFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            joinedChannel.position(position);
+            transferTo(fragmentChannel, 0, fragmentChannel.size(), joinedChannel);
+            joinedChannel.force(false);
+            markFragmentJoined(joinedFile, fragmentNumber);
+        } catch (IOException e) {
+            LOG.warn("Could not write fragment [{}] of group [{}] into file [{}]: the fragments will be merged when all are received", fragmentNumber, groupId, joinedFile, e);
+            markJoinIncomplete(joinedFile);
         }
+    }
 
-        final File decompressedSourceFile = new File(sourceFileName);
+    /**
+     * All the fragments except the last one have the same length; the last fragment ends at the size of the transferred (compressed or not) source message
+     */
+    protected long getFragmentPosition(MessageGroupEntity messageGroupEntity, Long fragmentNumber, long fragmentLength) {
+        if (fragmentNumber == null || fragmentNumber < 1 || messageGroupEntity.getFragmentCount() == null) {
+            return -1;
+        }
+        if (fragmentNumber < messageGroupEntity.getFragmentCount()) {
+            return (fragmentNumber - 1) * fragmentLength;
+        }
+        if (messageGroupEntity.getMessageSize() == null) {
+            return -1;
+        }
+        return messageGroupEntity.getMessageSize().longValue() - fragmentLength;
+    }
+
+    protected File getJoinedFile(String temporaryDirectoryLocation, MessageGroupEntity messageGroupEntity) {
+        return new File(temporaryDirectoryLocation, JOINED_FILE_PREFIX + messageGroupEntity.getEntityId());
+    }
+
+    protected File getIncompleteJoinMarker(File joinedFile) {
+        return new File(joinedFile.getPath() + INCOMPLETE_JOIN_SUFFIX);
+    }
+
+    protected void markJoinIncomplete(File joinedFile) {
         try {
-            LOG.debug("Decompressing SourceMessage file [{}] into file [{}]", outputFile, decompressedSourceFile);
-            decompressGzip(outputFile, decompressedSourceFile);
-            LOG.debug("Deleting file [{}]", outputFile);
-            final boolean delete = outputFile.delete();
-            if (!delete) {
-                LOG.warn("Could not delete file [{}]", outputFile);
+            getIncompleteJoinMarker(joinedFile).createNewFile();
+        } catch (IOException e) {
+            LOG.warn("Could not mark the file [{}] as incomplete", joinedFile, e);
+        }
+    }
+
+    protected File getJoinedFragmentsDirectory(File joinedFile) {
+        return new File(joinedFile.getPath() + JOINED_FRAGMENTS_SUFFIX);
+    }
+
+    /**
+     * Records that the fragment was written into the joined file: the joined file has its full length as soon as the last
+     * fragment is written, so its length does not prove that the other fragments were written
+     */
+    protected void markFragmentJoined(File joinedFile, Long fragmentNumber) throws IOException {
+        final File joinedFragmentsDirectory = getJoinedFragmentsDirectory(joinedFile);
+        FileUtils.forceMkdir(joinedFragmentsDirectory);
+        FileUtils.touch(new File(joinedFragmentsDirectory, String.valueOf(fragmentNumber)));
+    }
+
+    /**
+     * The joined file is complete only if every fragment of the group was written into it on this node: the fragments
+     * received by another node of the cluster or which could not be written are missing from the file
+     */
+    protected boolean isJoinedFileComplete(File joinedFile, MessageGroupEntity messageGroupEntity) {
+        if (!joinedFile.exists()
+                || getIncompleteJoinMarker(joinedFile).exists()
+                || messageGroupEntity.getMessageSize() == null
+                || messageGroupEntity.getFragmentCount() == null
+                || joinedFile.length() != messageGroupEntity.getMessageSize().longValue()) {
+            return false;
+        }
+        final File joinedFragmentsDirectory = getJoinedFragmentsDirectory(joinedFile);
+        for (long fragmentNumber = 1; fragmentNumber <= messageGroupEntity.getFragmentCount(); fragmentNumber++) {
+            if (!new File(joinedFragmentsDirectory, String.valueOf(fragmentNumber)).exists()) {
+                LOG.debug("Fragment [{}] was not written into the file [{}]", fragmentNumber, joinedFile);
+                return false;
             }
-        } catch (IOException exp) {
-            throw new SplitAndJoinException("Could not rejoin fragments", exp);
         }
-        return decompressedSourceFile;
+        return true;
+    }
+
+    protected void deleteJoinMarkers(File joinedFile) {
+        FileUtils.deleteQuietly(getIncompleteJoinMarker(joinedFile));
+        FileUtils.deleteQuietly(getJoinedFragmentsDirectory(joinedFile));
+    }
+
+    protected void deleteJoinedFile(MessageGroupEntity messageGroupEntity) {
+        final String temporaryDirectoryLocation = domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
+        if (StringUtils.isEmpty(temporaryDirectoryLocation)) {
+            return;
+        }
+        final File joinedFile = getJoinedFile(temporaryDirectoryLocation, messageGroupEntity);
+        LOG.debug("Deleting file [{}]", joinedFile);
+        FileUtils.deleteQuietly(joinedFile);
+        deleteJoinMarkers(joinedFile);
     }
 
     protected boolean isSourceMessageCompressed(MessageGroupEntity messageGroupEntity) {
         return StringUtils.isNotBlank(messageGroupEntity.getCompressionAlgorithm());
     }
 
-    protected void mergeFiles(List<File> files, OutputStream mergingStream) throws IOException {
-        for (File f : files) {
-            Files.copy(f.toPath(), mergingStream);
-            mergingStream.flush();
+    protected void mergeFiles(List<File> files, File mergedFile) throws IOException {
+        try (FileChannel mergedChannel = FileChannel.open(mergedFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (File f : files) {
+                try (FileChannel fragmentChannel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+                    transferTo(fragmentChannel, 0, fragmentChannel.size(), mergedChannel);
+                }
+            }
         }
     }
 
-    protected void decompressGzip(File input, File output) throws IOException {
-        try (GZIPInputStream in = new GZIPInputStream(new FileInputStream(input))) {
-            try (FileOutputStream out = new FileOutputStream(output)) {
-                IOUtils.copy(in, out, PayloadPersistence.DEFAULT_BUFFER_SIZE);
+    /**
+     * Decompresses the fragments one after the other, without merging them first
+     */
+    protected void decompressGzip(List<File> input, File output) throws IOException {
+        final Iterator<File> fragments = input.iterator();
+        final Enumeration<InputStream> fragmentStreams = new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return fragments.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                final File fragment = fragments.next();
+                try {
+                    return new FileInputStream(fragment);
+                } catch (FileNotFoundException e) {
+                    throw new SplitAndJoinException("Could not read fragment file [" + fragment + "]", e);
+                }
             }
+        };
+        try (GZIPInputStream in = new GZIPInputStream(new SequenceInputStream(fragmentStreams), PayloadPersistence.DEFAULT_BUFFER_SIZE);
+             FileOutputStream out = new FileOutputStream(output)) {
+            IOUtils.copy(in, out, PayloadPersistence.DEFAULT_BUFFER_SIZE);
         }
     }
 
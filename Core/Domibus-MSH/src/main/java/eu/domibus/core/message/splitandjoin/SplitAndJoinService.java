@@ -1,12 +1,14 @@
 package eu.domibus.core.message.splitandjoin;
 
 import eu.domibus.api.ebms3.model.mf.Ebms3MessageFragmentType;
+import eu.domibus.api.model.PartInfo;
 import eu.domibus.api.model.UserMessage;
 import eu.domibus.common.model.configuration.LegConfiguration;
 import eu.domibus.core.ebms3.EbMS3Exception;
 
 import javax.xml.soap.SOAPMessage;
 import java.io.File;
+import java.util.List;
 
 /**
  * Class responsible for handling operations related to SplitAndJoin like: rejoin the source message based on message fragments, etc
@@ -101,6 +103,16 @@ public interface SplitAndJoinService {
 
     void incrementSentFragments(String groupId);
 
+    /**
+     * Writes the payload of a received fragment at its position in the source message file, so that the source message
+     * is already rejoined when the last fragment is received
+     *
+     * @param groupId        the group of the fragment
+     * @param fragmentNumber the number of the fragment in the group, starting from 1
+     * @param partInfoList   the payload of the fragment
+     */
+    void joinReceivedFragment(String groupId, Long fragmentNumber, List<PartInfo> partInfoList);
+
     void incrementReceivedFragments(String groupId, String backendName);
 
     void persistReceivedUserFragment(UserMessage userMessage, Ebms3MessageFragmentType ebms3MessageFragmentType, final LegConfiguration legConfiguration) throws EbMS3Exception;
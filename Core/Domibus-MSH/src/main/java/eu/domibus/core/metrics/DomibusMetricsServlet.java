@@ -17,9 +17,13 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collections;
 import java.util.Map;
 
 /**
+ * Writes the metrics of the registry or, with the parameter {@value #SLOWEST_PARAM}, the stage times of the slowest
+ * messages recorded by the {@link StageTimingService}. A POST request with the parameter {@value #SLOWEST_PARAM} clears them.
+ *
  * @author Catalin Enache
  * @since 4.2
  */
@@ -27,6 +31,11 @@ public class DomibusMetricsServlet extends MetricsServlet {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(DomibusMetricsServlet.class);
 
+    protected static final String SLOWEST_PARAM = "slowest";
+
+    @Autowired
+    protected transient StageTimingService stageTimingService;
+
     @Override
     public void init(ServletConfig config) throws ServletException {
         super.init(config);
@@ -43,7 +52,9 @@ public class DomibusMetricsServlet extends MetricsServlet {
         resp.setStatus(HttpServletResponse.SC_OK);
 
         try (OutputStream output = resp.getOutputStream()) {
-            if (jsonpParamName != null && req.getParameter(jsonpParamName) != null) {
+            if (req.getParameter(SLOWEST_PARAM) != null) {
+                writeSlowestMessages(req, output);
+            } else if (jsonpParamName != null && req.getParameter(jsonpParamName) != null) {
                 getWriter(req).writeValue(output, new JSONPObject(req.getParameter(jsonpParamName), registry));
             } else {
                 getWriter(req).writeValue(output, registry);
@@ -53,6 +64,28 @@ public class DomibusMetricsServlet extends MetricsServlet {
         }
     }
 
+    protected void writeSlowestMessages(HttpServletRequest req, OutputStream output) throws IOException {
+        if (stageTimingService == null || !stageTimingService.isEnabled()) {
+            LOG.debug("The stage timing is not enabled");
+            getWriter(req).writeValue(output, Collections.emptyList());
+            return;
+        }
+        getWriter(req).writeValue(output, stageTimingService.getSlowestMessages());
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
+        if (req.getParameter(SLOWEST_PARAM) == null) {
+            resp.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        if (stageTimingService != null) {
+            LOG.debug("Clearing the slowest messages");
+            stageTimingService.clearSlowestMessages();
+        }
+        resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
 
     protected void register(MetricRegistry metricRegistry, Map.Entry<String, Metric> entry) {
         try {
@@ -0,0 +1,209 @@
+package eu.domibus.core.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reservoir counting the values in fixed buckets, in the manner of the HDR histograms: the values lower than 128 have
+ * their own bucket and each following power of two is split in 64 buckets, so that the quantiles are reported with a
+ * relative error lower than 1% whatever the number of recorded values. Recording a value does not allocate memory.
+ * <p>
+ * The values are kept since the creation of the reservoir; the ones greater than {@link #MAX_VALUE} (about 2.4 hours
+ * in nanoseconds) are counted in the last bucket.
+ *
+ * @since 5.2
+ */
+public class LogLinearReservoir implements Reservoir {
+
+    protected static final int SUB_BUCKET_BITS = 7;
+
+    protected static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    protected static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+    protected static final long MAX_VALUE = (1L << 43) - 1;
+
+    protected static final int BUCKET_COUNT = getBucketIndex(MAX_VALUE) + 1;
+
+    protected final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    protected final LongAdder count = new LongAdder();
+
+    protected final LongAdder sum = new LongAdder();
+
+    protected final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+    protected final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    @Override
+    public int size() {
+        return (int) Math.min(count.sum(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(long value) {
+        final long boundedValue = Math.min(Math.max(value, 0), MAX_VALUE);
+        counts.incrementAndGet(getBucketIndex(boundedValue));
+        count.increment();
+        sum.add(boundedValue);
+        min.accumulate(boundedValue);
+        max.accumulate(boundedValue);
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        final long[] bucketCounts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketCounts[i] = counts.get(i);
+            total += bucketCounts[i];
+        }
+        if (total == 0) {
+            return new LogLinearSnapshot(bucketCounts, 0, 0, 0, 0);
+        }
+        return new LogLinearSnapshot(bucketCounts, total, sum.sum(), min.get(), max.get());
+    }
+
+    protected static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // the values of the bucket share the highest SUB_BUCKET_BITS bits
+        final int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+    }
+
+    protected static long getLowestValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        final int shift = (bucketIndex - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        final long subBucket = (bucketIndex - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return subBucket << shift;
+    }
+
+    protected static long getMedianValue(int bucketIndex) {
+        final long lowestValue = getLowestValue(bucketIndex);
+        final long highestValue = getLowestValue(bucketIndex + 1) - 1;
+        return lowestValue + (highestValue - lowestValue) / 2;
+    }
+
+    /**
+     * Immutable copy of the bucket counts; the values of a bucket are reported as the middle of the bucket, bounded by
+     * the exact minimum and maximum.
+     */
+    protected static class LogLinearSnapshot extends Snapshot {
+
+        protected final long[] bucketCounts;
+
+        protected final long count;
+
+        protected final long sum;
+
+        protected final long min;
+
+        protected final long max;
+
+        protected LogLinearSnapshot(long[] bucketCounts, long count, long sum, long min, long max) {
+            this.bucketCounts = bucketCounts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException(quantile + " is not in [0..1]");
+            }
+            if (count == 0) {
+                return 0.0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long cumulativeCount = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                cumulativeCount += bucketCounts[i];
+                if (cumulativeCount >= rank) {
+                    return getBucketValue(i);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * @return the value of each non empty bucket, instead of each recorded value
+         */
+        @Override
+        public long[] getValues() {
+            final long[] values = new long[bucketCounts.length];
+            int size = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                if (bucketCounts[i] > 0) {
+                    values[size++] = getBucketValue(i);
+                }
+            }
+            return Arrays.copyOf(values, size);
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(count, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        @Override
+        public long getMin() {
+            return min;
+        }
+
+        @Override
+        public double getStdDev() {
+            if (count <= 1) {
+                return 0.0;
+            }
+            final double mean = getMean();
+            double variance = 0.0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                if (bucketCounts[i] > 0) {
+                    final double difference = getBucketValue(i) - mean;
+                    variance += bucketCounts[i] * difference * difference;
+                }
+            }
+            return Math.sqrt(variance / (count - 1));
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (int i = 0; i < bucketCounts.length; i++) {
+                    if (bucketCounts[i] > 0) {
+                        out.printf("%d %d%n", getBucketValue(i), bucketCounts[i]);
+                    }
+                }
+            }
+        }
+
+        protected long getBucketValue(int bucketIndex) {
+            return Math.min(Math.max(getMedianValue(bucketIndex), min), max);
+        }
+    }
+}
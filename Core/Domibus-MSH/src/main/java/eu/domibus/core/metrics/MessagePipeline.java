@@ -0,0 +1,22 @@
+package eu.domibus.core.metrics;
+
+/**
+ * The AS4 pipelines whose stages are timed by the {@link StageTimingService}
+ *
+ * @since 5.2
+ */
+public enum MessagePipeline {
+
+    SEND("send"),
+    RECEIVE("receive");
+
+    private final String metricName;
+
+    MessagePipeline(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,27 @@
+package eu.domibus.core.metrics;
+
+/**
+ * The stages of the AS4 pipelines timed by the {@link StageTimingService}. A stage nested in another one is not
+ * counted in the time of the outer stage (e.g. the WS-Security processing done by CXF during the HTTP dispatch).
+ *
+ * @since 5.2
+ */
+public enum MessageStage {
+
+    PMODE_LOOKUP("pmode_lookup"),
+    SECURITY("security"),
+    PAYLOAD_PERSISTENCE("payload_persistence"),
+    JMS_ENQUEUE("jms_enqueue"),
+    HTTP_DISPATCH("http_dispatch"),
+    RECEIPT_HANDLING("receipt_handling");
+
+    private final String metricName;
+
+    MessageStage(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,63 @@
+package eu.domibus.core.metrics;
+
+import java.util.Map;
+
+/**
+ * The stage times of one of the slowest messages recorded by the {@link SlowestMessagesRecorder}, in milliseconds
+ *
+ * @since 5.2
+ */
+public class SlowMessage {
+
+    protected final String pipeline;
+
+    protected final String messageId;
+
+    protected final String domain;
+
+    protected final String leg;
+
+    protected final String start;
+
+    protected final double totalMillis;
+
+    protected final Map<String, Double> stageMillis;
+
+    public SlowMessage(String pipeline, String messageId, String domain, String leg, String start, double totalMillis, Map<String, Double> stageMillis) {
+        this.pipeline = pipeline;
+        this.messageId = messageId;
+        this.domain = domain;
+        this.leg = leg;
+        this.start = start;
+        this.totalMillis = totalMillis;
+        this.stageMillis = stageMillis;
+    }
+
+    public String getPipeline() {
+        return pipeline;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public String getLeg() {
+        return leg;
+    }
+
+    public String getStart() {
+        return start;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public Map<String, Double> getStageMillis() {
+        return stageMillis;
+    }
+}
@@ -0,0 +1,122 @@
+package eu.domibus.core.metrics;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flight recorder keeping the stage times of the slowest messages timed by the {@link StageTimingService}.
+ * <p>
+ * The slots are allocated once and overwritten by slower messages: a message faster than all the recorded ones is
+ * discarded without locking.
+ *
+ * @since 5.2
+ */
+public class SlowestMessagesRecorder {
+
+    protected static final MessageStage[] STAGES = MessageStage.values();
+
+    protected final Slot[] slots;
+
+    protected int size;
+
+    /**
+     * The total time a message must exceed in order to be recorded: -1 until all the slots are used
+     */
+    protected volatile long threshold = -1;
+
+    public SlowestMessagesRecorder(int capacity) {
+        slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public void record(StageTimingContext context, long totalNanos) {
+        if (slots.length == 0 || totalNanos <= threshold) {
+            return;
+        }
+        synchronized (this) {
+            if (totalNanos <= threshold) {
+                return;
+            }
+            final int index = size < slots.length ? size++ : getFastestIndex();
+            slots[index].copyFrom(context, totalNanos);
+            if (size == slots.length) {
+                threshold = slots[getFastestIndex()].totalNanos;
+            }
+        }
+    }
+
+    /**
+     * @return the recorded messages, the slowest first
+     */
+    public synchronized List<SlowMessage> getSlowestMessages() {
+        final List<Slot> recorded = new ArrayList<>(Arrays.asList(slots).subList(0, size));
+        recorded.sort(Comparator.comparingLong((Slot slot) -> slot.totalNanos).reversed());
+
+        final List<SlowMessage> result = new ArrayList<>(recorded.size());
+        for (Slot slot : recorded) {
+            final Map<String, Double> stageMillis = new LinkedHashMap<>();
+            for (MessageStage stage : STAGES) {
+                if (slot.stageTimed[stage.ordinal()]) {
+                    stageMillis.put(stage.getMetricName(), toMillis(slot.stageNanos[stage.ordinal()]));
+                }
+            }
+            result.add(new SlowMessage(slot.pipeline.getMetricName(), slot.messageId, slot.domain, slot.leg,
+                    Instant.ofEpochMilli(slot.startTime).toString(), toMillis(slot.totalNanos), stageMillis));
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        size = 0;
+        threshold = -1;
+    }
+
+    protected int getFastestIndex() {
+        int fastest = 0;
+        for (int i = 1; i < size; i++) {
+            if (slots[i].totalNanos < slots[fastest].totalNanos) {
+                fastest = i;
+            }
+        }
+        return fastest;
+    }
+
+    protected static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    protected static class Slot {
+
+        protected final long[] stageNanos = new long[STAGES.length];
+
+        protected final boolean[] stageTimed = new boolean[STAGES.length];
+
+        protected MessagePipeline pipeline;
+
+        protected String messageId;
+
+        protected String domain;
+
+        protected String leg;
+
+        protected long startTime;
+
+        protected long totalNanos;
+
+        protected void copyFrom(StageTimingContext context, long totalNanos) {
+            this.pipeline = context.getPipeline();
+            this.messageId = context.getMessageId();
+            this.domain = context.getDomain();
+            this.leg = context.getLeg();
+            this.startTime = context.getStartTime();
+            this.totalNanos = totalNanos;
+            for (MessageStage stage : STAGES) {
+                stageNanos[stage.ordinal()] = context.getStageNanos(stage);
+                stageTimed[stage.ordinal()] = context.isStageTimed(stage);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package eu.domibus.core.metrics;
+
+/**
+ * Mutable state of the message timed on a thread by the {@link StageTimingService}. An instance is created per thread
+ * and reused for all the messages processed by that thread, so that timing a message does not allocate memory.
+ * <p>
+ * The stages can be nested: the time spent in a nested stage is subtracted from the time of the enclosing stage. A
+ * stage which is not stopped (e.g. because of an exception) is discarded when an enclosing stage is stopped.
+ *
+ * @since 5.2
+ */
+public class StageTimingContext {
+
+    protected static final int MAX_DEPTH = 8;
+
+    protected static final MessageStage[] STAGES = MessageStage.values();
+
+    protected final long[] stageNanos = new long[STAGES.length];
+
+    protected final boolean[] stageTimed = new boolean[STAGES.length];
+
+    protected final int[] openStages = new int[MAX_DEPTH];
+
+    protected final long[] openStageStarts = new long[MAX_DEPTH];
+
+    protected final long[] openStageNestedNanos = new long[MAX_DEPTH];
+
+    protected int depth;
+
+    protected boolean active;
+
+    protected MessagePipeline pipeline;
+
+    protected String messageId;
+
+    protected String domain;
+
+    protected String leg;
+
+    protected long startTime;
+
+    protected long startNanos;
+
+    public void begin(MessagePipeline pipeline, String messageId, String domain, long startTime, long startNanos) {
+        this.active = true;
+        this.pipeline = pipeline;
+        this.messageId = messageId;
+        this.domain = domain;
+        this.leg = null;
+        this.startTime = startTime;
+        this.startNanos = startNanos;
+        this.depth = 0;
+        for (int i = 0; i < STAGES.length; i++) {
+            stageNanos[i] = 0;
+            stageTimed[i] = false;
+        }
+    }
+
+    public void start(MessageStage stage, long nanos) {
+        if (depth == MAX_DEPTH) {
+            return;
+        }
+        openStages[depth] = stage.ordinal();
+        openStageStarts[depth] = nanos;
+        openStageNestedNanos[depth] = 0;
+        depth++;
+    }
+
+    /**
+     * @return the time spent in the stage without its nested stages, or -1 if the stage was not started
+     */
+    public long stop(MessageStage stage, long nanos) {
+        int index = depth - 1;
+        while (index >= 0 && openStages[index] != stage.ordinal()) {
+            index--;
+        }
+        if (index < 0) {
+            return -1;
+        }
+        final long elapsed = nanos - openStageStarts[index];
+        final long exclusive = elapsed - openStageNestedNanos[index];
+        depth = index;
+        if (index > 0) {
+            openStageNestedNanos[index - 1] += elapsed;
+        }
+        if (active) {
+            stageNanos[stage.ordinal()] += exclusive;
+            stageTimed[stage.ordinal()] = true;
+        }
+        return exclusive;
+    }
+
+    public void finish() {
+        active = false;
+        depth = 0;
+        messageId = null;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public boolean isStageTimed(MessageStage stage) {
+        return stageTimed[stage.ordinal()];
+    }
+
+    public long getStageNanos(MessageStage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    public MessagePipeline getPipeline() {
+        return pipeline;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public String getLeg() {
+        return leg;
+    }
+
+    public void setLeg(String leg) {
+        this.leg = leg;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+}
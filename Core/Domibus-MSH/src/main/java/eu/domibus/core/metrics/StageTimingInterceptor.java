@@ -0,0 +1,53 @@
+package eu.domibus.core.metrics;
+
+import eu.domibus.api.pmode.PModeConstants;
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.MessageUtils;
+
+/**
+ * Starts or stops the timing of a {@link MessageStage} around an interceptor of the CXF chain, e.g. the WS-Security
+ * processing done by WSS4J. The client chains belong to the {@link MessagePipeline#SEND} pipeline and the server chains
+ * to the {@link MessagePipeline#RECEIVE} pipeline.
+ *
+ * @since 5.2
+ */
+public class StageTimingInterceptor extends AbstractSoapInterceptor {
+
+    protected final StageTimingService stageTimingService;
+
+    protected final MessageStage stage;
+
+    protected final boolean stageStart;
+
+    protected StageTimingInterceptor(String phase, MessageStage stage, boolean stageStart, StageTimingService stageTimingService) {
+        super(StageTimingInterceptor.class.getName() + "." + stage.getMetricName() + (stageStart ? ".start" : ".stop"), phase);
+        this.stageTimingService = stageTimingService;
+        this.stage = stage;
+        this.stageStart = stageStart;
+    }
+
+    public static StageTimingInterceptor startBefore(String phase, String interceptorId, MessageStage stage, StageTimingService stageTimingService) {
+        final StageTimingInterceptor interceptor = new StageTimingInterceptor(phase, stage, true, stageTimingService);
+        interceptor.addBefore(interceptorId);
+        return interceptor;
+    }
+
+    public static StageTimingInterceptor stopAfter(String phase, String interceptorId, MessageStage stage, StageTimingService stageTimingService) {
+        final StageTimingInterceptor interceptor = new StageTimingInterceptor(phase, stage, false, stageTimingService);
+        interceptor.addAfter(interceptorId);
+        return interceptor;
+    }
+
+    @Override
+    public void handleMessage(SoapMessage message) throws Fault {
+        if (stageStart) {
+            stageTimingService.start(stage);
+            return;
+        }
+        final MessagePipeline pipeline = MessageUtils.isRequestor(message) ? MessagePipeline.SEND : MessagePipeline.RECEIVE;
+        final String pModeKey = (String) message.getContextualProperty(PModeConstants.PMODE_KEY_CONTEXT_PROPERTY);
+        stageTimingService.stop(stage, pipeline, stageTimingService.getLegName(pModeKey));
+    }
+}
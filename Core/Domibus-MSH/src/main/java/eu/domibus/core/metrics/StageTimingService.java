@@ -0,0 +1,205 @@
+package eu.domibus.core.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.pmode.PModeConstants;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_METRICS_MONITOR_STAGES;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_METRICS_MONITOR_STAGES_SLOWEST_MESSAGES;
+
+/**
+ * Times the stages of the messages sent and received, per pipeline, domain and leg.
+ * <p>
+ * A message is timed between {@link #begin} and {@link #end} on the same thread, the stages being delimited by
+ * {@link #start} and {@link #stop}. The times are recorded in {@link LogLinearReservoir} timers named
+ * {@code eu.domibus.core.metrics.StageTimingService.<pipeline>.<domain>.<leg>.<stage>}, together with the total time of
+ * the message, and the slowest messages are kept by a {@link SlowestMessagesRecorder}. Once the timers of a leg are
+ * created, timing a message does not allocate memory.
+ *
+ * @since 5.2
+ */
+@Service
+public class StageTimingService {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(StageTimingService.class);
+
+    protected static final String UNKNOWN = "unknown";
+
+    protected static final String TOTAL = "total";
+
+    protected static final MessageStage[] STAGES = MessageStage.values();
+
+    protected final MetricRegistry metricRegistry;
+
+    protected final DomainContextProvider domainContextProvider;
+
+    protected final boolean enabled;
+
+    protected final SlowestMessagesRecorder slowestMessagesRecorder;
+
+    protected final Map<MessagePipeline, ConcurrentMap<String, ConcurrentMap<String, Timer[]>>> timers = new EnumMap<>(MessagePipeline.class);
+
+    protected final ConcurrentMap<String, String> legsByPModeKey = new ConcurrentHashMap<>();
+
+    protected final ThreadLocal<StageTimingContext> contexts = ThreadLocal.withInitial(StageTimingContext::new);
+
+    public StageTimingService(MetricRegistry metricRegistry, DomibusPropertyProvider domibusPropertyProvider, DomainContextProvider domainContextProvider) {
+        this.metricRegistry = metricRegistry;
+        this.domainContextProvider = domainContextProvider;
+        this.enabled = BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_METRICS_MONITOR_STAGES));
+        final int slowestMessages = enabled ? Math.max(0, domibusPropertyProvider.getIntegerProperty(DOMIBUS_METRICS_MONITOR_STAGES_SLOWEST_MESSAGES)) : 0;
+        this.slowestMessagesRecorder = new SlowestMessagesRecorder(slowestMessages);
+        for (MessagePipeline pipeline : MessagePipeline.values()) {
+            timers.put(pipeline, new ConcurrentHashMap<>());
+        }
+        LOG.debug("Stage timing enabled [{}], keeping the [{}] slowest messages", enabled, slowestMessages);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing a message on the current thread; the message previously timed on the thread, if not ended, is discarded
+     */
+    public void begin(MessagePipeline pipeline, String messageId) {
+        if (!enabled) {
+            return;
+        }
+        contexts.get().begin(pipeline, messageId, getCurrentDomainCode(), System.currentTimeMillis(), System.nanoTime());
+    }
+
+    public void setLeg(String leg) {
+        if (!enabled) {
+            return;
+        }
+        contexts.get().setLeg(leg);
+    }
+
+    public void start(MessageStage stage) {
+        if (!enabled) {
+            return;
+        }
+        contexts.get().start(stage, System.nanoTime());
+    }
+
+    public void stop(MessageStage stage) {
+        if (!enabled) {
+            return;
+        }
+        contexts.get().stop(stage, System.nanoTime());
+    }
+
+    /**
+     * Stops a stage which can also run while no message is timed on the current thread (e.g. in the CXF interceptors):
+     * in this case the time of the stage is recorded alone, for the given pipeline and leg.
+     */
+    public void stop(MessageStage stage, MessagePipeline pipeline, String leg) {
+        if (!enabled) {
+            return;
+        }
+        final StageTimingContext context = contexts.get();
+        final long nanos = context.stop(stage, System.nanoTime());
+        if (nanos >= 0 && !context.isActive()) {
+            getTimers(pipeline, getCurrentDomainCode(), leg)[stage.ordinal()].update(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records the stage times and the total time of the message timed on the current thread
+     */
+    public void end() {
+        if (!enabled) {
+            return;
+        }
+        final StageTimingContext context = contexts.get();
+        if (!context.isActive()) {
+            LOG.trace("No message timed on the current thread");
+            return;
+        }
+        final long totalNanos = System.nanoTime() - context.getStartNanos();
+        final Timer[] legTimers = getTimers(context.getPipeline(), context.getDomain(), context.getLeg());
+        for (MessageStage stage : STAGES) {
+            if (context.isStageTimed(stage)) {
+                legTimers[stage.ordinal()].update(context.getStageNanos(stage), TimeUnit.NANOSECONDS);
+            }
+        }
+        legTimers[STAGES.length].update(totalNanos, TimeUnit.NANOSECONDS);
+        if (context.getMessageId() != null) {
+            slowestMessagesRecorder.record(context, totalNanos);
+        }
+        context.finish();
+    }
+
+    /**
+     * @return the leg name contained in the PMode key, or null if the PMode key is not known
+     */
+    public String getLegName(String pModeKey) {
+        if (pModeKey == null) {
+            return null;
+        }
+        String leg = legsByPModeKey.get(pModeKey);
+        if (leg == null) {
+            leg = StringUtils.substringAfterLast(pModeKey, PModeConstants.PMODEKEY_SEPARATOR);
+            legsByPModeKey.putIfAbsent(pModeKey, leg);
+        }
+        return leg;
+    }
+
+    public List<SlowMessage> getSlowestMessages() {
+        return slowestMessagesRecorder.getSlowestMessages();
+    }
+
+    public void clearSlowestMessages() {
+        slowestMessagesRecorder.clear();
+    }
+
+    protected Timer[] getTimers(MessagePipeline pipeline, String domain, String leg) {
+        final String legName = leg != null ? leg : UNKNOWN;
+        final ConcurrentMap<String, ConcurrentMap<String, Timer[]>> pipelineTimers = timers.get(pipeline);
+        ConcurrentMap<String, Timer[]> domainTimers = pipelineTimers.get(domain);
+        if (domainTimers == null) {
+            domainTimers = pipelineTimers.computeIfAbsent(domain, key -> new ConcurrentHashMap<>());
+        }
+        Timer[] legTimers = domainTimers.get(legName);
+        if (legTimers == null) {
+            legTimers = domainTimers.computeIfAbsent(legName, key -> createTimers(pipeline, domain, key));
+        }
+        return legTimers;
+    }
+
+    protected Timer[] createTimers(MessagePipeline pipeline, String domain, String leg) {
+        LOG.debug("Creating the stage timers of the [{}] pipeline for domain [{}] and leg [{}]", pipeline, domain, leg);
+        final Timer[] legTimers = new Timer[STAGES.length + 1];
+        for (MessageStage stage : STAGES) {
+            legTimers[stage.ordinal()] = createTimer(pipeline, domain, leg, stage.getMetricName());
+        }
+        legTimers[STAGES.length] = createTimer(pipeline, domain, leg, TOTAL);
+        return legTimers;
+    }
+
+    protected Timer createTimer(MessagePipeline pipeline, String domain, String leg, String stage) {
+        return metricRegistry.timer(name(StageTimingService.class, pipeline.getMetricName(), domain, leg, stage), () -> new Timer(new LogLinearReservoir()));
+    }
+
+    protected String getCurrentDomainCode() {
+        final Domain domain = domainContextProvider.getCurrentDomainSafely();
+        return domain != null ? domain.getCode() : UNKNOWN;
+    }
+}
@@ -1,25 +1,33 @@
 package eu.domibus.core.payload.persistence;
 
+import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.common.model.configuration.LegConfiguration;
 import eu.domibus.core.ebms3.EbMS3Exception;
+import eu.domibus.core.message.compression.AdaptiveCompressionService;
 import eu.domibus.core.message.compression.CompressionService;
+import eu.domibus.core.message.compression.CompressionStatisticsService;
 import eu.domibus.api.payload.encryption.PayloadEncryptionService;
+import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorage;
 import eu.domibus.core.plugin.notification.BackendNotificationService;
 import eu.domibus.api.model.PartInfo;
 import eu.domibus.api.model.UserMessage;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
-import javax.crypto.CipherOutputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.zip.GZIPOutputStream;
+import java.nio.file.Files;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_DATABASE_STREAMING_ENABLED;
 
 /**
  * @author Cosmin Baciu
@@ -42,36 +50,34 @@ public class DatabasePayloadPersistence implements PayloadPersistence {
     @Autowired
     protected PayloadEncryptionService encryptionService;
 
+    @Autowired
+    protected PayloadBufferPool payloadBufferPool;
+
+    @Autowired
+    protected DomibusPropertyProvider domibusPropertyProvider;
+
+    @Autowired
+    protected AdaptiveCompressionService adaptiveCompressionService;
+
+    @Autowired
+    protected CompressionStatisticsService compressionStatisticsService;
+
     @Override
     public void storeIncomingPayload(PartInfo partInfo, UserMessage userMessage, LegConfiguration legConfiguration) throws IOException {
         LOG.debug("Saving incoming payload [{}] to database", partInfo.getHref());
 
-        OutputStream outputStream = null;
-        ByteArrayOutputStream byteArrayOutputStream = null;
-        try {
-            byteArrayOutputStream = new ByteArrayOutputStream(PayloadPersistence.DEFAULT_BUFFER_SIZE);
-            outputStream = byteArrayOutputStream;
+        Cipher encryptCipherForPayload = null;
+        final Boolean encryptionActive = payloadPersistenceHelper.isPayloadEncryptionActive(userMessage);
+        if (encryptionActive) {
+            LOG.debug("Using encryption for part info [{}]", partInfo.getHref());
+            encryptCipherForPayload = encryptionService.getEncryptCipherForPayload();
+            partInfo.setEncrypted(true);
+        }
 
-            final Boolean encryptionActive = payloadPersistenceHelper.isPayloadEncryptionActive(userMessage);
-            if (encryptionActive) {
-                LOG.debug("Using encryption for part info [{}]", partInfo.getHref());
-                final Cipher encryptCipherForPayload = encryptionService.getEncryptCipherForPayload();
-                outputStream = new CipherOutputStream(outputStream, encryptCipherForPayload);
-                partInfo.setEncrypted(true);
-            }
-
-            try (InputStream is = partInfo.getPayloadDatahandler().getInputStream()) {
-                IOUtils.copy(is, outputStream, DEFAULT_BUFFER_SIZE);
-            }
-        } finally {
-            if (outputStream != null) {
-                outputStream.flush();
-                outputStream.close();
-            }
+        final long partInfoLength;
+        try (InputStream is = partInfo.getPayloadDatahandler().getInputStream()) {
+            partInfoLength = storeBinaryData(partInfo, is, encryptCipherForPayload, false);
         }
-        byte[] binaryData = byteArrayOutputStream.toByteArray();
-        final int partInfoLength = binaryData.length;
-        partInfo.setBinaryData(binaryData);
         partInfo.setLength(partInfoLength);
         partInfo.setFileName(null);
         LOG.debug("Finished saving incoming payload [{}] to database", partInfo.getHref());
@@ -93,9 +99,7 @@ public class DatabasePayloadPersistence implements PayloadPersistence {
 
             final Boolean encryptionActive = payloadPersistenceHelper.isPayloadEncryptionActive(userMessage);
 
-            byte[] binaryData = getOutgoingBinaryData(partInfo, is, userMessage, legConfiguration, encryptionActive);
-            int partInfoLength = binaryData.length;
-            partInfo.setBinaryData(binaryData);
+            final long partInfoLength = storeOutgoingBinaryData(partInfo, is, userMessage, legConfiguration, encryptionActive);
             partInfo.setLength(partInfoLength);
             partInfo.setFileName(null);
             partInfo.setEncrypted(encryptionActive);
@@ -108,35 +112,75 @@ public class DatabasePayloadPersistence implements PayloadPersistence {
         }
     }
 
-    protected byte[] getOutgoingBinaryData(PartInfo partInfo, InputStream is, UserMessage userMessage, final LegConfiguration legConfiguration, final Boolean encryptionActive) throws IOException, EbMS3Exception {
-        OutputStream outputStream = null;
-        ByteArrayOutputStream byteArrayOutputStream = null;
-        try {
-            byteArrayOutputStream = new ByteArrayOutputStream(PayloadPersistence.DEFAULT_BUFFER_SIZE);
-            outputStream = byteArrayOutputStream;
+    protected long storeOutgoingBinaryData(PartInfo partInfo, InputStream is, UserMessage userMessage, final LegConfiguration legConfiguration, final Boolean encryptionActive) throws IOException, EbMS3Exception {
+        final InputStream sampledInputStream = adaptiveCompressionService.prepareForSampling(is);
+        final byte[] sample = adaptiveCompressionService.readSample(sampledInputStream);
+        boolean useCompression = compressionService.handleCompression(userMessage.getMessageId(), partInfo, legConfiguration, sample);
+        LOG.debug("Compression properties for message [{}] applied? [{}]", userMessage.getMessageId(), useCompression);
 
-            boolean useCompression = compressionService.handleCompression(userMessage.getMessageId(), partInfo, legConfiguration);
-            LOG.debug("Compression properties for message [{}] applied? [{}]", userMessage.getMessageId(), useCompression);
+        Cipher encryptCipherForPayload = null;
+        if (encryptionActive) {
+            LOG.debug("Using encryption for part info [{}]", partInfo.getHref());
+            encryptCipherForPayload = encryptionService.getEncryptCipherForPayload();
+        }
+        if (!useCompression) {
+            return storeBinaryData(partInfo, sampledInputStream, encryptCipherForPayload, false);
+        }
 
-            if (encryptionActive) {
-                LOG.debug("Using encryption for part info [{}]", partInfo.getHref());
-                final Cipher encryptCipherForPayload = encryptionService.getEncryptCipherForPayload();
-                outputStream = new CipherOutputStream(outputStream, encryptCipherForPayload);
-            }
+        final long startTime = System.nanoTime();
+        final CountingInputStream countingInputStream = new CountingInputStream(sampledInputStream);
+        final long length = storeBinaryData(partInfo, countingInputStream, encryptCipherForPayload, true);
+        compressionStatisticsService.recordCompression(legConfiguration.getName(), countingInputStream.getByteCount(), length, System.nanoTime() - startTime);
+        return length;
+    }
 
-            if (useCompression) {
-                LOG.debug("Using compression for part info [{}]", partInfo.getHref());
-                outputStream = new GZIPOutputStream(outputStream);
-            }
+    /**
+     * Compresses, encrypts and digests the payload in a single pass. When streaming is enabled, the result is written to a
+     * temporary file which is streamed into the database once the part info is saved, instead of being loaded in memory.
+     *
+     * @return the length of the stored payload
+     */
+    protected long storeBinaryData(PartInfo partInfo, InputStream is, Cipher encryptCipher, boolean useCompression) throws IOException {
+        if (!isStreamingEnabled()) {
+            final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(PayloadPersistence.DEFAULT_BUFFER_SIZE);
+            final PayloadPipelineOutputStream outputStream = transfer(is, byteArrayOutputStream, encryptCipher, useCompression);
+            payloadPersistenceHelper.setPayloadDigest(partInfo, outputStream.getDigest());
+            partInfo.setBinaryData(byteArrayOutputStream.toByteArray());
+            return outputStream.getOutputLength();
+        }
 
-            IOUtils.copy(is, outputStream, DEFAULT_BUFFER_SIZE);
+        final File binaryDataFile = createTemporaryFile();
+        LOG.debug("Using the temporary file [{}] for streaming the payload [{}] into the database", binaryDataFile, partInfo.getHref());
+        final PayloadPipelineOutputStream outputStream;
+        try {
+            outputStream = transfer(is, Files.newOutputStream(binaryDataFile.toPath()), encryptCipher, useCompression);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(binaryDataFile.toPath());
+            throw e;
+        }
+        payloadPersistenceHelper.setPayloadDigest(partInfo, outputStream.getDigest());
+        partInfo.setBinaryData(null);
+        partInfo.setBinaryDataFile(binaryDataFile);
+        return outputStream.getOutputLength();
+    }
 
+    protected PayloadPipelineOutputStream transfer(InputStream is, OutputStream target, Cipher encryptCipher, boolean useCompression) throws IOException {
+        final PayloadPipelineOutputStream outputStream = new PayloadPipelineOutputStream(target, encryptCipher, useCompression, payloadPersistenceHelper.createPayloadDigest(), payloadBufferPool);
+        try {
+            outputStream.transferFrom(is);
         } finally {
-            if (outputStream != null) {
-                outputStream.flush();
-                outputStream.close();
-            }
+            outputStream.close();
         }
-        return byteArrayOutputStream.toByteArray();
+        return outputStream;
+    }
+
+    protected File createTemporaryFile() throws IOException {
+        final String temporaryDirectoryLocation = domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
+        final File temporaryDirectory = StringUtils.isBlank(temporaryDirectoryLocation) ? null : new File(temporaryDirectoryLocation);
+        return File.createTempFile("payload", FileSystemPayloadPersistence.PAYLOAD_EXTENSION, temporaryDirectory);
+    }
+
+    protected boolean isStreamingEnabled() {
+        return BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_PAYLOAD_DATABASE_STREAMING_ENABLED));
     }
 }
@@ -2,7 +2,9 @@ package eu.domibus.core.payload.persistence;
 
 import eu.domibus.common.model.configuration.LegConfiguration;
 import eu.domibus.core.ebms3.EbMS3Exception;
+import eu.domibus.core.message.compression.AdaptiveCompressionService;
 import eu.domibus.core.message.compression.CompressionService;
+import eu.domibus.core.message.compression.CompressionStatisticsService;
 import eu.domibus.api.payload.encryption.PayloadEncryptionService;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorage;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorageProvider;
@@ -11,16 +13,17 @@ import eu.domibus.api.model.PartInfo;
 import eu.domibus.api.model.UserMessage;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.activation.DataHandler;
+import javax.activation.FileDataSource;
 import javax.crypto.Cipher;
-import javax.crypto.CipherOutputStream;
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.UUID;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * @author Cosmin Baciu
@@ -48,6 +51,15 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
     @Autowired
     protected PayloadEncryptionService encryptionService;
 
+    @Autowired
+    protected PayloadBufferPool payloadBufferPool;
+
+    @Autowired
+    protected AdaptiveCompressionService adaptiveCompressionService;
+
+    @Autowired
+    protected CompressionStatisticsService compressionStatisticsService;
+
     @Override
     public void storeIncomingPayload(PartInfo partInfo, UserMessage userMessage, LegConfiguration legConfiguration) throws IOException {
         if (StringUtils.isBlank(partInfo.getFileName())) {
@@ -67,7 +79,7 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
         final File attachmentStore = new File(currentStorage.getStorageDirectory(), UUID.randomUUID().toString() + PAYLOAD_EXTENSION);
         partInfo.setFileName(attachmentStore.getAbsolutePath());
         try (final InputStream inputStream = partInfo.getPayloadDatahandler().getInputStream()) {
-            final long fileLength = saveIncomingFileToDisk(attachmentStore, inputStream, encryptionActive);
+            final long fileLength = saveIncomingFileToDisk(attachmentStore, partInfo, inputStream, encryptionActive);
             partInfo.setLength(fileLength);
             partInfo.setEncrypted(encryptionActive);
 
@@ -78,27 +90,23 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
         LOG.debug("Finished saving incoming payload [{}] to file disk", partInfo.getHref());
     }
 
-    protected long saveIncomingFileToDisk(File file, InputStream is, final Boolean encryptionActive) throws IOException {
-        OutputStream outputStream = null;
-        try {
-            outputStream = new FileOutputStream(file);//NOSONAR the stream is closed in the finally block
-
-            if (encryptionActive) {
-                LOG.debug("Using encryption for file [{}]", file);
-                final Cipher encryptCipherForPayload = encryptionService.getEncryptCipherForPayload();
-                outputStream = new CipherOutputStream(outputStream, encryptCipherForPayload);
-            }
+    protected long saveIncomingFileToDisk(File file, PartInfo partInfo, InputStream is, final Boolean encryptionActive) throws IOException {
+        Cipher encryptCipherForPayload = null;
+        if (encryptionActive) {
+            LOG.debug("Using encryption for file [{}]", file);
+            encryptCipherForPayload = encryptionService.getEncryptCipherForPayload();
+        }
 
-            final long total = IOUtils.copy(is, outputStream, DEFAULT_BUFFER_SIZE);
-            outputStream.flush();
-            LOG.debug("Done writing file [{}]. Written [{}] bytes.", file.getName(), total);
-            return total;
+        final PayloadPipelineOutputStream outputStream = new PayloadPipelineOutputStream(new FileOutputStream(file), encryptCipherForPayload, false, payloadPersistenceHelper.createPayloadDigest(), payloadBufferPool);
+        final long total;
+        try {
+            total = outputStream.transferFrom(is);
         } finally {
-            if (outputStream != null) {
-                outputStream.flush();
-                outputStream.close();
-            }
+            outputStream.close();
         }
+        LOG.debug("Done writing file [{}]. Written [{}] bytes.", file.getName(), total);
+        payloadPersistenceHelper.setPayloadDigest(partInfo, outputStream.getDigest());
+        return total;
     }
 
     @Override
@@ -133,32 +141,70 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
     }
 
     protected long saveOutgoingFileToDisk(File file, PartInfo partInfo, InputStream is, UserMessage userMessage, final LegConfiguration legConfiguration, final Boolean encryptionActive) throws IOException, EbMS3Exception {
-        boolean useCompression = compressionService.handleCompression(userMessage.getMessageId(), partInfo, legConfiguration);
+        final InputStream sampledInputStream = adaptiveCompressionService.prepareForSampling(is);
+        final byte[] sample = adaptiveCompressionService.readSample(sampledInputStream);
+        boolean useCompression = compressionService.handleCompression(userMessage.getMessageId(), partInfo, legConfiguration, sample);
         LOG.debug("Compression for message with id: [{}] applied: [{}]", userMessage.getMessageId(), useCompression);
 
-        OutputStream outputStream = null;
+        final File sourceFile = getSourceFile(partInfo);
+        if (sourceFile != null && !useCompression && !encryptionActive) {
+            return transferFileToDisk(sourceFile, file);
+        }
+
+        Cipher encryptCipherForPayload = null;
+        if (encryptionActive) {
+            LOG.debug("Using encryption for file [{}]", file);
+            encryptCipherForPayload = encryptionService.getEncryptCipherForPayload();
+        }
+        if (useCompression) {
+            LOG.debug("Using compression for storing the file [{}]", file);
+        }
+
+        final long startTime = System.nanoTime();
+        final PayloadPipelineOutputStream outputStream = new PayloadPipelineOutputStream(new FileOutputStream(file), encryptCipherForPayload, useCompression, payloadPersistenceHelper.createPayloadDigest(), payloadBufferPool);
+        final long total;
         try {
-            outputStream = new FileOutputStream(file); //NOSONAR the stream is closed in the finally block
+            total = outputStream.transferFrom(sampledInputStream);
+        } finally {
+            outputStream.close();
+        }
+        LOG.debug("Done writing file [{}]. Written [{}] bytes.", file.getName(), total);
+        payloadPersistenceHelper.setPayloadDigest(partInfo, outputStream.getDigest());
 
-            if (encryptionActive) {
-                LOG.debug("Using encryption for file [{}]", file);
-                final Cipher encryptCipherForPayload = encryptionService.getEncryptCipherForPayload();
-                outputStream = new CipherOutputStream(outputStream, encryptCipherForPayload); //NOSONAR the stream is closed in the finally block
-            }
+        if (useCompression) {
+            compressionStatisticsService.recordCompression(legConfiguration.getName(), outputStream.getInputLength(), outputStream.getOutputLength(), System.nanoTime() - startTime);
+        }
+        return total;
+    }
 
-            if (useCompression) {
-                LOG.debug("Using compression for storing the file [{}]", file);
-                outputStream = new GZIPOutputStream(outputStream); //NOSONAR the stream is closed in the finally block
-            }
+    /**
+     * @param partInfo the outgoing payload
+     * @return the local file backing the payload, e.g. submitted by the FS plugin, or null if the payload is not a file
+     */
+    protected File getSourceFile(PartInfo partInfo) {
+        final DataHandler dataHandler = partInfo.getPayloadDatahandler();
+        if (dataHandler == null || !(dataHandler.getDataSource() instanceof FileDataSource)) {
+            return null;
+        }
+        final File sourceFile = ((FileDataSource) dataHandler.getDataSource()).getFile();
+        return sourceFile.isFile() ? sourceFile : null;
+    }
 
-            final long total = IOUtils.copy(is, outputStream, PayloadPersistence.DEFAULT_BUFFER_SIZE);
-            LOG.debug("Done writing file [{}]. Written [{}] bytes.", file.getName(), total);
-            return total;
-        } finally {
-            if (outputStream != null) {
-                outputStream.flush();
-                outputStream.close();
+    /**
+     * Copies the payload file as is into the storage with a channel transfer, which the operating system can perform
+     * without copying the content through the heap
+     */
+    protected long transferFileToDisk(File sourceFile, File file) throws IOException {
+        LOG.debug("Transferring file [{}] into [{}]", sourceFile, file);
+        try (FileChannel source = FileChannel.open(sourceFile.toPath(), StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long size = source.size();
+            long total = 0;
+            while (total < size) {
+                total += source.transferTo(total, size - total, target);
             }
+            LOG.debug("Done transferring file [{}]. Written [{}] bytes.", file.getName(), total);
+            return total;
         }
     }
 
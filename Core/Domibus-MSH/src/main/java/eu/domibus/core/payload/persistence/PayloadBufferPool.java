@@ -0,0 +1,39 @@
+package eu.domibus.core.payload.persistence;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of the buffers used when storing the payloads, avoiding to allocate new buffers for each stored payload.
+ *
+ * @since 5.2
+ */
+@Service
+public class PayloadBufferPool {
+
+    public static final int BUFFER_SIZE = PayloadPersistence.DEFAULT_BUFFER_SIZE;
+
+    protected static final int MAX_POOLED_BUFFERS = 64;
+
+    protected final BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+
+    /**
+     * @return a buffer of {@link #BUFFER_SIZE} bytes, taken from the pool if available
+     */
+    public byte[] acquire() {
+        final byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Returns the buffer to the pool; the buffer is discarded if the pool is full
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length != BUFFER_SIZE) {
+            return;
+        }
+        buffers.offer(buffer);
+    }
+}
@@ -1,5 +1,6 @@
 package eu.domibus.core.payload.persistence;
 
+import eu.domibus.api.model.PartInfo;
 import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.common.model.configuration.LegConfiguration;
@@ -7,10 +8,13 @@ import eu.domibus.common.model.configuration.PayloadProfile;
 import eu.domibus.api.model.UserMessage;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.validation.constraints.NotNull;
+import java.security.MessageDigest;
 
 /**
  * @author Cosmin Baciu
@@ -34,6 +38,20 @@ public class PayloadPersistenceHelper {
         return isPayloadEncryptionActive;
     }
 
+    /**
+     * @return the digest computed on the original payload while storing it
+     */
+    public MessageDigest createPayloadDigest() {
+        return DigestUtils.getSha256Digest();
+    }
+
+    public void setPayloadDigest(PartInfo partInfo, byte[] payloadDigest) {
+        partInfo.setPayloadDigest(payloadDigest);
+        if (payloadDigest != null) {
+            LOG.debug("Computed the digest [{}] of the payload [{}]", Hex.encodeHexString(payloadDigest), partInfo.getHref());
+        }
+    }
+
     /**
      * Validates the payload (partInfo) size regardless the maxSize value defined in PMode - PayloadProfile
      *
@@ -0,0 +1,268 @@
+package eu.domibus.core.payload.persistence;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.ShortBufferException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Single stage applied when storing a payload: counts and optionally digests the payload, then compresses (GZIP) and
+ * encrypts it before writing it to the target stream.
+ * <p>
+ * Compared to chaining {@link java.util.zip.GZIPOutputStream} and {@link javax.crypto.CipherOutputStream}, the data is
+ * deflated and encrypted into buffers taken from the {@link PayloadBufferPool}, so no intermediate arrays are
+ * allocated per written chunk. The output is identical: a GZIP stream (when compressing) encrypted with the given cipher.
+ * Closing this stream finishes the compression and the encryption and closes the target stream.
+ *
+ * @since 5.2
+ */
+public class PayloadPipelineOutputStream extends OutputStream {
+
+    protected static final int GZIP_MAGIC = 0x8b1f;
+
+    /**
+     * Maximum number of bytes added by the cipher to the data passed in one update
+     */
+    protected static final int CIPHER_OVERHEAD = 64;
+
+    protected final OutputStream target;
+    protected final Cipher cipher;
+    protected final MessageDigest digest;
+    protected final PayloadBufferPool bufferPool;
+
+    protected final Deflater deflater;
+    protected final CRC32 crc;
+
+    protected byte[] deflateBuffer;
+    protected byte[] cipherBuffer;
+
+    protected boolean headerWritten;
+    protected long inputLength;
+    protected long outputLength;
+    protected boolean closed;
+    protected byte[] digestValue;
+
+    /**
+     * @param target     the stream receiving the processed payload
+     * @param cipher     the initialized encryption cipher or null if the payload is not encrypted
+     * @param compress   true to compress the payload with GZIP
+     * @param digest     the digest updated with the original payload or null
+     * @param bufferPool the pool providing the working buffers
+     */
+    public PayloadPipelineOutputStream(OutputStream target, Cipher cipher, boolean compress, MessageDigest digest, PayloadBufferPool bufferPool) {
+        this.target = target;
+        this.cipher = cipher;
+        this.digest = digest;
+        this.bufferPool = bufferPool;
+        if (cipher != null) {
+            cipherBuffer = bufferPool.acquire();
+        }
+        if (compress) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            crc = new CRC32();
+            deflateBuffer = bufferPool.acquire();
+        } else {
+            deflater = null;
+            crc = null;
+        }
+    }
+
+    /**
+     * Reads the input stream until its end and processes its content, using a pooled buffer.
+     *
+     * @return the number of bytes read from the input stream
+     */
+    public long transferFrom(InputStream inputStream) throws IOException {
+        final byte[] buffer = bufferPool.acquire();
+        try {
+            long total = 0;
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                write(buffer, 0, read);
+                total += read;
+            }
+            return total;
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return;
+        }
+        writeGzipHeaderIfNeeded();
+        inputLength += len;
+        if (digest != null) {
+            digest.update(b, off, len);
+        }
+        if (deflater == null) {
+            encrypt(b, off, len);
+            return;
+        }
+        crc.update(b, off, len);
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            deflate();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (deflater != null) {
+                writeGzipHeaderIfNeeded();
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate();
+                }
+                writeGzipTrailer();
+            }
+            if (cipher != null) {
+                finishEncryption();
+            }
+            target.flush();
+        } finally {
+            try {
+                target.close();
+            } finally {
+                releaseResources();
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes of the original payload
+     */
+    public long getInputLength() {
+        return inputLength;
+    }
+
+    /**
+     * @return the number of bytes written to the target stream
+     */
+    public long getOutputLength() {
+        return outputLength;
+    }
+
+    /**
+     * @return the digest of the original payload or null if no digest was requested; to be called after closing the stream
+     */
+    public byte[] getDigest() {
+        if (digest != null && digestValue == null) {
+            digestValue = digest.digest();
+        }
+        return digestValue;
+    }
+
+    protected void deflate() throws IOException {
+        final int length = deflater.deflate(deflateBuffer, 0, deflateBuffer.length);
+        if (length > 0) {
+            encrypt(deflateBuffer, 0, length);
+        }
+    }
+
+    protected void encrypt(byte[] b, int off, int len) throws IOException {
+        if (cipher == null) {
+            writeToTarget(b, off, len);
+            return;
+        }
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            final int chunk = Math.min(remaining, cipherBuffer.length - CIPHER_OVERHEAD);
+            try {
+                final int length = cipher.update(b, offset, chunk, getCipherBuffer(cipher.getOutputSize(chunk)), 0);
+                writeToTarget(cipherBuffer, 0, length);
+            } catch (ShortBufferException e) {
+                throw new IOException("Could not encrypt the payload", e);
+            }
+            offset += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    protected void finishEncryption() throws IOException {
+        try {
+            final int length = cipher.doFinal(getCipherBuffer(cipher.getOutputSize(0)), 0);
+            writeToTarget(cipherBuffer, 0, length);
+        } catch (ShortBufferException | IllegalBlockSizeException | BadPaddingException e) {
+            throw new IOException("Could not finish the encryption of the payload", e);
+        }
+    }
+
+    protected byte[] getCipherBuffer(int outputSize) {
+        if (outputSize > cipherBuffer.length) {
+            bufferPool.release(cipherBuffer);
+            cipherBuffer = new byte[outputSize];
+        }
+        return cipherBuffer;
+    }
+
+    protected void writeGzipHeaderIfNeeded() throws IOException {
+        if (deflater == null || headerWritten) {
+            return;
+        }
+        headerWritten = true;
+        final byte[] header = new byte[]{
+                (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0
+        };
+        encrypt(header, 0, header.length);
+    }
+
+    protected void writeGzipTrailer() throws IOException {
+        final byte[] trailer = new byte[8];
+        writeInt((int) crc.getValue(), trailer, 0);
+        writeInt((int) deflater.getBytesRead(), trailer, 4);
+        encrypt(trailer, 0, trailer.length);
+    }
+
+    protected void writeInt(int value, byte[] buffer, int offset) {
+        buffer[offset] = (byte) (value & 0xff);
+        buffer[offset + 1] = (byte) ((value >> 8) & 0xff);
+        buffer[offset + 2] = (byte) ((value >> 16) & 0xff);
+        buffer[offset + 3] = (byte) ((value >> 24) & 0xff);
+    }
+
+    protected void writeToTarget(byte[] b, int off, int len) throws IOException {
+        if (len <= 0) {
+            return;
+        }
+        target.write(b, off, len);
+        outputLength += len;
+    }
+
+    protected void releaseResources() {
+        if (deflater != null) {
+            deflater.end();
+        }
+        bufferPool.release(deflateBuffer);
+        bufferPool.release(cipherBuffer);
+        deflateBuffer = null;
+        cipherBuffer = null;
+    }
+}
@@ -2,6 +2,8 @@ package eu.domibus.core.plugin.notification;
 
 import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.domibus.api.exceptions.DomibusCoreErrorCode;
+import eu.domibus.api.exceptions.DomibusCoreException;
 import eu.domibus.api.jms.JMSManager;
 import eu.domibus.api.model.MSHRole;
 import eu.domibus.api.model.MessageStatus;
@@ -11,6 +13,7 @@ import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.routing.BackendFilter;
 import eu.domibus.common.*;
 import eu.domibus.core.alerts.service.EventService;
+import eu.domibus.core.jms.PendingNotificationService;
 import eu.domibus.core.message.UserMessageDao;
 import eu.domibus.core.message.UserMessageLogDao;
 import eu.domibus.core.message.UserMessageServiceHelper;
@@ -37,6 +40,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.jms.JMSException;
 import javax.jms.Queue;
 import java.sql.Timestamp;
 import java.util.HashMap;
@@ -115,6 +119,9 @@ public class BackendNotificationService {
     @Autowired
     protected MetricRegistry metricRegistry;
 
+    @Autowired
+    protected PendingNotificationService pendingNotificationService;
+
     @Timer(clazz = BackendNotificationService.class, value = "notifyMessageReceivedFailure")
     @Counter(clazz = BackendNotificationService.class, value = "notifyMessageReceivedFailure")
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -562,6 +569,20 @@ public class BackendNotificationService {
                     jmsManager.sendMessageToQueue(notifyMessageCreator.createMessage(messageEvent), backendNotificationQueue);
                 }
         );
+        if (pendingNotificationService.isEnabled()) {
+            addPendingNotification(messageEvent, asyncNotificationConfiguration, notificationType, properties);
+        }
+    }
+
+    protected void addPendingNotification(MessageEvent messageEvent, AsyncNotificationConfiguration asyncNotificationConfiguration,
+                                          NotificationType notificationType, Map<String, String> properties) {
+        final String finalRecipient = properties != null ? properties.get(FINAL_RECIPIENT) : null;
+        try {
+            pendingNotificationService.add(asyncNotificationConfiguration.getQueueName(), asyncNotificationConfiguration.getBackendConnector().getName(),
+                    messageEvent.getMessageId(), notificationType, finalRecipient);
+        } catch (JMSException e) {
+            throw new DomibusCoreException(DomibusCoreErrorCode.DOM_001, "Could not get the notification queue name of plugin [" + asyncNotificationConfiguration.getBackendConnector().getName() + "]", e);
+        }
     }
 
     protected void notifySync(MessageEvent messageEvent, BackendConnector<?, ?> backendConnector,
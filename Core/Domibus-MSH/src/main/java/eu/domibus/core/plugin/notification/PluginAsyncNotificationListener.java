@@ -9,6 +9,7 @@ import eu.domibus.api.security.AuthRole;
 import eu.domibus.api.security.AuthUtils;
 import eu.domibus.common.MessageEvent;
 import eu.domibus.common.NotificationType;
+import eu.domibus.core.jms.PendingNotificationService;
 import eu.domibus.core.metrics.Counter;
 import eu.domibus.core.metrics.Timer;
 import eu.domibus.logging.DomibusLogger;
@@ -40,16 +41,19 @@ public class PluginAsyncNotificationListener implements MessageListener {
     protected final AsyncNotificationConfiguration asyncNotificationConfiguration;
     protected final PluginEventNotifierProvider pluginEventNotifierProvider;
     protected final ObjectMapper objectMapper;
+    protected final PendingNotificationService pendingNotificationService;
 
     public PluginAsyncNotificationListener(DomainContextProvider domainContextProvider,
                                            AsyncNotificationConfiguration asyncNotificationConfiguration,
                                            PluginEventNotifierProvider pluginEventNotifierProvider,
-                                           AuthUtils authUtils, ObjectMapper objectMapper) {
+                                           AuthUtils authUtils, ObjectMapper objectMapper,
+                                           PendingNotificationService pendingNotificationService) {
         this.domainContextProvider = domainContextProvider;
         this.asyncNotificationConfiguration = asyncNotificationConfiguration;
         this.pluginEventNotifierProvider = pluginEventNotifierProvider;
         this.authUtils = authUtils;
         this.objectMapper = objectMapper;
+        this.pendingNotificationService = pendingNotificationService;
     }
 
     @MDCKey(value = {DomibusLogger.MDC_MESSAGE_ID, DomibusLogger.MDC_MESSAGE_ROLE, DomibusLogger.MDC_MESSAGE_ENTITY_ID}, cleanOnStart = true)
@@ -91,6 +95,10 @@ public class PluginAsyncNotificationListener implements MessageListener {
 
             LOG.info("Calling the plugin notifier for the event type [{}] with the following content: [{}]", eventClass, serializedBody);
             pluginEventNotifier.notifyPlugin(event, asyncNotificationConfiguration.getBackendConnector());
+
+            if (pendingNotificationService.isEnabled()) {
+                pendingNotificationService.remove(asyncNotificationConfiguration.getQueueName(), messageId, notificationType);
+            }
         } catch (JMSException jmsEx) {
             LOG.error("Error getting the property from JMS message", jmsEx);
             throw new DomibusCoreException(DomibusCoreErrorCode.DOM_001, "Error getting the property from JMS message", jmsEx.getCause());
@@ -3,6 +3,7 @@ package eu.domibus.core.plugin.notification;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.security.AuthUtils;
+import eu.domibus.core.jms.PendingNotificationService;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.plugin.notification.AsyncNotificationConfiguration;
@@ -29,24 +30,27 @@ public class PluginAsyncNotificationListenerConfiguration {
     protected DomainContextProvider domainContextProvider;
     protected PluginEventNotifierProvider pluginEventNotifierProvider;
     protected ObjectMapper objectMapper;
+    protected PendingNotificationService pendingNotificationService;
 
     public PluginAsyncNotificationListenerConfiguration(@Qualifier("internalJmsListenerContainerFactory") JmsListenerContainerFactory jmsListenerContainerFactory,
                                                         AuthUtils authUtils,
                                                         DomainContextProvider domainContextProvider,
                                                         PluginEventNotifierProvider pluginEventNotifierProvider,
-                                                        @Qualifier(JSON_MAPPER_BEAN) ObjectMapper objectMapper) {
+                                                        @Qualifier(JSON_MAPPER_BEAN) ObjectMapper objectMapper,
+                                                        PendingNotificationService pendingNotificationService) {
         this.jmsListenerContainerFactory = jmsListenerContainerFactory;
         this.authUtils = authUtils;
         this.domainContextProvider = domainContextProvider;
         this.pluginEventNotifierProvider = pluginEventNotifierProvider;
         this.objectMapper = objectMapper;
+        this.pendingNotificationService = pendingNotificationService;
     }
 
     @Bean
     @Scope(BeanDefinition.SCOPE_PROTOTYPE)
     public PluginAsyncNotificationListener createAsyncNotificationListener(AsyncNotificationConfiguration asyncNotificationConfiguration) {
         PluginAsyncNotificationListener notificationListenerServiceImpl = new PluginAsyncNotificationListener(domainContextProvider,
-                asyncNotificationConfiguration, pluginEventNotifierProvider, authUtils, objectMapper);
+                asyncNotificationConfiguration, pluginEventNotifierProvider, authUtils, objectMapper, pendingNotificationService);
         return notificationListenerServiceImpl;
     }
 }
@@ -44,7 +44,12 @@ public class ActionRoutingCriteriaFactory implements CriteriaFactory {
         @Override
         public boolean matches(final UserMessage userMessage, final String expression) {
             setExpression(expression);
-            return super.matches(userMessage.getActionValue());
+            return super.matches(getMatchedValue(userMessage));
+        }
+
+        @Override
+        public String getMatchedValue(final UserMessage userMessage) {
+            return userMessage.getActionValue();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package eu.domibus.core.plugin.routing;
+
+import eu.domibus.api.model.UserMessage;
+import eu.domibus.api.routing.BackendFilter;
+import eu.domibus.api.routing.RoutingCriteria;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable decision structure built from the backend filters of a domain, equivalent to evaluating the filters one by one in priority order.
+ * <p>
+ * The expressions are compiled once. The filters having an exact match criteria (an expression without regular expression
+ * meta characters) on FROM, SERVICE or ACTION are grouped in hash buckets by the expected value, so that only the filters
+ * of the buckets matching the user message values are evaluated, together with the filters which could not be indexed.
+ *
+ * @since 5.2
+ */
+public class CompiledBackendFilters {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(CompiledBackendFilters.class);
+
+    /**
+     * The criteria used for indexing the filters, in order of preference
+     */
+    protected static final List<String> INDEXED_CRITERIA = Arrays.asList("ACTION", "SERVICE", "FROM");
+
+    protected static final String REGEX_META_CHARACTERS = "\\[](){}.*+?^$|";
+
+    protected final List<CompiledBackendFilter> unindexedFilters = new ArrayList<>();
+
+    protected final Map<String, Map<String, List<CompiledBackendFilter>>> indexedFilters = new LinkedHashMap<>();
+
+    protected final Map<String, IRoutingCriteria> indexCriteria = new HashMap<>();
+
+    /**
+     * @param backendFilters the backend filters ordered by priority
+     * @param criteriaMap    the routing criteria by upper case name
+     */
+    public CompiledBackendFilters(List<BackendFilter> backendFilters, Map<String, IRoutingCriteria> criteriaMap) {
+        int priority = 0;
+        for (BackendFilter backendFilter : backendFilters) {
+            priority++;
+            if (!backendFilter.isActive()) {
+                LOG.trace("BackendFilter [{}] is inactive", backendFilter.getBackendName());
+                continue;
+            }
+            final CompiledBackendFilter compiledFilter = compile(backendFilter, priority, criteriaMap);
+            if (compiledFilter != null) {
+                addFilter(compiledFilter);
+            }
+        }
+        LOG.debug("Compiled [{}] backend filters: indexed by [{}], [{}] not indexed", backendFilters.size(), indexedFilters.keySet(), unindexedFilters.size());
+    }
+
+    public BackendFilter getMatchingBackendFilter(final UserMessage userMessage) {
+        final List<List<CompiledBackendFilter>> candidates = getCandidates(userMessage);
+        final int[] positions = new int[candidates.size()];
+
+        // merge the candidate lists, each one ordered by priority, and stop at the first matching filter
+        while (true) {
+            int next = -1;
+            CompiledBackendFilter nextFilter = null;
+            for (int i = 0; i < candidates.size(); i++) {
+                final List<CompiledBackendFilter> filters = candidates.get(i);
+                if (positions[i] < filters.size() && (nextFilter == null || filters.get(positions[i]).priority < nextFilter.priority)) {
+                    next = i;
+                    nextFilter = filters.get(positions[i]);
+                }
+            }
+            if (nextFilter == null) {
+                LOG.trace("No filter matched for message [{}]", userMessage.getMessageId());
+                return null;
+            }
+            positions[next]++;
+            if (nextFilter.matches(userMessage)) {
+                LOG.debug("Filter [{}] matched for message [{}]", nextFilter.backendFilter, userMessage.getMessageId());
+                return nextFilter.backendFilter;
+            }
+        }
+    }
+
+    protected List<List<CompiledBackendFilter>> getCandidates(final UserMessage userMessage) {
+        final List<List<CompiledBackendFilter>> candidates = new ArrayList<>(indexedFilters.size() + 1);
+        candidates.add(unindexedFilters);
+        for (Map.Entry<String, Map<String, List<CompiledBackendFilter>>> entry : indexedFilters.entrySet()) {
+            final String value = indexCriteria.get(entry.getKey()).getMatchedValue(userMessage);
+            final List<CompiledBackendFilter> bucket = entry.getValue().get(value);
+            if (bucket != null) {
+                candidates.add(bucket);
+            }
+        }
+        return candidates;
+    }
+
+    protected void addFilter(CompiledBackendFilter compiledFilter) {
+        for (String criteriaName : INDEXED_CRITERIA) {
+            final CompiledRoutingCriteria exactCriteria = compiledFilter.getExactCriteria(criteriaName);
+            if (exactCriteria != null) {
+                indexCriteria.put(criteriaName, exactCriteria.criteria);
+                indexedFilters.computeIfAbsent(criteriaName, name -> new HashMap<>())
+                        .computeIfAbsent(exactCriteria.literal, literal -> new ArrayList<>())
+                        .add(compiledFilter);
+                return;
+            }
+        }
+        unindexedFilters.add(compiledFilter);
+    }
+
+    protected CompiledBackendFilter compile(BackendFilter backendFilter, int priority, Map<String, IRoutingCriteria> criteriaMap) {
+        final List<CompiledRoutingCriteria> compiledCriteria = new ArrayList<>();
+        if (CollectionUtils.isNotEmpty(backendFilter.getRoutingCriterias())) {
+            for (RoutingCriteria routingCriteria : backendFilter.getRoutingCriterias()) {
+                final String criteriaName = StringUtils.upperCase(routingCriteria.getName());
+                final IRoutingCriteria criteria = criteriaMap.get(criteriaName);
+                if (criteria == null) {
+                    LOG.warn("Unknown criteria [{}] for backend filter [{}]: the filter will not match any message", routingCriteria.getName(), backendFilter.getBackendName());
+                    return null;
+                }
+                if (routingCriteria.getExpression() == null) {
+                    LOG.warn("Missing expression for criteria [{}] of backend filter [{}]: the filter will not match any message", routingCriteria.getName(), backendFilter.getBackendName());
+                    return null;
+                }
+                try {
+                    compiledCriteria.add(new CompiledRoutingCriteria(criteriaName, criteria, routingCriteria.getExpression()));
+                } catch (PatternSyntaxException e) {
+                    LOG.warn("Invalid expression [{}] for backend filter [{}]: the filter will not match any message", routingCriteria.getExpression(), backendFilter.getBackendName(), e);
+                    return null;
+                }
+            }
+        }
+        return new CompiledBackendFilter(backendFilter, priority, compiledCriteria);
+    }
+
+    protected static boolean isLiteral(String expression) {
+        return StringUtils.isNotEmpty(expression) && StringUtils.containsNone(expression, REGEX_META_CHARACTERS);
+    }
+
+    protected static class CompiledBackendFilter {
+
+        protected final BackendFilter backendFilter;
+
+        protected final int priority;
+
+        protected final List<CompiledRoutingCriteria> criteria;
+
+        protected CompiledBackendFilter(BackendFilter backendFilter, int priority, List<CompiledRoutingCriteria> criteria) {
+            this.backendFilter = backendFilter;
+            this.priority = priority;
+            this.criteria = criteria;
+        }
+
+        protected CompiledRoutingCriteria getExactCriteria(String criteriaName) {
+            return criteria.stream()
+                    .filter(compiledCriteria -> compiledCriteria.literal != null && StringUtils.equals(criteriaName, compiledCriteria.name))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        protected boolean matches(UserMessage userMessage) {
+            //if at least one criteria does not match it means the filter is not matching
+            for (CompiledRoutingCriteria compiledCriteria : criteria) {
+                if (!compiledCriteria.matches(userMessage)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    protected static class CompiledRoutingCriteria {
+
+        protected final String name;
+
+        protected final IRoutingCriteria criteria;
+
+        protected final String literal;
+
+        protected final Pattern pattern;
+
+        protected CompiledRoutingCriteria(String name, IRoutingCriteria criteria, String expression) {
+            this.name = name;
+            this.criteria = criteria;
+            if (isLiteral(expression)) {
+                this.literal = expression;
+                this.pattern = null;
+            } else {
+                this.literal = null;
+                this.pattern = Pattern.compile(expression);
+            }
+        }
+
+        protected boolean matches(UserMessage userMessage) {
+            final String value = criteria.getMatchedValue(userMessage);
+            if (literal != null) {
+                return literal.equals(value);
+            }
+            return pattern.matcher(value).matches();
+        }
+    }
+}
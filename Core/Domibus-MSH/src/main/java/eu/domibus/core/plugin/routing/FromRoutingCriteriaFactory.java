@@ -47,8 +47,7 @@ public class FromRoutingCriteriaFactory implements CriteriaFactory {
         @Override
         public boolean matches(final UserMessage userMessage, final String expression) {
             setExpression(expression);
-            final PartyId partyId = userMessage.getPartyInfo().getFrom().getFromPartyId();
-            if (matches(partyId.getValue() + ":" + partyId.getType())) {
+            if (matches(getMatchedValue(userMessage))) {
                 return true;
             }
 
@@ -56,6 +55,12 @@ public class FromRoutingCriteriaFactory implements CriteriaFactory {
             return false;
         }
 
+        @Override
+        public String getMatchedValue(final UserMessage userMessage) {
+            final PartyId partyId = userMessage.getPartyInfo().getFrom().getFromPartyId();
+            return partyId.getValue() + ":" + partyId.getType();
+        }
+
     }
 }
 
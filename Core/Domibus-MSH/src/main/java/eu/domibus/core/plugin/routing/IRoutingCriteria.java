@@ -18,6 +18,14 @@ public interface IRoutingCriteria {
      */
     public boolean matches(UserMessage candidate, String expression);
 
+    /**
+     * Returns the value of the user message against which the expression is matched
+     *
+     * @param candidate user message to match
+     * @return the matched value
+     */
+    String getMatchedValue(UserMessage candidate);
+
     /**
      * Returns name of Routing Criteria
      *
@@ -110,6 +110,11 @@ public class RoutingCriteriaEntity extends AbstractBaseEntity implements IRoutin
         throw new UnsupportedOperationException("This method must be implemented by a subclass");
     }
 
+    @Override
+    public String getMatchedValue(final UserMessage candidate) {
+        throw new UnsupportedOperationException("This method must be implemented by a subclass");
+    }
+
     @Override
     public String getName() {
         return name;
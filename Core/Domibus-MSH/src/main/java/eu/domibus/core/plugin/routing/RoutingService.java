@@ -24,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -60,6 +61,7 @@ public class RoutingService {
     protected Map<String, IRoutingCriteria> criteriaMap;
     protected final Object backendFiltersCacheLock = new Object();
     protected volatile Map<Domain, List<BackendFilter>> backendFiltersCache = new HashMap<>();
+    protected Map<Domain, CompiledBackendFilters> compiledBackendFiltersCache = new ConcurrentHashMap<>();
 
     public void initialize() {
         criteriaMap = new HashMap<>();
@@ -71,7 +73,10 @@ public class RoutingService {
     public void invalidateBackendFiltersCache() {
         Domain currentDomain = domainContextProvider.getCurrentDomain();
         LOG.debug("Invalidating the backend filter cache for domain [{}]", currentDomain);
-        backendFiltersCache.remove(currentDomain);
+        synchronized (backendFiltersCacheLock) {
+            backendFiltersCache.remove(currentDomain);
+            compiledBackendFiltersCache.remove(currentDomain);
+        }
     }
 
     public List<BackendFilter> getBackendFiltersWithCache() {
@@ -93,6 +98,26 @@ public class RoutingService {
         return backendFilters;
     }
 
+    /**
+     * Returns the backend filters of the current domain compiled in a decision structure, rebuilt after the filters are reloaded
+     */
+    public CompiledBackendFilters getCompiledBackendFiltersWithCache() {
+        final Domain currentDomain = domainContextProvider.getCurrentDomain();
+        CompiledBackendFilters compiledBackendFilters = compiledBackendFiltersCache.get(currentDomain);
+
+        if (compiledBackendFilters == null) {
+            synchronized (backendFiltersCacheLock) {
+                compiledBackendFilters = compiledBackendFiltersCache.get(currentDomain);
+                if (compiledBackendFilters == null) {
+                    LOG.debug("Compiling the backend filters for domain [{}]", currentDomain);
+                    compiledBackendFilters = new CompiledBackendFilters(getBackendFiltersWithCache(), criteriaMap);
+                    compiledBackendFiltersCache.put(currentDomain, compiledBackendFilters);
+                }
+            }
+        }
+        return compiledBackendFilters;
+    }
+
     /**
      * Create backend filters for the installed plugins that do not have one already created
      */
@@ -227,8 +252,7 @@ public class RoutingService {
     }
 
     public BackendFilter getMatchingBackendFilter(final UserMessage userMessage) {
-        List<BackendFilter> backendFilters = getBackendFiltersWithCache();
-        return getMatchingBackendFilter(backendFilters, criteriaMap, userMessage);
+        return getCompiledBackendFiltersWithCache().getMatchingBackendFilter(userMessage);
     }
 
     @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_AP_ADMIN')")
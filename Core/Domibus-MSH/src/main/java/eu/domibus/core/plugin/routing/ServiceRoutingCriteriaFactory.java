@@ -44,8 +44,13 @@ public class ServiceRoutingCriteriaFactory implements CriteriaFactory {
         @Override
         public boolean matches(final UserMessage userMessage, final String expression) {
             setExpression(expression);
+            return matches(getMatchedValue(userMessage));
+        }
+
+        @Override
+        public String getMatchedValue(final UserMessage userMessage) {
             final ServiceEntity service = userMessage.getService();
-            return matches(service.getValue() + ":" + service.getType());
+            return service.getValue() + ":" + service.getType();
         }
 
     }
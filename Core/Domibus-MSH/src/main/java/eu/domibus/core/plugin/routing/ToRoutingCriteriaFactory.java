@@ -45,13 +45,18 @@ public class ToRoutingCriteriaFactory implements CriteriaFactory {
         @Override
         public boolean matches(final UserMessage userMessage, final String expression) {
             setExpression(expression);
-            final PartyId partyId = userMessage.getPartyInfo().getTo().getToPartyId();
-            if (matches(partyId.getValue() + ":" + partyId.getType())) {
+            if (matches(getMatchedValue(userMessage))) {
                 return true;
             }
             return false;
         }
 
+        @Override
+        public String getMatchedValue(final UserMessage userMessage) {
+            final PartyId partyId = userMessage.getPartyInfo().getTo().getToPartyId();
+            return partyId.getValue() + ":" + partyId.getType();
+        }
+
     }
 
 }
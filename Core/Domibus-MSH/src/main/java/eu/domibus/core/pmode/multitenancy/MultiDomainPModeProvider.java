@@ -75,6 +75,11 @@ public class MultiDomainPModeProvider extends PModeProvider {
         return pModeProvider;
     }
 
+    @Override
+    public void clearMessageExchangeConfigurationCache() {
+        providerMap.values().forEach(PModeProvider::clearMessageExchangeConfigurationCache);
+    }
+
     @Override
     public boolean isConfigurationLoaded() {
         return getCurrentPModeProvider().isConfigurationLoaded();
@@ -1,5 +1,6 @@
 package eu.domibus.core.pmode.provider;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Lists;
 import eu.domibus.api.ebms3.MessageExchangePattern;
 import eu.domibus.api.model.AgreementRefEntity;
@@ -36,7 +37,9 @@ import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static eu.domibus.api.ebms3.MessageExchangePattern.*;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PMODE_EXCHANGE_CONTEXT_CACHE_MAX_SIZE;
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PARTYINFO_ROLES_VALIDATION_ENABLED;
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PMODE_LEGCONFIGURATION_MPC_VALIDATION_ENABLED;
 import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
@@ -50,6 +53,8 @@ public class CachingPModeProvider extends PModeProvider {
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(CachingPModeProvider.class);
     private static final String DOES_NOT_MATCH_END_STRING = "] does not match";
     private static final String CURRENTLY_UNAVAILABLE = "currently unavailable";
+    private static final Set<String> PULL_PROCESS_BINDINGS = Collections.singleton(ONE_WAY_PULL.getUri());
+    private static final Set<String> PUSH_PROCESS_BINDINGS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(ONE_WAY_PUSH.getUri(), TWO_WAY_PUSH_PUSH.getUri())));
 
     protected Domain domain;
 
@@ -70,6 +75,15 @@ public class CachingPModeProvider extends PModeProvider {
 
     private Map<String, List<Process>> pullProcessByMpcCache = new HashMap<>();
 
+    //legs indexed by service and action, rebuilt when the configuration or the process parties change
+    private volatile LegMatchingIndex legMatchingIndex;
+
+    //replaced, not cleared, so that lookups in progress during a refresh do not populate the new instance
+    private volatile MessageExchangeConfigurationCache messageExchangeConfigurationCache;
+
+    @Autowired
+    protected MetricRegistry metricRegistry;
+
     private final Object configurationLock;
 
     public CachingPModeProvider(Domain domain) {
@@ -107,6 +121,70 @@ public class CachingPModeProvider extends PModeProvider {
         LOG.debug("Configuration initialized: [{}]", this.configuration.getEntityId());
 
         initPullProcessesCache();
+        initLegMatchingIndex();
+    }
+
+    private void initLegMatchingIndex() {
+        this.legMatchingIndex = LegMatchingIndex.build(findAllProcesses());
+        LOG.debug("Leg matching index initialized");
+    }
+
+    protected LegMatchingIndex getLegMatchingIndex() {
+        LegMatchingIndex index = this.legMatchingIndex;
+        if (index == null) {
+            synchronized (configurationLock) {
+                if (this.legMatchingIndex == null) {
+                    initLegMatchingIndex();
+                }
+                index = this.legMatchingIndex;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Discards the leg matching index and the cached message exchange configurations; to be called whenever the parties
+     * are changed outside of a PMode refresh.
+     */
+    protected void invalidateLegMatchingIndex() {
+        synchronized (configurationLock) {
+            this.legMatchingIndex = null;
+            this.messageExchangeConfigurationCache = null;
+        }
+    }
+
+    @Override
+    protected MessageExchangeConfigurationCache getMessageExchangeConfigurationCache() {
+        MessageExchangeConfigurationCache cache = this.messageExchangeConfigurationCache;
+        if (cache == null) {
+            synchronized (configurationLock) {
+                if (this.messageExchangeConfigurationCache == null) {
+                    this.messageExchangeConfigurationCache = createMessageExchangeConfigurationCache();
+                }
+                cache = this.messageExchangeConfigurationCache;
+            }
+        }
+        return cache;
+    }
+
+    protected MessageExchangeConfigurationCache createMessageExchangeConfigurationCache() {
+        final Integer maxSize = domibusPropertyProvider.getIntegerProperty(DOMIBUS_PMODE_EXCHANGE_CONTEXT_CACHE_MAX_SIZE);
+        if (maxSize == null || maxSize <= 0) {
+            LOG.debug("Message exchange configuration cache disabled");
+            return MessageExchangeConfigurationCache.DISABLED;
+        }
+        LOG.debug("Creating message exchange configuration cache with max size [{}]", maxSize);
+        final String domainCode = domain == null ? null : domain.getCode();
+        return new MessageExchangeConfigurationCache(maxSize,
+                metricRegistry.counter(name(PModeProvider.class, "messageExchangeConfigurationCache", domainCode, "hits")),
+                metricRegistry.counter(name(PModeProvider.class, "messageExchangeConfigurationCache", domainCode, "misses")));
+    }
+
+    @Override
+    public void clearMessageExchangeConfigurationCache() {
+        synchronized (configurationLock) {
+            this.messageExchangeConfigurationCache = null;
+        }
     }
 
     private void initPullProcessesCache() {
@@ -309,12 +387,19 @@ public class CachingPModeProvider extends PModeProvider {
      * and then filters the list of {@link LegConfiguration} matching the input parameters.<br/>
      * If several candidate leg configurations match, returns only the first leg configuration that matches.<br/>
      * Meant for use with PUSH message exchange patterns as filtering with MEP and MPC are not considered.<br/>
+     * The matching leg is looked up in the {@link LegMatchingIndex}; the mismatch details are only computed when no leg matches.<br/>
      * If no processes or legs match, throws {@link EbMS3Exception} with details of all mismatches across processes and legs<br/>
      */
     @Override
     public String findLegName(final String agreementName, final String senderParty, final String receiverParty,
                               final String service, final String action, final Role initiatorRole, final Role responderRole, ProcessingType processingType, String mpc) throws EbMS3Exception {
 
+        final String matchingLegName = findMatchingLegName(agreementName, senderParty, receiverParty, service, action, initiatorRole, responderRole, processingType, mpc);
+        if (matchingLegName != null) {
+            return matchingLegName;
+        }
+
+        // no match found: scan all the processes again to collect the mismatch details
         LegFilterCriteria legFilterCriteria = new LegFilterCriteria(agreementName, senderParty, receiverParty, initiatorRole, responderRole, service, action, processingType, mpc);
 
         final List<Process> matchingProcesses = filterMatchingProcesses(legFilterCriteria);
@@ -347,6 +432,57 @@ public class CachingPModeProvider extends PModeProvider {
         return selectedLeg.map(LegConfiguration::getName).orElse(null);
     }
 
+    /**
+     * Finds the first leg matching the message metadata using the {@link LegMatchingIndex}.
+     * The legs are visited in the same order as {@link #filterMatchingProcesses(LegFilterCriteria)} followed by
+     * {@link #filterMatchingLegConfigurations(List, LegFilterCriteria)} would visit them, so the same leg is selected.
+     *
+     * @return the name of the matching leg or null if no leg matches
+     */
+    protected String findMatchingLegName(final String agreementName, final String senderParty, final String receiverParty,
+                                         final String service, final String action, final Role initiatorRole, final Role responderRole, ProcessingType processingType, String mpc) {
+        final List<LegMatchingIndex.LegCandidate> candidates = getLegMatchingIndex().getCandidates(service, action);
+        if (candidates.isEmpty()) {
+            LOG.debug("No leg found for service [{}] and action [{}]", service, action);
+            return null;
+        }
+        final Set<String> processBindings = getProcessBindings(processingType);
+        final boolean mpcValidationEnabled = domibusPropertyProvider.getBooleanProperty(DOMIBUS_PMODE_LEGCONFIGURATION_MPC_VALIDATION_ENABLED);
+        for (LegMatchingIndex.LegCandidate candidate : candidates) {
+            if (processBindings != null && !processBindings.contains(candidate.getMepBinding())) {
+                continue;
+            }
+            if (mpcValidationEnabled && !candidate.matchesMpc(mpc)) {
+                continue;
+            }
+            final Process process = candidate.getProcess();
+            if (!matchAgreement(process, agreementName)) {
+                continue;
+            }
+            ProcessTypePartyExtractor processTypePartyExtractor = processPartyExtractorProvider.getProcessTypePartyExtractor(candidate.getMepBinding(), senderParty, receiverParty);
+            if (!matchInitiator(candidate, processTypePartyExtractor.getSenderParty())
+                    || !candidate.hasResponder(processTypePartyExtractor.getReceiverParty())) {
+                continue;
+            }
+            if (!matchRole(process.getInitiatorRole(), initiatorRole) || !matchRole(process.getResponderRole(), responderRole)) {
+                continue;
+            }
+            if (!mpcValidationEnabled && !candidate.matchesMpc(mpc)) {
+                LOG.warn("The PMode Mpc value [{}] doesn't match with the Mpc value [{}] in the message.", candidate.getLeg().getDefaultMpc().getQualifiedName(), mpc);
+            }
+            LOG.debug("Matched leg [{}] of process [{}]", candidate.getLeg().getName(), process.getName());
+            return candidate.getLeg().getName();
+        }
+        return null;
+    }
+
+    protected boolean matchInitiator(LegMatchingIndex.LegCandidate candidate, final String senderParty) {
+        if (!candidate.hasInitiators()) {
+            return pullProcessValidator.allowDynamicInitiatorInPullProcess();
+        }
+        return candidate.hasInitiator(senderParty);
+    }
+
     /**
      * From the list of {@link Process} retrieved from the pmode configuration, finds the mismatches with the message metadata
      * provided through a {@link LegFilterCriteria} and filters the processes that match - i.e; having no mismatch errors.
@@ -392,20 +528,26 @@ public class CachingPModeProvider extends PModeProvider {
     }
 
     private List<Process> filterProcessesByProcessingType(ProcessingType processingType, List<Process> candidateProcesses) {
-        Set<String> processBinding = new HashSet<>();
         LOG.debug("Filter process by processing type:");
-        if (processingType == null) {
+        final Set<String> processBinding = getProcessBindings(processingType);
+        if (processBinding == null) {
             LOG.debug("ProcessingType is null, returning all processes.");
             return candidateProcesses;
         }
-        if (processingType == ProcessingType.PULL) {
-            processBinding.add(ONE_WAY_PULL.getUri());
-            return filterProcess(processingType, candidateProcesses, processBinding);
-        }
-        processBinding.add(ONE_WAY_PUSH.getUri());
-        processBinding.add(TWO_WAY_PUSH_PUSH.getUri());
         return filterProcess(processingType, candidateProcesses, processBinding);
+    }
 
+    /**
+     * @return the MEP bindings of the processes accepted for the processing type or null if any binding is accepted
+     */
+    private Set<String> getProcessBindings(ProcessingType processingType) {
+        if (processingType == null) {
+            return null;
+        }
+        if (processingType == ProcessingType.PULL) {
+            return PULL_PROCESS_BINDINGS;
+        }
+        return PUSH_PROCESS_BINDINGS;
     }
 
     private List<Process> filterProcess(ProcessingType processingType, List<Process> candidateProcesses, Set<String> processBinding) {
@@ -734,6 +876,7 @@ public class CachingPModeProvider extends PModeProvider {
                 LOG.info("Removed party [{}] from process [{}] ->responderParties [{}]", partyName, process.getName());
             }
         }
+        invalidateLegMatchingIndex();
     }
 
     @Override
@@ -746,6 +889,7 @@ public class CachingPModeProvider extends PModeProvider {
             if (StringUtils.equalsIgnoreCase(partyName, party.getName())) {
                 partyIterator.remove();
                 LOG.info("Removed party [{}] from the party list: businessProcesses->parties", partyName);
+                invalidateLegMatchingIndex();
                 return party;
             }
         }
@@ -983,6 +1127,8 @@ public class CachingPModeProvider extends PModeProvider {
 
             this.pullProcessByMpcCache.clear();
             this.pullProcessesByInitiatorCache.clear();
+            this.legMatchingIndex = null;
+            this.messageExchangeConfigurationCache = null;
 
             if (CollectionUtils.isNotEmpty(pModeEventListeners)) {
                 //we call the pmode event listeners
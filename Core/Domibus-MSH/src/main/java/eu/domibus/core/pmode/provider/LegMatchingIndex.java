@@ -0,0 +1,146 @@
+package eu.domibus.core.pmode.provider;
+
+import eu.domibus.common.model.configuration.LegConfiguration;
+import eu.domibus.common.model.configuration.Party;
+import eu.domibus.common.model.configuration.Process;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/**
+ * Pre-computed view of the PMode business processes used to find the leg matching the metadata of a message.
+ * <p>
+ * The legs are grouped by service and action and kept in the same order in which the full scan of the processes would
+ * visit them; the initiator and responder names of each process are hashed so that the party checks do not iterate
+ * over the parties of the process.
+ *
+ * @since 5.2
+ */
+public class LegMatchingIndex {
+
+    private static final String KEY_SEPARATOR = "\u0000";
+
+    protected static final LegMatchingIndex EMPTY = new LegMatchingIndex(Collections.emptyMap());
+
+    private final Map<String, List<LegCandidate>> candidatesByServiceAndAction;
+
+    protected LegMatchingIndex(Map<String, List<LegCandidate>> candidatesByServiceAndAction) {
+        this.candidatesByServiceAndAction = candidatesByServiceAndAction;
+    }
+
+    public static LegMatchingIndex build(List<Process> processes) {
+        if (CollectionUtils.isEmpty(processes)) {
+            return EMPTY;
+        }
+        Map<String, List<LegCandidate>> candidates = new HashMap<>();
+        for (Process process : processes) {
+            if (CollectionUtils.isEmpty(process.getLegs())) {
+                continue;
+            }
+            ProcessParties processParties = new ProcessParties(process);
+            for (LegConfiguration leg : process.getLegs()) {
+                if (leg.getService() == null || leg.getAction() == null) {
+                    continue;
+                }
+                String key = getKey(leg.getService().getName(), leg.getAction().getName());
+                candidates.computeIfAbsent(key, k -> new ArrayList<>()).add(new LegCandidate(process, leg, processParties));
+            }
+        }
+        candidates.replaceAll((key, value) -> Collections.unmodifiableList(value));
+        return new LegMatchingIndex(candidates);
+    }
+
+    /**
+     * Returns the legs having the given service and action names, in the order of the processes in the PMode.
+     */
+    public List<LegCandidate> getCandidates(String service, String action) {
+        if (service == null || action == null) {
+            return Collections.emptyList();
+        }
+        return candidatesByServiceAndAction.getOrDefault(getKey(service, action), Collections.emptyList());
+    }
+
+    public boolean isEmpty() {
+        return candidatesByServiceAndAction.isEmpty();
+    }
+
+    protected static String getKey(String service, String action) {
+        return normalize(service) + KEY_SEPARATOR + normalize(action);
+    }
+
+    protected static String normalize(String value) {
+        return StringUtils.lowerCase(value, Locale.ROOT);
+    }
+
+    public static class LegCandidate {
+
+        private final Process process;
+
+        private final LegConfiguration leg;
+
+        private final String mepBinding;
+
+        private final ProcessParties processParties;
+
+        protected LegCandidate(Process process, LegConfiguration leg, ProcessParties processParties) {
+            this.process = process;
+            this.leg = leg;
+            this.mepBinding = process.getMepBinding() == null ? null : process.getMepBinding().getValue();
+            this.processParties = processParties;
+        }
+
+        public Process getProcess() {
+            return process;
+        }
+
+        public LegConfiguration getLeg() {
+            return leg;
+        }
+
+        public String getMepBinding() {
+            return mepBinding;
+        }
+
+        public boolean hasInitiators() {
+            return !processParties.initiators.isEmpty();
+        }
+
+        public boolean hasInitiator(String partyName) {
+            return partyName != null && processParties.initiators.contains(normalize(partyName));
+        }
+
+        public boolean hasResponder(String partyName) {
+            return partyName != null && processParties.responders.contains(normalize(partyName));
+        }
+
+        public boolean matchesMpc(String mpc) {
+            return leg.getDefaultMpc() != null && StringUtils.equalsIgnoreCase(leg.getDefaultMpc().getQualifiedName(), mpc);
+        }
+    }
+
+    protected static class ProcessParties {
+
+        private final Set<String> initiators;
+
+        private final Set<String> responders;
+
+        protected ProcessParties(Process process) {
+            this.initiators = getPartyNames(process.getInitiatorParties());
+            this.responders = getPartyNames(process.getResponderParties());
+        }
+
+        private static Set<String> getPartyNames(Set<Party> parties) {
+            if (CollectionUtils.isEmpty(parties)) {
+                return Collections.emptySet();
+            }
+            Set<String> names = new HashSet<>();
+            for (Party party : parties) {
+                if (party.getName() != null) {
+                    names.add(normalize(party.getName()));
+                }
+            }
+            return names;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package eu.domibus.core.pmode.provider;
+
+import com.codahale.metrics.Counter;
+import eu.domibus.api.model.*;
+import eu.domibus.core.message.MessageExchangeConfiguration;
+import eu.domibus.plugin.ProcessingType;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Size capped cache of the {@link MessageExchangeConfiguration} resolved from the metadata of the user messages.
+ * <p>
+ * An instance is only valid for the PMode it was created for: the PMode provider replaces it when the PMode changes,
+ * so that a result resolved against the previous PMode is never visible after the refresh.
+ *
+ * @since 5.2
+ */
+public class MessageExchangeConfigurationCache {
+
+    protected static final MessageExchangeConfigurationCache DISABLED = new MessageExchangeConfigurationCache(0, null, null);
+
+    private final int maxSize;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final ConcurrentMap<Key, MessageExchangeConfiguration> entries = new ConcurrentHashMap<>();
+
+    public MessageExchangeConfigurationCache(int maxSize, Counter hits, Counter misses) {
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * @return the key identifying the metadata of the user message or null if the cache is disabled
+     */
+    public Key createKey(UserMessage userMessage, boolean isPull, ProcessingType processingType) {
+        if (!isEnabled()) {
+            return null;
+        }
+        final PartyInfo partyInfo = userMessage.getPartyInfo();
+        final From from = partyInfo == null ? null : partyInfo.getFrom();
+        final To to = partyInfo == null ? null : partyInfo.getTo();
+        final PartyId fromPartyId = from == null ? null : from.getFromPartyId();
+        final PartyId toPartyId = to == null ? null : to.getToPartyId();
+        final ServiceEntity service = userMessage.getService();
+        final AgreementRefEntity agreementRef = userMessage.getAgreementRef();
+
+        return new Key(isPull, processingType,
+                fromPartyId == null ? null : fromPartyId.getValue(),
+                fromPartyId == null ? null : fromPartyId.getType(),
+                from == null ? null : from.getRoleValue(),
+                toPartyId == null ? null : toPartyId.getValue(),
+                toPartyId == null ? null : toPartyId.getType(),
+                to == null ? null : to.getRoleValue(),
+                service == null ? null : service.getValue(),
+                service == null ? null : service.getType(),
+                userMessage.getActionValue(),
+                agreementRef == null ? null : agreementRef.getValue(),
+                agreementRef == null ? null : agreementRef.getType(),
+                userMessage.getMpcValue());
+    }
+
+    public MessageExchangeConfiguration get(Key key) {
+        if (key == null) {
+            return null;
+        }
+        final MessageExchangeConfiguration messageExchangeConfiguration = entries.get(key);
+        if (messageExchangeConfiguration == null) {
+            misses.inc();
+        } else {
+            hits.inc();
+        }
+        return messageExchangeConfiguration;
+    }
+
+    public void put(Key key, MessageExchangeConfiguration messageExchangeConfiguration) {
+        if (key == null || messageExchangeConfiguration == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictOne();
+        }
+        entries.put(key, messageExchangeConfiguration);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    protected void evictOne() {
+        final Iterator<Key> iterator = entries.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The user message metadata used to resolve the {@link MessageExchangeConfiguration}.
+     */
+    public static final class Key {
+
+        private final boolean pull;
+
+        private final ProcessingType processingType;
+
+        private final String[] metadata;
+
+        private final int hashCode;
+
+        protected Key(boolean pull, ProcessingType processingType, String... metadata) {
+            this.pull = pull;
+            this.processingType = processingType;
+            this.metadata = metadata;
+            this.hashCode = 31 * (31 * Boolean.hashCode(pull) + (processingType == null ? 0 : processingType.hashCode())) + Arrays.hashCode(metadata);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return pull == key.pull
+                    && hashCode == key.hashCode
+                    && processingType == key.processingType
+                    && Arrays.equals(metadata, key.metadata);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
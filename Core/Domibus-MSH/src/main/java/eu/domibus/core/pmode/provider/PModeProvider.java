@@ -263,6 +263,14 @@ public abstract class PModeProvider {
         LOG.putMDC(DomibusLogger.MDC_SERVICE, userMessage.getService().getValue());
         LOG.putMDC(DomibusLogger.MDC_ACTION, userMessage.getActionValue());
 
+        final MessageExchangeConfigurationCache cache = getMessageExchangeConfigurationCache();
+        final MessageExchangeConfigurationCache.Key cacheKey = cache.createKey(userMessage, isPull, processingType);
+        final MessageExchangeConfiguration cachedMessageExchangeConfiguration = cache.get(cacheKey);
+        if (cachedMessageExchangeConfiguration != null) {
+            LOG.debug("Found cached pmodeKey [{}] for message [{}]", cachedMessageExchangeConfiguration.getPmodeKey(), messageId);
+            return cachedMessageExchangeConfiguration;
+        }
+
         try {
             agreementName = findAgreement(userMessage.getAgreementRef());
             LOG.businessInfo(DomibusMessageCode.BUS_MESSAGE_AGREEMENT_FOUND, agreementName, userMessage.getAgreementRef());
@@ -297,6 +305,7 @@ public abstract class PModeProvider {
 
             MessageExchangeConfiguration messageExchangeConfiguration = new MessageExchangeConfiguration(agreementName, senderParty, receiverParty, service, action, leg, mpc);
             LOG.debug("Found pmodeKey [{}] for message [{}]", messageExchangeConfiguration.getPmodeKey(), userMessage);
+            cache.put(cacheKey, messageExchangeConfiguration);
             return messageExchangeConfiguration;
         } catch (EbMS3Exception e) {
             e.setRefToMessageId(messageId);
@@ -315,6 +324,20 @@ public abstract class PModeProvider {
         }
     }
 
+    /**
+     * Returns the cache of the message exchange configurations resolved against the current PMode; disabled by default.
+     */
+    protected MessageExchangeConfigurationCache getMessageExchangeConfigurationCache() {
+        return MessageExchangeConfigurationCache.DISABLED;
+    }
+
+    /**
+     * Discards the message exchange configurations resolved so far.
+     */
+    public void clearMessageExchangeConfigurationCache() {
+        //nothing cached by default
+    }
+
     protected String findSenderParty(UserMessage userMessage) throws EbMS3Exception {
         String senderParty;
         PartyId fromPartyId = userMessage.getPartyInfo().getFrom().getFromPartyId();
@@ -0,0 +1,147 @@
+package eu.domibus.core.pmode.provider.dynamicdiscovery;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.ebms3.EbMS3Exception;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DYNAMICDISCOVERY_LOOKUP_CACHE_REFRESH_AHEAD;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DYNAMICDISCOVERY_LOOKUP_CACHE_TTL;
+
+/**
+ * Coalesces the concurrent SML/SMP lookups having the same lookup key: the first caller performs the lookup while the
+ * others wait for its result instead of performing their own lookup.
+ * <p>
+ * It also schedules the refresh of the cached lookups before they expire, so that the messages sent to a known final
+ * recipient do not wait for the lookup on the sender thread.
+ *
+ * @since 5.2
+ */
+@Service
+public class DynamicDiscoveryLookupCoalescer {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(DynamicDiscoveryLookupCoalescer.class);
+
+    protected final Map<String, CompletableFuture<EndpointInfo>> inFlightLookups = new ConcurrentHashMap<>();
+
+    protected final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    protected final DomibusPropertyProvider domibusPropertyProvider;
+
+    protected final DomainTaskExecutor domainTaskExecutor;
+
+    public DynamicDiscoveryLookupCoalescer(DomibusPropertyProvider domibusPropertyProvider, DomainTaskExecutor domainTaskExecutor) {
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.domainTaskExecutor = domainTaskExecutor;
+    }
+
+    /**
+     * Performs the lookup, unless a lookup with the same key is already in progress in which case its result is returned
+     *
+     * @param lookupKey the key of the lookup, containing the domain
+     * @param lookup    the lookup
+     * @return the endpoint found by the lookup
+     * @throws EbMS3Exception the exception raised by the lookup
+     */
+    public EndpointInfo lookup(String lookupKey, EndpointLookup lookup) throws EbMS3Exception {
+        final CompletableFuture<EndpointInfo> future = new CompletableFuture<>();
+        final CompletableFuture<EndpointInfo> inFlightLookup = inFlightLookups.putIfAbsent(lookupKey, future);
+        if (inFlightLookup != null) {
+            LOG.debug("Waiting for the lookup in progress for key [{}]", lookupKey);
+            return waitFor(inFlightLookup);
+        }
+        try {
+            final EndpointInfo endpointInfo = lookup.lookup();
+            future.complete(endpointInfo);
+            return endpointInfo;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLookups.remove(lookupKey, future);
+        }
+    }
+
+    /**
+     * @param endpointInfo the cached lookup
+     * @return true if the cached lookup expires in less than the configured refresh ahead period
+     */
+    public boolean isRefreshDue(EndpointInfo endpointInfo) {
+        final Integer refreshAhead = domibusPropertyProvider.getIntegerProperty(DOMIBUS_DYNAMICDISCOVERY_LOOKUP_CACHE_REFRESH_AHEAD);
+        final Integer ttl = domibusPropertyProvider.getIntegerProperty(DOMIBUS_DYNAMICDISCOVERY_LOOKUP_CACHE_TTL);
+        if (refreshAhead == null || refreshAhead <= 0 || ttl == null || refreshAhead >= ttl) {
+            LOG.trace("Refresh of the dynamic discovery lookups is disabled: refresh ahead [{}], ttl [{}]", refreshAhead, ttl);
+            return false;
+        }
+        final long age = System.currentTimeMillis() - endpointInfo.getLookupTime();
+        return age >= TimeUnit.SECONDS.toMillis(ttl - refreshAhead);
+    }
+
+    /**
+     * Performs the refresh in background for the given domain, unless a refresh with the same key is already scheduled
+     *
+     * @param lookupKey the key of the lookup, containing the domain
+     * @param domain    the domain of the lookup
+     * @param refresh   the refresh of the lookup
+     */
+    public void scheduleRefresh(String lookupKey, Domain domain, EndpointRefresh refresh) {
+        if (!refreshing.add(lookupKey)) {
+            LOG.trace("The lookup for key [{}] is already being refreshed", lookupKey);
+            return;
+        }
+        LOG.debug("Scheduling the refresh of the lookup for key [{}]", lookupKey);
+        try {
+            domainTaskExecutor.submit(() -> {
+                try {
+                    refresh.refresh();
+                    LOG.debug("Refreshed the lookup for key [{}]", lookupKey);
+                } catch (EbMS3Exception | RuntimeException e) {
+                    LOG.warn("Could not refresh the lookup for key [{}]", lookupKey, e);
+                } finally {
+                    refreshing.remove(lookupKey);
+                }
+            }, domain, false, null, null);
+        } catch (RuntimeException e) {
+            refreshing.remove(lookupKey);
+            LOG.warn("Could not schedule the refresh of the lookup for key [{}]", lookupKey, e);
+        }
+    }
+
+    protected EndpointInfo waitFor(CompletableFuture<EndpointInfo> inFlightLookup) throws EbMS3Exception {
+        try {
+            return inFlightLookup.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof EbMS3Exception) {
+                throw (EbMS3Exception) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    public interface EndpointLookup {
+        EndpointInfo lookup() throws EbMS3Exception;
+    }
+
+    @FunctionalInterface
+    public interface EndpointRefresh {
+        void refresh() throws EbMS3Exception;
+    }
+}
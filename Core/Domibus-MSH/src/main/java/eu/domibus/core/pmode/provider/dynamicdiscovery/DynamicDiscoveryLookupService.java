@@ -6,13 +6,17 @@ import eu.domibus.api.exceptions.DomibusCoreErrorCode;
 import eu.domibus.api.exceptions.DomibusCoreException;
 import eu.domibus.api.multitenancy.Domain;
 import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.multitenancy.DomainService;
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
 import eu.domibus.api.pki.CertificateService;
 import eu.domibus.api.pki.MultiDomainCryptoService;
 import eu.domibus.api.pmode.PModeEventListener;
+import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.core.pmode.provider.PModeProvider;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -26,6 +30,8 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DYNAMICDISCOVERY_USE_DYNAMIC_DISCOVERY;
+
 /**
  * @author Cosmin Baciu
  * @since 5.1.1
@@ -46,8 +52,12 @@ public class DynamicDiscoveryLookupService implements PModeEventListener {
     protected DynamicDiscoveryLookupHelper dynamicDiscoveryLookupHelper;
     protected PModeProvider pModeProvider;
     protected SignalService signalService;
+    protected DomainService domainService;
+    protected DomainTaskExecutor domainTaskExecutor;
+    protected DomibusPropertyProvider domibusPropertyProvider;
 
-    public DynamicDiscoveryLookupService(DynamicDiscoveryLookupDao dynamicDiscoveryLookupDao, CertificateService certificateService, MultiDomainCryptoService multiDomainCryptoService, DomainContextProvider domainProvider, DynamicDiscoveryLookupHelper dynamicDiscoveryLookupHelper, PModeProvider pModeProvider, SignalService signalService) {
+    public DynamicDiscoveryLookupService(DynamicDiscoveryLookupDao dynamicDiscoveryLookupDao, CertificateService certificateService, MultiDomainCryptoService multiDomainCryptoService, DomainContextProvider domainProvider, DynamicDiscoveryLookupHelper dynamicDiscoveryLookupHelper, PModeProvider pModeProvider, SignalService signalService,
+                                         DomainService domainService, DomainTaskExecutor domainTaskExecutor, DomibusPropertyProvider domibusPropertyProvider) {
         this.dynamicDiscoveryLookupDao = dynamicDiscoveryLookupDao;
         this.certificateService = certificateService;
         this.multiDomainCryptoService = multiDomainCryptoService;
@@ -55,6 +65,9 @@ public class DynamicDiscoveryLookupService implements PModeEventListener {
         this.dynamicDiscoveryLookupHelper = dynamicDiscoveryLookupHelper;
         this.pModeProvider = pModeProvider;
         this.signalService = signalService;
+        this.domainService = domainService;
+        this.domainTaskExecutor = domainTaskExecutor;
+        this.domibusPropertyProvider = domibusPropertyProvider;
     }
 
     @Override
@@ -103,6 +116,37 @@ public class DynamicDiscoveryLookupService implements PModeEventListener {
         return finalRecipientAPUrl;
     }
 
+    /**
+     * Loads at startup the endpoint URLs of the final recipients discovered previously, for the domains using dynamic discovery,
+     * so that the first messages sent to these final recipients do not read them from the database
+     */
+    public void warmUp() {
+        for (Domain domain : domainService.getDomains()) {
+            if (BooleanUtils.isNotTrue(domibusPropertyProvider.getBooleanProperty(domain, DOMIBUS_DYNAMICDISCOVERY_USE_DYNAMIC_DISCOVERY))) {
+                LOG.debug("Dynamic discovery is not used for domain [{}]: the final recipient cache is not loaded", domain);
+                continue;
+            }
+            LOG.info("Loading the final recipient cache for domain [{}]", domain);
+            domainTaskExecutor.submit(() -> {
+                try {
+                    loadFinalRecipientAccessPointUrls();
+                } catch (Exception e) {
+                    LOG.warn("Could not load the final recipient cache for domain [{}]", domain, e);
+                }
+            }, domain);
+        }
+    }
+
+    protected void loadFinalRecipientAccessPointUrls() {
+        final List<DynamicDiscoveryLookupEntity> lookupEntities = dynamicDiscoveryLookupDao.findAll();
+        for (DynamicDiscoveryLookupEntity lookupEntity : lookupEntities) {
+            if (StringUtils.isNotBlank(lookupEntity.getFinalRecipientUrl())) {
+                finalRecipientAccessPointUrls.putIfAbsent(lookupEntity.getFinalRecipientValue(), lookupEntity.getFinalRecipientUrl());
+            }
+        }
+        LOG.debug("Loaded [{}] final recipients in cache", lookupEntities.size());
+    }
+
     public void clearFinalRecipientAccessPointUrlsCache() {
         finalRecipientAccessPointUrls.clear();
     }
@@ -99,6 +99,9 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
     @Autowired
     protected PolicyService policyService;
 
+    @Autowired
+    protected DynamicDiscoveryLookupCoalescer dynamicDiscoveryLookupCoalescer;
+
     protected Collection<eu.domibus.common.model.configuration.Process> dynamicResponderProcesses;
     protected Collection<eu.domibus.common.model.configuration.Process> dynamicInitiatorProcesses;
 
@@ -269,10 +272,38 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
                     PartyRole partyRole = partyRoleDictionaryService.findOrCreateRole(responderRoleValue);
                     userMessage.getPartyInfo().getTo().setToRole(partyRole);
                 }
+
+                refreshLookupIfDue(finalRecipientCacheKey, dynamicDiscoveryCheckResult.getEndpointInfo(), userMessage, candidates);
             }
         }
     }
 
+    /**
+     * Schedules the lookup in background when the cached lookup is about to expire, so that the following messages find
+     * the lookup in the cache. The refresh also updates the truststore, the PMode and the time of the lookup in the database.
+     */
+    protected void refreshLookupIfDue(String cacheKey, EndpointInfo cachedEndpointInfo, UserMessage userMessage, Collection<eu.domibus.common.model.configuration.Process> processCandidates) {
+        if (!dynamicDiscoveryLookupCoalescer.isRefreshDue(cachedEndpointInfo)) {
+            return;
+        }
+        final String finalRecipientValue = userMessageServiceHelper.getFinalRecipientValue(userMessage);
+        final String finalRecipientType = userMessageServiceHelper.getFinalRecipientType(userMessage);
+        final String action = userMessage.getActionValue();
+        final String serviceValue = userMessage.getService().getValue();
+        final String serviceType = userMessage.getService().getType();
+        final String messageId = userMessage.getMessageId();
+        LOG.debug("Refreshing in background the lookup of final recipient [{}] with key [{}]", finalRecipientValue, cacheKey);
+
+        dynamicDiscoveryLookupCoalescer.scheduleRefresh(cacheKey, domainProvider.getCurrentDomain(), () -> {
+            LOG.info("Refresh lookup by finalRecipient type [{}] and value [{}]", finalRecipientType, finalRecipientValue);
+            final EndpointInfo endpointInfo = dynamicDiscoveryService.refreshInformation(cacheKey, finalRecipientValue, finalRecipientType, action, serviceValue, serviceType);
+            validateEndpoint(endpointInfo, messageId);
+            // the cached lookup is only replaced once the new lookup succeeded: the messages keep using it meanwhile and after a failure
+            domibusLocalCacheService.addEntryInCache(DYNAMIC_DISCOVERY_ENDPOINT, cacheKey, endpointInfo);
+            updateConfigurationForEndpoint(endpointInfo, finalRecipientValue, processCandidates, messageId);
+        });
+    }
+
     private List<String> getProcessNames(Collection<Process> candidates) {
         return candidates.stream().map(process -> process.getName()).collect(Collectors.toList());
     }
@@ -345,10 +376,24 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
         //if the lookup was previously done, it is retrieved from cache
         //cache is domain specific
         EndpointInfo endpointInfo = lookupByFinalRecipient(cacheKey, userMessage);
+        final String finalRecipientValue = userMessageServiceHelper.getFinalRecipientValue(userMessage);
+
+        final PartyId receiverParty = updateConfigurationForEndpoint(endpointInfo, finalRecipientValue, processCandidates, userMessage.getMessageId());
+
+        //we add the partyTo in the UserMessage
+        addPartyToInUserMessage(userMessage, receiverParty);
+    }
+
+    /**
+     * Updates the truststore and the PMode with the party discovered by the lookup and notifies the PMode event listeners
+     *
+     * @return the discovered party
+     */
+    protected PartyId updateConfigurationForEndpoint(EndpointInfo endpointInfo, String finalRecipientValue, Collection<eu.domibus.common.model.configuration.Process> processCandidates, String messageId) throws EbMS3Exception {
         LOG.debug("Found endpoint [{}]. Configuring PMode and truststore", endpointInfo.getAddress());
 
         //extract the party information from the Endpoint eg X509 certificate, cn, endpoint URL
-        final PartyEndpointInfo partyEndpointInfo = getPartyEndpointInfo(endpointInfo, userMessage.getMessageId());
+        final PartyEndpointInfo partyEndpointInfo = getPartyEndpointInfo(endpointInfo, messageId);
 
         final X509Certificate x509Certificate = partyEndpointInfo.getX509Certificate();
         final String certificateCn = partyEndpointInfo.getCertificateCn();
@@ -356,9 +401,6 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
         //we create or get the partyTo based on the certificate common name
         final PartyId receiverParty = getPartyToIdForDynamicDiscovery(certificateCn);
 
-        //we add the partyTo in the UserMessage
-        addPartyToInUserMessage(userMessage, receiverParty);
-
         //we add the certificate in the Domibus truststore, domain specific
         Domain currentDomain = domainProvider.getCurrentDomain();
 
@@ -377,7 +419,6 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
         updateToPartyInPmodeResponderParties(processCandidates, configurationParty);
 
         //save the final recipient value and URL in the database
-        final String finalRecipientValue = userMessageServiceHelper.getFinalRecipientValue(userMessage);
         final String receiverURL = endpointInfo.getAddress();
 
         final List<String> partyProcessNames = getProcessNames(processCandidates);
@@ -394,6 +435,7 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
                 }
             });
         }
+        return receiverParty;
     }
 
     protected PartyEndpointInfo getPartyEndpointInfo(EndpointInfo endpointInfo, String messageId) throws EbMS3Exception {
@@ -519,6 +561,7 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
             if (responderParty == null) {
                 LOG.info("Adding party [{}] in the process responder parties [{}]", configurationParty.getName(), candidate.getName());
                 candidate.getResponderParties().add(configurationParty);
+                invalidateLegMatchingIndex();
             }
         }
     }
@@ -558,6 +601,7 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
             }
             if (!partyFound) {
                 candidate.getInitiatorParties().add(configurationParty);
+                invalidateLegMatchingIndex();
             }
         }
     }
@@ -622,25 +666,35 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
                     .refToMessageId(userMessage.getMessageId())
                     .build();
         }
+        return lookupEndpoint(lookupCacheKey, finalRecipientValue, finalRecipientType, userMessage.getActionValue(),
+                userMessage.getService().getValue(), userMessage.getService().getType(), userMessage.getMessageId());
+    }
+
+    protected EndpointInfo lookupEndpoint(String lookupCacheKey, String finalRecipientValue, String finalRecipientType, String action,
+                                          String serviceValue, String serviceType, String messageId) throws EbMS3Exception {
         LOG.info("Perform lookup by finalRecipient type [{}] and value [{}]", finalRecipientType, finalRecipientValue);
 
-        //lookup sml/smp - result is cached
-        final EndpointInfo endpoint = dynamicDiscoveryService.lookupInformation(lookupCacheKey, finalRecipientValue,
+        //lookup sml/smp - result is cached; the concurrent lookups of the same final recipient wait for the first one
+        final EndpointInfo endpoint = dynamicDiscoveryLookupCoalescer.lookup(lookupCacheKey, () -> dynamicDiscoveryService.lookupInformation(lookupCacheKey, finalRecipientValue,
                 finalRecipientType,
-                userMessage.getActionValue(),
-                userMessage.getService().getValue(),
-                userMessage.getService().getType());
+                action,
+                serviceValue,
+                serviceType));
+
+        validateEndpoint(endpoint, messageId);
+        LOG.debug("Lookup successful: " + endpoint.getAddress());
+        return endpoint;
+    }
 
+    protected void validateEndpoint(EndpointInfo endpoint, String messageId) throws EbMS3Exception {
         // The SMP entries missing this info are not for the use of Domibus
         if (endpoint.getAddress() == null || endpoint.getCertificate() == null) {
             throw EbMS3ExceptionBuilder.getInstance()
                     .ebMS3ErrorCode(ErrorCode.EbMS3ErrorCode.EBMS_0010)
                     .message("Invalid endpoint metadata received from the dynamic discovery process.")
-                    .refToMessageId(userMessage.getMessageId())
+                    .refToMessageId(messageId)
                     .build();
         }
-        LOG.debug("Lookup successful: " + endpoint.getAddress());
-        return endpoint;
     }
 
     /*
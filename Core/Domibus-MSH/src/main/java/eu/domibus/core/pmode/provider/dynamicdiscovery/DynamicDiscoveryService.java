@@ -16,6 +16,16 @@ public interface DynamicDiscoveryService {
                                    final String processId,
                                    final String processIdScheme) throws EbMS3Exception;
 
+    /**
+     * Performs the lookup without reading nor updating the cached lookups
+     */
+    EndpointInfo refreshInformation(String lookupCacheKey,
+                                    final String finalRecipientValue,
+                                    final String finalRecipientType,
+                                    final String documentId,
+                                    final String processId,
+                                    final String processIdScheme) throws EbMS3Exception;
+
     String getPartyIdType();
     String getResponderRole();
 
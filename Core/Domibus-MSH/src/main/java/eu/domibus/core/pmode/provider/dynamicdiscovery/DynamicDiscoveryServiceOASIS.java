@@ -165,6 +165,17 @@ public class DynamicDiscoveryServiceOASIS extends AbstractDynamicDiscoveryServic
         return DOMIBUS_DYNAMICDISCOVERY_OASISCLIENT_PARTYID_RESPONDER_ROLE;
     }
 
+    @Override
+    public EndpointInfo refreshInformation(final String lookupKey,
+                                           final String finalRecipientValue,
+                                           final String finalRecipientType,
+                                           final String documentId,
+                                           final String processId,
+                                           final String processIdScheme) throws EbMS3Exception {
+        // called on this instance, the lookup bypasses the cache
+        return lookupInformation(lookupKey, finalRecipientValue, finalRecipientType, documentId, processId, processIdScheme);
+    }
+
     @Cacheable(cacheManager = DomibusCacheConstants.CACHE_MANAGER, value = DYNAMIC_DISCOVERY_ENDPOINT, key = "#lookupKey")
     public EndpointInfo lookupInformation(final String lookupKey,
                                           final String finalRecipientValue,
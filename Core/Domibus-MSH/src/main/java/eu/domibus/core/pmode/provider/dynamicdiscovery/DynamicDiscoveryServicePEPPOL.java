@@ -126,6 +126,17 @@ public class DynamicDiscoveryServicePEPPOL extends AbstractDynamicDiscoveryServi
         return DOMIBUS_DYNAMICDISCOVERY_PEPPOLCLIENT_PARTYID_RESPONDER_ROLE;
     }
 
+    @Override
+    public EndpointInfo refreshInformation(final String lookupKey,
+                                           final String finalRecipientValue,
+                                           final String finalRecipientType,
+                                           final String documentId,
+                                           final String processId,
+                                           final String processIdScheme) {
+        // called on this instance, the lookup bypasses the cache
+        return lookupInformation(lookupKey, finalRecipientValue, finalRecipientType, documentId, processId, processIdScheme);
+    }
+
     @Cacheable(cacheManager = DomibusCacheConstants.CACHE_MANAGER, value = DYNAMIC_DISCOVERY_ENDPOINT, key = "#lookupKey")
     public EndpointInfo lookupInformation(final String lookupKey, final String finalRecipientValue, final String finalRecipientType, final String documentId, final String processId, final String processIdScheme) {
 
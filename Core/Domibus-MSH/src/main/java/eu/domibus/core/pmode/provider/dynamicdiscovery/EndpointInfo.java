@@ -11,9 +11,15 @@ public class EndpointInfo {
     private String address;
     private X509Certificate certificate;
 
+    /**
+     * The time of the lookup, used to refresh the cached lookups before they expire
+     */
+    private final long lookupTime;
+
     public EndpointInfo(String address, X509Certificate certificate) {
         this.address = address;
         this.certificate = certificate;
+        this.lookupTime = System.currentTimeMillis();
     }
 
     public String getAddress() {
@@ -32,4 +38,8 @@ public class EndpointInfo {
     public void setCertificate(X509Certificate certificate) {
         this.certificate = certificate;
     }
+
+    public long getLookupTime() {
+        return lookupTime;
+    }
 }
\ No newline at end of file
@@ -62,11 +62,14 @@ public class DomibusPropertyProviderImpl implements DomibusPropertyProvider {
 
     private final DomibusLocalCacheService domibusLocalCacheService;
 
+    private final TypedPropertySnapshot typedPropertySnapshot;
+
     public DomibusPropertyProviderImpl(GlobalPropertyMetadataManager globalPropertyMetadataManager, PropertyProviderDispatcher propertyProviderDispatcher,
                                        PrimitivePropertyTypesManager primitivePropertyTypesManager, NestedPropertiesManager nestedPropertiesManager,
                                        ConfigurableEnvironment environment, PropertyProviderHelper propertyProviderHelper,
                                        PasswordDecryptionService passwordDecryptionService, AnnotationConfigWebApplicationContext rootContext,
-                                       DomibusConfigurationService domibusConfigurationService, DomibusLocalCacheService domibusLocalCacheService) {
+                                       DomibusConfigurationService domibusConfigurationService, DomibusLocalCacheService domibusLocalCacheService,
+                                       TypedPropertySnapshot typedPropertySnapshot) {
         this.globalPropertyMetadataManager = globalPropertyMetadataManager;
         this.propertyProviderDispatcher = propertyProviderDispatcher;
         this.primitivePropertyTypesManager = primitivePropertyTypesManager;
@@ -77,6 +80,7 @@ public class DomibusPropertyProviderImpl implements DomibusPropertyProvider {
         this.rootContext = rootContext;
         this.domibusConfigurationService = domibusConfigurationService;
         this.domibusLocalCacheService = domibusLocalCacheService;
+        this.typedPropertySnapshot = typedPropertySnapshot;
     }
 
     @Override
@@ -95,30 +99,60 @@ public class DomibusPropertyProviderImpl implements DomibusPropertyProvider {
 
     @Override
     public Integer getIntegerProperty(String propertyName) {
-        checkIntegerProperty(propertyName);
+        final Object snapshotValue = typedPropertySnapshot.get(null, propertyName);
+        if (snapshotValue instanceof Integer) {
+            return (Integer) snapshotValue;
+        }
+        final long generation = typedPropertySnapshot.getGeneration();
+        DomibusPropertyMetadata propMeta = checkIntegerProperty(propertyName);
         String value = getProperty(propertyName);
-        return primitivePropertyTypesManager.getIntegerInternal(propertyName, value);
+        Integer result = primitivePropertyTypesManager.getIntegerInternal(propertyName, value);
+        typedPropertySnapshot.put(null, propertyName, propMeta, result, generation);
+        return result;
     }
 
     @Override
     public Long getLongProperty(String propertyName) {
-        checkLongProperty(propertyName);
+        final Object snapshotValue = typedPropertySnapshot.get(null, propertyName);
+        if (snapshotValue instanceof Long) {
+            return (Long) snapshotValue;
+        }
+        final long generation = typedPropertySnapshot.getGeneration();
+        DomibusPropertyMetadata propMeta = checkLongProperty(propertyName);
         String value = getProperty(propertyName);
-        return primitivePropertyTypesManager.getLongInternal(propertyName, value);
+        Long result = primitivePropertyTypesManager.getLongInternal(propertyName, value);
+        typedPropertySnapshot.put(null, propertyName, propMeta, result, generation);
+        return result;
     }
 
     @Override
     public Boolean getBooleanProperty(String propertyName) {
-        checkBooleanProperty(propertyName);
+        final Object snapshotValue = typedPropertySnapshot.get(null, propertyName);
+        if (snapshotValue instanceof Boolean) {
+            return (Boolean) snapshotValue;
+        }
+        final long generation = typedPropertySnapshot.getGeneration();
+        DomibusPropertyMetadata propMeta = checkBooleanProperty(propertyName);
         String value = getProperty(propertyName);
-        return primitivePropertyTypesManager.getBooleanInternal(propertyName, value);
+        Boolean result = primitivePropertyTypesManager.getBooleanInternal(propertyName, value);
+        typedPropertySnapshot.put(null, propertyName, propMeta, result, generation);
+        return result;
     }
 
     @Override
     public Boolean getBooleanProperty(Domain domain, String propertyName) {
-        checkBooleanProperty(propertyName);
+        if (domain != null) {
+            final Object snapshotValue = typedPropertySnapshot.get(domain, propertyName);
+            if (snapshotValue instanceof Boolean) {
+                return (Boolean) snapshotValue;
+            }
+        }
+        final long generation = typedPropertySnapshot.getGeneration();
+        DomibusPropertyMetadata propMeta = checkBooleanProperty(propertyName);
         String domainValue = getProperty(domain, propertyName);
-        return primitivePropertyTypesManager.getBooleanInternal(propertyName, domainValue);
+        Boolean result = primitivePropertyTypesManager.getBooleanInternal(propertyName, domainValue);
+        typedPropertySnapshot.put(domain, propertyName, propMeta, result, generation);
+        return result;
     }
 
     @Override
@@ -164,7 +198,13 @@ public class DomibusPropertyProviderImpl implements DomibusPropertyProvider {
             LOG.info("The property [{}] has already the value [{}] on domain [{}]; exiting.", propertyName, propertyValue, domain);
             return;
         }
-        propertyProviderDispatcher.setInternalOrExternalProperty(domain, propertyName, propertyValue, broadcast);
+        // cleared before the change listeners run too, so that they do not read the former typed values
+        typedPropertySnapshot.clear();
+        try {
+            propertyProviderDispatcher.setInternalOrExternalProperty(domain, propertyName, propertyValue, broadcast);
+        } finally {
+            typedPropertySnapshot.clear();
+        }
     }
 
     @Override
@@ -173,7 +213,13 @@ public class DomibusPropertyProviderImpl implements DomibusPropertyProvider {
             LOG.info("The property [{}] has already the value [{}] on domain [{}]; exiting.", propertyName, propertyValue, null);
             return;
         }
-        propertyProviderDispatcher.setInternalOrExternalProperty(null, propertyName, propertyValue, true);
+        // cleared before the change listeners run too, so that they do not read the former typed values
+        typedPropertySnapshot.clear();
+        try {
+            propertyProviderDispatcher.setInternalOrExternalProperty(null, propertyName, propertyValue, true);
+        } finally {
+            typedPropertySnapshot.clear();
+        }
     }
 
     @Override
@@ -210,6 +256,7 @@ public class DomibusPropertyProviderImpl implements DomibusPropertyProvider {
             String propertySourceName = getSourceName(configFile);
             DomibusPropertiesPropertySource newPropertySource = new DomibusPropertiesPropertySource(propertySourceName, properties);
             propertySources.addFirst(newPropertySource);
+            typedPropertySnapshot.clear();
         } catch (IOException ex) {
             throw new ConfigurationException(String.format("Could not read properties file: [%s] for domain [%s]", configFile, domain), ex);
         }
@@ -237,6 +284,7 @@ public class DomibusPropertyProviderImpl implements DomibusPropertyProvider {
         String propertySourceName = getSourceName(configFile);
         propertySources.remove(propertySourceName);
         domibusLocalCacheService.clearCache(DomibusLocalCacheService.DOMIBUS_PROPERTY_CACHE);
+        typedPropertySnapshot.clear();
     }
 
     @Override
@@ -287,24 +335,27 @@ public class DomibusPropertyProviderImpl implements DomibusPropertyProvider {
         return domainTitle;
     }
 
-    private void checkIntegerProperty(String propertyName) {
+    private DomibusPropertyMetadata checkIntegerProperty(String propertyName) {
         DomibusPropertyMetadata propMeta = globalPropertyMetadataManager.getPropertyMetadata(propertyName);
         if (!propMeta.getTypeAsEnum().isNumeric()) {
             throw new DomibusPropertyException(String.format("Cannot call getIntegerProperty because property [%s] has [%s] type.", propertyName, propMeta.getType()));
         }
+        return propMeta;
     }
 
-    private void checkLongProperty(String propertyName) {
+    private DomibusPropertyMetadata checkLongProperty(String propertyName) {
         DomibusPropertyMetadata propMeta = globalPropertyMetadataManager.getPropertyMetadata(propertyName);
         if (!propMeta.getTypeAsEnum().isNumeric()) {
             throw new DomibusPropertyException(String.format("Cannot call getLongProperty because property [%s] has [%s] type.", propertyName, propMeta.getType()));
         }
+        return propMeta;
     }
 
-    private void checkBooleanProperty(String propertyName) {
+    private DomibusPropertyMetadata checkBooleanProperty(String propertyName) {
         DomibusPropertyMetadata propMeta = globalPropertyMetadataManager.getPropertyMetadata(propertyName);
         if (!propMeta.getTypeAsEnum().isBoolean()) {
             throw new DomibusPropertyException(String.format("Cannot call getBooleanProperty because property [%s] has [%s] type.", propertyName, propMeta.getType()));
         }
+        return propMeta;
     }
 }
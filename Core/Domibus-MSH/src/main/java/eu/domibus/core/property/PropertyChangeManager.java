@@ -63,6 +63,8 @@ public class PropertyChangeManager {
 
     private final RegexUtil regexUtil;
 
+    private final TypedPropertySnapshot typedPropertySnapshot;
+
     public PropertyChangeManager(GlobalPropertyMetadataManager globalPropertyMetadataManager,
                                  PropertyRetrieveManager propertyRetrieveManager,
                                  PropertyProviderHelper propertyProviderHelper,
@@ -70,7 +72,8 @@ public class PropertyChangeManager {
                                  // needs to be lazy because we do have a conceptual cyclic dependency:
                                  // BeanX->PropertyProvider->PropertyChangeManager->PropertyChangeNotifier->PropertyChangeListenerX->BeanX
                                  @Lazy DomibusPropertyChangeNotifier propertyChangeNotifier, DomibusLocalCacheService domibusLocalCacheService,
-                                 DomibusConfigurationService domibusConfigurationService, BackupService backupService, DomibusCoreMapper coreMapper, RegexUtil regexUtil) {
+                                 DomibusConfigurationService domibusConfigurationService, BackupService backupService, DomibusCoreMapper coreMapper, RegexUtil regexUtil,
+                                 TypedPropertySnapshot typedPropertySnapshot) {
         this.propertyRetrieveManager = propertyRetrieveManager;
         this.globalPropertyMetadataManager = globalPropertyMetadataManager;
         this.propertyProviderHelper = propertyProviderHelper;
@@ -81,6 +84,7 @@ public class PropertyChangeManager {
         this.backupService = backupService;
         this.coreMapper = coreMapper;
         this.regexUtil = regexUtil;
+        this.typedPropertySnapshot = typedPropertySnapshot;
     }
 
     protected void setPropertyValue(Domain domain, String propertyName, String propertyValue, boolean broadcast) throws DomibusPropertyException {
@@ -91,6 +95,8 @@ public class PropertyChangeManager {
 
         //try to set the new value
         doSetPropertyValue(domain, propertyName, propertyValue);
+        //discard the typed values read while the value was being set, before the listeners read it
+        typedPropertySnapshot.clear();
 
         //let the custom property listeners do their job
         signalPropertyValueChanged(domain, propertyName, propertyValue, broadcast, propMeta, oldValue);
@@ -135,6 +141,7 @@ public class PropertyChangeManager {
                 doSetPropertyValue(domain, propertyName, oldValue);
                 //clear the cache manually here since we are not calling the set method through dispatcher class
                 domibusLocalCacheService.evict(DomibusLocalCacheService.DOMIBUS_PROPERTY_CACHE, propertyProviderHelper.getCacheKeyValue(domain, propMeta));
+                typedPropertySnapshot.clear();
                 // the original property set failed likely due to the change listener validation so, there is no side effect produced and no need to call the listener again
 //                propertyChangeNotifier.signalPropertyValueChanged(domainCode, propertyName, oldValue, shouldBroadcast);
                 throw ex;
@@ -0,0 +1,158 @@
+package eu.domibus.core.property;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.property.DomibusPropertyMetadata;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the parsed values of the integer, long and boolean properties so that the typed getters of the property provider
+ * do not resolve and parse the value on each call.
+ * <p>
+ * Each property gets an ordinal on its first typed read and the values are kept in immutable arrays indexed by ordinal:
+ * one array for the global properties and one per domain for the domain properties. A read is a volatile load of the
+ * array; a value missing from the array is resolved by the caller and published by swapping the array with a copy
+ * containing it. Any change of a property value discards all the arrays, so that the values are resolved again.
+ * <p>
+ * Only the properties stored by Domibus are kept, the values of the properties of the external modules being managed by these modules.
+ *
+ * @since 5.2
+ */
+@Service
+public class TypedPropertySnapshot {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(TypedPropertySnapshot.class);
+
+    protected final PropertyProviderHelper propertyProviderHelper;
+
+    protected final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    protected final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    protected final AtomicLong generation = new AtomicLong();
+
+    protected final AtomicReference<Values> globalValues = new AtomicReference<>(new Values(0));
+
+    protected final Map<String, AtomicReference<Values>> domainValues = new ConcurrentHashMap<>();
+
+    public TypedPropertySnapshot(PropertyProviderHelper propertyProviderHelper) {
+        this.propertyProviderHelper = propertyProviderHelper;
+    }
+
+    /**
+     * @param domain       the domain of the property or null for the current domain
+     * @param propertyName the property name
+     * @return the parsed value of the property or null if it is not (yet) in the snapshot
+     */
+    public Object get(Domain domain, String propertyName) {
+        final Slot slot = slots.get(propertyName);
+        if (slot == null) {
+            return null;
+        }
+        final AtomicReference<Values> values = getValues(slot, domain);
+        if (values == null) {
+            return null;
+        }
+        return values.get().get(slot.ordinal);
+    }
+
+    /**
+     * @return the generation to be passed to {@link #put} for a value resolved from now on
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Adds the parsed value of a property, unless the properties changed since the value was resolved
+     *
+     * @param generation the generation returned by {@link #getGeneration()} before resolving the value
+     */
+    public void put(Domain domain, String propertyName, DomibusPropertyMetadata propMeta, Object value, long generation) {
+        if (value == null || !propMeta.isStoredGlobally()) {
+            return;
+        }
+        final Slot slot = slots.computeIfAbsent(propertyName, name -> new Slot(nextOrdinal.getAndIncrement(), propMeta.isDomain()));
+        final AtomicReference<Values> values = getValues(slot, domain);
+        if (values == null) {
+            return;
+        }
+        while (true) {
+            final Values current = values.get();
+            if (current.generation != generation) {
+                LOG.trace("Properties changed while resolving [{}]: the value is not kept", propertyName);
+                return;
+            }
+            if (values.compareAndSet(current, current.with(slot.ordinal, value))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Discards all the values; called whenever a property value or a properties file changes
+     */
+    public void clear() {
+        final long newGeneration = generation.incrementAndGet();
+        LOG.debug("Clearing the typed property snapshot, generation [{}]", newGeneration);
+        globalValues.set(new Values(newGeneration));
+        domainValues.clear();
+    }
+
+    protected AtomicReference<Values> getValues(Slot slot, Domain domain) {
+        if (!slot.domain) {
+            return globalValues;
+        }
+        final String domainCode = domain != null ? domain.getCode() : propertyProviderHelper.getCurrentDomainCode();
+        if (domainCode == null) {
+            return null;
+        }
+        return domainValues.computeIfAbsent(domainCode, code -> new AtomicReference<>(new Values(generation.get())));
+    }
+
+    protected static class Slot {
+
+        protected final int ordinal;
+
+        protected final boolean domain;
+
+        protected Slot(int ordinal, boolean domain) {
+            this.ordinal = ordinal;
+            this.domain = domain;
+        }
+    }
+
+    protected static class Values {
+
+        protected final long generation;
+
+        protected final Object[] values;
+
+        protected Values(long generation) {
+            this(generation, new Object[0]);
+        }
+
+        protected Values(long generation, Object[] values) {
+            this.generation = generation;
+            this.values = values;
+        }
+
+        protected Object get(int ordinal) {
+            return ordinal < values.length ? values[ordinal] : null;
+        }
+
+        protected Values with(int ordinal, Object value) {
+            final Object[] newValues = Arrays.copyOf(values, Math.max(values.length, ordinal + 1));
+            newValues[ordinal] = value;
+            return new Values(generation, newValues);
+        }
+    }
+}
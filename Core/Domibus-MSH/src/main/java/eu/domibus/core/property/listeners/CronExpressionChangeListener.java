@@ -54,6 +54,7 @@ public class CronExpressionChangeListener implements DomibusPropertyChangeListen
             {DOMIBUS_MSH_PULL_CRON, "pullRequestWorkerJob"},
             {DOMIBUS_PULL_RETRY_CRON, "pullRetryWorkerJob"},
             {DOMIBUS_SPLIT_AND_JOIN_RECEIVE_EXPIRATION_CRON, "splitAndJoinExpirationJob"},
+            {DOMIBUS_LIST_PENDING_MESSAGES_INDEX_RECONCILIATION_CRON, "pendingNotificationReconciliationJob"},
             {DOMIBUS_MONITORING_CONNECTION_CRON, "connectionMonitoringJob"},
             {DOMIBUS_MONITORING_CONNECTION_SELF_CRON, "connectionMonitoringSelfJob"},
             {DOMIBUS_ERRORLOG_CLEANER_CRON, "errorLogCleanerJob"},
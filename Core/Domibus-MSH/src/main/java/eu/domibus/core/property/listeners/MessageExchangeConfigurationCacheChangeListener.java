@@ -0,0 +1,35 @@
+package eu.domibus.core.property.listeners;
+
+import eu.domibus.api.property.DomibusPropertyChangeListener;
+import eu.domibus.core.pmode.provider.PModeProvider;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
+
+/**
+ * Handles the change of the properties influencing the resolution of the message exchange configuration (pModeKey)
+ *
+ * @since 5.2
+ */
+@Service
+public class MessageExchangeConfigurationCacheChangeListener implements DomibusPropertyChangeListener {
+
+    @Autowired
+    protected PModeProvider pModeProvider;
+
+    @Override
+    public boolean handlesProperty(String propertyName) {
+        return StringUtils.equalsAnyIgnoreCase(propertyName,
+                DOMIBUS_PMODE_EXCHANGE_CONTEXT_CACHE_MAX_SIZE,
+                DOMIBUS_PARTYINFO_ROLES_VALIDATION_ENABLED,
+                DOMIBUS_PMODE_LEGCONFIGURATION_MPC_VALIDATION_ENABLED,
+                DOMIBUS_PULL_DYNAMIC_INITIATOR);
+    }
+
+    @Override
+    public void propertyValueChanged(String domainCode, String propertyName, String propertyValue) {
+        pModeProvider.clearMessageExchangeConfigurationCache();
+    }
+}
@@ -0,0 +1,36 @@
+package eu.domibus.core.property.listeners;
+
+import eu.domibus.api.property.DomibusPropertyChangeListener;
+import eu.domibus.core.generator.id.MessageIdGenerator;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_MSH_MESSAGEID_GENERATOR;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_MSH_MESSAGEID_SUFFIX;
+
+/**
+ * Handles the change of the message id suffix and generator properties
+ *
+ * @since 5.2
+ */
+@Service
+public class MessageIdGeneratorChangeListener implements DomibusPropertyChangeListener {
+
+    @Autowired
+    protected MessageIdGenerator messageIdGenerator;
+
+    @Override
+    public boolean handlesProperty(String propertyName) {
+        return StringUtils.equalsAnyIgnoreCase(propertyName, DOMIBUS_MSH_MESSAGEID_SUFFIX, DOMIBUS_MSH_MESSAGEID_GENERATOR);
+    }
+
+    @Override
+    public void propertyValueChanged(String domainCode, String propertyName, String propertyValue) {
+        if (StringUtils.equalsIgnoreCase(propertyName, DOMIBUS_MSH_MESSAGEID_GENERATOR)) {
+            messageIdGenerator.resetUniqueIdGenerator();
+            return;
+        }
+        messageIdGenerator.resetMessageIdSuffix();
+    }
+}
@@ -19,6 +19,7 @@ import eu.domibus.core.earchive.job.EArchivingContinuousJob;
 import eu.domibus.core.earchive.job.EArchivingSanitizerJob;
 import eu.domibus.core.ebms3.sender.retry.SendRetryWorker;
 import eu.domibus.core.error.ErrorLogCleanerJob;
+import eu.domibus.core.jms.PendingNotificationReconciliationWorker;
 import eu.domibus.core.message.pull.MessagePullerJob;
 import eu.domibus.core.message.pull.PullRetryWorker;
 import eu.domibus.core.message.resend.MessageResendJob;
@@ -381,6 +382,27 @@ public class DomainSchedulerFactoryConfiguration {
         return obj;
     }
 
+    @Bean
+    public JobDetailFactoryBean pendingNotificationReconciliationJob() {
+        JobDetailFactoryBean obj = new JobDetailFactoryBean();
+        obj.setJobClass(PendingNotificationReconciliationWorker.class);
+        obj.setDurability(true);
+        return obj;
+    }
+
+    @Bean
+    @Scope(BeanDefinition.SCOPE_PROTOTYPE)
+    public CronTriggerFactoryBean pendingNotificationReconciliationTrigger() {
+        if (domainContextProvider.getCurrentDomainSafely() == null) {
+            return null;
+        }
+        CronTriggerFactoryBean obj = new CronTriggerFactoryBean();
+        obj.setJobDetail(pendingNotificationReconciliationJob().getObject());
+        obj.setCronExpression(domibusPropertyProvider.getProperty(DOMIBUS_LIST_PENDING_MESSAGES_INDEX_RECONCILIATION_CRON));
+        obj.setStartDelay(JOB_START_DELAY_IN_MS);
+        return obj;
+    }
+
     @Bean
     public JobDetailFactoryBean activateSuspendedUsersJob() {
         JobDetailFactoryBean obj = new JobDetailFactoryBean();
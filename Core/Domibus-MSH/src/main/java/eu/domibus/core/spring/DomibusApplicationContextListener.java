@@ -9,12 +9,14 @@ import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.core.earchive.storage.EArchiveFileStorageProvider;
 import eu.domibus.core.ebms3.receiver.MSHWebserviceConfiguration;
 import eu.domibus.core.jms.MessageListenerContainerInitializer;
+import eu.domibus.core.message.dictionary.DictionaryCacheWarmUpService;
 import eu.domibus.core.message.dictionary.StaticDictionaryService;
 import eu.domibus.core.metrics.JmsQueueCountSetScheduler;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorageProvider;
 import eu.domibus.core.plugin.initializer.PluginInitializerProvider;
 import eu.domibus.core.plugin.routing.BackendFilterInitializerService;
 import eu.domibus.core.plugin.routing.RoutingService;
+import eu.domibus.core.pmode.provider.dynamicdiscovery.DynamicDiscoveryLookupService;
 import eu.domibus.core.property.DomibusPropertyValidatorService;
 import eu.domibus.core.property.GatewayConfigurationValidator;
 import eu.domibus.core.scheduler.DomibusQuartzStarter;
@@ -94,6 +96,10 @@ public class DomibusApplicationContextListener {
 
     protected PluginInitializerProvider pluginInitializerProvider;
 
+    protected DictionaryCacheWarmUpService dictionaryCacheWarmUpService;
+
+    protected DynamicDiscoveryLookupService dynamicDiscoveryLookupService;
+
     protected Endpoint mshEndpoint;
 
     public DomibusApplicationContextListener(EncryptionService encryptionService,
@@ -115,6 +121,8 @@ public class DomibusApplicationContextListener {
                                              DomibusQuartzStarter domibusQuartzStarter,
                                              EArchiveFileStorageProvider eArchiveFileStorageProvider,
                                              PluginInitializerProvider pluginInitializerProvider,
+                                             DictionaryCacheWarmUpService dictionaryCacheWarmUpService,
+                                             DynamicDiscoveryLookupService dynamicDiscoveryLookupService,
                                              @Qualifier(MSHWebserviceConfiguration.MSH_BEAN_NAME) Endpoint mshEndpoint) {
         this.encryptionService = encryptionService;
         this.backendFilterInitializerService = backendFilterInitializerService;
@@ -135,6 +143,8 @@ public class DomibusApplicationContextListener {
         this.domibusQuartzStarter = domibusQuartzStarter;
         this.eArchiveFileStorageProvider = eArchiveFileStorageProvider;
         this.pluginInitializerProvider = pluginInitializerProvider;
+        this.dictionaryCacheWarmUpService = dictionaryCacheWarmUpService;
+        this.dynamicDiscoveryLookupService = dynamicDiscoveryLookupService;
         this.mshEndpoint = mshEndpoint;
     }
 
@@ -194,6 +204,8 @@ public class DomibusApplicationContextListener {
         jmsQueueCountSetScheduler.initialize();
         payloadFileStorageProvider.initialize();
         routingService.initialize();
+        dictionaryCacheWarmUpService.warmUp();
+        dynamicDiscoveryLookupService.warmUp();
 
         eArchiveFileStorageProvider.initialize();
 
@@ -1,10 +1,13 @@
 package eu.domibus.core.time;
 
 import eu.domibus.api.model.TimezoneOffset;
+import eu.domibus.core.dao.BasicDao;
 import eu.domibus.core.message.dictionary.AbstractDictionaryService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -12,7 +15,7 @@ import java.util.concurrent.Callable;
  * @since 5.0
  */
 @Service
-public class TimezoneOffsetService extends AbstractDictionaryService {
+public class TimezoneOffsetService extends AbstractDictionaryService<TimezoneOffset> {
 
     private final TimezoneOffsetDao timezoneOffsetDao;
 
@@ -34,7 +37,22 @@ public class TimezoneOffsetService extends AbstractDictionaryService {
         Callable<TimezoneOffset> findOrCreateTask = () -> timezoneOffsetDao.findOrCreateTimezoneOffset(timezoneId, offsetSeconds);
         String entityDescription = "TimezoneOffset timezoneId=[" + timezoneId + "] offsetSeconds=[" + offsetSeconds + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(Arrays.asList(timezoneId, offsetSeconds), findTask, findOrCreateTask, entityDescription);
     }
 
-}
\ No newline at end of file
+    @Override
+    public String getDictionaryName() {
+        return TimezoneOffset.class.getSimpleName();
+    }
+
+    @Override
+    protected BasicDao<TimezoneOffset> getDictionaryDao() {
+        return timezoneOffsetDao;
+    }
+
+    @Override
+    protected List<Object> getCacheKey(TimezoneOffset entity) {
+        return Arrays.asList(entity.getNextAttemptTimezoneId(), entity.getNextAttemptOffsetSeconds());
+    }
+
+}
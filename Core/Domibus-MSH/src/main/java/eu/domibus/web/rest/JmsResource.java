@@ -131,7 +131,7 @@ public class JmsResource extends BaseResource {
                         "CustomProperties".toUpperCase(), "Custom prop",
                         "Properties".toUpperCase(), "JMS prop"
                 ),
-                Arrays.asList("PROPERTY_ORIGINAL_QUEUE", "jmsCorrelationId", "priority", "content"),
+                Arrays.asList("PROPERTY_ORIGINAL_QUEUE", "jmsCorrelationId", "priority", "deliveryDelay", "content"),
                 "jmsmonitoring");
 
     }
@@ -15,6 +15,7 @@ import eu.domibus.core.message.testservice.TestServiceException;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.web.rest.ro.*;
+import org.apache.commons.lang3.BooleanUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -107,6 +108,35 @@ public class MessageLogResource extends BaseResource {
         return result;
     }
 
+    /**
+     * Cursor based variant of {@link #getMessageLog}: the page following the given cursor is returned, together with the
+     * cursor of the next page (null for the last page). The page number of the request is ignored.
+     */
+    @GetMapping(path = "/cursor")
+    public MessageLogResultRO getMessageLogByCursor(@Valid MessageLogFilterRequestRO request) {
+        LOG.debug("Getting message log after cursor [{}]", request.getCursor());
+
+        HashMap<String, Object> filters = requestFilterUtils.createFilterMap(request);
+
+        requestFilterUtils.setDefaultFilters(request, filters);
+
+        MessageLogResultRO result = messagesLogService.findPagedByCursor(request.getMessageType(), request.getCursor(),
+                request.getPageSize(), request.getOrderBy(), request.getAsc(), BooleanUtils.isTrue(request.getApproximateCount()), filters, request.getFields());
+
+        filters.put(PROPERTY_MESSAGE_TYPE, request.getMessageType());
+        filters.remove(PROPERTY_MIN_ENTITY_ID);
+        filters.remove(PROPERTY_MAX_ENTITY_ID);
+
+        result.setFilter(filters);
+        result.setMshRoles(MSHRole.values());
+        result.setMsgTypes(MessageType.values());
+        result.setMsgStatus(MessageStatus.values());
+        result.setNotifStatus(NotificationStatus.values());
+        result.setPageSize(request.getPageSize());
+
+        return result;
+    }
+
     /**
      * This method returns a CSV file with the contents of Messages table
      *
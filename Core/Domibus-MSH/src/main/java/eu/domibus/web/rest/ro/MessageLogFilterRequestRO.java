@@ -63,6 +63,11 @@ public class MessageLogFilterRequestRO implements Serializable {
     @CustomWhiteListed(permitted = ":/-.,")
     private List<String> fields;
 
+    @CustomWhiteListed(permitted = "-")
+    private String cursor;
+
+    private Boolean approximateCount = false;
+
     public int getPage() {
         return page;
     }
@@ -241,4 +246,20 @@ public class MessageLogFilterRequestRO implements Serializable {
     public void setFields(List<String> fields) {
         this.fields = fields;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Boolean getApproximateCount() {
+        return approximateCount;
+    }
+
+    public void setApproximateCount(Boolean approximateCount) {
+        this.approximateCount = approximateCount;
+    }
 }
@@ -27,6 +27,7 @@ public class MessageLogResultRO implements Serializable {
     private boolean estimatedCount;
     private Integer page;
     private Integer pageSize;
+    private String nextCursor;
 
     public Map<String, Object> getFilter() {
         return filter;
@@ -107,4 +108,12 @@ public class MessageLogResultRO implements Serializable {
     public void setEstimatedCount(boolean estimatedCount) {
         this.estimatedCount = estimatedCount;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,158 @@
+package eu.domibus.core.cache.distributed;
+
+import com.hazelcast.config.*;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import eu.domibus.api.cache.distributed.NearCacheStatistics;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.cache.distributed.configuration.DomibusDistributedCacheConfigurationHelper;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the distributed cache operations against two embedded Hazelcast members, configured as in
+ * DomibusDistributedCacheConfiguration, each member being used through its own {@link DistributedCacheDao}.
+ *
+ * @since 5.2
+ */
+public class DistributedCacheDaoClusterIT {
+
+    private static final int CACHE_SIZE = 100;
+
+    private static final int TTL = 3600;
+
+    private static HazelcastInstance member1;
+
+    private static HazelcastInstance member2;
+
+    private DistributedCacheDao distributedCacheDao1;
+
+    private DistributedCacheDao distributedCacheDao2;
+
+    private String cacheName;
+
+    @BeforeClass
+    public static void startMembers() {
+        final String clusterName = "domibusTestCluster-" + UUID.randomUUID();
+        member1 = Hazelcast.newHazelcastInstance(createConfig(clusterName));
+        member2 = Hazelcast.newHazelcastInstance(createConfig(clusterName));
+        assertEquals(2, member1.getCluster().getMembers().size());
+    }
+
+    @AfterClass
+    public static void stopMembers() {
+        member2.shutdown();
+        member1.shutdown();
+    }
+
+    @Before
+    public void setUp() {
+        DomibusPropertyProvider domibusPropertyProvider = Mockito.mock(DomibusPropertyProvider.class);
+        DomibusDistributedCacheConfigurationHelper configurationHelper = new DomibusDistributedCacheConfigurationHelper(domibusPropertyProvider);
+        distributedCacheDao1 = new DistributedCacheDao(member1, domibusPropertyProvider, configurationHelper);
+        distributedCacheDao2 = new DistributedCacheDao(member2, domibusPropertyProvider, configurationHelper);
+
+        cacheName = "cache-" + UUID.randomUUID();
+        distributedCacheDao1.createCacheIfNeeded(cacheName, CACHE_SIZE, TTL, TTL, CACHE_SIZE, TTL, TTL);
+        distributedCacheDao2.createCacheIfNeeded(cacheName, CACHE_SIZE, TTL, TTL, CACHE_SIZE, TTL, TTL);
+    }
+
+    @Test
+    public void bulkOperations_visibleOnTheOtherMember() {
+        Map<String, Object> entries = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            entries.put("key" + i, "value" + i);
+        }
+        distributedCacheDao1.addEntriesInCache(cacheName, entries);
+
+        assertEquals(entries, distributedCacheDao2.getEntriesFromCache(cacheName, entries.keySet()));
+
+        Set<String> removedKeys = new HashSet<>(Arrays.asList("key1", "key2", "unknown"));
+        distributedCacheDao1.removeEntriesFromCache(cacheName, removedKeys);
+
+        final Map<String, Object> remainingEntries = distributedCacheDao2.getEntriesFromCache(cacheName, entries.keySet());
+        assertEquals(18, remainingEntries.size());
+        assertFalse(remainingEntries.containsKey("key1"));
+        assertFalse(remainingEntries.containsKey("key2"));
+    }
+
+    @Test
+    public void nearCache_readsServedLocallyAndInvalidated() throws Exception {
+        distributedCacheDao1.addEntryInCache(cacheName, "key", "value1");
+
+        assertEquals("value1", distributedCacheDao2.getEntryFromCache(cacheName, "key"));
+        assertEquals("value1", distributedCacheDao2.getEntryFromCache(cacheName, "key"));
+        final NearCacheStatistics statistics = distributedCacheDao2.getNearCacheStatistics(cacheName);
+        assertNotNull(statistics);
+        assertTrue(statistics.getHits() >= 1);
+
+        distributedCacheDao1.addEntryInCache(cacheName, "key", "value2");
+
+        waitUntil(() -> "value2".equals(distributedCacheDao2.getEntryFromCache(cacheName, "key")));
+        assertTrue(distributedCacheDao2.getNearCacheStatistics(cacheName).getInvalidations() >= 1);
+    }
+
+    @Test
+    public void computeEntry_atomicOnBothMembers() throws Exception {
+        final int increments = 50;
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (DistributedCacheDao distributedCacheDao : Arrays.asList(distributedCacheDao1, distributedCacheDao2, distributedCacheDao1, distributedCacheDao2)) {
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < increments; i++) {
+                        distributedCacheDao.computeEntryInCache(cacheName, "counter", (key, value) -> value == null ? 1 : (Integer) value + 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertEquals(4 * increments, distributedCacheDao1.getEntryFromCache(cacheName, "counter"));
+        assertEquals(4 * increments, distributedCacheDao2.getEntryFromCache(cacheName, "counter"));
+
+        assertNull(distributedCacheDao2.computeEntryInCache(cacheName, "counter", (key, value) -> null));
+        assertNull(distributedCacheDao1.getEntryFromCache(cacheName, "counter"));
+    }
+
+    private static Config createConfig(String clusterName) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        // send the near cache invalidations right away instead of batching them
+        config.setProperty("hazelcast.map.invalidation.batch.enabled", "false");
+
+        NetworkConfig networkConfig = config.getNetworkConfig();
+        networkConfig.setPort(6801).setPortAutoIncrement(true).setPortCount(20);
+        JoinConfig joinConfig = networkConfig.getJoin();
+        joinConfig.getMulticastConfig().setEnabled(false);
+        joinConfig.getAutoDetectionConfig().setEnabled(false);
+        joinConfig.getTcpIpConfig().setEnabled(true).setMembers(Collections.singletonList("127.0.0.1"));
+        return config;
+    }
+
+    private void waitUntil(Supplier<Boolean> condition) throws InterruptedException {
+        final long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.get()) {
+            assertTrue("Condition not met in time", System.currentTimeMillis() < end);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package eu.domibus.core.certificate.crl;
+
+import eu.domibus.test.common.PKIUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.security.Security;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+public class CRLIndexTest {
+
+    private static final String CRL_URL = "http://domain1.crl";
+
+    PKIUtil pkiUtil = new PKIUtil();
+
+    @Before
+    public void init() {
+        Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
+    }
+
+    @Test
+    public void isRevoked_sameResultAsCRL() throws Exception {
+        Random random = new Random(1);
+        List<BigInteger> revokedSerials = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            revokedSerials.add(new BigInteger(1 + random.nextInt(159), random));
+        }
+        revokedSerials.add(BigInteger.ONE);
+        revokedSerials.add(new BigInteger("0400000000011E44A5E404", 16));
+        X509CRL crl = pkiUtil.createCRL(revokedSerials);
+
+        CRLIndex index = CRLIndex.fromCRL(CRL_URL, crl, System.currentTimeMillis());
+
+        assertEquals(revokedSerials.stream().distinct().count(), index.getRevokedCount());
+        List<BigInteger> serials = new ArrayList<>(revokedSerials.subList(0, 20));
+        serials.addAll(Arrays.asList(BigInteger.ONE, BigInteger.valueOf(2), BigInteger.valueOf(256), new BigInteger("0400000000011E44A5E404", 16), new BigInteger("0400000000011E44A5E405", 16)));
+        for (int i = 0; i < 20; i++) {
+            serials.add(new BigInteger(1 + random.nextInt(159), random));
+        }
+        for (BigInteger serial : serials) {
+            X509Certificate certificate = pkiUtil.createCertificate(serial, null);
+            assertEquals("serial " + serial, crl.isRevoked(certificate), index.isRevoked(certificate));
+        }
+    }
+
+    @Test
+    public void isRevoked_noRevokedCertificates() throws Exception {
+        X509CRL crl = pkiUtil.createCRL(null);
+
+        CRLIndex index = CRLIndex.fromCRL(CRL_URL, crl, System.currentTimeMillis());
+
+        assertEquals(0, index.getRevokedCount());
+        assertFalse(index.isRevoked(pkiUtil.createCertificate(BigInteger.ONE, null)));
+    }
+
+    @Test
+    public void writeAndRead() throws Exception {
+        BigInteger revokedSerial = new BigInteger("0400000000011E44A5E404", 16);
+        X509CRL crl = pkiUtil.createCRL(Arrays.asList(revokedSerial, BigInteger.TEN));
+        CRLIndex index = CRLIndex.fromCRL(CRL_URL, crl, 1000L);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        CRLIndex result = CRLIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(CRL_URL, result.getUrl());
+        assertEquals(crl.getThisUpdate().getTime(), result.getThisUpdate());
+        assertEquals(crl.getNextUpdate().getTime(), result.getNextUpdate());
+        assertEquals(1000L, result.getLoadedAt());
+        assertEquals(2, result.getRevokedCount());
+        assertTrue(result.isRevoked(pkiUtil.createCertificate(revokedSerial, null)));
+        assertFalse(result.isRevoked(pkiUtil.createCertificate(BigInteger.ONE, null)));
+    }
+
+    @Test(expected = IOException.class)
+    public void read_unsupportedFormat() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeInt(CRLIndex.FORMAT_VERSION + 1);
+
+        CRLIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -58,6 +58,11 @@ public class CRLServiceImplIT {
             return mock(CRLUtil.class);
         }
 
+        @Bean
+        CRLStore crlStore() {
+            return mock(CRLStore.class);
+        }
+
         @Bean
         public GlobalPropertyMetadataManager domibusPropertyMetadataManager() {
             return mock(GlobalPropertyMetadataManagerImpl.class);
@@ -43,6 +43,9 @@ public class CRLServiceImplTest {
     @Injectable
     private DomibusLocalCacheService domibusLocalCacheService;
 
+    @Injectable
+    private CRLStore crlStore;
+
     PKIUtil pkiUtil = new PKIUtil();
 
     @Before
@@ -207,6 +210,25 @@ public class CRLServiceImplTest {
         assertTrue(certificateRevoked);
     }
 
+    @Test
+    public void testIsCertificateRevokedWithCRLStore(@Injectable final X509Certificate certificate) {
+        final String crlUrlString = "http://domain1.crl";
+        new Expectations() {{
+            crlStore.isEnabled();
+            result = true;
+
+            crlStore.isRevoked(certificate, crlUrlString);
+            result = true;
+        }};
+
+        assertTrue(crlService.isCertificateRevoked(certificate, crlUrlString));
+
+        new Verifications() {{
+            crlUtil.downloadCRL(anyString, anyBoolean);
+            times = 0;
+        }};
+    }
+
     @Test
     public void resetCacheCrlProtocols() {
 
@@ -214,6 +236,7 @@ public class CRLServiceImplTest {
 
         new Verifications() {{
             domibusLocalCacheService.clearCache(domibusLocalCacheService.CRL_BY_CERT);
+            crlStore.clear();
         }};
     }
 }
@@ -0,0 +1,170 @@
+package eu.domibus.core.certificate.crl;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.test.common.PKIUtil;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.math.BigInteger;
+import java.security.Security;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class CRLStoreTest {
+
+    private static final String CRL_URL = "http://domain1.crl";
+
+    private static final BigInteger REVOKED_SERIAL = new BigInteger("0400000000011E44A5E404", 16);
+
+    @Injectable
+    CRLUtil crlUtil;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    DomainTaskExecutor domainTaskExecutor;
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    MetricRegistry metricRegistry = new MetricRegistry();
+
+    PKIUtil pkiUtil = new PKIUtil();
+
+    CRLStore crlStore;
+
+    X509CRL crl;
+
+    X509Certificate revokedCertificate;
+
+    @Before
+    public void setUp() throws Exception {
+        Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
+        crlStore = new CRLStore(crlUtil, domibusPropertyProvider, domainTaskExecutor, metricRegistry);
+        // the next update of the CRL is in 60 seconds
+        crl = pkiUtil.createCRL(Collections.singletonList(REVOKED_SERIAL));
+        revokedCertificate = pkiUtil.createCertificate(REVOKED_SERIAL, null);
+    }
+
+    @Test
+    public void isRevoked_downloadedOnce() throws Exception {
+        mockProperties(10, 3600);
+        new Expectations() {{
+            crlUtil.downloadCRL(CRL_URL, false);
+            result = crl;
+        }};
+
+        assertTrue(crlStore.isRevoked(revokedCertificate, CRL_URL));
+        assertFalse(crlStore.isRevoked(pkiUtil.createCertificate(BigInteger.ONE, null), CRL_URL));
+
+        new Verifications() {{
+            crlUtil.downloadCRL(CRL_URL, false);
+            times = 1;
+            domainTaskExecutor.submit((Runnable) any, anyBoolean);
+            times = 0;
+        }};
+        assertEquals(1L, metricRegistry.getGauges().get(MetricRegistry.name(CRLStore.class, CRL_URL, "revoked_certificates")).getValue());
+    }
+
+    @Test
+    public void isRevoked_refreshedInBackgroundBeforeNextUpdate() throws Exception {
+        mockProperties(600, 3600);
+        new Expectations() {{
+            crlUtil.downloadCRL(CRL_URL, false);
+            result = crl;
+        }};
+
+        assertTrue(crlStore.isRevoked(revokedCertificate, CRL_URL));
+        assertTrue(crlStore.isRevoked(revokedCertificate, CRL_URL));
+
+        new Verifications() {{
+            crlUtil.downloadCRL(CRL_URL, false);
+            times = 1;
+            // the second check finds a refresh already in progress
+            domainTaskExecutor.submit((Runnable) any, false);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void isRevoked_downloadedWhenTooOld() throws Exception {
+        mockProperties(10, 3600);
+        crlStore.putIndex(new CRLIndex(CRL_URL, 0, System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2), 0, Collections.emptyMap()));
+        new Expectations() {{
+            crlUtil.downloadCRL(CRL_URL, false);
+            result = crl;
+        }};
+
+        assertTrue(crlStore.isRevoked(revokedCertificate, CRL_URL));
+
+        new Verifications() {{
+            crlUtil.downloadCRL(CRL_URL, false);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void isRevoked_staleIndexUsedWhileRefreshing() throws Exception {
+        mockProperties(10, 3600);
+        crlStore.putIndex(new CRLIndex(CRL_URL, 0, System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5), 0, Collections.emptyMap()));
+
+        assertFalse(crlStore.isRevoked(revokedCertificate, CRL_URL));
+
+        new Verifications() {{
+            crlUtil.downloadCRL(anyString, anyBoolean);
+            times = 0;
+            domainTaskExecutor.submit((Runnable) any, false);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void isRevoked_loadedFromDisk() throws Exception {
+        mockProperties(10, 3600);
+        new Expectations() {{
+            crlUtil.downloadCRL(CRL_URL, false);
+            result = crl;
+            times = 1;
+        }};
+        assertTrue(crlStore.isRevoked(revokedCertificate, CRL_URL));
+
+        // after a restart
+        CRLStore restartedCrlStore = new CRLStore(crlUtil, domibusPropertyProvider, domainTaskExecutor, new MetricRegistry());
+
+        assertTrue(restartedCrlStore.isRevoked(revokedCertificate, CRL_URL));
+        assertNotNull(restartedCrlStore.indexes.get(CRL_URL));
+    }
+
+    private void mockProperties(int refreshBefore, int maxStale) {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_CRL_STORE_REFRESH_BEFORE);
+            result = refreshBefore;
+            minTimes = 0;
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_CRL_STORE_MAX_STALE);
+            result = maxStale;
+            minTimes = 0;
+            domibusPropertyProvider.getProperty(DOMIBUS_CERTIFICATE_CRL_STORE_LOCATION);
+            result = testFolder.getRoot().getAbsolutePath();
+            minTimes = 0;
+        }};
+    }
+}
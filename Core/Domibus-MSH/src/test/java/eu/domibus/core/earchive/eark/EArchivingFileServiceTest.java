@@ -24,6 +24,7 @@ import org.junit.Test;
 import javax.activation.DataHandler;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.zip.GZIPOutputStream;
 
@@ -139,6 +140,46 @@ public class EArchivingFileServiceTest {
         Assert.assertThat(archivingFiles.get(MESSAGE + ".attachment.xml").getInputStream(), is(inputStream));
     }
 
+    @Test
+    public void getArchivingFiles_fileSystemAttachment(@Injectable PartInfo partInfo1,
+                                                       @Injectable DataHandler dataHandler) throws IOException {
+        RawEnvelopeDto rawEnvelopeDto = new RawEnvelopeDto(1L, RAW_ENVELOPE_CONTENT.getBytes(StandardCharsets.UTF_8), false);
+        List<PartInfo> partInfos = Collections.singletonList(partInfo1);
+        new Expectations() {{
+
+            userMessageRawEnvelopeDao.findRawXmlByEntityId(entityId);
+            result = rawEnvelopeDto;
+
+            partInfoService.findPartInfo(entityId);
+            result = partInfos;
+
+            partInfo1.getPayloadDatahandler();
+            result = dataHandler;
+
+            partInfo1.getFileName();
+            result = "/payloads/message.payload";
+
+            partInfo1.isEncrypted();
+            result = false;
+
+            partInfo1.getMime();
+            result = MimeTypes.XML;
+
+            partInfo1.getHref();
+            result = CID + MESSAGE;
+        }};
+
+        Map<String, ArchivingFileDTO> archivingFiles = eArchivingFileService.getArchivingFiles(entityId);
+
+        ArchivingFileDTO attachment = archivingFiles.get(MESSAGE + ".attachment.xml");
+        assertEquals(Paths.get("/payloads/message.payload"), attachment.getSourceFile());
+        assertNull(attachment.getInputStream());
+        new Verifications() {{
+            dataHandler.getInputStream();
+            times = 0;
+        }};
+    }
+
     @Test
     public void getArchivingFiles_partInfoWithoutDataHandler(@Injectable RawEnvelopeDto rawEnvelopeDto,
                                                              @Injectable PartInfo partInfo1,
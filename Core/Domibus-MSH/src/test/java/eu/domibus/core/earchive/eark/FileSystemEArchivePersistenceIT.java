@@ -1,6 +1,8 @@
 package eu.domibus.core.earchive.eark;
 
 import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.util.FileServiceUtil;
 import eu.domibus.core.earchive.BatchEArchiveDTO;
 import eu.domibus.core.earchive.BatchEArchiveDTOBuilder;
@@ -71,6 +73,12 @@ public class FileSystemEArchivePersistenceIT {
     @Injectable
     private FileServiceUtil fileServiceUtil;
 
+    @Injectable
+    private DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    private DomainContextProvider domainContextProvider;
+
     @Tested
     private FileSystemEArchivePersistence fileSystemEArchivePersistence;
 
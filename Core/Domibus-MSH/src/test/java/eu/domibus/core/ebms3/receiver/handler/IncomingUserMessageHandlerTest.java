@@ -15,6 +15,7 @@ import eu.domibus.core.message.UserMessageHandlerService;
 import eu.domibus.core.message.UserMessagePayloadService;
 import eu.domibus.core.message.TestMessageValidator;
 import eu.domibus.core.message.dictionary.MshRoleDao;
+import eu.domibus.core.metrics.StageTimingService;
 import eu.domibus.core.plugin.notification.BackendNotificationService;
 import eu.domibus.core.pmode.provider.PModeProvider;
 import eu.domibus.core.security.AuthorizationServiceImpl;
@@ -89,6 +90,9 @@ public class IncomingUserMessageHandlerTest {
     @Injectable
     MetricRegistry metricRegistry;
 
+    @Injectable
+    StageTimingService stageTimingService;
+
     /**
      * Happy flow unit testing with actual data
      */
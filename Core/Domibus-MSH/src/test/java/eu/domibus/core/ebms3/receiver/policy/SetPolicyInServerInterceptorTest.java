@@ -17,6 +17,7 @@ import eu.domibus.core.message.SoapService;
 import eu.domibus.core.message.TestMessageValidator;
 import eu.domibus.core.message.UserMessageErrorCreator;
 import eu.domibus.core.message.UserMessageHandlerService;
+import eu.domibus.core.metrics.StageTimingService;
 import eu.domibus.core.property.DomibusVersionService;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
@@ -65,6 +66,9 @@ public class SetPolicyInServerInterceptorTest {
     @Injectable
     SecurityProfileService securityProfileService;
 
+    @Injectable
+    StageTimingService stageTimingService;
+
     @Test
     public void logIncomingMessaging(final @Injectable SoapMessage soapMessage,
                                      final @Injectable TestMessageValidator testMessageValidator) throws Exception {
@@ -27,6 +27,7 @@ import eu.domibus.core.message.dictionary.MshRoleDao;
 import eu.domibus.core.message.nonrepudiation.NonRepudiationService;
 import eu.domibus.core.message.reliability.ReliabilityChecker;
 import eu.domibus.core.message.reliability.ReliabilityService;
+import eu.domibus.core.metrics.StageTimingService;
 import eu.domibus.core.pmode.provider.PModeProvider;
 import eu.domibus.core.util.SoapUtil;
 import eu.domibus.logging.DomibusLoggerFactory;
@@ -112,6 +113,9 @@ public class AbstractEbms3UserMessageSenderTest {
     @Injectable
     protected SignalMessageSoapEnvelopeSpiDelegate signalMessageSoapEnvelopeSpiDelegate;
 
+    @Injectable
+    protected StageTimingService stageTimingService;
+
     private final String messageId = UUID.randomUUID().toString();
 
     private final String senderName = "domibus-blue";
@@ -25,6 +25,8 @@ import org.junit.runner.RunWith;
 import javax.jms.Queue;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -185,4 +187,45 @@ public class RetryDefaultEbms3ServiceTest {
         }};
     }
 
-}
\ No newline at end of file
+    @Test
+    public void enqueueMessages(@Injectable UserMessage userMessage,
+                                @Injectable UserMessageLog userMessageLog,
+                                @Injectable LegConfiguration legConfiguration) throws EbMS3Exception {
+        Date now = new Date();
+        ScheduledRetry retry = new ScheduledRetry(123L, new Date(now.getTime() + 5000));
+        ScheduledRetry alreadyScheduled = new ScheduledRetry(456L, now);
+
+        new Expectations() {{
+            userMessageLogDao.findRetryMessagesByEntityIds(Arrays.asList(123L, 456L));
+            result = Collections.singletonList(userMessageLog);
+
+            userMessageLog.getEntityId();
+            result = 123L;
+
+            userMessageLog.getUserMessage();
+            result = userMessage;
+
+            userMessage.getMessageId();
+            result = "123";
+
+            userMessage.isSourceMessage();
+            result = false;
+
+            updateRetryLoggingService.getLegConfiguration(userMessage);
+            result = legConfiguration;
+
+            updateRetryLoggingService.failIfInvalidConfig(userMessage, legConfiguration);
+            result = false;
+
+            updateRetryLoggingService.failIfExpired(userMessage, legConfiguration);
+            result = false;
+        }};
+
+        retryService.enqueueMessages(Arrays.asList(retry, alreadyScheduled), now);
+
+        new FullVerifications() {{
+            userMessageService.scheduleSending(userMessage, userMessageLog, 5000L);
+            times = 1;
+        }};
+    }
+}
@@ -0,0 +1,122 @@
+package eu.domibus.core.ebms3.sender.retry;
+
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.message.UserMessageLogDao;
+import mockit.Expectations;
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.*;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class RetrySchedulerTest {
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    UserMessageLogDao userMessageLogDao;
+
+    @Injectable
+    RetryService retryService;
+
+    RetryScheduler retryScheduler;
+
+    @Before
+    public void setUp() {
+        retryScheduler = new RetryScheduler(domibusPropertyProvider, userMessageLogDao, retryService);
+    }
+
+    @Test
+    public void scheduleRetries_inBatchesOrderedByNextAttempt() {
+        Date now = new Date();
+        ScheduledRetry first = new ScheduledRetry(150L, new Date(now.getTime() - 1000));
+        ScheduledRetry second = new ScheduledRetry(110L, new Date(now.getTime() + 1000));
+        ScheduledRetry third = new ScheduledRetry(120L, new Date(now.getTime() + 2000));
+
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_MSH_RETRY_SCHEDULER_LOOK_AHEAD);
+            result = 60;
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_MSH_RETRY_SCHEDULER_BATCH_SIZE);
+            result = 2;
+            retryService.getRetryMinEntityId();
+            result = 100L;
+            retryService.getRetryMaxEntityId();
+            result = 200L;
+            userMessageLogDao.findRetryMessagesDueBefore(100L, 200L, (Date) any);
+            result = Arrays.asList(second, third, first);
+        }};
+
+        retryScheduler.scheduleRetries();
+
+        new Verifications() {{
+            List<List<ScheduledRetry>> batches = new ArrayList<>();
+            retryService.enqueueMessages(withCapture(batches), (Date) any);
+            times = 2;
+
+            assertEquals(Arrays.asList(first, second), batches.get(0));
+            assertEquals(Collections.singletonList(third), batches.get(1));
+        }};
+    }
+
+    @Test
+    public void enqueueBatch_failed_enqueuesOneByOne() {
+        Date now = new Date();
+        ScheduledRetry first = new ScheduledRetry(110L, now);
+        ScheduledRetry second = new ScheduledRetry(120L, now);
+        List<ScheduledRetry> batch = Arrays.asList(first, second);
+
+        new Expectations() {{
+            retryService.enqueueMessages(batch, now);
+            result = new IllegalStateException("batch failed");
+            retryService.enqueueMessages(Collections.singletonList(first), now);
+            result = new IllegalStateException("message failed");
+        }};
+
+        retryScheduler.enqueueBatch(batch, now);
+
+        new Verifications() {{
+            retryService.enqueueMessages(Collections.singletonList(second), now);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void scheduleRetries_noMessages() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_MSH_RETRY_SCHEDULER_LOOK_AHEAD);
+            result = 60;
+            retryService.getRetryMinEntityId();
+            result = 100L;
+            retryService.getRetryMaxEntityId();
+            result = 200L;
+            userMessageLogDao.findRetryMessagesDueBefore(100L, 200L, (Date) any);
+            result = Collections.emptyList();
+        }};
+
+        retryScheduler.scheduleRetries();
+
+        new FullVerifications() {{
+        }};
+    }
+
+    @Test
+    public void getDelay() {
+        Date now = new Date();
+
+        assertEquals(3000L, new ScheduledRetry(1L, new Date(now.getTime() + 3000)).getDelay(now));
+        assertEquals(0L, new ScheduledRetry(1L, new Date(now.getTime() - 3000)).getDelay(now));
+        assertEquals(0L, new ScheduledRetry(1L, null).getDelay(now));
+    }
+}
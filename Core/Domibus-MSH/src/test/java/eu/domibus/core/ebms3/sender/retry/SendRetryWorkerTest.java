@@ -37,6 +37,9 @@ public class SendRetryWorkerTest {
     @Injectable
     RetryService retryService;
 
+    @Injectable
+    RetryScheduler retryScheduler;
+
     @Injectable
     AuthUtils authUtils;
 
@@ -57,6 +60,9 @@ public class SendRetryWorkerTest {
     public void executeJob(@Injectable JobExecutionContext context, @Injectable Domain domain) throws Exception {
 
         new Expectations(sendRetryWorker) {{
+            retryScheduler.isEnabled();
+            result = false;
+
             retryService.getMessagesNotAlreadyScheduled();
             result = QUEUED_MESSAGEIDS;
 
@@ -75,6 +81,24 @@ public class SendRetryWorkerTest {
         }};
     }
 
+    @Test
+    public void executeJob_retryScheduler(@Injectable JobExecutionContext context, @Injectable Domain domain) throws Exception {
+
+        new Expectations() {{
+            configurationDAO.configurationExists();
+            result = true;
+
+            retryScheduler.isEnabled();
+            result = true;
+        }};
+
+        sendRetryWorker.executeJob(context, domain);
+
+        new FullVerifications() {{
+            retryScheduler.scheduleRetries();
+        }};
+    }
+
     @Test
     public void setQuartzJobSecurityContext() {
 
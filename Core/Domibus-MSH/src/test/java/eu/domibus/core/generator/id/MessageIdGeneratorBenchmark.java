@@ -0,0 +1,65 @@
+package eu.domibus.core.generator.id;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the {@link UniqueIdGenerator} implementations when called concurrently, as done when
+ * submitting messages. Not executed as part of the build: run the main method from the test classpath.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageIdGeneratorBenchmark {
+
+    private static final String MESSAGE_ID_SUFFIX = "domibus.eu";
+
+    private UniqueIdGenerator timeBasedGenerator;
+
+    private UniqueIdGenerator timeOrderedGenerator;
+
+    @Setup
+    public void setUp() {
+        timeBasedGenerator = new TimeBasedUniqueIdGenerator(new MessageIdGeneratorConfiguration().createUUIDGenerator());
+        timeOrderedGenerator = new TimeOrderedUniqueIdGenerator();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String timeBased_singleThread() {
+        return timeBasedGenerator.generate() + "@" + MESSAGE_ID_SUFFIX;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String timeOrdered_singleThread() {
+        return timeOrderedGenerator.generate() + "@" + MESSAGE_ID_SUFFIX;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timeBased_contended() {
+        return timeBasedGenerator.generate() + "@" + MESSAGE_ID_SUFFIX;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timeOrdered_contended() {
+        return timeOrderedGenerator.generate() + "@" + MESSAGE_ID_SUFFIX;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageIdGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
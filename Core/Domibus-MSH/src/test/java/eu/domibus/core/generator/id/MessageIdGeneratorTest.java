@@ -0,0 +1,107 @@
+package eu.domibus.core.generator.id;
+
+import eu.domibus.api.exceptions.DomibusCoreException;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_MSH_MESSAGEID_GENERATOR;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_MSH_MESSAGEID_SUFFIX;
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class MessageIdGeneratorTest {
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    DomainContextProvider domainContextProvider;
+
+    private final List<UniqueIdGenerator> uniqueIdGenerators = new ArrayList<>();
+
+    private final Domain domain = new Domain("default", "Default");
+
+    private MessageIdGenerator messageIdGenerator;
+
+    @Before
+    public void setUp() {
+        messageIdGenerator = new MessageIdGenerator();
+        messageIdGenerator.domibusPropertyProvider = domibusPropertyProvider;
+        messageIdGenerator.domainContextProvider = domainContextProvider;
+        messageIdGenerator.uniqueIdGenerators = uniqueIdGenerators;
+    }
+
+    @Test
+    public void generateMessageId_cachesSuffixAndGenerator() {
+        uniqueIdGenerators.add(new TimeOrderedUniqueIdGenerator());
+        new Expectations() {{
+            domainContextProvider.getCurrentDomainSafely();
+            result = domain;
+            domibusPropertyProvider.getProperty(domain, DOMIBUS_MSH_MESSAGEID_SUFFIX);
+            result = "domibus.eu";
+            domibusPropertyProvider.getProperty(DOMIBUS_MSH_MESSAGEID_GENERATOR);
+            result = TimeOrderedUniqueIdGenerator.NAME;
+        }};
+
+        String messageId1 = messageIdGenerator.generateMessageId();
+        String messageId2 = messageIdGenerator.generateMessageId();
+
+        assertTrue(messageId1.endsWith("@domibus.eu"));
+        assertNotEquals(messageId1, messageId2);
+        new Verifications() {{
+            domibusPropertyProvider.getProperty(domain, DOMIBUS_MSH_MESSAGEID_SUFFIX);
+            times = 1;
+            domibusPropertyProvider.getProperty(DOMIBUS_MSH_MESSAGEID_GENERATOR);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void resetMessageIdSuffix() {
+        uniqueIdGenerators.add(new TimeOrderedUniqueIdGenerator());
+        new Expectations() {{
+            domainContextProvider.getCurrentDomainSafely();
+            result = domain;
+            domibusPropertyProvider.getProperty(domain, DOMIBUS_MSH_MESSAGEID_SUFFIX);
+            returns("domibus.eu", "other.eu");
+            domibusPropertyProvider.getProperty(DOMIBUS_MSH_MESSAGEID_GENERATOR);
+            result = TimeOrderedUniqueIdGenerator.NAME;
+        }};
+
+        assertTrue(messageIdGenerator.generateMessageId().endsWith("@domibus.eu"));
+        messageIdGenerator.resetMessageIdSuffix();
+        assertTrue(messageIdGenerator.generateMessageId().endsWith("@other.eu"));
+    }
+
+    @Test
+    public void findUniqueIdGenerator() {
+        TimeOrderedUniqueIdGenerator timeOrdered = new TimeOrderedUniqueIdGenerator();
+        TimeBasedUniqueIdGenerator timeBased = new TimeBasedUniqueIdGenerator(null);
+        uniqueIdGenerators.add(timeOrdered);
+        uniqueIdGenerators.add(timeBased);
+
+        assertSame(timeBased, messageIdGenerator.findUniqueIdGenerator(null));
+        assertSame(timeOrdered, messageIdGenerator.findUniqueIdGenerator("TIMEORDERED"));
+    }
+
+    @Test(expected = DomibusCoreException.class)
+    public void findUniqueIdGenerator_unknown() {
+        uniqueIdGenerators.add(new TimeOrderedUniqueIdGenerator());
+
+        messageIdGenerator.findUniqueIdGenerator("unknown");
+    }
+}
@@ -0,0 +1,70 @@
+package eu.domibus.core.generator.id;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+public class TimeOrderedUniqueIdGeneratorTest {
+
+    private final TimeOrderedUniqueIdGenerator generator = new TimeOrderedUniqueIdGenerator();
+
+    @Test
+    public void generate_version7Layout() {
+        long before = System.currentTimeMillis();
+
+        String id = generator.generate();
+
+        UUID uuid = UUID.fromString(id);
+        assertEquals(id, uuid.toString());
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before);
+        assertTrue(timestamp <= System.currentTimeMillis());
+    }
+
+    @Test
+    public void generate_increasing() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            ids.add(generator.generate());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void nextSequence_sameOrEarlierMillisecond() {
+        long first = generator.nextSequence(1000L);
+
+        assertEquals(first + 1, generator.nextSequence(1000L));
+        assertEquals(first + 2, generator.nextSequence(999L));
+        assertEquals(1001L << TimeOrderedUniqueIdGenerator.COUNTER_BITS, generator.nextSequence(1001L));
+    }
+
+    @Test
+    public void generate_concurrently() throws InterruptedException {
+        Set<String> ids = Collections.synchronizedSet(new HashSet<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    ids.add(generator.generate());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(20000, ids.size());
+    }
+}
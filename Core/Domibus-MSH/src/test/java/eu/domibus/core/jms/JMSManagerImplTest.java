@@ -4,6 +4,7 @@ import com.codahale.metrics.MetricRegistry;
 import eu.domibus.api.exceptions.RequestValidationException;
 import eu.domibus.api.jms.JMSDestination;
 import eu.domibus.api.jms.JmsMessage;
+import eu.domibus.api.messaging.MessageNotFoundException;
 import eu.domibus.api.multitenancy.Domain;
 import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.multitenancy.DomainService;
@@ -30,6 +31,7 @@ import javax.jms.JMSException;
 import javax.jms.Queue;
 import java.util.*;
 
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_LIST_PENDING_MESSAGES_MAX_COUNT;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -78,6 +80,9 @@ public class JMSManagerImplTest {
     @Injectable
     private DomainService domainService;
 
+    @Injectable
+    private PendingNotificationService pendingNotificationService;
+
     @Test
     public void testGetDestinations() {
 
@@ -480,6 +485,9 @@ public class JMSManagerImplTest {
             authUtils.isUnsecureLoginAllowed();
             result = true;
 
+            pendingNotificationService.isEnabled();
+            result = false;
+
             jmsManager.consumeMessage(queueName, messageId);
             result = message;
         }};
@@ -491,6 +499,128 @@ public class JMSManagerImplTest {
         }};
     }
 
+    @Test
+    public void removeFromPending_indexed(@Injectable JmsMessage message) {
+        String queueName = "myqueue";
+        String messageId = "123";
+
+        new Expectations(jmsManager) {{
+            authUtils.isUnsecureLoginAllowed();
+            result = true;
+
+            pendingNotificationService.isEnabled();
+            result = true;
+
+            jmsManager.consumeMessage(queueName, messageId);
+            result = message;
+        }};
+
+        jmsManager.removeFromPending(queueName, messageId);
+
+        new VerificationsInOrder() {{
+            jmsManager.consumeMessage(queueName, messageId);
+            pendingNotificationService.remove(queueName, messageId, NotificationType.MESSAGE_RECEIVED);
+        }};
+    }
+
+    @Test(expected = MessageNotFoundException.class)
+    public void removeFromPending_indexedNotQueued() {
+        String queueName = "myqueue";
+        String messageId = "123";
+
+        new Expectations(jmsManager) {{
+            authUtils.isUnsecureLoginAllowed();
+            result = true;
+
+            pendingNotificationService.isEnabled();
+            result = true;
+
+            jmsManager.consumeMessage(queueName, messageId);
+            result = null;
+        }};
+
+        try {
+            jmsManager.removeFromPending(queueName, messageId);
+        } finally {
+            new Verifications() {{
+                pendingNotificationService.remove(queueName, messageId, NotificationType.MESSAGE_RECEIVED);
+            }};
+        }
+    }
+
+    @Test
+    public void deleteMessages_indexed(@Injectable JmsMessage message) {
+        final String source = "DomibusJMSModule!myqueue";
+        final String[] messageIds = new String[]{"1"};
+
+        new Expectations(jmsManager) {{
+            jmsManager.getJMSMessageDomain(source, messageIds);
+            result = new ArrayList<>();
+
+            pendingNotificationService.isEnabled();
+            result = true;
+
+            jmsManager.getMessage(source, "1");
+            result = message;
+
+            message.getCustomStringProperty(MessageConstants.MESSAGE_ID);
+            result = "msg1";
+
+            message.getCustomStringProperty(MessageConstants.NOTIFICATION_TYPE);
+            result = NotificationType.MESSAGE_RECEIVED.name();
+
+            internalJmsManager.deleteMessages(source, messageIds);
+            result = 1;
+        }};
+
+        jmsManager.deleteMessages(source, messageIds);
+
+        new Verifications() {{
+            pendingNotificationService.remove(Arrays.asList(source, "myqueue"), "msg1", NotificationType.MESSAGE_RECEIVED);
+        }};
+    }
+
+    @Test
+    public void deleteAllMessages_indexed() {
+        new Expectations() {{
+            pendingNotificationService.isEnabled();
+            result = true;
+        }};
+
+        jmsManager.deleteAllMessages("myqueue");
+
+        new Verifications() {{
+            internalJmsManager.deleteAllMessages("myqueue");
+            pendingNotificationService.removeAll(Collections.singletonList("myqueue"));
+        }};
+    }
+
+    @Test
+    public void getQueueElements_indexed() {
+        String queueName = "myqueue";
+        String originalUser = "C1";
+        List<String> messageIds = Arrays.asList("msg1", "msg2");
+
+        new Expectations(jmsManager) {{
+            pendingNotificationService.isEnabled();
+            result = true;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_LIST_PENDING_MESSAGES_MAX_COUNT);
+            result = 500;
+
+            pendingNotificationService.findMessageIds(queueName, NotificationType.MESSAGE_RECEIVED, originalUser, 500);
+            result = messageIds;
+        }};
+
+        Collection<String> messageList = jmsManager.getQueueElements(queueName, NotificationType.MESSAGE_RECEIVED, originalUser);
+
+        assertEquals(messageIds, messageList);
+        new Verifications() {{
+            jmsManager.browseClusterMessages(anyString, anyString);
+            times = 0;
+        }};
+    }
+
     @Test
     public void testValidateMesaageMove_BlankAndNullIds() {
         String source = "src";
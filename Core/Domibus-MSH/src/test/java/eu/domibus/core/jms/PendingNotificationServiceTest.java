@@ -0,0 +1,129 @@
+package eu.domibus.core.jms;
+
+import eu.domibus.api.jms.JMSManager;
+import eu.domibus.api.jms.JmsMessage;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.common.NotificationType;
+import eu.domibus.messaging.MessageConstants;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.*;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class PendingNotificationServiceTest {
+
+    @Tested
+    PendingNotificationService pendingNotificationService;
+
+    @Injectable
+    PendingNotificationDao pendingNotificationDao;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    JMSManager jmsManager;
+
+    @Test
+    public void findMessageIds_maxCount() {
+        List<PendingNotificationEntity> page = createPage(1, 2);
+
+        new Expectations() {{
+            pendingNotificationDao.findPage("queue", NotificationType.MESSAGE_RECEIVED, "C1", 0, 2);
+            result = page;
+        }};
+
+        Collection<String> messageIds = pendingNotificationService.findMessageIds("queue", NotificationType.MESSAGE_RECEIVED, "C1", 2);
+
+        Assert.assertEquals(2, messageIds.size());
+        new Verifications() {{
+            pendingNotificationDao.findPage(anyString, (NotificationType) any, anyString, anyLong, anyInt);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void findMessageIds_allPages() {
+        List<PendingNotificationEntity> firstPage = createPage(1, PendingNotificationService.PAGE_SIZE);
+        List<PendingNotificationEntity> secondPage = createPage(PendingNotificationService.PAGE_SIZE + 1, 3);
+
+        new Expectations() {{
+            pendingNotificationDao.findPage("queue", NotificationType.MESSAGE_RECEIVED, null, 0, PendingNotificationService.PAGE_SIZE);
+            result = firstPage;
+
+            pendingNotificationDao.findPage("queue", NotificationType.MESSAGE_RECEIVED, null, PendingNotificationService.PAGE_SIZE, PendingNotificationService.PAGE_SIZE);
+            result = secondPage;
+        }};
+
+        Collection<String> messageIds = pendingNotificationService.findMessageIds("queue", NotificationType.MESSAGE_RECEIVED, null, 0);
+
+        Assert.assertEquals(PendingNotificationService.PAGE_SIZE + 3, messageIds.size());
+    }
+
+    @Test
+    public void remove() {
+        new Expectations() {{
+            pendingNotificationDao.delete("queue", "msg1", NotificationType.MESSAGE_RECEIVED);
+            result = 0;
+        }};
+
+        Assert.assertFalse(pendingNotificationService.remove("queue", "msg1", NotificationType.MESSAGE_RECEIVED));
+    }
+
+    @Test
+    public void reconcile(@Injectable JmsMessage queuedNotification) {
+        List<PendingNotificationEntity> page = createPage(1, 3);
+
+        new Expectations() {{
+            pendingNotificationDao.findMaxEntityId();
+            result = 3L;
+
+            pendingNotificationDao.findQueueNames();
+            result = Collections.singletonList("queue");
+
+            pendingNotificationDao.findPageByQueue("queue", 0, 3L, PendingNotificationService.PAGE_SIZE);
+            result = page;
+
+            jmsManager.browseClusterMessages("queue", MessageConstants.NOTIFICATION_TYPE + " IS NOT NULL");
+            result = Collections.singletonList(queuedNotification);
+
+            queuedNotification.getCustomStringProperty(MessageConstants.MESSAGE_ID);
+            result = "msg2";
+
+            queuedNotification.getCustomStringProperty(MessageConstants.NOTIFICATION_TYPE);
+            result = NotificationType.MESSAGE_RECEIVED.name();
+        }};
+
+        pendingNotificationService.reconcile();
+
+        new Verifications() {{
+            pendingNotificationDao.deleteWithoutUserMessage();
+
+            List<Long> staleEntityIds;
+            pendingNotificationDao.deleteByEntityIds(staleEntityIds = withCapture());
+            Assert.assertEquals(new HashSet<>(Arrays.asList(1L, 3L)), new HashSet<>(staleEntityIds));
+        }};
+    }
+
+    private List<PendingNotificationEntity> createPage(long firstEntityId, int size) {
+        List<PendingNotificationEntity> page = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            PendingNotificationEntity pendingNotification = new PendingNotificationEntity();
+            pendingNotification.setEntityId(firstEntityId + i);
+            pendingNotification.setMessageId("msg" + (firstEntityId + i));
+            pendingNotification.setNotificationType(NotificationType.MESSAGE_RECEIVED);
+            page.add(pendingNotification);
+        }
+        return page;
+    }
+}
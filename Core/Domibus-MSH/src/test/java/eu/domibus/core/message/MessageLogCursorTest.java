@@ -0,0 +1,40 @@
+package eu.domibus.core.message;
+
+import eu.domibus.api.exceptions.RequestValidationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+
+/**
+ * @since 5.2
+ */
+public class MessageLogCursorTest {
+
+    @Test
+    public void valueOf_entityIdOnly() {
+        MessageLogCursor cursor = MessageLogCursor.valueOf("230101010000000001");
+
+        Assert.assertEquals(230101010000000001L, cursor.getEntityId());
+        Assert.assertNull(cursor.getReceived());
+        Assert.assertEquals("230101010000000001", cursor.toString());
+    }
+
+    @Test
+    public void valueOf_receivedAndEntityId() {
+        MessageLogCursor cursor = new MessageLogCursor(42L, new Date(1672531200000L));
+
+        Assert.assertEquals("1672531200000-42", cursor.toString());
+        Assert.assertEquals(cursor, MessageLogCursor.valueOf(cursor.toString()));
+    }
+
+    @Test
+    public void valueOf_blank() {
+        Assert.assertNull(MessageLogCursor.valueOf(" "));
+    }
+
+    @Test(expected = RequestValidationException.class)
+    public void valueOf_invalid() {
+        MessageLogCursor.valueOf("abc-1");
+    }
+}
@@ -74,4 +74,27 @@ public class MessagesLogServiceHelperImplTest extends TestCase {
         Assert.assertEquals(limit, (long) resultRO.getCount());
         Assert.assertEquals(true, resultRO.isEstimatedCount());
     }
+
+    @Test
+    public void calculateNumberOfMessages_givenLimit(@Injectable MessageLogDaoBase dao, @Mocked Map<String, Object> filters) {
+        MessageLogResultRO resultRO = new MessageLogResultRO();
+
+        new Expectations() {{
+            dao.hasMoreEntriesThan(filters, 1000);
+            result = true;
+        }};
+
+        long result = messagesLogServiceHelper.calculateNumberOfMessages(dao, filters, resultRO, 1000);
+
+        new Verifications() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_UI_MESSAGE_LOGS_COUNT_LIMIT);
+            times = 0;
+            dao.countEntries(filters);
+            times = 0;
+        }};
+
+        Assert.assertEquals(1000, result);
+        Assert.assertEquals(1000, (long) resultRO.getCount());
+        Assert.assertEquals(true, resultRO.isEstimatedCount());
+    }
 }
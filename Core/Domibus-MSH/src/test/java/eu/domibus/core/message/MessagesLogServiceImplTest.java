@@ -15,10 +15,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
+import java.util.*;
 
 @RunWith(JMockit.class)
 public class MessagesLogServiceImplTest {
@@ -97,4 +94,54 @@ public class MessagesLogServiceImplTest {
         Assert.assertEquals(resultList.size(), res.getMessageLogEntries().size());
     }
 
+    @Test
+    public void findPagedByCursor_approximateCount() {
+        HashMap<String, Object> filters = new HashMap<>();
+        List<MessageLogCursor> cursors = Arrays.asList(new MessageLogCursor(1L, null), new MessageLogCursor(2L, null), new MessageLogCursor(3L, null));
+        List<MessageLogInfo> resultList = Arrays.asList(new MessageLogInfo(), new MessageLogInfo());
+
+        new Expectations() {{
+            userMessageLogDao.findCursorsPaged(null, 3, null, true, filters);
+            result = cursors;
+            userMessageLogDao.findAllInfoPaged(0, 2, MessageLogInfoFilter.ENTITY_IDS, true, (Map<String, Object>) any, Collections.emptyList());
+            result = resultList;
+        }};
+
+        MessageLogResultRO res = messagesLogServiceImpl.findPagedByCursor(MessageType.USER_MESSAGE, null, 2, null, true, true, filters, Collections.emptyList());
+
+        Assert.assertEquals("2", res.getNextCursor());
+        Assert.assertEquals(2, res.getMessageLogEntries().size());
+        new Verifications() {{
+            Map<String, Object> pageFilters;
+            userMessageLogDao.findAllInfoPaged(0, 2, MessageLogInfoFilter.ENTITY_IDS, true, pageFilters = withCapture(), Collections.emptyList());
+            Assert.assertEquals(Arrays.asList(1L, 2L), pageFilters.get(MessageLogInfoFilter.ENTITY_IDS));
+            messagesLogServiceHelper.calculateNumberOfMessages(userMessageLogDao, filters, res, MessagesLogServiceImpl.APPROXIMATE_COUNT_LIMIT);
+            times = 1;
+            messagesLogServiceHelper.calculateNumberOfMessages((MessageLogDaoBase) any, (Map<String, Object>) any, (MessageLogResultRO) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void findPagedByCursor_lastPage() {
+        HashMap<String, Object> filters = new HashMap<>();
+        MessageLogCursor cursor = new MessageLogCursor(5L, new Date(1000L));
+
+        new Expectations() {{
+            signalMessageLogDao.findCursorsPaged(cursor, 11, "received", false, filters);
+            result = Collections.emptyList();
+        }};
+
+        MessageLogResultRO res = messagesLogServiceImpl.findPagedByCursor(MessageType.SIGNAL_MESSAGE, "1000-5", 10, "received", false, false, filters, Collections.emptyList());
+
+        Assert.assertNull(res.getNextCursor());
+        Assert.assertTrue(res.getMessageLogEntries().isEmpty());
+        new Verifications() {{
+            signalMessageLogDao.findAllInfoPaged(anyInt, anyInt, anyString, anyBoolean, (Map<String, Object>) any, (List<String>) any);
+            times = 0;
+            messagesLogServiceHelper.calculateNumberOfMessages(signalMessageLogDao, filters, (MessageLogResultRO) any);
+            times = 1;
+        }};
+    }
+
 }
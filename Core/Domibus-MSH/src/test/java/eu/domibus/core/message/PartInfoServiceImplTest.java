@@ -79,6 +79,18 @@ public class PartInfoServiceImplTest {
         };
     }
 
+    @Test
+    public void create(@Injectable final PartInfo partInfo,
+                       @Injectable final UserMessage userMessage) {
+        partInfoService.create(partInfo, userMessage);
+
+        new FullVerifications() {{
+            partInfo.setUserMessage(userMessage);
+            partInfoDao.create(partInfo);
+            partInfoDao.saveBinaryData(partInfo);
+        }};
+    }
+
     @Test
     public void testScheduleSourceMessagePayloads(@Injectable final UserMessage userMessage,
                                                   @Injectable final Domain domain,
@@ -20,6 +20,7 @@ import eu.domibus.core.converter.DomibusCoreMapper;
 import eu.domibus.core.converter.MessageCoreMapper;
 import eu.domibus.core.error.ErrorLogService;
 import eu.domibus.core.jms.DispatchMessageCreator;
+import eu.domibus.core.jms.PendingNotificationService;
 import eu.domibus.core.message.acknowledge.MessageAcknowledgementDao;
 import eu.domibus.core.message.attempt.MessageAttemptDao;
 import eu.domibus.core.message.converter.MessageConverterService;
@@ -211,6 +212,9 @@ public class UserMessageDefaultServiceTest {
     @Injectable
     private DomibusStringUtil domibusStringUtil;
 
+    @Injectable
+    private PendingNotificationService pendingNotificationService;
+
     @Test
     public void testGetFinalRecipient(@Injectable final UserMessage userMessage) {
         final String messageId = "1";
@@ -429,6 +433,9 @@ public class UserMessageDefaultServiceTest {
             messageAcknowledgementDao.deleteMessageAcknowledgementsByMessageIds((List<Long>) any);
             result = 1;
 
+            pendingNotificationService.isEnabled();
+            result = true;
+
             userMessageDao.deleteMessages((List<Long>) any);
             result = 1;
         }};
@@ -438,6 +445,8 @@ public class UserMessageDefaultServiceTest {
         new FullVerifications() {{
             session.setJdbcBatchSize(BATCH_SIZE);
 
+            pendingNotificationService.removeByUserMessages(Arrays.asList(1L, 2L));
+
             backendNotificationService.notifyMessageDeleted((List<UserMessageLogDto>) any);
 
             partInfoService.deletePayloadFiles(filenames);
@@ -31,6 +31,8 @@ import eu.domibus.core.message.signal.SignalMessageDao;
 import eu.domibus.core.message.signal.SignalMessageLogDao;
 import eu.domibus.core.message.splitandjoin.MessageGroupDao;
 import eu.domibus.core.message.splitandjoin.SplitAndJoinService;
+import eu.domibus.core.metrics.MessageStage;
+import eu.domibus.core.metrics.StageTimingService;
 import eu.domibus.core.payload.PayloadProfileValidator;
 import eu.domibus.core.payload.persistence.InvalidPayloadSizeException;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorageProvider;
@@ -233,6 +235,9 @@ public class UserMessageHandlerServiceImplTest {
     @Injectable
     protected MetricRegistry metricRegistry;
 
+    @Injectable
+    protected StageTimingService stageTimingService;
+
     String pmodeKey = "pmodeKey";
 
     private static final String STRING_TYPE = "string";
@@ -363,6 +368,9 @@ public class UserMessageHandlerServiceImplTest {
             messagePropertyValidator.validate(userMessage, MSHRole.RECEIVING);
             times = 1;
 
+            splitAndJoinService.joinReceivedFragment(null, null, null);
+            times = 1;
+
             splitAndJoinService.incrementReceivedFragments(null, "backEndName");
             times = 1;
 
@@ -484,6 +492,9 @@ public class UserMessageHandlerServiceImplTest {
         }
 
         new FullVerifications() {{
+            stageTimingService.start(MessageStage.PAYLOAD_PERSISTENCE);
+            stageTimingService.stop(MessageStage.PAYLOAD_PERSISTENCE);
+
             payloadProfileValidator.validate(userMessage, null, pmodeKey);
             propertyProfileValidator.validate(userMessage, pmodeKey);
             messagingService.storeMessagePayloads(userMessage, null, MSHRole.RECEIVING, legConfiguration, anyString);
@@ -662,6 +673,9 @@ public class UserMessageHandlerServiceImplTest {
         }
 
         new FullVerifications() {{
+            stageTimingService.start(MessageStage.PAYLOAD_PERSISTENCE);
+            stageTimingService.stop(MessageStage.PAYLOAD_PERSISTENCE);
+
             payloadProfileValidator.validate(userMessage, null, pmodeKey);
             times = 1;
 
@@ -701,6 +715,9 @@ public class UserMessageHandlerServiceImplTest {
         }
 
         new FullVerifications() {{
+            stageTimingService.start(MessageStage.PAYLOAD_PERSISTENCE);
+            stageTimingService.stop(MessageStage.PAYLOAD_PERSISTENCE);
+
             payloadProfileValidator.validate(userMessage, null, pmodeKey);
             times = 1;
 
@@ -745,6 +762,9 @@ public class UserMessageHandlerServiceImplTest {
         }
 
         new FullVerifications() {{
+            stageTimingService.start(MessageStage.PAYLOAD_PERSISTENCE);
+            stageTimingService.stop(MessageStage.PAYLOAD_PERSISTENCE);
+
             payloadProfileValidator.validate(userMessage, null, pmodeKey);
             times = 1;
 
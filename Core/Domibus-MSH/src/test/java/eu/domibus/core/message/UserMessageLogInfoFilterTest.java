@@ -1,6 +1,7 @@
 package eu.domibus.core.message;
 
 import com.google.common.collect.ImmutableMap;
+import eu.domibus.api.exceptions.RequestValidationException;
 import eu.domibus.core.message.dictionary.*;
 import mockit.Expectations;
 import mockit.Injectable;
@@ -11,6 +12,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -154,4 +156,48 @@ public class UserMessageLogInfoFilterTest {
         Assert.assertTrue(result.contains("message.service IN :serviceType"));
         Assert.assertTrue(result.contains("message.service IN :serviceValue"));
     }
+
+    @Test
+    public void testFilterQuery_cursorPage() {
+        Map<String, Object> filters = new HashMap<>();
+        filters.put(MessageLogInfoFilter.ENTITY_IDS, Arrays.asList(1L, 2L));
+
+        String result = userMessageLogInfoFilter.filterQuery("select * from table where column = ''", "received", false, filters).toString();
+
+        Assert.assertTrue(result.contains("log.entityId IN :entityIds"));
+        Assert.assertTrue(result.endsWith("order by log.received desc, log.entityId desc"));
+    }
+
+    @Test
+    public void testKeysetQuery_sortOnReceived() {
+        Map<String, Object> filters = ImmutableMap.of("messageId", "111");
+
+        String result = userMessageLogInfoFilter.getKeysetQuery("received", false, filters, true);
+
+        Assert.assertTrue(result.startsWith("select log.entityId, log.received from UserMessageLog log"));
+        Assert.assertTrue(result.contains("message.messageId = :messageId"));
+        Assert.assertTrue(result.contains("and (log.received < :cursorReceived or (log.received = :cursorReceived and log.entityId < :cursorEntityId))"));
+        Assert.assertTrue(result.endsWith("order by log.received desc, log.entityId desc"));
+    }
+
+    @Test
+    public void testKeysetQuery_sortOnEntityId() {
+        String result = userMessageLogInfoFilter.getKeysetQuery(null, true, new HashMap<>(), true);
+
+        Assert.assertTrue(result.contains(" where log.entityId > :cursorEntityId"));
+        Assert.assertTrue(result.endsWith("order by log.entityId asc"));
+    }
+
+    @Test
+    public void testKeysetQuery_firstPage() {
+        String result = userMessageLogInfoFilter.getKeysetQuery("entityId", true, new HashMap<>(), false);
+
+        Assert.assertFalse(result.contains(":cursorEntityId"));
+        Assert.assertTrue(result.endsWith("order by log.entityId asc"));
+    }
+
+    @Test(expected = RequestValidationException.class)
+    public void testKeysetQuery_unsupportedColumn() {
+        userMessageLogInfoFilter.getKeysetQuery("messageId", true, new HashMap<>(), false);
+    }
 }
@@ -0,0 +1,145 @@
+package eu.domibus.core.message.compression;
+
+import eu.domibus.api.property.DomibusPropertyProvider;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class AdaptiveCompressionServiceTest {
+
+    private static final String LEG = "leg1";
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    CompressionStatisticsService compressionStatisticsService;
+
+    AdaptiveCompressionService adaptiveCompressionService;
+
+    @Before
+    public void setUp() {
+        adaptiveCompressionService = new AdaptiveCompressionService(domibusPropertyProvider, compressionStatisticsService);
+    }
+
+    @Test
+    public void isCompressionWorthwhile_randomContent() {
+        mockMinGain(10);
+        final byte[] sample = new byte[16384];
+        new Random(1).nextBytes(sample);
+
+        assertFalse(adaptiveCompressionService.isCompressionWorthwhile("cid:payload", LEG, sample));
+
+        new Verifications() {{
+            compressionStatisticsService.recordSkippedCompression(LEG);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void isCompressionWorthwhile_textContent() {
+        mockMinGain(10);
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 16384; i++) {
+            text.append("<element id=\"").append(i).append("\">value</element>");
+        }
+
+        assertTrue(adaptiveCompressionService.isCompressionWorthwhile("cid:payload", LEG, text.toString().getBytes()));
+
+        new Verifications() {{
+            compressionStatisticsService.recordSkippedCompression(anyString);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void isCompressionWorthwhile_noSample() {
+        assertTrue(adaptiveCompressionService.isCompressionWorthwhile("cid:payload", LEG, null));
+    }
+
+    @Test
+    public void computeEntropy() {
+        assertEquals(0, adaptiveCompressionService.computeEntropy(new byte[100]), 0.0001);
+
+        final byte[] allValues = new byte[256];
+        for (int i = 0; i < allValues.length; i++) {
+            allValues[i] = (byte) i;
+        }
+        assertEquals(8, adaptiveCompressionService.computeEntropy(allValues), 0.0001);
+    }
+
+    @Test
+    public void readSample() throws IOException {
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_ENABLED);
+            result = true;
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_SAMPLE_SIZE);
+            result = 4;
+        }};
+        final byte[] payload = "payload content".getBytes();
+
+        final InputStream inputStream = adaptiveCompressionService.prepareForSampling(new ByteArrayInputStream(payload));
+        final byte[] sample = adaptiveCompressionService.readSample(inputStream);
+
+        assertArrayEquals("payl".getBytes(), sample);
+        final byte[] content = new byte[payload.length];
+        assertEquals(payload.length, inputStream.read(content));
+        assertArrayEquals(payload, content);
+    }
+
+    @Test
+    public void readSample_disabled() throws IOException {
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_ENABLED);
+            result = false;
+        }};
+        final InputStream inputStream = new ByteArrayInputStream("payload content".getBytes());
+
+        assertSame(inputStream, adaptiveCompressionService.prepareForSampling(inputStream));
+        assertNull(adaptiveCompressionService.readSample(inputStream));
+    }
+
+    @Test
+    public void getSampleSize_notSet() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_SAMPLE_SIZE);
+            returns(null, 0);
+        }};
+
+        assertEquals(AdaptiveCompressionService.DEFAULT_SAMPLE_SIZE, adaptiveCompressionService.getSampleSize());
+        assertEquals(AdaptiveCompressionService.DEFAULT_SAMPLE_SIZE, adaptiveCompressionService.getSampleSize());
+    }
+
+    @Test
+    public void getMinGain_notSet() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_MIN_GAIN);
+            result = null;
+        }};
+
+        assertEquals(AdaptiveCompressionService.DEFAULT_MIN_GAIN, adaptiveCompressionService.getMinGain());
+    }
+
+    private void mockMinGain(int minGain) {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_COMPRESSION_ADAPTIVE_MIN_GAIN);
+            result = minGain;
+        }};
+    }
+}
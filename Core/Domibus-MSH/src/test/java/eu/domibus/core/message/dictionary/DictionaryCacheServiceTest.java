@@ -0,0 +1,163 @@
+package eu.domibus.core.message.dictionary;
+
+import eu.domibus.api.model.ActionEntity;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.cache.DomibusCacheServiceNotifier;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DICTIONARY_CACHE_ENABLED;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DICTIONARY_CACHE_MAX_ENTRIES;
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class DictionaryCacheServiceTest {
+
+    private static final String DICTIONARY = "ActionEntity";
+
+    @Injectable
+    DomainContextProvider domainContextProvider;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    DomibusCacheServiceNotifier domibusCacheServiceNotifier;
+
+    DictionaryCacheService dictionaryCacheService;
+
+    @Before
+    public void setUp() {
+        dictionaryCacheService = new DictionaryCacheService(domainContextProvider, domibusPropertyProvider, Collections.singletonList(domibusCacheServiceNotifier));
+    }
+
+    @Test
+    public void addAndGetEntry() {
+        mockCache(true, 10, new Domain("red", "red"));
+        ActionEntity action = createAction(1L, "action1");
+
+        assertNull(dictionaryCacheService.getEntityId(DICTIONARY, Arrays.asList("action1")));
+        dictionaryCacheService.addEntry(DICTIONARY, Arrays.asList("action1"), action);
+
+        assertEquals(Long.valueOf(1L), dictionaryCacheService.getEntityId(DICTIONARY, Arrays.asList("action1")));
+        assertNull(dictionaryCacheService.getEntityId("ServiceEntity", Arrays.asList("action1")));
+        assertEquals(1, dictionaryCacheService.size(DICTIONARY));
+    }
+
+    @Test
+    public void getEntry_otherDomain() {
+        Domain red = new Domain("red", "red");
+        Domain blue = new Domain("blue", "blue");
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_DICTIONARY_CACHE_ENABLED);
+            result = true;
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_DICTIONARY_CACHE_MAX_ENTRIES);
+            result = 10;
+            domainContextProvider.getCurrentDomainSafely();
+            returns(red, blue);
+        }};
+
+        dictionaryCacheService.addEntry(DICTIONARY, Arrays.asList("action1"), createAction(1L, "action1"));
+
+        assertNull(dictionaryCacheService.getEntityId(DICTIONARY, Arrays.asList("action1")));
+    }
+
+    @Test
+    public void addEntries_maxEntries() {
+        mockCache(true, 2, new Domain("red", "red"));
+        Map<List<Object>, Long> entries = new LinkedHashMap<>();
+        for (long i = 0; i < 5; i++) {
+            entries.put(Arrays.asList("action" + i), i);
+        }
+
+        dictionaryCacheService.addEntries(DICTIONARY, entries);
+        dictionaryCacheService.addEntry(DICTIONARY, Arrays.asList("action5"), createAction(5L, "action5"));
+
+        assertEquals(2, dictionaryCacheService.size(DICTIONARY));
+        assertNull(dictionaryCacheService.getEntityId(DICTIONARY, Arrays.asList("action5")));
+    }
+
+    @Test
+    public void cacheDisabled() {
+        mockCache(false, 10, new Domain("red", "red"));
+
+        dictionaryCacheService.addEntry(DICTIONARY, Arrays.asList("action1"), createAction(1L, "action1"));
+        dictionaryCacheService.notifyEntryCreated(DICTIONARY, 1L);
+
+        assertNull(dictionaryCacheService.getEntityId(DICTIONARY, Arrays.asList("action1")));
+        new Verifications() {{
+            domibusCacheServiceNotifier.notifyDictionaryEntryCreated(anyString, anyLong);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void notifyEntryCreated() {
+        mockCache(true, 10, new Domain("red", "red"));
+
+        dictionaryCacheService.notifyEntryCreated(DICTIONARY, 1L);
+
+        new Verifications() {{
+            domibusCacheServiceNotifier.notifyDictionaryEntryCreated(DICTIONARY, 1L);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void notifyEntryCreated_afterCommit() {
+        mockCache(true, 10, new Domain("red", "red"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            dictionaryCacheService.notifyEntryCreated(DICTIONARY, 1L);
+
+            new Verifications() {{
+                domibusCacheServiceNotifier.notifyDictionaryEntryCreated(anyString, anyLong);
+                times = 0;
+            }};
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        new Verifications() {{
+            domibusCacheServiceNotifier.notifyDictionaryEntryCreated(DICTIONARY, 1L);
+            times = 1;
+        }};
+    }
+
+    private void mockCache(boolean enabled, int maxEntries, Domain domain) {
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_DICTIONARY_CACHE_ENABLED);
+            result = enabled;
+            minTimes = 0;
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_DICTIONARY_CACHE_MAX_ENTRIES);
+            result = maxEntries;
+            minTimes = 0;
+            domainContextProvider.getCurrentDomainSafely();
+            result = domain;
+            minTimes = 0;
+        }};
+    }
+
+    private ActionEntity createAction(long entityId, String value) {
+        ActionEntity actionEntity = new ActionEntity();
+        actionEntity.setEntityId(entityId);
+        actionEntity.setValue(value);
+        return actionEntity;
+    }
+}
@@ -4,17 +4,23 @@ import eu.domibus.api.model.MessageState;
 import eu.domibus.api.property.DataBaseEngine;
 import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.api.util.DateUtil;
+import eu.domibus.core.scheduler.ReprogrammableService;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -33,6 +39,9 @@ public class MessagingLockDaoImplTest {
     @Injectable
     private DomibusConfigurationService domibusConfigurationService;
 
+    @Injectable
+    private ReprogrammableService reprogrammableService;
+
     @Tested
     private MessagingLockDaoImpl messagingLockDao;
 
@@ -170,6 +179,167 @@ public class MessagingLockDaoImplTest {
         assertNull(nextPullMessageToProcess);
     }
 
+    @Test
+    public void claimNextPullMessagesToProcess(@Mocked final TypedQuery query, @Mocked final MessagingLock messagingLock) {
+        final String mpc = "mpc", initiator = "domibus-red";
+        final Date leaseExpiration = new Date(System.currentTimeMillis() + 60000);
+        new Expectations() {{
+            domibusConfigurationService.getDataBaseEngine();
+            result = DataBaseEngine.MYSQL;
+
+            entityManager.createNamedQuery("MessagingLock.lockBatchQuerySkipBlocked_MySQL", MessagingLock.class);
+            result = query;
+
+            query.getResultList();
+            result = Arrays.asList(messagingLock, messagingLock);
+        }};
+
+        final List<MessagingLock> messagingLocks = messagingLockDao.claimNextPullMessagesToProcess(initiator, mpc, 10, leaseExpiration);
+
+        assertEquals(2, messagingLocks.size());
+        new Verifications() {{
+            ((Query) query).setParameter("BATCH_SIZE", 10);
+            reprogrammableService.setRescheduleInfo(messagingLock, leaseExpiration);
+            times = 2;
+        }};
+    }
+
+    @Test
+    public void claimNextPullMessagesToProcess_oracle(@Mocked final TypedQuery query,
+                                                      @Mocked final org.hibernate.query.Query hibernateQuery,
+                                                      @Mocked final ScrollableResults results,
+                                                      @Mocked final MessagingLock messagingLock) {
+        final Date leaseExpiration = new Date(System.currentTimeMillis() + 60000);
+        new Expectations() {{
+            domibusConfigurationService.getDataBaseEngine();
+            result = DataBaseEngine.ORACLE;
+
+            entityManager.createNamedQuery("MessagingLock.lockBatchQuerySkipBlocked_Oracle", MessagingLock.class);
+            result = query;
+
+            query.unwrap(org.hibernate.query.Query.class);
+            result = hibernateQuery;
+
+            hibernateQuery.setFetchSize(2);
+            result = hibernateQuery;
+
+            hibernateQuery.scroll(ScrollMode.FORWARD_ONLY);
+            result = results;
+
+            results.next();
+            result = true;
+
+            results.get(0);
+            result = messagingLock;
+        }};
+
+        final List<MessagingLock> messagingLocks = messagingLockDao.claimNextPullMessagesToProcess("domibus-red", "mpc", 2, leaseExpiration);
+
+        assertEquals(2, messagingLocks.size());
+        new Verifications() {{
+            ((Query) query).setParameter("BATCH_SIZE", anyInt);
+            times = 0;
+            results.next();
+            times = 2;
+            results.close();
+            reprogrammableService.setRescheduleInfo(messagingLock, leaseExpiration);
+            times = 2;
+        }};
+    }
+
+    @Test
+    public void getClaimedPullMessageToProcess(@Mocked final MessagingLock messagingLock) {
+        final Date staled = new Date(System.currentTimeMillis() + 20000);
+        final Date leaseExpiration = new Date(System.currentTimeMillis() + 60000);
+        new Expectations() {{
+            entityManager.find(MessagingLock.class, 1L, LockModeType.PESSIMISTIC_WRITE);
+            result = messagingLock;
+
+            messagingLock.getMessageState();
+            result = MessageState.READY;
+
+            messagingLock.getNextAttempt();
+            result = new Date(leaseExpiration.getTime());
+
+            dateUtil.getUtcDate();
+            result = new Date();
+
+            messagingLock.getMessageId();
+            result = "messageId";
+
+            messagingLock.getSendAttempts();
+            result = 1;
+
+            messagingLock.getSendAttemptsMax();
+            result = 5;
+
+            messagingLock.getStaled();
+            result = staled;
+        }};
+
+        final PullMessageId pullMessageId = messagingLockDao.getClaimedPullMessageToProcess(1L, leaseExpiration);
+
+        assertEquals("messageId", pullMessageId.getMessageId());
+        assertEquals(PullMessageState.RETRY, pullMessageId.getState());
+        new Verifications() {{
+            messagingLock.setMessageState(MessageState.PROCESS);
+        }};
+    }
+
+    @Test
+    public void getClaimedPullMessageToProcess_alreadyProcessed(@Mocked final MessagingLock messagingLock) {
+        new Expectations() {{
+            entityManager.find(MessagingLock.class, 1L, LockModeType.PESSIMISTIC_WRITE);
+            result = messagingLock;
+
+            messagingLock.getMessageState();
+            result = MessageState.WAITING;
+        }};
+
+        assertNull(messagingLockDao.getClaimedPullMessageToProcess(1L, new Date(System.currentTimeMillis() + 60000)));
+    }
+
+    @Test
+    public void getClaimedPullMessageToProcess_claimedByAnotherNode(@Mocked final MessagingLock messagingLock) {
+        final Date leaseExpiration = new Date(System.currentTimeMillis() + 60000);
+        new Expectations() {{
+            entityManager.find(MessagingLock.class, 1L, LockModeType.PESSIMISTIC_WRITE);
+            result = messagingLock;
+
+            messagingLock.getMessageState();
+            result = MessageState.READY;
+
+            messagingLock.getNextAttempt();
+            result = new Date(leaseExpiration.getTime() + 1000);
+        }};
+
+        assertNull(messagingLockDao.getClaimedPullMessageToProcess(1L, leaseExpiration));
+        new Verifications() {{
+            messagingLock.setMessageState((MessageState) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void getClaimedPullMessageToProcess_leaseExpired(@Mocked final MessagingLock messagingLock) {
+        final Date leaseExpiration = new Date(System.currentTimeMillis() - 1000);
+        new Expectations() {{
+            entityManager.find(MessagingLock.class, 1L, LockModeType.PESSIMISTIC_WRITE);
+            result = messagingLock;
+
+            messagingLock.getMessageState();
+            result = MessageState.READY;
+
+            messagingLock.getNextAttempt();
+            result = new Date(leaseExpiration.getTime());
+
+            dateUtil.getUtcDate();
+            result = new Date();
+        }};
+
+        assertNull(messagingLockDao.getClaimedPullMessageToProcess(1L, leaseExpiration));
+    }
+
     @Test
     public void delete(@Mocked final Query query) {
         final String messageId = "messageId";
@@ -81,6 +81,9 @@ public class PullMessageEbms3ServiceImplTest {
     @Injectable
     private ReprogrammableService reprogrammableService;
 
+    @Injectable
+    private PullMessageLeaseService pullMessageLeaseService;
+
     @Tested
     private PullMessageServiceImpl pullMessageService;
 
@@ -121,6 +124,34 @@ public class PullMessageEbms3ServiceImplTest {
 
     }
 
+    @Test
+    public void getPullMessageIdBatchPull(@Mocked final PullMessageId pullMessageId) {
+        final String initiator = "initiator";
+        final String mpc = "mpc";
+        final String messageId = "messageId";
+
+        new Expectations() {{
+            pullMessageLeaseService.isBatchPullEnabled();
+            result = true;
+
+            pullMessageLeaseService.getNextPullMessageToProcess(initiator, mpc);
+            result = pullMessageId;
+
+            pullMessageId.getMessageId();
+            result = messageId;
+
+            pullMessageId.getState();
+            result = PullMessageState.FIRST_ATTEMPT;
+        }};
+
+        assertEquals(messageId, pullMessageService.getPullMessageId(initiator, mpc));
+
+        new Verifications() {{
+            messagingLockDao.getNextPullMessageToProcess(anyString, anyString);
+            times = 0;
+        }};
+    }
+
     @Test
     public void getPullMessageIdExpired(@Mocked final MessagingLock messagingLock, @Mocked final PullMessageId pullMessageId) {
         final String initiator = "initiator";
@@ -157,6 +188,9 @@ public class PullMessageEbms3ServiceImplTest {
         final String messageId = "messageId";
         final long id = 99;
         new Expectations() {{
+            pullMessageLeaseService.isBatchPullEnabled();
+            result = false;
+
 
             messagingLockDao.getNextPullMessageToProcess(initiator, mpc);
             result = pullMessageId;
@@ -0,0 +1,135 @@
+package eu.domibus.core.message.pull;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mocked;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PULL_LEASE_BATCH_SIZE;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PULL_LEASE_DURATION;
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class PullMessageLeaseServiceTest {
+
+    private static final String INITIATOR = "initiator";
+
+    private static final String MPC = "mpc";
+
+    @Injectable
+    MessagingLockDao messagingLockDao;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    DomainContextProvider domainContextProvider;
+
+    PullMessageLeaseService pullMessageLeaseService;
+
+    @Before
+    public void setUp() {
+        pullMessageLeaseService = new PullMessageLeaseService(messagingLockDao, domibusPropertyProvider, domainContextProvider);
+    }
+
+    @Test
+    public void getNextPullMessageToProcess_claimsOnceAndServesFromMemory(@Mocked MessagingLock lock1, @Mocked MessagingLock lock2) {
+        final PullMessageId pullMessageId1 = new PullMessageId("message1");
+        final PullMessageId pullMessageId2 = new PullMessageId("message2");
+        new Expectations() {{
+            domainContextProvider.getCurrentDomain();
+            result = new Domain("red", "red");
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LEASE_BATCH_SIZE);
+            result = 10;
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LEASE_DURATION);
+            result = 60;
+
+            messagingLockDao.claimNextPullMessagesToProcess(INITIATOR, MPC, 10, (Date) any);
+            result = Arrays.asList(lock1, lock2);
+            times = 1;
+            lock1.getEntityId();
+            result = 1L;
+            lock2.getEntityId();
+            result = 2L;
+
+            messagingLockDao.getClaimedPullMessageToProcess(1L, (Date) any);
+            result = pullMessageId1;
+            messagingLockDao.getClaimedPullMessageToProcess(2L, (Date) any);
+            result = pullMessageId2;
+        }};
+
+        assertSame(pullMessageId1, pullMessageLeaseService.getNextPullMessageToProcess(INITIATOR, MPC));
+        assertSame(pullMessageId2, pullMessageLeaseService.getNextPullMessageToProcess(INITIATOR, MPC));
+    }
+
+    @Test
+    public void getNextPullMessageToProcess_noMessage() {
+        new Expectations() {{
+            domainContextProvider.getCurrentDomain();
+            result = new Domain("red", "red");
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LEASE_BATCH_SIZE);
+            result = 10;
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LEASE_DURATION);
+            result = 60;
+            messagingLockDao.claimNextPullMessagesToProcess(INITIATOR, MPC, 10, (Date) any);
+            result = Collections.emptyList();
+        }};
+
+        assertNull(pullMessageLeaseService.getNextPullMessageToProcess(INITIATOR, MPC));
+    }
+
+    @Test
+    public void getNextPullMessageToProcess_expiredLeaseSkipped() {
+        final ConcurrentLinkedQueue<PullMessageLease> queue = new ConcurrentLinkedQueue<>();
+        queue.add(new PullMessageLease(1L, "expired", new Date(System.currentTimeMillis() - 1000)));
+        queue.add(new PullMessageLease(2L, "leased", new Date(System.currentTimeMillis() + 60000)));
+        final PullMessageId pullMessageId = new PullMessageId("leased");
+        new Expectations() {{
+            messagingLockDao.getClaimedPullMessageToProcess(2L, (Date) any);
+            result = pullMessageId;
+        }};
+
+        assertSame(pullMessageId, pullMessageLeaseService.getNextPullMessageToProcess(queue));
+
+        new Verifications() {{
+            messagingLockDao.getClaimedPullMessageToProcess(1L, (Date) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void onDomainRemoved() {
+        pullMessageLeaseService.leases.put("red|initiator|mpc", new ConcurrentLinkedQueue<>());
+        pullMessageLeaseService.leases.put("blue|initiator|mpc", new ConcurrentLinkedQueue<>());
+
+        pullMessageLeaseService.onDomainRemoved(new Domain("red", "red"));
+
+        assertEquals(Collections.singleton("blue|initiator|mpc"), pullMessageLeaseService.leases.keySet());
+    }
+
+    @Test
+    public void isBatchPullEnabled() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LEASE_BATCH_SIZE);
+            returns(1, 5);
+        }};
+
+        assertFalse(pullMessageLeaseService.isBatchPullEnabled());
+        assertTrue(pullMessageLeaseService.isBatchPullEnabled());
+    }
+}
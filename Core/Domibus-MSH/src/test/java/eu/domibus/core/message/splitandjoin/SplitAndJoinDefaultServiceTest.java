@@ -51,13 +51,9 @@ import javax.xml.transform.TransformerException;
 import java.io.*;
 import java.math.BigInteger;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static eu.domibus.core.message.splitandjoin.SplitAndJoinDefaultService.ERROR_GENERATING_THE_SIGNAL_SOAPMESSAGE_FOR_SOURCE_MESSAGE;
 import static org.junit.Assert.*;
@@ -811,6 +807,7 @@ public class SplitAndJoinDefaultServiceTest {
         new FullVerifications() {{
             messageGroupEntity.setRejected(true);
             messageGroupDao.update(messageGroupEntity);
+            domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
         }};
     }
 
@@ -850,6 +847,7 @@ public class SplitAndJoinDefaultServiceTest {
         new FullVerifications() {{
             messageGroupEntity.setRejected(true);
             messageGroupDao.update(messageGroupEntity);
+            domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
 
             List<UserMessage> messageIds;
             messageRetentionService.scheduleDeleteMessages(messageIds = withCapture());
@@ -891,6 +889,7 @@ public class SplitAndJoinDefaultServiceTest {
         new FullVerifications() {{
             messageGroupEntity.setRejected(true);
             messageGroupDao.update(messageGroupEntity);
+            domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
 
             messageRetentionService.scheduleDeleteMessages(fragments);
             times = 1;
@@ -904,7 +903,7 @@ public class SplitAndJoinDefaultServiceTest {
         String groupId = "123";
 
         new Expectations() {{
-            messageGroupDao.findByGroupId(groupId);
+            messageGroupDao.incrementSentFragments(groupId);
             result = messageGroupEntity;
         }};
 
@@ -912,8 +911,7 @@ public class SplitAndJoinDefaultServiceTest {
 
         new Verifications() {{
             messageGroupDao.update(messageGroupEntity);
-            messageGroupEntity.incrementSentFragments();
-
+            times = 0;
         }};
     }
 
@@ -926,7 +924,7 @@ public class SplitAndJoinDefaultServiceTest {
             messageGroupEntity.getGroupId();
             result = groupId;
 
-            messageGroupDao.findByGroupId(groupId);
+            messageGroupDao.incrementReceivedFragments(groupId);
             result = messageGroupEntity;
 
             messageGroupEntity.getReceivedFragments();
@@ -939,10 +937,50 @@ public class SplitAndJoinDefaultServiceTest {
         splitAndJoinDefaultService.incrementReceivedFragments(groupId, backendName);
 
         new Verifications() {{
-            messageGroupEntity.incrementReceivedFragments();
-            messageGroupDao.update(messageGroupEntity);
             userMessageService.scheduleSourceMessageRejoinFile(groupId, backendName);
+            times = 1;
+            messageGroupDao.update(messageGroupEntity);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void incrementReceivedFragments_notAllReceived(@Injectable MessageGroupEntity messageGroupEntity) {
+        String groupId = "123";
+
+        new Expectations() {{
+            messageGroupDao.incrementReceivedFragments(groupId);
+            result = messageGroupEntity;
+
+            messageGroupEntity.getReceivedFragments();
+            result = 1;
+
+            messageGroupEntity.getFragmentCount();
+            result = 2;
+        }};
+
+        splitAndJoinDefaultService.incrementReceivedFragments(groupId, "mybackend");
+
+        new Verifications() {{
+            userMessageService.scheduleSourceMessageRejoinFile(anyString, anyString);
+            times = 0;
+        }};
+    }
 
+    @Test
+    public void incrementReceivedFragments_groupNotFound() {
+        String groupId = "123";
+
+        new Expectations() {{
+            messageGroupDao.incrementReceivedFragments(groupId);
+            result = null;
+        }};
+
+        splitAndJoinDefaultService.incrementReceivedFragments(groupId, "mybackend");
+
+        new Verifications() {{
+            userMessageService.scheduleSourceMessageRejoinFile(anyString, anyString);
+            times = 0;
         }};
     }
 
@@ -983,6 +1021,12 @@ public class SplitAndJoinDefaultServiceTest {
         Assert.assertEquals(2, fragmentFiles.size());
         Assert.assertTrue(fragmentFiles.stream().anyMatch(s -> s.contains("file.txt_1")));
         Assert.assertTrue(fragmentFiles.stream().anyMatch(s -> s.contains("file.txt_2")));
+
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (String fragmentFile : fragmentFiles) {
+            joined.write(FileUtils.readFileToByteArray(new File(fragmentFile)));
+        }
+        Assert.assertArrayEquals(b, joined.toByteArray());
     }
 
     @Test
@@ -1009,30 +1053,213 @@ public class SplitAndJoinDefaultServiceTest {
         fragmentFilesInOrder.add(file2);
         final File temporaryDirectoryLocation = testFolder.getRoot();
 
-        final File sourceFile = testFolder.newFile("sourceFile.txt");
-        String sourceFileName = sourceFile.getAbsolutePath();
+        new Expectations(splitAndJoinDefaultService) {{
+            domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
+            result = temporaryDirectoryLocation.getAbsolutePath();
+
+            splitAndJoinDefaultService.isSourceMessageCompressed(messageGroupEntity);
+            result = false;
+
+            messageGroupEntity.getEntityId();
+            result = ENTITY_ID;
+        }};
+
+        final File result = splitAndJoinDefaultService.mergeSourceFile(fragmentFilesInOrder, messageGroupEntity);
+
+        assertEquals(new File(temporaryDirectoryLocation, SplitAndJoinDefaultService.JOINED_FILE_PREFIX + ENTITY_ID), result);
+        assertEquals("text1text2", FileUtils.readFileToString(result, Charset.defaultCharset()));
+    }
+
+    @Test
+    public void mergeSourceFile_alreadyJoined(@Injectable MessageGroupEntity messageGroupEntity) throws IOException {
+        final File temporaryDirectoryLocation = testFolder.getRoot();
+        final File joinedFile = new File(temporaryDirectoryLocation, SplitAndJoinDefaultService.JOINED_FILE_PREFIX + ENTITY_ID);
+        FileUtils.writeStringToFile(joinedFile, "text1text2", Charset.defaultCharset());
+        splitAndJoinDefaultService.markFragmentJoined(joinedFile, 1L);
+        splitAndJoinDefaultService.markFragmentJoined(joinedFile, 2L);
 
         new Expectations(splitAndJoinDefaultService) {{
             domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
             result = temporaryDirectoryLocation.getAbsolutePath();
 
-            splitAndJoinDefaultService.generateSourceFileName(temporaryDirectoryLocation.getAbsolutePath());
-            result = sourceFileName;
+            splitAndJoinDefaultService.isSourceMessageCompressed(messageGroupEntity);
+            result = false;
+
+            messageGroupEntity.getEntityId();
+            result = ENTITY_ID;
+
+            messageGroupEntity.getMessageSize();
+            result = BigInteger.valueOf(10);
+
+            messageGroupEntity.getFragmentCount();
+            result = 2L;
+        }};
+
+        final File result = splitAndJoinDefaultService.mergeSourceFile(Collections.singletonList(new File("missing")), messageGroupEntity);
+
+        assertEquals(joinedFile, result);
+        assertFalse(splitAndJoinDefaultService.getJoinedFragmentsDirectory(joinedFile).exists());
+        new Verifications() {{
+            splitAndJoinDefaultService.mergeFiles((List<File>) any, (File) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void mergeSourceFile_fragmentNotJoined(@Injectable MessageGroupEntity messageGroupEntity) throws IOException {
+        final File temporaryDirectoryLocation = testFolder.newFolder("temp");
+        final File fragment1 = testFolder.newFile("fragment_1");
+        FileUtils.writeStringToFile(fragment1, "text1", Charset.defaultCharset());
+        final File fragment2 = testFolder.newFile("fragment_2");
+        FileUtils.writeStringToFile(fragment2, "text2", Charset.defaultCharset());
+        // only the last fragment was written on this node: the joined file has its full length but starts with a hole
+        final File joinedFile = new File(temporaryDirectoryLocation, SplitAndJoinDefaultService.JOINED_FILE_PREFIX + ENTITY_ID);
+        FileUtils.writeByteArrayToFile(joinedFile, new byte[5]);
+        FileUtils.writeStringToFile(joinedFile, "text2", Charset.defaultCharset(), true);
+        splitAndJoinDefaultService.markFragmentJoined(joinedFile, 2L);
+
+        new Expectations(splitAndJoinDefaultService) {{
+            domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
+            result = temporaryDirectoryLocation.getAbsolutePath();
 
             splitAndJoinDefaultService.isSourceMessageCompressed(messageGroupEntity);
             result = false;
 
-            splitAndJoinDefaultService.mergeFiles(fragmentFilesInOrder, (OutputStream) any);
+            messageGroupEntity.getEntityId();
+            result = ENTITY_ID;
 
+            messageGroupEntity.getMessageSize();
+            result = BigInteger.valueOf(10);
+
+            messageGroupEntity.getFragmentCount();
+            result = 2L;
         }};
 
-        final File result = splitAndJoinDefaultService.mergeSourceFile(fragmentFilesInOrder, messageGroupEntity);
+        final File result = splitAndJoinDefaultService.mergeSourceFile(Arrays.asList(fragment1, fragment2), messageGroupEntity);
+
+        assertEquals(joinedFile, result);
+        assertEquals("text1text2", FileUtils.readFileToString(result, Charset.defaultCharset()));
+        assertFalse(splitAndJoinDefaultService.getJoinedFragmentsDirectory(joinedFile).exists());
+    }
+
+    @Test
+    public void mergeSourceFile_compressed(@Injectable MessageGroupEntity messageGroupEntity) throws IOException {
+        final File sourceFile = testFolder.newFile("source.txt");
+        final String content = StringUtils.repeat("mycontent", 1000);
+        FileUtils.writeStringToFile(sourceFile, content, Charset.defaultCharset());
+        final File compressedFile = splitAndJoinDefaultService.compressSourceMessage(sourceFile.getAbsolutePath());
+        final List<String> fragments = splitAndJoinDefaultService.splitSourceFileIntoFragments(compressedFile, testFolder.getRoot(), 2, compressedFile.length() / 3, compressedFile.length() % 3 + compressedFile.length() / 3);
+        final File temporaryDirectoryLocation = testFolder.newFolder("temp");
+
+        new Expectations(splitAndJoinDefaultService) {{
+            domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
+            result = temporaryDirectoryLocation.getAbsolutePath();
+
+            splitAndJoinDefaultService.isSourceMessageCompressed(messageGroupEntity);
+            result = true;
+        }};
+
+        final File result = splitAndJoinDefaultService.mergeSourceFile(fragments.stream().map(File::new).collect(Collectors.toList()), messageGroupEntity);
+
+        assertEquals(3, fragments.size());
+        assertEquals(temporaryDirectoryLocation, result.getParentFile());
+        assertEquals(content, FileUtils.readFileToString(result, Charset.defaultCharset()));
+    }
+
+    @Test
+    public void joinReceivedFragment(@Injectable MessageGroupEntity messageGroupEntity,
+                                     @Injectable PartInfo partInfo) throws IOException {
+        String groupId = "123";
+        final File sourceFile = testFolder.newFile("source.txt");
+        byte[] content = new byte[2500];
+        new Random().nextBytes(content);
+        FileUtils.writeByteArrayToFile(sourceFile, content);
+        final List<String> fragments = splitAndJoinDefaultService.splitSourceFileIntoFragments(sourceFile, testFolder.getRoot(), 2, 1000, 500);
+        final File temporaryDirectoryLocation = testFolder.newFolder("temp");
+
+        new Expectations() {{
+            messageGroupDao.findByGroupId(groupId);
+            result = messageGroupEntity;
+
+            domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
+            result = temporaryDirectoryLocation.getAbsolutePath();
+
+            messageGroupEntity.getEntityId();
+            result = ENTITY_ID;
+
+            messageGroupEntity.getFragmentCount();
+            result = 3L;
+
+            messageGroupEntity.getMessageSize();
+            result = BigInteger.valueOf(2500);
+
+            partInfo.getFileName();
+            returns(fragments.get(2), fragments.get(0), fragments.get(1));
+        }};
+
+        // the fragments are received out of order
+        for (long fragmentNumber : new long[]{3, 1, 2}) {
+            splitAndJoinDefaultService.joinReceivedFragment(groupId, fragmentNumber, Collections.singletonList(partInfo));
+        }
+
+        final File joinedFile = new File(temporaryDirectoryLocation, SplitAndJoinDefaultService.JOINED_FILE_PREFIX + ENTITY_ID);
+        assertArrayEquals(content, FileUtils.readFileToByteArray(joinedFile));
+        assertTrue(splitAndJoinDefaultService.isJoinedFileComplete(joinedFile, messageGroupEntity));
+    }
+
+    @Test
+    public void joinReceivedFragment_unknownPosition(@Injectable MessageGroupEntity messageGroupEntity,
+                                                     @Injectable PartInfo partInfo) throws IOException {
+        String groupId = "123";
+        final File fragmentFile = testFolder.newFile("fragment_2");
+        FileUtils.writeStringToFile(fragmentFile, "text2", Charset.defaultCharset());
+        final File temporaryDirectoryLocation = testFolder.newFolder("temp");
+
+        new Expectations() {{
+            messageGroupDao.findByGroupId(groupId);
+            result = messageGroupEntity;
+
+            domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
+            result = temporaryDirectoryLocation.getAbsolutePath();
+
+            messageGroupEntity.getEntityId();
+            result = ENTITY_ID;
+
+            messageGroupEntity.getFragmentCount();
+            result = 2L;
+
+            messageGroupEntity.getMessageSize();
+            result = null;
+
+            partInfo.getFileName();
+            result = fragmentFile.getAbsolutePath();
+        }};
+
+        splitAndJoinDefaultService.joinReceivedFragment(groupId, 2L, Collections.singletonList(partInfo));
+
+        final File joinedFile = new File(temporaryDirectoryLocation, SplitAndJoinDefaultService.JOINED_FILE_PREFIX + ENTITY_ID);
+        assertTrue(splitAndJoinDefaultService.getIncompleteJoinMarker(joinedFile).exists());
+        assertFalse(splitAndJoinDefaultService.isJoinedFileComplete(joinedFile, messageGroupEntity));
+    }
+
+    @Test
+    public void joinReceivedFragment_compressed(@Injectable MessageGroupEntity messageGroupEntity,
+                                                @Injectable PartInfo partInfo) {
+        String groupId = "123";
+
+        new Expectations(splitAndJoinDefaultService) {{
+            messageGroupDao.findByGroupId(groupId);
+            result = messageGroupEntity;
+
+            splitAndJoinDefaultService.isSourceMessageCompressed(messageGroupEntity);
+            result = true;
+        }};
+
+        splitAndJoinDefaultService.joinReceivedFragment(groupId, 1L, Collections.singletonList(partInfo));
 
-        assertNotNull(result);
         new Verifications() {{
-            OutputStream outputStream;
-            splitAndJoinDefaultService.mergeFiles(fragmentFilesInOrder, outputStream = withCapture());
-            Assert.assertTrue(outputStream instanceof FileOutputStream);
+            partInfo.getFileName();
+            times = 0;
         }};
     }
 
@@ -1055,7 +1282,7 @@ public class SplitAndJoinDefaultServiceTest {
         final File compressSourceMessage = splitAndJoinDefaultService.compressSourceMessage(file1.getAbsolutePath());
 
         final File decompressed = testFolder.newFile("file1_decompressed.txt");
-        splitAndJoinDefaultService.decompressGzip(compressSourceMessage, decompressed);
+        splitAndJoinDefaultService.decompressGzip(Collections.singletonList(compressSourceMessage), decompressed);
         Assert.assertEquals(text1, FileUtils.readFileToString(decompressed, Charset.defaultCharset()));
     }
 
@@ -1080,30 +1307,18 @@ public class SplitAndJoinDefaultServiceTest {
     }
 
 
-    @SuppressWarnings("AccessStaticViaInstance")
     @Test
-    public void mergeFilesTest(@Mocked File file1,
-                               @Mocked File file2,
-                               @Injectable OutputStream mergingStream,
-                               @Injectable Files files,
-                               @Injectable Path path) throws IOException {
-        List<File> filesList = new ArrayList<>();
-        filesList.add(file1);
-        filesList.add(file2);
-        new Expectations(splitAndJoinDefaultService) {
-            {
-                file1.toPath();
-                result = path;
-            }
-        };
-        splitAndJoinDefaultService.mergeFiles(filesList, mergingStream);
-        new Verifications() {{
-            files.copy(path, mergingStream);
-            times = 2;
-            mergingStream.flush();
-            times = 2;
-        }};
+    public void mergeFilesTest() throws IOException {
+        final File file1 = testFolder.newFile("file1.txt");
+        FileUtils.writeStringToFile(file1, "text1", Charset.defaultCharset());
+        final File file2 = testFolder.newFile("file2.txt");
+        FileUtils.writeStringToFile(file2, "text2", Charset.defaultCharset());
+        final File mergedFile = testFolder.newFile("merged.txt");
+        FileUtils.writeStringToFile(mergedFile, "previous content", Charset.defaultCharset());
+
+        splitAndJoinDefaultService.mergeFiles(Arrays.asList(file1, file2), mergedFile);
 
+        assertEquals("text1text2", FileUtils.readFileToString(mergedFile, Charset.defaultCharset()));
     }
 
     @Test
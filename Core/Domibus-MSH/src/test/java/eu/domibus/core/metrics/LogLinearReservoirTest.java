@@ -0,0 +1,50 @@
+package eu.domibus.core.metrics;
+
+import com.codahale.metrics.Snapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @since 5.2
+ */
+public class LogLinearReservoirTest {
+
+    @Test
+    public void bucketsCoverAllValues() {
+        int previousIndex = -1;
+        for (long value = 0; value < 100_000; value++) {
+            final int index = LogLinearReservoir.getBucketIndex(value);
+            Assert.assertTrue(index == previousIndex || index == previousIndex + 1);
+            Assert.assertTrue(LogLinearReservoir.getLowestValue(index) <= value);
+            previousIndex = index;
+        }
+        Assert.assertEquals(LogLinearReservoir.BUCKET_COUNT - 1, LogLinearReservoir.getBucketIndex(LogLinearReservoir.MAX_VALUE));
+    }
+
+    @Test
+    public void quantilesWithinOnePercent() {
+        LogLinearReservoir reservoir = new LogLinearReservoir();
+        for (long value = 1; value <= 10_000; value++) {
+            reservoir.update(value * 1_000);
+        }
+
+        Snapshot snapshot = reservoir.getSnapshot();
+
+        Assert.assertEquals(10_000, snapshot.size());
+        Assert.assertEquals(1_000, snapshot.getMin());
+        Assert.assertEquals(10_000_000, snapshot.getMax());
+        Assert.assertEquals(5_000_000, snapshot.getMedian(), 50_000);
+        Assert.assertEquals(9_900_000, snapshot.get99thPercentile(), 99_000);
+        Assert.assertEquals(5_000_500, snapshot.getMean(), 1);
+    }
+
+    @Test
+    public void emptySnapshot() {
+        Snapshot snapshot = new LogLinearReservoir().getSnapshot();
+
+        Assert.assertEquals(0, snapshot.size());
+        Assert.assertEquals(0, snapshot.getMax());
+        Assert.assertEquals(0, snapshot.getMedian(), 0);
+        Assert.assertEquals(0, snapshot.getValues().length);
+    }
+}
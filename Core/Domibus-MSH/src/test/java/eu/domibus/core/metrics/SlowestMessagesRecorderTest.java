@@ -0,0 +1,52 @@
+package eu.domibus.core.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * @since 5.2
+ */
+public class SlowestMessagesRecorderTest {
+
+    @Test
+    public void keepsTheSlowestMessages() {
+        SlowestMessagesRecorder recorder = new SlowestMessagesRecorder(2);
+        StageTimingContext context = new StageTimingContext();
+
+        record(recorder, context, "fast", 1_000_000L);
+        record(recorder, context, "slowest", 5_000_000L);
+        record(recorder, context, "slow", 3_000_000L);
+        record(recorder, context, "faster", 500_000L);
+
+        List<SlowMessage> slowestMessages = recorder.getSlowestMessages();
+        Assert.assertEquals(2, slowestMessages.size());
+        Assert.assertEquals("slowest", slowestMessages.get(0).getMessageId());
+        Assert.assertEquals(5, slowestMessages.get(0).getTotalMillis(), 0);
+        Assert.assertEquals("slow", slowestMessages.get(1).getMessageId());
+        Assert.assertEquals(2, slowestMessages.get(1).getStageMillis().get(MessageStage.HTTP_DISPATCH.getMetricName()), 0);
+    }
+
+    @Test
+    public void clear() {
+        SlowestMessagesRecorder recorder = new SlowestMessagesRecorder(1);
+        StageTimingContext context = new StageTimingContext();
+        record(recorder, context, "slow", 3_000_000L);
+
+        recorder.clear();
+        record(recorder, context, "fast", 1_000_000L);
+
+        List<SlowMessage> slowestMessages = recorder.getSlowestMessages();
+        Assert.assertEquals(1, slowestMessages.size());
+        Assert.assertEquals("fast", slowestMessages.get(0).getMessageId());
+    }
+
+    private void record(SlowestMessagesRecorder recorder, StageTimingContext context, String messageId, long totalNanos) {
+        context.begin(MessagePipeline.SEND, messageId, "default", System.currentTimeMillis(), 0);
+        context.start(MessageStage.HTTP_DISPATCH, 0);
+        context.stop(MessageStage.HTTP_DISPATCH, 2_000_000L);
+        recorder.record(context, totalNanos);
+        context.finish();
+    }
+}
@@ -3,22 +3,33 @@ package eu.domibus.core.payload.persistence;
 import eu.domibus.api.model.PartInfo;
 import eu.domibus.api.model.UserMessage;
 import eu.domibus.api.payload.encryption.PayloadEncryptionService;
+import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.common.model.configuration.LegConfiguration;
 import eu.domibus.core.ebms3.EbMS3Exception;
+import eu.domibus.core.message.compression.AdaptiveCompressionService;
 import eu.domibus.core.message.compression.CompressionService;
+import eu.domibus.core.message.compression.CompressionStatisticsService;
+import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorage;
 import eu.domibus.core.plugin.notification.BackendNotificationService;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
 import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
 import javax.crypto.Cipher;
-import javax.crypto.CipherOutputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.GZIPOutputStream;
+import java.security.MessageDigest;
+import java.util.zip.GZIPInputStream;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_DATABASE_STREAMING_ENABLED;
+import static org.junit.Assert.*;
 
 /**
  * @author Cosmin Baciu
@@ -39,48 +50,50 @@ public class DatabasePayloadPersistenceTest {
     @Injectable
     protected PayloadEncryptionService encryptionService;
 
+    @Injectable
+    protected PayloadBufferPool payloadBufferPool;
+
+    @Injectable
+    protected DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    protected AdaptiveCompressionService adaptiveCompressionService;
+
+    @Injectable
+    protected CompressionStatisticsService compressionStatisticsService;
+
     @Tested
     DatabasePayloadPersistence databasePayloadPersistence;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 
     @Test
     public void testStoreIncomingPayload(@Injectable PartInfo partInfo,
                                          @Injectable UserMessage userMessage,
                                          @Injectable LegConfiguration legConfiguration,
-                                         @Injectable String backendName,
                                          @Injectable InputStream inputStream,
-                                         @Mocked ByteArrayOutputStream byteArrayOutputStream,
-                                         @Injectable Cipher encryptCipherForPayload,
-                                         @Mocked CipherOutputStream cipherOutputStream,
-                                         @Mocked IOUtils ioUtils) throws IOException {
+                                         @Injectable Cipher encryptCipherForPayload) throws IOException {
         final byte[] binaryData = "test".getBytes();
 
         new Expectations(databasePayloadPersistence) {{
-            new ByteArrayOutputStream(PayloadPersistence.DEFAULT_BUFFER_SIZE);
-            result = byteArrayOutputStream;
-
-            byteArrayOutputStream.toByteArray();
-            result = binaryData;
-
             payloadPersistenceHelper.isPayloadEncryptionActive(userMessage);
             result = true;
 
             encryptionService.getEncryptCipherForPayload();
             result = encryptCipherForPayload;
 
-            new CipherOutputStream(byteArrayOutputStream, encryptCipherForPayload);
-            result = cipherOutputStream;
-
             partInfo.getPayloadDatahandler().getInputStream();
             result = inputStream;
 
-            IOUtils.copy(inputStream, cipherOutputStream, PayloadPersistence.DEFAULT_BUFFER_SIZE);
+            databasePayloadPersistence.storeBinaryData(partInfo, inputStream, encryptCipherForPayload, false);
+            result = binaryData.length;
         }};
 
         databasePayloadPersistence.storeIncomingPayload(partInfo, userMessage, legConfiguration);
 
         new Verifications() {{
-            partInfo.setBinaryData(binaryData);
             partInfo.setLength(binaryData.length);
             partInfo.setFileName(null);
             partInfo.setEncrypted(true);
@@ -111,8 +124,8 @@ public class DatabasePayloadPersistenceTest {
             payloadPersistenceHelper.isPayloadEncryptionActive(userMessage);
             result = false;
 
-            databasePayloadPersistence.getOutgoingBinaryData(partInfo, inputStream, userMessage, legConfiguration, false);
-            result = binaryData;
+            databasePayloadPersistence.storeOutgoingBinaryData(partInfo, inputStream, userMessage, legConfiguration, false);
+            result = binaryData.length;
         }};
 
         databasePayloadPersistence.storeOutgoingPayload(partInfo, userMessage, legConfiguration, backendName);
@@ -121,7 +134,6 @@ public class DatabasePayloadPersistenceTest {
             backendNotificationService.notifyPayloadSubmitted(userMessage, myfile, partInfo, backendName);
             backendNotificationService.notifyPayloadProcessed(userMessage, myfile, partInfo, backendName);
 
-            partInfo.setBinaryData(binaryData);
             partInfo.setLength(binaryData.length);
             partInfo.setFileName(null);
             partInfo.setEncrypted(false);
@@ -131,36 +143,133 @@ public class DatabasePayloadPersistenceTest {
     }
 
     @Test
-    public void testGetOutgoingBinaryData(@Injectable PartInfo partInfo,
+    public void testStoreOutgoingBinaryData(@Injectable PartInfo partInfo,
                                           @Injectable UserMessage userMessage,
                                           @Injectable LegConfiguration legConfiguration,
-                                          @Injectable String backendName,
                                           @Injectable InputStream inputStream,
-                                          @Mocked ByteArrayOutputStream byteArrayOutputStream,
-                                          @Injectable Cipher encryptCipherForPayload,
-                                          @Mocked CipherOutputStream cipherOutputStream,
-                                          @Mocked GZIPOutputStream gzipOutputStream,
-                                          @Mocked IOUtils ioUtils) throws IOException, EbMS3Exception {
-        new Expectations() {{
-            new ByteArrayOutputStream(PayloadPersistence.DEFAULT_BUFFER_SIZE);
-            result = byteArrayOutputStream;
+                                          @Injectable Cipher encryptCipherForPayload) throws IOException, EbMS3Exception {
+        final byte[] binaryData = "test".getBytes();
+        final byte[] sample = "sample".getBytes();
 
-            compressionService.handleCompression(userMessage.getMessageId(), partInfo, legConfiguration);
+        new Expectations(databasePayloadPersistence) {{
+            adaptiveCompressionService.prepareForSampling(inputStream);
+            result = inputStream;
+
+            adaptiveCompressionService.readSample(inputStream);
+            result = sample;
+
+            compressionService.handleCompression(userMessage.getMessageId(), partInfo, legConfiguration, sample);
             result = true;
 
             encryptionService.getEncryptCipherForPayload();
             result = encryptCipherForPayload;
 
-            new CipherOutputStream(byteArrayOutputStream, encryptCipherForPayload);
-            result = cipherOutputStream;
+            databasePayloadPersistence.storeBinaryData(partInfo, (InputStream) any, encryptCipherForPayload, true);
+            result = binaryData.length;
+
+            legConfiguration.getName();
+            result = "leg1";
+        }};
+
+        assertEquals(binaryData.length, databasePayloadPersistence.storeOutgoingBinaryData(partInfo, inputStream, userMessage, legConfiguration, Boolean.TRUE));
+
+        new Verifications() {{
+            compressionStatisticsService.recordCompression("leg1", anyLong, binaryData.length, anyLong);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void testStoreOutgoingBinaryData_compressionSkipped(@Injectable PartInfo partInfo,
+                                                             @Injectable UserMessage userMessage,
+                                                             @Injectable LegConfiguration legConfiguration,
+                                                             @Injectable InputStream inputStream) throws IOException, EbMS3Exception {
+        final byte[] binaryData = "test".getBytes();
+
+        new Expectations(databasePayloadPersistence) {{
+            adaptiveCompressionService.prepareForSampling(inputStream);
+            result = inputStream;
+
+            adaptiveCompressionService.readSample(inputStream);
+            result = null;
+
+            compressionService.handleCompression(userMessage.getMessageId(), partInfo, legConfiguration, null);
+            result = false;
+
+            databasePayloadPersistence.storeBinaryData(partInfo, inputStream, null, false);
+            result = binaryData.length;
+        }};
+
+        assertEquals(binaryData.length, databasePayloadPersistence.storeOutgoingBinaryData(partInfo, inputStream, userMessage, legConfiguration, Boolean.FALSE));
+
+        new Verifications() {{
+            compressionStatisticsService.recordCompression(anyString, anyLong, anyLong, anyLong);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void testStoreBinaryData() throws Exception {
+        final byte[] payload = "payload content".getBytes();
+        final PartInfo partInfo = new PartInfo();
+
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_PAYLOAD_DATABASE_STREAMING_ENABLED);
+            result = false;
+
+            payloadBufferPool.acquire();
+            result = new byte[PayloadBufferPool.BUFFER_SIZE];
+
+            payloadPersistenceHelper.createPayloadDigest();
+            result = MessageDigest.getInstance("SHA-256");
+        }};
+
+        final long length = databasePayloadPersistence.storeBinaryData(partInfo, new ByteArrayInputStream(payload), null, true);
+
+        assertEquals(partInfo.getBinaryData().length, length);
+        assertNull(partInfo.getBinaryDataFile());
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(partInfo.getBinaryData()))) {
+            assertArrayEquals(payload, IOUtils.toByteArray(inputStream));
+        }
+        final byte[] expectedDigest = MessageDigest.getInstance("SHA-256").digest(payload);
+        new Verifications() {{
+            payloadPersistenceHelper.setPayloadDigest(partInfo, expectedDigest);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void testStoreBinaryData_streaming() throws Exception {
+        final byte[] payload = "payload content".getBytes();
+        final PartInfo partInfo = new PartInfo();
+
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_PAYLOAD_DATABASE_STREAMING_ENABLED);
+            result = true;
+
+            domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
+            result = temporaryFolder.getRoot().getAbsolutePath();
 
-            new GZIPOutputStream(cipherOutputStream);
-            result = gzipOutputStream;
+            payloadBufferPool.acquire();
+            result = new byte[PayloadBufferPool.BUFFER_SIZE];
 
-            IOUtils.copy(inputStream, gzipOutputStream, PayloadPersistence.DEFAULT_BUFFER_SIZE);
+            payloadPersistenceHelper.createPayloadDigest();
+            result = MessageDigest.getInstance("SHA-256");
         }};
 
+        final long length = databasePayloadPersistence.storeBinaryData(partInfo, new ByteArrayInputStream(payload), null, true);
 
-        databasePayloadPersistence.getOutgoingBinaryData(partInfo, inputStream, userMessage, legConfiguration, Boolean.TRUE);
+        assertNull(partInfo.getBinaryData());
+        final File binaryDataFile = partInfo.getBinaryDataFile();
+        assertEquals(temporaryFolder.getRoot(), binaryDataFile.getParentFile());
+        assertEquals(binaryDataFile.length(), length);
+        try (InputStream inputStream = new GZIPInputStream(new FileInputStream(binaryDataFile))) {
+            assertArrayEquals(payload, IOUtils.toByteArray(inputStream));
+        }
+        final byte[] expectedDigest = MessageDigest.getInstance("SHA-256").digest(payload);
+        new Verifications() {{
+            payloadPersistenceHelper.setPayloadDigest(partInfo, expectedDigest);
+            times = 1;
+        }};
     }
-}
\ No newline at end of file
+}
@@ -4,7 +4,9 @@ import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.common.model.configuration.LegConfiguration;
 import eu.domibus.core.ebms3.EbMS3Exception;
+import eu.domibus.core.message.compression.AdaptiveCompressionService;
 import eu.domibus.core.message.compression.CompressionService;
+import eu.domibus.core.message.compression.CompressionStatisticsService;
 import eu.domibus.api.payload.encryption.PayloadEncryptionService;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorage;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorageProvider;
@@ -15,12 +17,19 @@ import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
+import javax.activation.DataHandler;
+import javax.activation.FileDataSource;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.UUID;
 
 /**
@@ -53,9 +62,21 @@ public class FileSystemPayloadPersistenceTest {
     @Injectable
     protected PayloadEncryptionService encryptionService;
 
+    @Injectable
+    protected PayloadBufferPool payloadBufferPool;
+
+    @Injectable
+    protected AdaptiveCompressionService adaptiveCompressionService;
+
+    @Injectable
+    protected CompressionStatisticsService compressionStatisticsService;
+
     @Tested
     FileSystemPayloadPersistence fileSystemPayloadPersistence;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testStoreIncomingPayload(@Injectable PartInfo partInfo,
                                          @Injectable UserMessage userMessage,
@@ -106,13 +127,13 @@ public class FileSystemPayloadPersistenceTest {
             partInfo.getPayloadDatahandler().getInputStream();
             result = inputStream;
 
-            fileSystemPayloadPersistence.saveIncomingFileToDisk(file, inputStream, false);
+            fileSystemPayloadPersistence.saveIncomingFileToDisk(file, partInfo, inputStream, false);
         }};
 
         fileSystemPayloadPersistence.saveIncomingPayloadToDisk(partInfo, storage, false);
 
         new Verifications() {{
-            fileSystemPayloadPersistence.saveIncomingFileToDisk(file, inputStream, false);
+            fileSystemPayloadPersistence.saveIncomingFileToDisk(file, partInfo, inputStream, false);
             times = 1;
 
             partInfo.setFileName(path);
@@ -190,4 +211,86 @@ public class FileSystemPayloadPersistenceTest {
             partInfo.setEncrypted(false);
         }};
     }
-}
\ No newline at end of file
+
+    @Test
+    public void saveOutgoingFileToDisk_sourceFileTransferred(@Injectable PartInfo partInfo,
+                                                             @Injectable UserMessage userMessage,
+                                                             @Injectable LegConfiguration legConfiguration,
+                                                             @Injectable InputStream inputStream) throws IOException, EbMS3Exception {
+        final File sourceFile = temporaryFolder.newFile("source.payload");
+        final File file = new File(temporaryFolder.getRoot(), "stored.payload");
+
+        new Expectations(fileSystemPayloadPersistence) {{
+            compressionService.handleCompression(anyString, partInfo, legConfiguration, (byte[]) any);
+            result = false;
+
+            fileSystemPayloadPersistence.getSourceFile(partInfo);
+            result = sourceFile;
+
+            fileSystemPayloadPersistence.transferFileToDisk(sourceFile, file);
+            result = 123L;
+        }};
+
+        Assert.assertEquals(123L, fileSystemPayloadPersistence.saveOutgoingFileToDisk(file, partInfo, inputStream, userMessage, legConfiguration, Boolean.FALSE));
+
+        new Verifications() {{
+            encryptionService.getEncryptCipherForPayload();
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void saveOutgoingFileToDisk_encryptedSourceFileStreamed(@Injectable PartInfo partInfo,
+                                                                   @Injectable UserMessage userMessage,
+                                                                   @Injectable LegConfiguration legConfiguration,
+                                                                   @Injectable InputStream inputStream,
+                                                                   @Mocked PayloadPipelineOutputStream outputStream) throws IOException, EbMS3Exception {
+        final File sourceFile = temporaryFolder.newFile("source.payload");
+        final File file = new File(temporaryFolder.getRoot(), "stored.payload");
+
+        new Expectations(fileSystemPayloadPersistence) {{
+            compressionService.handleCompression(anyString, partInfo, legConfiguration, (byte[]) any);
+            result = false;
+
+            fileSystemPayloadPersistence.getSourceFile(partInfo);
+            result = sourceFile;
+
+            outputStream.transferFrom((InputStream) any);
+            result = 123L;
+        }};
+
+        Assert.assertEquals(123L, fileSystemPayloadPersistence.saveOutgoingFileToDisk(file, partInfo, inputStream, userMessage, legConfiguration, Boolean.TRUE));
+
+        new Verifications() {{
+            fileSystemPayloadPersistence.transferFileToDisk((File) any, (File) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void transferFileToDisk() throws IOException {
+        final byte[] content = "payload content".getBytes(StandardCharsets.UTF_8);
+        final File sourceFile = temporaryFolder.newFile("source.payload");
+        Files.write(sourceFile.toPath(), content);
+        final File file = new File(temporaryFolder.getRoot(), "stored.payload");
+
+        Assert.assertEquals(content.length, fileSystemPayloadPersistence.transferFileToDisk(sourceFile, file));
+        Assert.assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+        Assert.assertTrue(sourceFile.exists());
+    }
+
+    @Test
+    public void getSourceFile() throws IOException {
+        final File sourceFile = temporaryFolder.newFile("source.payload");
+        final PartInfo partInfo = new PartInfo();
+
+        partInfo.setPayloadDatahandler(new DataHandler(new FileDataSource(sourceFile)));
+        Assert.assertEquals(sourceFile, fileSystemPayloadPersistence.getSourceFile(partInfo));
+
+        partInfo.setPayloadDatahandler(new DataHandler(new FileDataSource(new File(temporaryFolder.getRoot(), "missing.payload"))));
+        Assert.assertNull(fileSystemPayloadPersistence.getSourceFile(partInfo));
+
+        partInfo.setPayloadDatahandler(new DataHandler("payload content", "text/plain"));
+        Assert.assertNull(fileSystemPayloadPersistence.getSourceFile(partInfo));
+    }
+}
@@ -0,0 +1,99 @@
+package eu.domibus.core.payload.persistence;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+public class PayloadPipelineOutputStreamTest {
+
+    private final PayloadBufferPool bufferPool = new PayloadBufferPool();
+
+    @Test
+    public void compressAndEncrypt() throws Exception {
+        final byte[] payload = createPayload(200 * 1024);
+        final SecretKey secretKey = KeyGenerator.getInstance("AES").generateKey();
+        final GCMParameterSpec parameterSpec = new GCMParameterSpec(128, new byte[12]);
+        final Cipher encryptCipher = Cipher.getInstance("AES/GCM/NoPadding");
+        encryptCipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        final PayloadPipelineOutputStream pipeline = new PayloadPipelineOutputStream(target, encryptCipher, true, MessageDigest.getInstance("SHA-256"), bufferPool);
+        final long read = pipeline.transferFrom(new ByteArrayInputStream(payload));
+        pipeline.close();
+
+        assertEquals(payload.length, read);
+        assertEquals(payload.length, pipeline.getInputLength());
+        assertEquals(target.size(), pipeline.getOutputLength());
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(payload), pipeline.getDigest());
+
+        final Cipher decryptCipher = Cipher.getInstance("AES/GCM/NoPadding");
+        decryptCipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
+        try (InputStream inputStream = new GZIPInputStream(new CipherInputStream(new ByteArrayInputStream(target.toByteArray()), decryptCipher))) {
+            assertArrayEquals(payload, IOUtils.toByteArray(inputStream));
+        }
+    }
+
+    @Test
+    public void compressOnly() throws Exception {
+        final byte[] payload = createPayload(100 * 1024);
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        try (PayloadPipelineOutputStream pipeline = new PayloadPipelineOutputStream(target, null, true, null, bufferPool)) {
+            pipeline.write(payload, 0, 10);
+            pipeline.write(payload, 10, payload.length - 10);
+        }
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(target.toByteArray()))) {
+            assertArrayEquals(payload, IOUtils.toByteArray(inputStream));
+        }
+    }
+
+    @Test
+    public void compressEmptyPayload() throws Exception {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        new PayloadPipelineOutputStream(target, null, true, null, bufferPool).close();
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(target.toByteArray()))) {
+            assertEquals(0, IOUtils.toByteArray(inputStream).length);
+        }
+    }
+
+    @Test
+    public void noTransformation() throws Exception {
+        final byte[] payload = createPayload(1024);
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        final PayloadPipelineOutputStream pipeline = new PayloadPipelineOutputStream(target, null, false, null, bufferPool);
+        pipeline.transferFrom(new ByteArrayInputStream(payload));
+        pipeline.close();
+
+        assertArrayEquals(payload, target.toByteArray());
+        assertNull(pipeline.getDigest());
+    }
+
+    private byte[] createPayload(int size) {
+        final byte[] payload = new byte[size];
+        final Random random = new Random(1);
+        for (int i = 0; i < size; i++) {
+            payload[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return payload;
+    }
+}
@@ -20,6 +20,7 @@ import eu.domibus.common.*;
 import eu.domibus.core.alerts.configuration.messaging.MessagingConfigurationManager;
 import eu.domibus.core.alerts.configuration.messaging.MessagingModuleConfiguration;
 import eu.domibus.core.alerts.service.EventService;
+import eu.domibus.core.jms.PendingNotificationService;
 import eu.domibus.core.message.*;
 import eu.domibus.core.plugin.BackendConnectorHelper;
 import eu.domibus.core.plugin.BackendConnectorProvider;
@@ -140,6 +141,9 @@ public class BackendNotificationServiceTest {
     @Injectable
     protected BackendConnectorService backendConnectorService;
 
+    @Injectable
+    protected PendingNotificationService pendingNotificationService;
+
     @Tested
     BackendNotificationService backendNotificationService;
 
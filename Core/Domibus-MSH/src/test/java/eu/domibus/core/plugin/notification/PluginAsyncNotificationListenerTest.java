@@ -7,6 +7,7 @@ import eu.domibus.api.security.AuthUtils;
 import eu.domibus.api.security.functions.AuthenticatedProcedure;
 import eu.domibus.common.DeliverMessageEvent;
 import eu.domibus.common.NotificationType;
+import eu.domibus.core.jms.PendingNotificationService;
 import eu.domibus.messaging.MessageConstants;
 import eu.domibus.plugin.notification.AsyncNotificationConfiguration;
 import mockit.*;
@@ -50,6 +51,9 @@ public class PluginAsyncNotificationListenerTest {
     @Injectable
     protected PluginEventNotifierProvider pluginEventNotifierProvider;
 
+    @Injectable
+    protected PendingNotificationService pendingNotificationService;
+
 
     @Test
     public void onMessage(@Injectable Message message,
@@ -0,0 +1,129 @@
+package eu.domibus.core.plugin.routing;
+
+import eu.domibus.api.model.*;
+import eu.domibus.api.routing.BackendFilter;
+import eu.domibus.api.routing.RoutingCriteria;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sequential evaluation of the backend filters done by {@link RoutingService} until 5.1 with the
+ * {@link CompiledBackendFilters}, for a set of filters on FROM, SERVICE and ACTION mixing exact values and regular expressions.
+ * Not executed as part of the build: run the main method from the test classpath.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BackendFilterMatchingBenchmark {
+
+    @Param({"10", "50"})
+    public int filterCount;
+
+    private RoutingService routingService;
+
+    private Map<String, IRoutingCriteria> criteriaMap;
+
+    private List<BackendFilter> backendFilters;
+
+    private CompiledBackendFilters compiledBackendFilters;
+
+    private List<UserMessage> userMessages;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        criteriaMap = new HashMap<>();
+        for (CriteriaFactory criteriaFactory : Arrays.asList(new FromRoutingCriteriaFactory(), new ToRoutingCriteriaFactory(),
+                new ServiceRoutingCriteriaFactory(), new ActionRoutingCriteriaFactory())) {
+            criteriaMap.put(criteriaFactory.getName(), criteriaFactory.getInstance());
+        }
+        routingService = new RoutingService();
+
+        backendFilters = new ArrayList<>();
+        for (int i = 0; i < filterCount; i++) {
+            if (i % 5 == 4) {
+                backendFilters.add(createFilter("from", "party" + i + "[a-z]*:urn:oasis:names:tc:ebcore:partyid-type:unregistered"));
+            } else {
+                backendFilters.add(createFilter("service", "service" + (i % 3) + ":type", "action", "action" + i));
+            }
+        }
+        backendFilters.add(createFilter());
+        compiledBackendFilters = new CompiledBackendFilters(backendFilters, criteriaMap);
+
+        userMessages = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            userMessages.add(createUserMessage("party" + (i % filterCount), "service" + (i % 3) + ":type", "action" + ((i * 7) % (filterCount + 5))));
+        }
+    }
+
+    @Benchmark
+    public BackendFilter sequentialEvaluation() {
+        return routingService.getMatchingBackendFilter(backendFilters, criteriaMap, nextUserMessage());
+    }
+
+    @Benchmark
+    public BackendFilter compiledFilters() {
+        return compiledBackendFilters.getMatchingBackendFilter(nextUserMessage());
+    }
+
+    private UserMessage nextUserMessage() {
+        next = (next + 1) % userMessages.size();
+        return userMessages.get(next);
+    }
+
+    private BackendFilter createFilter(String... criteria) {
+        BackendFilter backendFilter = new BackendFilter();
+        backendFilter.setBackendName("plugin" + backendFilters.size());
+        backendFilter.setActive(true);
+        List<RoutingCriteria> routingCriterias = new ArrayList<>();
+        for (int i = 0; i < criteria.length; i += 2) {
+            RoutingCriteria routingCriteria = new RoutingCriteria();
+            routingCriteria.setName(criteria[i]);
+            routingCriteria.setExpression(criteria[i + 1]);
+            routingCriterias.add(routingCriteria);
+        }
+        backendFilter.setRoutingCriterias(routingCriterias);
+        return backendFilter;
+    }
+
+    private UserMessage createUserMessage(String fromPartyId, String service, String action) {
+        UserMessage userMessage = new UserMessage();
+        userMessage.setMessageId(UUID.randomUUID().toString());
+
+        PartyId partyId = new PartyId();
+        partyId.setValue(fromPartyId);
+        partyId.setType("urn:oasis:names:tc:ebcore:partyid-type:unregistered");
+        From from = new From();
+        from.setFromPartyId(partyId);
+        PartyInfo partyInfo = new PartyInfo();
+        partyInfo.setFrom(from);
+        userMessage.setPartyInfo(partyInfo);
+
+        ServiceEntity serviceEntity = new ServiceEntity();
+        serviceEntity.setValue(service.split(":")[0]);
+        serviceEntity.setType(service.split(":")[1]);
+        userMessage.setService(serviceEntity);
+
+        ActionEntity actionEntity = new ActionEntity();
+        actionEntity.setValue(action);
+        userMessage.setAction(actionEntity);
+        return userMessage;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BackendFilterMatchingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
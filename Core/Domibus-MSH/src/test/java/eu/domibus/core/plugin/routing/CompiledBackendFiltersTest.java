@@ -0,0 +1,136 @@
+package eu.domibus.core.plugin.routing;
+
+import eu.domibus.api.model.*;
+import eu.domibus.api.routing.BackendFilter;
+import eu.domibus.api.routing.RoutingCriteria;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+public class CompiledBackendFiltersTest {
+
+    private Map<String, IRoutingCriteria> criteriaMap;
+
+    @Before
+    public void setUp() {
+        criteriaMap = new HashMap<>();
+        for (CriteriaFactory criteriaFactory : Arrays.asList(new FromRoutingCriteriaFactory(), new ToRoutingCriteriaFactory(),
+                new ServiceRoutingCriteriaFactory(), new ActionRoutingCriteriaFactory())) {
+            criteriaMap.put(criteriaFactory.getName(), criteriaFactory.getInstance());
+        }
+    }
+
+    @Test
+    public void getMatchingBackendFilter_priorityAcrossBuckets() {
+        BackendFilter actionFilter = createFilter("actionPlugin", true, "action", "submitMessage");
+        BackendFilter regexFilter = createFilter("regexPlugin", true, "from", "domibus-.*:urn:oasis:names:tc:ebcore:partyid-type:unregistered");
+        BackendFilter defaultFilter = createFilter("defaultPlugin", true);
+        CompiledBackendFilters compiledBackendFilters = new CompiledBackendFilters(Arrays.asList(regexFilter, actionFilter, defaultFilter), criteriaMap);
+
+        assertSame(regexFilter, compiledBackendFilters.getMatchingBackendFilter(createUserMessage("domibus-blue", "submitMessage")));
+        assertSame(actionFilter, compiledBackendFilters.getMatchingBackendFilter(createUserMessage("red", "submitMessage")));
+        assertSame(defaultFilter, compiledBackendFilters.getMatchingBackendFilter(createUserMessage("red", "otherAction")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_inactiveFilter() {
+        BackendFilter inactiveFilter = createFilter("inactivePlugin", false, "action", "submitMessage");
+        BackendFilter serviceFilter = createFilter("servicePlugin", true, "service", "bdx-noprocess:tc1", "action", "submitMessage");
+        CompiledBackendFilters compiledBackendFilters = new CompiledBackendFilters(Arrays.asList(inactiveFilter, serviceFilter), criteriaMap);
+
+        assertSame(serviceFilter, compiledBackendFilters.getMatchingBackendFilter(createUserMessage("red", "submitMessage")));
+        assertNull(compiledBackendFilters.getMatchingBackendFilter(createUserMessage("red", "otherAction")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_invalidExpression() {
+        BackendFilter invalidFilter = createFilter("invalidPlugin", true, "action", "submit[Message");
+        BackendFilter defaultFilter = createFilter("defaultPlugin", true);
+        CompiledBackendFilters compiledBackendFilters = new CompiledBackendFilters(Arrays.asList(invalidFilter, defaultFilter), criteriaMap);
+
+        assertSame(defaultFilter, compiledBackendFilters.getMatchingBackendFilter(createUserMessage("red", "submit[Message")));
+    }
+
+    @Test
+    public void isLiteral() {
+        assertTrue(CompiledBackendFilters.isLiteral("submitMessage"));
+        assertTrue(CompiledBackendFilters.isLiteral("bdx-noprocess:tc1"));
+        assertFalse(CompiledBackendFilters.isLiteral("urn:oasis.names"));
+        assertFalse(CompiledBackendFilters.isLiteral("submit.*"));
+        assertFalse(CompiledBackendFilters.isLiteral(""));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_sameResultAsSequentialEvaluation() {
+        Random random = new Random(42);
+        List<BackendFilter> backendFilters = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            List<String> criteria = new ArrayList<>();
+            if (random.nextBoolean()) {
+                criteria.addAll(Arrays.asList("action", random.nextBoolean() ? "action" + random.nextInt(5) : "action[0-2]"));
+            }
+            if (random.nextBoolean()) {
+                criteria.addAll(Arrays.asList("from", random.nextBoolean() ? "party" + random.nextInt(5) + ":type" : "party[3-4]:type"));
+            }
+            if (random.nextInt(4) == 0) {
+                criteria.addAll(Arrays.asList("service", "bdx-noprocess:tc1"));
+            }
+            backendFilters.add(createFilter("plugin" + i, random.nextInt(5) != 0, criteria.toArray(new String[0])));
+        }
+        CompiledBackendFilters compiledBackendFilters = new CompiledBackendFilters(backendFilters, criteriaMap);
+        RoutingService routingService = new RoutingService();
+
+        for (int party = 0; party < 6; party++) {
+            for (int action = 0; action < 6; action++) {
+                UserMessage userMessage = createUserMessage("party" + party, "action" + action);
+                assertSame(routingService.getMatchingBackendFilter(backendFilters, criteriaMap, userMessage),
+                        compiledBackendFilters.getMatchingBackendFilter(userMessage));
+            }
+        }
+    }
+
+    private BackendFilter createFilter(String backendName, boolean active, String... criteria) {
+        BackendFilter backendFilter = new BackendFilter();
+        backendFilter.setBackendName(backendName);
+        backendFilter.setActive(active);
+        List<RoutingCriteria> routingCriterias = new ArrayList<>();
+        for (int i = 0; i < criteria.length; i += 2) {
+            RoutingCriteria routingCriteria = new RoutingCriteria();
+            routingCriteria.setName(criteria[i]);
+            routingCriteria.setExpression(criteria[i + 1]);
+            routingCriterias.add(routingCriteria);
+        }
+        backendFilter.setRoutingCriterias(routingCriterias);
+        return backendFilter;
+    }
+
+    private UserMessage createUserMessage(String fromPartyId, String action) {
+        UserMessage userMessage = new UserMessage();
+        userMessage.setMessageId(UUID.randomUUID().toString());
+
+        PartyId partyId = new PartyId();
+        partyId.setValue(fromPartyId);
+        partyId.setType(fromPartyId.startsWith("domibus") ? "urn:oasis:names:tc:ebcore:partyid-type:unregistered" : "type");
+        From from = new From();
+        from.setFromPartyId(partyId);
+        PartyInfo partyInfo = new PartyInfo();
+        partyInfo.setFrom(from);
+        userMessage.setPartyInfo(partyInfo);
+
+        ServiceEntity service = new ServiceEntity();
+        service.setValue("bdx-noprocess");
+        service.setType("tc1");
+        userMessage.setService(service);
+
+        ActionEntity actionEntity = new ActionEntity();
+        actionEntity.setValue(action);
+        userMessage.setAction(actionEntity);
+        return userMessage;
+    }
+}
@@ -523,17 +523,17 @@ public class RoutingServiceTest {
 
     @Test
     public void testGetMatchingBackendFilter(@Injectable final UserMessage userMessage,
-                                             @Injectable final List<BackendFilter> backendFilters) {
+                                             @Injectable final CompiledBackendFilters compiledBackendFilters) {
         new Expectations(routingService) {{
-            routingService.getBackendFiltersWithCache();
-            result = backendFilters;
-            routingService.getMatchingBackendFilter(backendFilters, withAny(new HashMap<>()), userMessage);
+            routingService.getCompiledBackendFiltersWithCache();
+            result = compiledBackendFilters;
         }};
 
         routingService.getMatchingBackendFilter(userMessage);
 
-        new FullVerifications() {
-        };
+        new FullVerifications() {{
+            compiledBackendFilters.getMatchingBackendFilter(userMessage);
+        }};
     }
 
     @Test
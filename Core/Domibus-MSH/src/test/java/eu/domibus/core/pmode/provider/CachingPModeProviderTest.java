@@ -1,5 +1,6 @@
 package eu.domibus.core.pmode.provider;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -164,6 +165,9 @@ public class CachingPModeProviderTest {
     @Injectable
     private DomibusLocalCacheService domibusLocalCacheService;
 
+    @Injectable
+    private MetricRegistry metricRegistry;
+
     public Configuration loadSamplePModeConfiguration(String samplePModeFileRelativeURI) throws JAXBException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
         LOG.debug("Inside sample PMode configuration");
         InputStream xmlStream = getClass().getClassLoader().getResourceAsStream(samplePModeFileRelativeURI);
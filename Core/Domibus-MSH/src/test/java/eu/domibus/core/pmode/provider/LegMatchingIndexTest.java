@@ -0,0 +1,79 @@
+package eu.domibus.core.pmode.provider;
+
+import eu.domibus.common.model.configuration.Configuration;
+import eu.domibus.common.model.configuration.Process;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.bind.JAXBContext;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+public class LegMatchingIndexTest {
+
+    private static final String VALID_PMODE_CONFIG_URI = "samplePModes/domibus-configuration-valid.xml";
+
+    private List<Process> processes;
+
+    @Before
+    public void setUp() throws Exception {
+        InputStream xmlStream = getClass().getClassLoader().getResourceAsStream(VALID_PMODE_CONFIG_URI);
+        Configuration configuration = (Configuration) JAXBContext.newInstance(Configuration.class).createUnmarshaller().unmarshal(xmlStream);
+        Method m = configuration.getClass().getDeclaredMethod("preparePersist");
+        m.setAccessible(true);
+        m.invoke(configuration);
+        processes = new ArrayList<>(configuration.getBusinessProcesses().getProcesses());
+    }
+
+    @Test
+    public void build_empty() {
+        LegMatchingIndex index = LegMatchingIndex.build(Collections.emptyList());
+
+        assertTrue(index.isEmpty());
+        assertTrue(index.getCandidates("noSecService", "noSecAction").isEmpty());
+    }
+
+    @Test
+    public void getCandidates_caseInsensitive() {
+        LegMatchingIndex index = LegMatchingIndex.build(processes);
+
+        List<LegMatchingIndex.LegCandidate> candidates = index.getCandidates("NOSECSERVICE", "nosecaction");
+
+        assertFalse(candidates.isEmpty());
+        assertEquals("pushNoSecnoSecAction", candidates.get(0).getLeg().getName());
+        assertTrue(candidates.get(0).hasInitiator("BLUE_GW"));
+        assertTrue(candidates.get(0).hasResponder("red_gw"));
+        assertFalse(candidates.get(0).hasResponder("unknown_gw"));
+        assertFalse(candidates.get(0).hasResponder(null));
+    }
+
+    @Test
+    public void getCandidates_keepsProcessOrder() {
+        LegMatchingIndex index = LegMatchingIndex.build(processes);
+
+        List<LegMatchingIndex.LegCandidate> candidates = index.getCandidates("noSecService", "noSecAction");
+
+        int previousPosition = -1;
+        for (LegMatchingIndex.LegCandidate candidate : candidates) {
+            int position = processes.indexOf(candidate.getProcess());
+            assertTrue(position >= previousPosition);
+            previousPosition = position;
+        }
+    }
+
+    @Test
+    public void getCandidates_unknownServiceOrAction() {
+        LegMatchingIndex index = LegMatchingIndex.build(processes);
+
+        assertTrue(index.getCandidates("noSecService", "unknownAction").isEmpty());
+        assertTrue(index.getCandidates(null, "noSecAction").isEmpty());
+    }
+}
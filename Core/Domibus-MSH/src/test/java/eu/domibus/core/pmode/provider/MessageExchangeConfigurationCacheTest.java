@@ -0,0 +1,98 @@
+package eu.domibus.core.pmode.provider;
+
+import com.codahale.metrics.Counter;
+import eu.domibus.api.model.*;
+import eu.domibus.core.message.MessageExchangeConfiguration;
+import eu.domibus.plugin.ProcessingType;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+public class MessageExchangeConfigurationCacheTest {
+
+    private final Counter hits = new Counter();
+
+    private final Counter misses = new Counter();
+
+    @Test
+    public void createKey_disabled() {
+        MessageExchangeConfigurationCache cache = MessageExchangeConfigurationCache.DISABLED;
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.createKey(createUserMessage("red_gw", "action1"), false, null));
+        assertNull(cache.get(null));
+    }
+
+    @Test
+    public void createKey_sameMetadata() {
+        MessageExchangeConfigurationCache cache = new MessageExchangeConfigurationCache(10, hits, misses);
+
+        MessageExchangeConfigurationCache.Key key1 = cache.createKey(createUserMessage("red_gw", "action1"), false, ProcessingType.PUSH);
+        MessageExchangeConfigurationCache.Key key2 = cache.createKey(createUserMessage("red_gw", "action1"), false, ProcessingType.PUSH);
+
+        assertEquals(key1, key2);
+        assertEquals(key1.hashCode(), key2.hashCode());
+        assertNotEquals(key1, cache.createKey(createUserMessage("red_gw", "action1"), true, ProcessingType.PUSH));
+        assertNotEquals(key1, cache.createKey(createUserMessage("red_gw", "action1"), false, ProcessingType.PULL));
+        assertNotEquals(key1, cache.createKey(createUserMessage("red_gw", "action2"), false, ProcessingType.PUSH));
+    }
+
+    @Test
+    public void createKey_missingMetadata() {
+        MessageExchangeConfigurationCache cache = new MessageExchangeConfigurationCache(10, hits, misses);
+
+        assertNotNull(cache.createKey(new UserMessage(), false, null));
+    }
+
+    @Test
+    public void getAndPut() {
+        MessageExchangeConfigurationCache cache = new MessageExchangeConfigurationCache(10, hits, misses);
+        MessageExchangeConfigurationCache.Key key = cache.createKey(createUserMessage("red_gw", "action1"), false, null);
+        MessageExchangeConfiguration messageExchangeConfiguration = new MessageExchangeConfiguration("agreement", "blue_gw", "red_gw", "service", "action1", "leg");
+
+        assertNull(cache.get(key));
+        cache.put(key, messageExchangeConfiguration);
+
+        assertSame(messageExchangeConfiguration, cache.get(key));
+        assertEquals(1, hits.getCount());
+        assertEquals(1, misses.getCount());
+    }
+
+    @Test
+    public void put_maxSize() {
+        MessageExchangeConfigurationCache cache = new MessageExchangeConfigurationCache(2, hits, misses);
+        MessageExchangeConfiguration messageExchangeConfiguration = new MessageExchangeConfiguration("agreement", "blue_gw", "red_gw", "service", "action", "leg");
+
+        for (int i = 0; i < 5; i++) {
+            cache.put(cache.createKey(createUserMessage("red_gw", "action" + i), false, null), messageExchangeConfiguration);
+        }
+
+        assertEquals(2, cache.size());
+    }
+
+    private UserMessage createUserMessage(String toPartyId, String action) {
+        UserMessage userMessage = new UserMessage();
+        PartyInfo partyInfo = new PartyInfo();
+        From from = new From();
+        from.setFromPartyId(createPartyId("blue_gw"));
+        partyInfo.setFrom(from);
+        To to = new To();
+        to.setToPartyId(createPartyId(toPartyId));
+        partyInfo.setTo(to);
+        userMessage.setPartyInfo(partyInfo);
+        ActionEntity actionEntity = new ActionEntity();
+        actionEntity.setValue(action);
+        userMessage.setAction(actionEntity);
+        return userMessage;
+    }
+
+    private PartyId createPartyId(String value) {
+        PartyId partyId = new PartyId();
+        partyId.setValue(value);
+        partyId.setType("urn:oasis:names:tc:ebcore:partyid-type:unregistered");
+        return partyId;
+    }
+}
@@ -0,0 +1,197 @@
+package eu.domibus.core.pmode.provider.dynamicdiscovery;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.common.ErrorCode;
+import eu.domibus.core.ebms3.EbMS3Exception;
+import eu.domibus.core.ebms3.EbMS3ExceptionBuilder;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DYNAMICDISCOVERY_LOOKUP_CACHE_REFRESH_AHEAD;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DYNAMICDISCOVERY_LOOKUP_CACHE_TTL;
+import static org.junit.Assert.*;
+
+/**
+ * The SMP is stubbed by the lookup passed to the coalescer, which blocks until all the concurrent lookups are waiting.
+ *
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class DynamicDiscoveryLookupCoalescerTest {
+
+    private static final String LOOKUP_KEY = "defaultfinalRecipienttypeactionservicetype";
+
+    private static final Domain DOMAIN = new Domain("default", "Default");
+
+    private static final int CONCURRENT_LOOKUPS = 5;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    DomainTaskExecutor domainTaskExecutor;
+
+    CountDownLatch waitingLookups;
+
+    DynamicDiscoveryLookupCoalescer dynamicDiscoveryLookupCoalescer;
+
+    @Before
+    public void setUp() {
+        waitingLookups = new CountDownLatch(CONCURRENT_LOOKUPS - 1);
+        dynamicDiscoveryLookupCoalescer = new DynamicDiscoveryLookupCoalescer(domibusPropertyProvider, domainTaskExecutor) {
+            @Override
+            protected EndpointInfo waitFor(CompletableFuture<EndpointInfo> inFlightLookup) throws EbMS3Exception {
+                waitingLookups.countDown();
+                return super.waitFor(inFlightLookup);
+            }
+        };
+    }
+
+    @Test
+    public void lookup_concurrentLookupsCoalesced() throws Exception {
+        EndpointInfo endpointInfo = new EndpointInfo("http://localhost:8080/msh", null);
+        AtomicInteger smpLookups = new AtomicInteger();
+
+        List<Future<EndpointInfo>> results = lookupConcurrently(() -> {
+            smpLookups.incrementAndGet();
+            awaitWaitingLookups();
+            return endpointInfo;
+        });
+
+        for (Future<EndpointInfo> result : results) {
+            assertSame(endpointInfo, result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, smpLookups.get());
+        assertTrue(dynamicDiscoveryLookupCoalescer.inFlightLookups.isEmpty());
+    }
+
+    @Test
+    public void lookup_exceptionReceivedByAllLookups() throws Exception {
+        EbMS3Exception exception = EbMS3ExceptionBuilder.getInstance()
+                .ebMS3ErrorCode(ErrorCode.EbMS3ErrorCode.EBMS_0010)
+                .message("No SMP entry")
+                .build();
+        AtomicInteger smpLookups = new AtomicInteger();
+
+        List<Future<EndpointInfo>> results = lookupConcurrently(() -> {
+            smpLookups.incrementAndGet();
+            awaitWaitingLookups();
+            throw exception;
+        });
+
+        for (Future<EndpointInfo> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertSame(exception, e.getCause());
+            }
+        }
+        assertEquals(1, smpLookups.get());
+        assertTrue(dynamicDiscoveryLookupCoalescer.inFlightLookups.isEmpty());
+    }
+
+    @Test
+    public void lookup_sequentialLookupsNotCoalesced() throws Exception {
+        AtomicInteger smpLookups = new AtomicInteger();
+        DynamicDiscoveryLookupCoalescer.EndpointLookup lookup = () -> {
+            smpLookups.incrementAndGet();
+            return new EndpointInfo("http://localhost:8080/msh", null);
+        };
+
+        EndpointInfo first = dynamicDiscoveryLookupCoalescer.lookup(LOOKUP_KEY, lookup);
+        EndpointInfo second = dynamicDiscoveryLookupCoalescer.lookup(LOOKUP_KEY, lookup);
+
+        assertNotSame(first, second);
+        assertEquals(2, smpLookups.get());
+    }
+
+    @Test
+    public void isRefreshDue(@Injectable EndpointInfo endpointInfo) {
+        mockProperties(300, 3600);
+        new Expectations() {{
+            endpointInfo.getLookupTime();
+            returns(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(10), System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(56));
+        }};
+
+        assertFalse(dynamicDiscoveryLookupCoalescer.isRefreshDue(endpointInfo));
+        assertTrue(dynamicDiscoveryLookupCoalescer.isRefreshDue(endpointInfo));
+    }
+
+    @Test
+    public void isRefreshDue_disabled(@Injectable EndpointInfo endpointInfo) {
+        mockProperties(0, 3600);
+
+        assertFalse(dynamicDiscoveryLookupCoalescer.isRefreshDue(endpointInfo));
+
+        new Verifications() {{
+            endpointInfo.getLookupTime();
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void scheduleRefresh_onceUntilDone() throws Exception {
+        AtomicInteger refreshes = new AtomicInteger();
+
+        dynamicDiscoveryLookupCoalescer.scheduleRefresh(LOOKUP_KEY, DOMAIN, refreshes::incrementAndGet);
+        dynamicDiscoveryLookupCoalescer.scheduleRefresh(LOOKUP_KEY, DOMAIN, refreshes::incrementAndGet);
+
+        List<Runnable> tasks = new ArrayList<>();
+        new Verifications() {{
+            domainTaskExecutor.submit(withCapture(tasks), DOMAIN, false, null, null);
+            times = 1;
+        }};
+        assertTrue(dynamicDiscoveryLookupCoalescer.refreshing.contains(LOOKUP_KEY));
+
+        tasks.get(0).run();
+
+        assertEquals(1, refreshes.get());
+        assertFalse(dynamicDiscoveryLookupCoalescer.refreshing.contains(LOOKUP_KEY));
+    }
+
+    private List<Future<EndpointInfo>> lookupConcurrently(DynamicDiscoveryLookupCoalescer.EndpointLookup smpLookup) {
+        ExecutorService executorService = Executors.newFixedThreadPool(CONCURRENT_LOOKUPS);
+        try {
+            List<Future<EndpointInfo>> results = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_LOOKUPS; i++) {
+                results.add(executorService.submit(() -> dynamicDiscoveryLookupCoalescer.lookup(LOOKUP_KEY, smpLookup)));
+            }
+            return results;
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private void awaitWaitingLookups() {
+        try {
+            assertTrue(waitingLookups.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void mockProperties(int refreshAhead, int ttl) {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_DYNAMICDISCOVERY_LOOKUP_CACHE_REFRESH_AHEAD);
+            result = refreshAhead;
+            minTimes = 0;
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_DYNAMICDISCOVERY_LOOKUP_CACHE_TTL);
+            result = ttl;
+            minTimes = 0;
+        }};
+    }
+}
@@ -9,6 +9,7 @@ import eu.domibus.api.multitenancy.DomainTaskExecutor;
 import eu.domibus.api.pki.KeystorePersistenceService;
 import eu.domibus.api.pki.MultiDomainCryptoService;
 import eu.domibus.api.pmode.PModeEventListener;
+import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.property.encryption.PasswordDecryptionService;
 import eu.domibus.api.security.X509CertificateService;
 import eu.domibus.api.util.xml.UnmarshallerResult;
@@ -24,6 +25,7 @@ import eu.domibus.core.certificate.CertificateHelper;
 import eu.domibus.core.certificate.CertificateServiceImpl;
 import eu.domibus.core.certificate.crl.CRLServiceImpl;
 import eu.domibus.core.ebms3.EbMS3Exception;
+import eu.domibus.core.exception.ConfigurationException;
 import eu.domibus.core.message.UserMessageServiceHelper;
 import eu.domibus.core.message.dictionary.PartyIdDictionaryService;
 import eu.domibus.core.message.dictionary.PartyRoleDictionaryService;
@@ -132,6 +134,9 @@ public class DynamicDiscoveryPModeProviderTest {
     @Mock
     DynamicDiscoveryLookupService dynamicDiscoveryLookupService;
 
+    @Spy
+    DynamicDiscoveryLookupCoalescer dynamicDiscoveryLookupCoalescer = new DynamicDiscoveryLookupCoalescer(Mockito.mock(DomibusPropertyProvider.class), Mockito.mock(DomainTaskExecutor.class));
+
     @Mock
     PartyIdDictionaryService partyIdDictionaryService;
     @Mock
@@ -237,6 +242,93 @@ public class DynamicDiscoveryPModeProviderTest {
         dynamicDiscoveryPModeProvider.doDynamicDiscovery(userMessage, MSHRole.SENDING);
     }
 
+    @Test
+    public void testLookupByFinalRecipientIsCoalesced() throws Exception {
+        dynamicDiscoveryPModeProvider.dynamicDiscoveryService = dynamicDiscoveryServiceOASIS;
+        EndpointInfo testDataEndpoint = buildAS4EndpointWithArguments(ADDRESS);
+        String lookupKey = "lookupKey";
+
+        doReturn(UNKNOWN_DYNAMIC_RESPONDER_PARTYID_VALUE).when(userMessageServiceHelper).getFinalRecipientValue(any());
+        doReturn(UNKNOWN_DYNAMIC_RESPONDER_PARTYID_TYPE).when(userMessageServiceHelper).getFinalRecipientType(any());
+        doReturn(testDataEndpoint).when(dynamicDiscoveryServiceOASIS).lookupInformation(lookupKey, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_VALUE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_TYPE, TEST_ACTION_VALUE, TEST_SERVICE_VALUE, TEST_SERVICE_TYPE);
+        UserMessage userMessage = buildUserMessageForDoDynamicThingsWithArguments(TEST_ACTION_VALUE, TEST_SERVICE_VALUE, TEST_SERVICE_TYPE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_VALUE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_TYPE, UNKNOWN_DYNAMIC_INITIATOR_PARTYID_VALUE, UNKNOWN_DYNAMIC_INITIATOR_PARTYID_TYPE, UUID.randomUUID().toString());
+
+        assertSame(testDataEndpoint, dynamicDiscoveryPModeProvider.lookupByFinalRecipient(lookupKey, userMessage));
+
+        verify(dynamicDiscoveryLookupCoalescer).lookup(eq(lookupKey), any());
+    }
+
+    @Test
+    public void testRefreshLookupIfDue() throws Exception {
+        EndpointInfo cachedEndpoint = buildAS4EndpointWithArguments(ADDRESS);
+        String lookupKey = "lookupKey";
+        doReturn(DOMAIN).when(domainProvider).getCurrentDomain();
+        UserMessage userMessage = buildUserMessageForDoDynamicThingsWithArguments(TEST_ACTION_VALUE, TEST_SERVICE_VALUE, TEST_SERVICE_TYPE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_VALUE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_TYPE, UNKNOWN_DYNAMIC_INITIATOR_PARTYID_VALUE, UNKNOWN_DYNAMIC_INITIATOR_PARTYID_TYPE, UUID.randomUUID().toString());
+
+        doReturn(false).when(dynamicDiscoveryLookupCoalescer).isRefreshDue(cachedEndpoint);
+        dynamicDiscoveryPModeProvider.refreshLookupIfDue(lookupKey, cachedEndpoint, userMessage, new HashSet<>());
+        verify(dynamicDiscoveryLookupCoalescer, never()).scheduleRefresh(any(), any(), any());
+
+        doReturn(true).when(dynamicDiscoveryLookupCoalescer).isRefreshDue(cachedEndpoint);
+        doNothing().when(dynamicDiscoveryLookupCoalescer).scheduleRefresh(any(), any(), any());
+        dynamicDiscoveryPModeProvider.refreshLookupIfDue(lookupKey, cachedEndpoint, userMessage, new HashSet<>());
+        verify(dynamicDiscoveryLookupCoalescer).scheduleRefresh(eq(lookupKey), eq(DOMAIN), any());
+    }
+
+    @Test
+    public void testRefreshLookupIfDue_replacesCachedLookupAfterSuccess() throws Exception {
+        DynamicDiscoveryPModeProvider provider = spy(dynamicDiscoveryPModeProvider);
+        provider.dynamicDiscoveryService = dynamicDiscoveryServiceOASIS;
+        EndpointInfo cachedEndpoint = buildAS4EndpointWithArguments(ADDRESS);
+        EndpointInfo refreshedEndpoint = buildAS4EndpointWithArguments(ADDRESS);
+        String lookupKey = "lookupKey";
+        doReturn(DOMAIN).when(domainProvider).getCurrentDomain();
+        doReturn(UNKNOWN_DYNAMIC_RESPONDER_PARTYID_VALUE).when(userMessageServiceHelper).getFinalRecipientValue(any());
+        doReturn(UNKNOWN_DYNAMIC_RESPONDER_PARTYID_TYPE).when(userMessageServiceHelper).getFinalRecipientType(any());
+        doReturn(refreshedEndpoint).when(dynamicDiscoveryServiceOASIS).refreshInformation(lookupKey, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_VALUE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_TYPE, TEST_ACTION_VALUE, TEST_SERVICE_VALUE, TEST_SERVICE_TYPE);
+        doReturn(null).when(provider).updateConfigurationForEndpoint(any(), any(), any(), any());
+        UserMessage userMessage = buildUserMessageForDoDynamicThingsWithArguments(TEST_ACTION_VALUE, TEST_SERVICE_VALUE, TEST_SERVICE_TYPE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_VALUE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_TYPE, UNKNOWN_DYNAMIC_INITIATOR_PARTYID_VALUE, UNKNOWN_DYNAMIC_INITIATOR_PARTYID_TYPE, UUID.randomUUID().toString());
+
+        runRefresh(provider, lookupKey, cachedEndpoint, userMessage);
+
+        InOrder inOrder = inOrder(dynamicDiscoveryServiceOASIS, domibusLocalCacheService);
+        inOrder.verify(dynamicDiscoveryServiceOASIS).refreshInformation(lookupKey, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_VALUE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_TYPE, TEST_ACTION_VALUE, TEST_SERVICE_VALUE, TEST_SERVICE_TYPE);
+        inOrder.verify(domibusLocalCacheService).addEntryInCache(DYNAMIC_DISCOVERY_ENDPOINT, lookupKey, refreshedEndpoint);
+        verify(domibusLocalCacheService, never()).evictEntryFromCache(any(), any());
+        verify(dynamicDiscoveryServiceOASIS, never()).lookupInformation(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testRefreshLookupIfDue_keepsCachedLookupAfterFailure() throws Exception {
+        dynamicDiscoveryPModeProvider.dynamicDiscoveryService = dynamicDiscoveryServiceOASIS;
+        EndpointInfo cachedEndpoint = buildAS4EndpointWithArguments(ADDRESS);
+        String lookupKey = "lookupKey";
+        doReturn(DOMAIN).when(domainProvider).getCurrentDomain();
+        doReturn(UNKNOWN_DYNAMIC_RESPONDER_PARTYID_VALUE).when(userMessageServiceHelper).getFinalRecipientValue(any());
+        doReturn(UNKNOWN_DYNAMIC_RESPONDER_PARTYID_TYPE).when(userMessageServiceHelper).getFinalRecipientType(any());
+        doThrow(new ConfigurationException("SMP unavailable")).when(dynamicDiscoveryServiceOASIS).refreshInformation(any(), any(), any(), any(), any(), any());
+        UserMessage userMessage = buildUserMessageForDoDynamicThingsWithArguments(TEST_ACTION_VALUE, TEST_SERVICE_VALUE, TEST_SERVICE_TYPE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_VALUE, UNKNOWN_DYNAMIC_RESPONDER_PARTYID_TYPE, UNKNOWN_DYNAMIC_INITIATOR_PARTYID_VALUE, UNKNOWN_DYNAMIC_INITIATOR_PARTYID_TYPE, UUID.randomUUID().toString());
+
+        try {
+            runRefresh(dynamicDiscoveryPModeProvider, lookupKey, cachedEndpoint, userMessage);
+            fail("The refresh should have failed");
+        } catch (ConfigurationException e) {
+            // expected
+        }
+
+        verify(domibusLocalCacheService, never()).evictEntryFromCache(any(), any());
+        verify(domibusLocalCacheService, never()).addEntryInCache(any(), any(), any());
+    }
+
+    private void runRefresh(DynamicDiscoveryPModeProvider provider, String lookupKey, EndpointInfo cachedEndpoint, UserMessage userMessage) throws EbMS3Exception {
+        doReturn(true).when(dynamicDiscoveryLookupCoalescer).isRefreshDue(cachedEndpoint);
+        ArgumentCaptor<DynamicDiscoveryLookupCoalescer.EndpointRefresh> refreshCaptor = ArgumentCaptor.forClass(DynamicDiscoveryLookupCoalescer.EndpointRefresh.class);
+        doNothing().when(dynamicDiscoveryLookupCoalescer).scheduleRefresh(eq(lookupKey), eq(DOMAIN), refreshCaptor.capture());
+
+        provider.refreshLookupIfDue(lookupKey, cachedEndpoint, userMessage, new HashSet<>());
+        refreshCaptor.getValue().refresh();
+    }
+
     @Test
     public void testDoDynamicDiscoveryOnReceiver() throws Exception {
         Configuration testData = initializeConfiguration(DYNAMIC_DISCOVERY_ENABLED);
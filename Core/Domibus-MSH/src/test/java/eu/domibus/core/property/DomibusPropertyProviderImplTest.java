@@ -69,6 +69,9 @@ public class DomibusPropertyProviderImplTest {
     @Injectable
     private DomibusLocalCacheService domibusLocalCacheService;
 
+    @Injectable
+    private TypedPropertySnapshot typedPropertySnapshot;
+
     private String propertyName = "domibus.property.name";
 
     private String propertyValue = "domibus.property.value";
@@ -109,8 +112,10 @@ public class DomibusPropertyProviderImplTest {
     public void setProperty() {
         domibusPropertyProvider.setProperty(propertyName, propertyValue);
 
-        new Verifications() {{
+        new VerificationsInOrder() {{
+            typedPropertySnapshot.clear();
             propertyProviderDispatcher.setInternalOrExternalProperty(null, propertyName, propertyValue, true);
+            typedPropertySnapshot.clear();
         }};
     }
 
@@ -118,8 +123,10 @@ public class DomibusPropertyProviderImplTest {
     public void setPropertyWithDomain() {
         domibusPropertyProvider.setProperty(domain, propertyName, propertyValue, true);
 
-        new Verifications() {{
+        new VerificationsInOrder() {{
+            typedPropertySnapshot.clear();
             propertyProviderDispatcher.setInternalOrExternalProperty(domain, propertyName, propertyValue, true);
+            typedPropertySnapshot.clear();
         }};
     }
 
@@ -153,6 +160,50 @@ public class DomibusPropertyProviderImplTest {
         assertEquals(intVal, res);
     }
 
+    @Test
+    public void getIntegerProperty_fromSnapshot() {
+        new Expectations() {{
+            typedPropertySnapshot.get(null, propertyName);
+            result = 5;
+        }};
+
+        Integer res = domibusPropertyProvider.getIntegerProperty(propertyName);
+
+        assertEquals(Integer.valueOf(5), res);
+        new Verifications() {{
+            propertyProviderDispatcher.getInternalOrExternalProperty(anyString, (Domain) any);
+            times = 0;
+            typedPropertySnapshot.put((Domain) any, anyString, (DomibusPropertyMetadata) any, any, anyLong);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void getIntegerProperty_addedToSnapshot(@Injectable DomibusPropertyMetadata propMeta) {
+        String val = "2";
+        Integer intVal = Integer.valueOf(val);
+        new Expectations(domibusPropertyProvider) {{
+            typedPropertySnapshot.get(null, propertyName);
+            result = null;
+            typedPropertySnapshot.getGeneration();
+            result = 3L;
+            globalPropertyMetadataManager.getPropertyMetadata(propertyName);
+            result = propMeta;
+            propMeta.getTypeAsEnum();
+            result = DomibusPropertyMetadata.Type.POSITIVE_INTEGER;
+            domibusPropertyProvider.getProperty(propertyName);
+            result = val;
+            primitivePropertyTypesManager.getIntegerInternal(propertyName, val);
+            result = intVal;
+        }};
+
+        domibusPropertyProvider.getIntegerProperty(propertyName);
+
+        new Verifications() {{
+            typedPropertySnapshot.put(null, propertyName, propMeta, intVal, 3L);
+        }};
+    }
+
     @Test
     public void getLongProperty(@Injectable DomibusPropertyMetadata propMeta) {
         String val = "2";
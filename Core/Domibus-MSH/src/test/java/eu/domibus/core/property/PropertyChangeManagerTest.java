@@ -13,6 +13,7 @@ import mockit.Expectations;
 import mockit.Injectable;
 import mockit.Tested;
 import mockit.Verifications;
+import mockit.VerificationsInOrder;
 import mockit.integration.junit4.JMockit;
 import org.junit.Assert;
 import org.junit.Before;
@@ -70,6 +71,9 @@ public class PropertyChangeManagerTest {
     @Injectable
     RegexUtil regexUtil;
 
+    @Injectable
+    TypedPropertySnapshot typedPropertySnapshot;
+
     Map<String, DomibusPropertyMetadata> props;
     String domainCode = "domain1";
     Domain domain = new Domain(domainCode, "DomainName1");
@@ -106,8 +110,9 @@ public class PropertyChangeManagerTest {
 
         propertyChangeManager.setPropertyValue(domain, propertyName, propValue, true);
 
-        new Verifications() {{
+        new VerificationsInOrder() {{
             propertyChangeManager.doSetPropertyValue(domain, propertyName, propValue);
+            typedPropertySnapshot.clear();
             propertyChangeManager.signalPropertyValueChanged(domain, propertyName, propValue, true, propMeta, oldValue);
         }};
     }
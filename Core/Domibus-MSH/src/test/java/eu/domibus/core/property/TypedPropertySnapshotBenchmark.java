@@ -0,0 +1,143 @@
+package eu.domibus.core.property;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.property.DomibusPropertyMetadata;
+import eu.domibus.ext.services.DomibusPropertyManagerExt;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the typed getters of the {@link DomibusPropertyProviderImpl} with and without the {@link TypedPropertySnapshot},
+ * in single tenancy, as called for each message. The values are resolved from the environment without the property
+ * cache proxy, which adds the evaluation of the cache key and the cache lookup to the resolution without snapshot.
+ * Not executed as part of the build: run the main method from the test classpath.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypedPropertySnapshotBenchmark {
+
+    private static final String INTEGER_PROPERTY = "domibus.benchmark.integer";
+
+    private static final String BOOLEAN_PROPERTY = "domibus.benchmark.boolean";
+
+    private DomibusPropertyProviderImpl resolvingProvider;
+
+    private DomibusPropertyProviderImpl snapshotProvider;
+
+    @Setup
+    public void setUp() {
+        Properties properties = new Properties();
+        properties.setProperty(INTEGER_PROPERTY, "5");
+        properties.setProperty(BOOLEAN_PROPERTY, "true");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new PropertiesPropertySource(DomibusPropertiesPropertySource.NAME, properties));
+
+        Map<String, DomibusPropertyMetadata> metadata = new HashMap<>();
+        metadata.put(INTEGER_PROPERTY, new DomibusPropertyMetadata(INTEGER_PROPERTY, DomibusPropertyMetadata.Type.NUMERIC, DomibusPropertyMetadata.Usage.DOMAIN, true));
+        metadata.put(BOOLEAN_PROPERTY, new DomibusPropertyMetadata(BOOLEAN_PROPERTY, DomibusPropertyMetadata.Type.BOOLEAN, DomibusPropertyMetadata.Usage.GLOBAL, false));
+
+        PropertyProviderHelper propertyProviderHelper = new PropertyProviderHelper(environment);
+        TypedPropertySnapshot disabledSnapshot = new TypedPropertySnapshot(propertyProviderHelper) {
+            @Override
+            public Object get(Domain domain, String propertyName) {
+                return null;
+            }
+
+            @Override
+            public void put(Domain domain, String propertyName, DomibusPropertyMetadata propMeta, Object value, long generation) {
+                // always resolve the value
+            }
+        };
+        resolvingProvider = createProvider(environment, metadata, propertyProviderHelper, disabledSnapshot);
+        snapshotProvider = createProvider(environment, metadata, propertyProviderHelper, new TypedPropertySnapshot(propertyProviderHelper));
+    }
+
+    private DomibusPropertyProviderImpl createProvider(StandardEnvironment environment, Map<String, DomibusPropertyMetadata> metadata,
+                                                       PropertyProviderHelper propertyProviderHelper, TypedPropertySnapshot typedPropertySnapshot) {
+        GlobalPropertyMetadataManager globalPropertyMetadataManager = new MapPropertyMetadataManager(metadata);
+        PropertyRetrieveManager propertyRetrieveManager = new PropertyRetrieveManager(environment, globalPropertyMetadataManager, propertyProviderHelper);
+        PropertyProviderDispatcher propertyProviderDispatcher = new PropertyProviderDispatcher(globalPropertyMetadataManager, propertyRetrieveManager, null, null, propertyProviderHelper);
+        PrimitivePropertyTypesManager primitivePropertyTypesManager = new PrimitivePropertyTypesManager(new Properties());
+        return new DomibusPropertyProviderImpl(globalPropertyMetadataManager, propertyProviderDispatcher, primitivePropertyTypesManager, null,
+                environment, propertyProviderHelper, null, null, null, null, typedPropertySnapshot);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int resolved_singleThread() {
+        return resolvingProvider.getIntegerProperty(INTEGER_PROPERTY) + (resolvingProvider.getBooleanProperty(BOOLEAN_PROPERTY) ? 1 : 0);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int snapshot_singleThread() {
+        return snapshotProvider.getIntegerProperty(INTEGER_PROPERTY) + (snapshotProvider.getBooleanProperty(BOOLEAN_PROPERTY) ? 1 : 0);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int resolved_contended() {
+        return resolvingProvider.getIntegerProperty(INTEGER_PROPERTY) + (resolvingProvider.getBooleanProperty(BOOLEAN_PROPERTY) ? 1 : 0);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int snapshot_contended() {
+        return snapshotProvider.getIntegerProperty(INTEGER_PROPERTY) + (snapshotProvider.getBooleanProperty(BOOLEAN_PROPERTY) ? 1 : 0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TypedPropertySnapshotBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static class MapPropertyMetadataManager implements GlobalPropertyMetadataManager {
+
+        private final Map<String, DomibusPropertyMetadata> metadata;
+
+        private MapPropertyMetadataManager(Map<String, DomibusPropertyMetadata> metadata) {
+            this.metadata = metadata;
+        }
+
+        @Override
+        public Map<String, DomibusPropertyMetadata> getAllProperties() {
+            return metadata;
+        }
+
+        @Override
+        public DomibusPropertyMetadata getPropertyMetadata(String propertyName) {
+            return metadata.get(propertyName);
+        }
+
+        @Override
+        public DomibusPropertyManagerExt getManagerForProperty(String propertyName) {
+            return null;
+        }
+
+        @Override
+        public boolean hasKnownProperty(String propertyName) {
+            return metadata.containsKey(propertyName);
+        }
+
+        @Override
+        public DomibusPropertyMetadata getComposableProperty(String propertyName) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package eu.domibus.core.property;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.property.DomibusPropertyMetadata;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @since 5.2
+ */
+public class TypedPropertySnapshotTest {
+
+    private static final String GLOBAL_PROPERTY = "domibus.global.property";
+
+    private static final String DOMAIN_PROPERTY = "domibus.domain.property";
+
+    @Tested
+    private TypedPropertySnapshot typedPropertySnapshot;
+
+    @Injectable
+    private PropertyProviderHelper propertyProviderHelper;
+
+    private final DomibusPropertyMetadata globalMeta = new DomibusPropertyMetadata(GLOBAL_PROPERTY, DomibusPropertyMetadata.Type.NUMERIC, DomibusPropertyMetadata.Usage.GLOBAL, false);
+
+    private final DomibusPropertyMetadata domainMeta = new DomibusPropertyMetadata(DOMAIN_PROPERTY, DomibusPropertyMetadata.Type.BOOLEAN, DomibusPropertyMetadata.Usage.DOMAIN, true);
+
+    @Test
+    public void get_globalProperty() {
+        assertNull(typedPropertySnapshot.get(null, GLOBAL_PROPERTY));
+
+        typedPropertySnapshot.put(null, GLOBAL_PROPERTY, globalMeta, 10, typedPropertySnapshot.getGeneration());
+
+        assertEquals(10, typedPropertySnapshot.get(null, GLOBAL_PROPERTY));
+        assertEquals(10, typedPropertySnapshot.get(new Domain("red", "red"), GLOBAL_PROPERTY));
+    }
+
+    @Test
+    public void get_domainProperty() {
+        new Expectations() {{
+            propertyProviderHelper.getCurrentDomainCode();
+            result = "red";
+        }};
+
+        typedPropertySnapshot.put(new Domain("red", "red"), DOMAIN_PROPERTY, domainMeta, true, typedPropertySnapshot.getGeneration());
+        typedPropertySnapshot.put(new Domain("blue", "blue"), DOMAIN_PROPERTY, domainMeta, false, typedPropertySnapshot.getGeneration());
+
+        assertEquals(true, typedPropertySnapshot.get(null, DOMAIN_PROPERTY));
+        assertEquals(false, typedPropertySnapshot.get(new Domain("blue", "blue"), DOMAIN_PROPERTY));
+        assertNull(typedPropertySnapshot.get(new Domain("green", "green"), DOMAIN_PROPERTY));
+    }
+
+    @Test
+    public void get_noCurrentDomain() {
+        new Expectations() {{
+            propertyProviderHelper.getCurrentDomainCode();
+            result = null;
+        }};
+
+        typedPropertySnapshot.put(null, DOMAIN_PROPERTY, domainMeta, true, typedPropertySnapshot.getGeneration());
+
+        assertNull(typedPropertySnapshot.get(null, DOMAIN_PROPERTY));
+    }
+
+    @Test
+    public void clear() {
+        typedPropertySnapshot.put(null, GLOBAL_PROPERTY, globalMeta, 10, typedPropertySnapshot.getGeneration());
+        typedPropertySnapshot.put(new Domain("red", "red"), DOMAIN_PROPERTY, domainMeta, true, typedPropertySnapshot.getGeneration());
+
+        typedPropertySnapshot.clear();
+
+        assertNull(typedPropertySnapshot.get(null, GLOBAL_PROPERTY));
+        assertNull(typedPropertySnapshot.get(new Domain("red", "red"), DOMAIN_PROPERTY));
+    }
+
+    @Test
+    public void put_valueResolvedBeforeAChange() {
+        final long generation = typedPropertySnapshot.getGeneration();
+        typedPropertySnapshot.clear();
+
+        typedPropertySnapshot.put(null, GLOBAL_PROPERTY, globalMeta, 10, generation);
+
+        assertNull(typedPropertySnapshot.get(null, GLOBAL_PROPERTY));
+    }
+
+    @Test
+    public void put_externalProperty() {
+        DomibusPropertyMetadata externalMeta = new DomibusPropertyMetadata(GLOBAL_PROPERTY, DomibusPropertyMetadata.Type.NUMERIC, DomibusPropertyMetadata.Usage.GLOBAL, false);
+        externalMeta.setStoredGlobally(false);
+
+        typedPropertySnapshot.put(null, GLOBAL_PROPERTY, externalMeta, 10, typedPropertySnapshot.getGeneration());
+
+        assertNull(typedPropertySnapshot.get(null, GLOBAL_PROPERTY));
+    }
+}
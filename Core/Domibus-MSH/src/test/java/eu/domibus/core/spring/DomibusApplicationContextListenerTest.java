@@ -8,12 +8,14 @@ import eu.domibus.api.plugin.BackendConnectorService;
 import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.core.earchive.storage.EArchiveFileStorageProvider;
 import eu.domibus.core.jms.MessageListenerContainerInitializer;
+import eu.domibus.core.message.dictionary.DictionaryCacheWarmUpService;
 import eu.domibus.core.message.dictionary.StaticDictionaryService;
 import eu.domibus.core.metrics.JmsQueueCountSetScheduler;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorageProvider;
 import eu.domibus.core.plugin.initializer.PluginInitializerProvider;
 import eu.domibus.core.plugin.routing.BackendFilterInitializerService;
 import eu.domibus.core.plugin.routing.RoutingService;
+import eu.domibus.core.pmode.provider.dynamicdiscovery.DynamicDiscoveryLookupService;
 import eu.domibus.core.property.DomibusPropertyValidatorService;
 import eu.domibus.core.property.GatewayConfigurationValidator;
 import eu.domibus.core.scheduler.DomibusQuartzStarter;
@@ -74,6 +76,12 @@ public class DomibusApplicationContextListenerTest {
     @Injectable
     protected StaticDictionaryService staticDictionaryService;
 
+    @Injectable
+    protected DictionaryCacheWarmUpService dictionaryCacheWarmUpService;
+
+    @Injectable
+    protected DynamicDiscoveryLookupService dynamicDiscoveryLookupService;
+
     @Injectable
     protected DomainTaskExecutor domainTaskExecutor;
 
@@ -186,6 +194,12 @@ public class DomibusApplicationContextListenerTest {
             routingService.initialize();
             times = 1;
 
+            dictionaryCacheWarmUpService.warmUp();
+            times = 1;
+
+            dynamicDiscoveryLookupService.warmUp();
+            times = 1;
+
             eArchiveFileStorageProvider.initialize();
             times = 1;
 
@@ -4,6 +4,8 @@ import eu.domibus.ext.domain.CacheEntryDTO;
 import eu.domibus.ext.exceptions.CacheExtServiceException;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service responsible for managing the distributed cache. Changes are propagated automatically amongst the cluster members.
@@ -70,6 +72,31 @@ public interface DistributedCacheExtService {
      */
     void evictEntryFromCache(String cacheName, String key) throws CacheExtServiceException;
 
+    /**
+     * Gets several entries from the cache at once, instead of one call per entry
+     * @param cacheName The cache name from which we get entries
+     * @param keys The keys of the entries
+     * @return The entries found in the cache; the keys without entry are not present in the result
+     * @throws CacheExtServiceException if the cache does not exist
+     */
+    Map<String, Object> getEntriesFromCache(String cacheName, Set<String> keys) throws CacheExtServiceException;
+
+    /**
+     * Adds several entries in the cache at once, instead of one call per entry
+     * @param cacheName The cache name in which we add entries
+     * @param entries The entries to add in the cache
+     * @throws CacheExtServiceException if the cache does not exist
+     */
+    void addEntriesInCache(String cacheName, Map<String, Object> entries) throws CacheExtServiceException;
+
+    /**
+     * Evicts several entries from the cache at once, instead of one call per entry
+     * @param cacheName The cache name from which we evict entries
+     * @param keys The keys of the entries
+     * @throws CacheExtServiceException if the cache does not exist
+     */
+    void evictEntriesFromCache(String cacheName, Set<String> keys) throws CacheExtServiceException;
+
     /**
      * Get all cache names
      * @return the list of cache names
@@ -5,6 +5,7 @@ import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.plugin.fs.exception.FSSetUpException;
 import eu.domibus.plugin.fs.property.FSPluginProperties;
 import eu.domibus.plugin.fs.vfs.FileObjectDataSource;
+import eu.domibus.plugin.fs.vfs.LocalFileObjectDataSource;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.vfs2.*;
 import org.apache.commons.vfs2.auth.StaticUserAuthenticator;
@@ -29,6 +30,7 @@ public class FSFilesManager {
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(FSFilesManager.class);
 
     private static final String FTP_PREFIX = "ftp:";
+    private static final String LOCAL_FILE_PREFIX = "file://";
     private static final String PARENT_RELATIVE_PATH = "../";
     private static final int TEN_SECONDS = 10000;
 
@@ -120,7 +122,17 @@ public class FSFilesManager {
         return folder.findFiles(new FileTypeSelector(fileType));
     }
 
+    /**
+     * Creates the DataHandler of a payload file; the files located on the local file system are exposed as such, so that
+     * Domibus can transfer them into its payload storage
+     *
+     * @param file the payload file
+     * @return the DataHandler of the file
+     */
     public DataHandler getDataHandler(FileObject file) {
+        if (StringUtils.startsWith(file.getName().getURI(), LOCAL_FILE_PREFIX)) {
+            return new DataHandler(new LocalFileObjectDataSource(file));
+        }
         return new DataHandler(new FileObjectDataSource(file));
     }
 
@@ -229,6 +229,22 @@ public class FSPluginProperties extends DomibusPropertyExtServiceDelegateAbstrac
         return getDomainIntegerProperty(domain, SEND_WORKER_INTERVAL);
     }
 
+    /**
+     * @param domain The domain property qualifier
+     * @return True if the changes of a local OUT folder are watched instead of listing the whole folder on each run
+     */
+    public boolean isSendWatchEnabled(String domain) {
+        return BooleanUtils.toBoolean(getDomainProperty(domain, SEND_WATCH_ENABLED));
+    }
+
+    /**
+     * @param domain The domain property qualifier
+     * @return interval in milliseconds between two full listings of a watched OUT folder
+     */
+    public Integer getSendWatchReconciliationInterval(String domain) {
+        return getDomainIntegerProperty(domain, SEND_WATCH_RECONCILIATION_INTERVAL);
+    }
+
     /**
      * @param domain The domain property qualifier
      * @return True if the sent messages action is "archive"
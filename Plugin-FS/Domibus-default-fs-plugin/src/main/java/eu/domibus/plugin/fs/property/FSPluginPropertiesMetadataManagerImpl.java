@@ -44,6 +44,10 @@ public class FSPluginPropertiesMetadataManagerImpl implements DomibusPropertyMet
 
     public static final String SEND_WORKER_INTERVAL = "fsplugin.messages.send.worker.repeatInterval";
 
+    protected static final String SEND_WATCH_ENABLED = "fsplugin.messages.send.watch.enabled";
+
+    protected static final String SEND_WATCH_RECONCILIATION_INTERVAL = "fsplugin.messages.send.watch.reconciliationInterval";
+
     public static final String RECEIVED_PURGE_WORKER_CRONEXPRESSION = "fsplugin.messages.received.purge.worker.cronExpression";
 
     public static final String LOCKS_PURGE_WORKER_CRONEXPRESSION = "fsplugin.messages.locks.purge.worker.cronExpression";
@@ -116,6 +120,8 @@ public class FSPluginPropertiesMetadataManagerImpl implements DomibusPropertyMet
                         new DomibusPropertyMetadataDTO(LOCATION, Type.URI, Module.FS_PLUGIN, Usage.DOMAIN, false),
                         new DomibusPropertyMetadataDTO(DOMAIN_ENABLED, Type.BOOLEAN, Module.FS_PLUGIN, true, Usage.DOMAIN, true, true, false, false),
                         new DomibusPropertyMetadataDTO(SEND_DELAY, Type.NUMERIC, Module.FS_PLUGIN, Usage.DOMAIN, true),
+                        new DomibusPropertyMetadataDTO(SEND_WATCH_ENABLED, Type.BOOLEAN, Module.FS_PLUGIN, Usage.DOMAIN, true),
+                        new DomibusPropertyMetadataDTO(SEND_WATCH_RECONCILIATION_INTERVAL, Type.NUMERIC, Module.FS_PLUGIN, Usage.DOMAIN, true),
                         new DomibusPropertyMetadataDTO(PAYLOAD_SCHEDULE_THRESHOLD, Type.NUMERIC, Module.FS_PLUGIN, Usage.GLOBAL, true),
                         new DomibusPropertyMetadataDTO(SENT_ACTION, Module.FS_PLUGIN, Usage.DOMAIN, true),
                         new DomibusPropertyMetadataDTO(FAILED_ACTION, Module.FS_PLUGIN, Usage.DOMAIN, true),
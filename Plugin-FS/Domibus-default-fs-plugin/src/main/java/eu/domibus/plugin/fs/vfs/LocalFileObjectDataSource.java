@@ -0,0 +1,32 @@
+package eu.domibus.plugin.fs.vfs;
+
+import eu.domibus.plugin.fs.exception.FSPluginException;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+
+import javax.activation.FileDataSource;
+
+/**
+ * Data source of a file located on the local file system: Domibus reads the file itself instead of its VFS content,
+ * so that it can copy the payload into its storage without streaming it through the heap.
+ *
+ * @since 5.2
+ */
+public class LocalFileObjectDataSource extends FileDataSource {
+
+    private final FileObject file;
+
+    public LocalFileObjectDataSource(final FileObject file) {
+        super(file.getPath().toFile());
+        this.file = file;
+    }
+
+    @Override
+    public String getContentType() {
+        try {
+            return file.getContent().getContentInfo().getContentType();
+        } catch (final FileSystemException e) {
+            throw new FSPluginException("Could not retrieve content type from FileObject", e);
+        }
+    }
+}
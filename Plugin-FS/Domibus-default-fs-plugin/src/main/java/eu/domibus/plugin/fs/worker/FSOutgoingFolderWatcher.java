@@ -0,0 +1,311 @@
+package eu.domibus.plugin.fs.worker;
+
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import eu.domibus.plugin.fs.FSFileNameHelper;
+import eu.domibus.plugin.fs.property.FSPluginProperties;
+import org.apache.commons.vfs2.FileObject;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the changes of the OUT folders located on the local file system, so that the send worker only checks the files
+ * created or modified since its previous run instead of listing the whole OUT folder each time.
+ * <p>
+ * The OUT folder of a domain is still listed when its watch starts, periodically (see
+ * {@link FSPluginProperties#getSendWatchReconciliationInterval(String)}) and when some events were lost, to catch up
+ * the changes which could not be watched. The folders accessed remotely (e.g. SMB, SFTP) are not watched and are listed
+ * on each run.
+ *
+ * @since 5.2
+ */
+@Service
+public class FSOutgoingFolderWatcher {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(FSOutgoingFolderWatcher.class);
+
+    protected static final String LOCAL_FILE_URI_PREFIX = "file://";
+
+    protected final Map<String, FolderWatch> folderWatches = new ConcurrentHashMap<>();
+
+    protected final FSPluginProperties fsPluginProperties;
+
+    protected final FSFileNameHelper fsFileNameHelper;
+
+    public FSOutgoingFolderWatcher(FSPluginProperties fsPluginProperties, FSFileNameHelper fsFileNameHelper) {
+        this.fsPluginProperties = fsPluginProperties;
+        this.fsFileNameHelper = fsFileNameHelper;
+    }
+
+    /**
+     * Collects the changes of the OUT folder of the domain since the previous call
+     *
+     * @param domain         the domain
+     * @param outgoingFolder the OUT folder of the domain
+     * @return true if the changed files are known, see {@link #takeChangedFiles(String)}, or false if the whole folder
+     * must be listed, followed by a call to {@link #reconciled(String, Set)}
+     */
+    public boolean pollChanges(String domain, FileObject outgoingFolder) {
+        final Path root = getWatchedPath(domain, outgoingFolder);
+        FolderWatch folderWatch = folderWatches.get(domain);
+        if (folderWatch != null && !folderWatch.root.equals(root)) {
+            LOG.info("Stopping the watch of the OUT folder [{}] of domain [{}]", folderWatch.root, domain);
+            stop(domain);
+            folderWatch = null;
+        }
+        if (root == null) {
+            return false;
+        }
+        if (folderWatch == null) {
+            try {
+                folderWatch = start(domain, root);
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Could not watch the OUT folder [{}] of domain [{}]: the folder is listed instead", root, domain, e);
+                return false;
+            }
+        }
+
+        folderWatch.processEvents();
+
+        final long reconciliationInterval = fsPluginProperties.getSendWatchReconciliationInterval(domain);
+        final long now = System.currentTimeMillis();
+        if (folderWatch.reconciliationRequested
+                || (reconciliationInterval > 0 && now - folderWatch.lastReconciliation >= reconciliationInterval)) {
+            LOG.debug("Reconciling the OUT folder [{}] of domain [{}]", root, domain);
+            folderWatch.reconciliationRequested = false;
+            folderWatch.lastReconciliation = now;
+            folderWatch.changedFiles.clear();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param domain the domain
+     * @return the names, relative to the OUT folder, of the files created or modified since the previous call
+     */
+    public Set<String> takeChangedFiles(String domain) {
+        final FolderWatch folderWatch = folderWatches.get(domain);
+        final Set<String> changedFiles = new HashSet<>();
+        if (folderWatch == null) {
+            return changedFiles;
+        }
+        for (String relativeName : folderWatch.changedFiles) {
+            folderWatch.changedFiles.remove(relativeName);
+            changedFiles.add(relativeName);
+        }
+        return changedFiles;
+    }
+
+    /**
+     * @param domain the domain
+     * @return the names, relative to the OUT folder, of the files having a lock file
+     */
+    public Set<String> getLockedFileNames(String domain) {
+        final FolderWatch folderWatch = folderWatches.get(domain);
+        if (folderWatch == null) {
+            return new HashSet<>();
+        }
+        return folderWatch.lockedFileNames;
+    }
+
+    /**
+     * Replaces the locked files known for the domain by the ones found while listing its whole OUT folder
+     *
+     * @param domain          the domain
+     * @param lockedFileNames the names, relative to the OUT folder, of the files having a lock file
+     */
+    public void reconciled(String domain, Set<String> lockedFileNames) {
+        final FolderWatch folderWatch = folderWatches.get(domain);
+        if (folderWatch == null) {
+            return;
+        }
+        final Set<String> reconciledFileNames = ConcurrentHashMap.newKeySet();
+        reconciledFileNames.addAll(lockedFileNames);
+        folderWatch.lockedFileNames = reconciledFileNames;
+    }
+
+    /**
+     * Checks again the file on the next run, e.g. when it is still being written
+     *
+     * @param domain       the domain
+     * @param relativeName the name of the file, relative to the OUT folder
+     */
+    public void retry(String domain, String relativeName) {
+        final FolderWatch folderWatch = folderWatches.get(domain);
+        if (folderWatch != null) {
+            folderWatch.changedFiles.add(relativeName);
+        }
+    }
+
+    /**
+     * Checks again the file on the next run, e.g. when it could not be processed
+     *
+     * @param domain the domain
+     * @param file   the file, located in the OUT folder
+     */
+    public void retry(String domain, FileObject file) {
+        final FolderWatch folderWatch = folderWatches.get(domain);
+        if (folderWatch == null || !file.getName().getURI().startsWith(LOCAL_FILE_URI_PREFIX)) {
+            return;
+        }
+        final Path path = file.getPath().toAbsolutePath().normalize();
+        if (path.startsWith(folderWatch.root)) {
+            folderWatch.changedFiles.add(folderWatch.getRelativeName(path));
+        }
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        folderWatches.keySet().forEach(this::stop);
+    }
+
+    protected Path getWatchedPath(String domain, FileObject outgoingFolder) {
+        if (!fsPluginProperties.isSendWatchEnabled(domain)) {
+            return null;
+        }
+        if (!outgoingFolder.getName().getURI().startsWith(LOCAL_FILE_URI_PREFIX)) {
+            LOG.trace("The OUT folder [{}] of domain [{}] is not local: the folder is listed", outgoingFolder.getName(), domain);
+            return null;
+        }
+        return outgoingFolder.getPath().toAbsolutePath().normalize();
+    }
+
+    protected FolderWatch start(String domain, Path root) throws IOException {
+        LOG.info("Starting the watch of the OUT folder [{}] of domain [{}]", root, domain);
+        final FolderWatch folderWatch = new FolderWatch(root, root.getFileSystem().newWatchService());
+        try {
+            folderWatch.register(root, false);
+        } catch (IOException | RuntimeException e) {
+            folderWatch.close();
+            throw e;
+        }
+        folderWatches.put(domain, folderWatch);
+        return folderWatch;
+    }
+
+    protected void stop(String domain) {
+        final FolderWatch folderWatch = folderWatches.remove(domain);
+        if (folderWatch != null) {
+            folderWatch.close();
+        }
+    }
+
+    protected class FolderWatch {
+
+        protected final Path root;
+
+        protected final WatchService watchService;
+
+        protected final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+
+        protected final Set<String> changedFiles = ConcurrentHashMap.newKeySet();
+
+        protected volatile Set<String> lockedFileNames = ConcurrentHashMap.newKeySet();
+
+        protected volatile boolean reconciliationRequested = true;
+
+        protected volatile long lastReconciliation;
+
+        protected FolderWatch(Path root, WatchService watchService) {
+            this.root = root;
+            this.watchService = watchService;
+        }
+
+        protected synchronized void processEvents() {
+            WatchKey key;
+            while ((key = watchService.poll()) != null) {
+                final Path directory = directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        LOG.debug("Events of the OUT folder [{}] were lost", root);
+                        reconciliationRequested = true;
+                    } else if (directory != null) {
+                        onEvent(event.kind(), directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(key);
+                }
+            }
+        }
+
+        protected void onEvent(WatchEvent.Kind<?> kind, Path path) {
+            final String relativeName = getRelativeName(path);
+            if (kind == ENTRY_DELETE) {
+                changedFiles.remove(relativeName);
+                if (fsFileNameHelper.isLockFile(relativeName)) {
+                    // the file is not locked anymore: it is checked again
+                    final String lockedFileName = fsFileNameHelper.stripLockSuffix(relativeName);
+                    lockedFileNames.remove(lockedFileName);
+                    changedFiles.add(lockedFileName);
+                }
+                return;
+            }
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                if (kind == ENTRY_CREATE) {
+                    try {
+                        register(path, true);
+                    } catch (IOException e) {
+                        LOG.warn("Could not watch the folder [{}]", path, e);
+                        reconciliationRequested = true;
+                    }
+                }
+                return;
+            }
+            onFile(relativeName);
+        }
+
+        protected void onFile(String relativeName) {
+            if (fsFileNameHelper.isLockFile(relativeName)) {
+                lockedFileNames.add(fsFileNameHelper.stripLockSuffix(relativeName));
+                return;
+            }
+            changedFiles.add(relativeName);
+        }
+
+        /**
+         * Watches the folder and its sub-folders, collecting their files when the folder was created after the watch started
+         */
+        protected void register(Path start, boolean collectFiles) throws IOException {
+            Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (collectFiles && attrs.isRegularFile()) {
+                        onFile(getRelativeName(file));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        protected String getRelativeName(Path path) {
+            return root.relativize(path).toString().replace(File.separatorChar, '/');
+        }
+
+        protected void close() {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOG.warn("Could not close the watch of the OUT folder [{}]", root, e);
+            }
+        }
+    }
+}
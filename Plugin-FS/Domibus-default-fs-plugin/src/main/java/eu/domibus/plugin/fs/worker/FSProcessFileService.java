@@ -51,6 +51,9 @@ public class FSProcessFileService {
     @Autowired
     protected FSFileNameHelper fsFileNameHelper;
 
+    @Autowired
+    protected FSOutgoingFolderWatcher fsOutgoingFolderWatcher;
+
     public void processFile(FileObject processableFile, String domain) throws IOException, JAXBException, MessagingProcessingException, XMLStreamException {
         LOG.debug("processFile start for file: {}", processableFile);
 
@@ -82,10 +85,21 @@ public class FSProcessFileService {
 
             } else {
                 LOG.error("Metadata file is missing for " + processableFile.getName().getURI());
+                // the file is checked again once its metadata file is created
+                unlock(processableFile);
+                fsOutgoingFolderWatcher.retry(domain, processableFile);
             }
         }
     }
 
+    protected void unlock(FileObject processableFile) {
+        try {
+            fsFilesManager.deleteLockFile(processableFile);
+        } catch (FileSystemException e) {
+            LOG.warn("Could not delete the lock file of [{}]", processableFile.getName().getURI(), e);
+        }
+    }
+
     public void renameProcessedFile(FileObject processableFile, String messageId) {
         final String baseName = processableFile.getName().getBaseName();
         String newFileName = fsFileNameHelper.deriveFileName(baseName, messageId);
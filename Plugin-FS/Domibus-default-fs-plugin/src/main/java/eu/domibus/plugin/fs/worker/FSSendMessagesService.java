@@ -22,6 +22,7 @@ import eu.domibus.plugin.fs.property.FSPluginProperties;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.NameScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -37,6 +38,7 @@ import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -83,8 +85,11 @@ public class FSSendMessagesService {
     @Autowired
     protected FSFileNameHelper fsFileNameHelper;
 
+    @Autowired
+    protected FSOutgoingFolderWatcher fsOutgoingFolderWatcher;
+
 
-    protected Map<String, FileInfo> observedFilesInfo = new HashMap<>();
+    protected Map<String, FileInfo> observedFilesInfo = new ConcurrentHashMap<>();
 
     /**
      * Triggering the send messages means that the message files from the OUT directory
@@ -132,10 +137,19 @@ public class FSSendMessagesService {
         try (FileObject rootDir = fsFilesManager.setUpFileSystem(domain);
              FileObject outgoingFolder = fsFilesManager.getEnsureChildFolder(rootDir, FSFilesManager.OUTGOING_FOLDER)) {
 
-            contentFiles = fsFilesManager.findAllDescendantFiles(outgoingFolder);
-            LOG.trace("Found descendant files [{}] for output folder [{}]", contentFiles, outgoingFolder.getName().getPath());
+            final Set<String> lockedFileNames;
+            if (fsOutgoingFolderWatcher.pollChanges(domain, outgoingFolder)) {
+                contentFiles = resolveChangedFiles(outgoingFolder, fsOutgoingFolderWatcher.takeChangedFiles(domain));
+                LOG.trace("Found changed files [{}] for output folder [{}]", contentFiles, outgoingFolder.getName().getPath());
+                lockedFileNames = fsOutgoingFolderWatcher.getLockedFileNames(domain);
+            } else {
+                contentFiles = fsFilesManager.findAllDescendantFiles(outgoingFolder);
+                LOG.trace("Found descendant files [{}] for output folder [{}]", contentFiles, outgoingFolder.getName().getPath());
+                lockedFileNames = getLockedFileNames(outgoingFolder, contentFiles);
+                fsOutgoingFolderWatcher.reconciled(domain, lockedFileNames);
+            }
 
-            List<FileObject> processableFiles = filterProcessableFiles(outgoingFolder, contentFiles, domain);
+            List<FileObject> processableFiles = filterProcessableFiles(outgoingFolder, contentFiles, domain, lockedFileNames);
             LOG.debug("Processable files [{}]", processableFiles);
 
             //we send the thread context manually since it will be lost in threads created by parallel stream
@@ -209,8 +223,26 @@ public class FSSendMessagesService {
             LOG.error(errorMessage, ex);
         } finally {
             if (errorMessage != null) {
-                handleSendFailedMessage(processableFile, domain, errorMessage);
+                try {
+                    handleSendFailedMessage(processableFile, domain, errorMessage);
+                } finally {
+                    retryIfPresent(processableFile, domain);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks again on the next run the file still present in the OUT folder (e.g. it could not be archived), as the next
+     * listing of the OUT folder would
+     */
+    protected void retryIfPresent(FileObject processableFile, String domain) {
+        try {
+            if (processableFile != null && processableFile.exists()) {
+                fsOutgoingFolderWatcher.retry(domain, processableFile);
             }
+        } catch (FileSystemException e) {
+            LOG.warn("Could not check if the file [{}] is still present", processableFile.getName(), e);
         }
     }
 
@@ -285,28 +317,87 @@ public class FSSendMessagesService {
         return sb;
     }
 
-    protected List<FileObject> filterProcessableFiles(FileObject rootFolder, FileObject[] files, String domain) {
-        List<FileObject> filteredFiles = new LinkedList<>();
+    /**
+     * Resolves the changed files of the OUT folder, skipping the ones that do not exist anymore. The files located next
+     * to a changed metadata file are added, as they could be waiting for it.
+     *
+     * @param rootFolder    the OUT folder
+     * @param relativeNames the names of the changed files, relative to the OUT folder
+     * @return the changed files
+     */
+    protected FileObject[] resolveChangedFiles(FileObject rootFolder, Set<String> relativeNames) {
+        Map<String, FileObject> files = new LinkedHashMap<>(relativeNames.size());
+        for (String relativeName : relativeNames) {
+            try {
+                FileObject file = rootFolder.resolveFile(relativeName, NameScope.DESCENDENT);
+                if (!file.isFile() || files.containsKey(relativeName)) {
+                    file.close();
+                    continue;
+                }
+                files.put(relativeName, file);
+                if (isMetadata(file.getName().getBaseName())) {
+                    addSiblingFiles(rootFolder, file, files);
+                }
+            } catch (FileSystemException e) {
+                LOG.warn("Could not resolve the changed file [{}] of folder [{}]", relativeName, rootFolder.getName(), e);
+            }
+        }
+        return files.values().toArray(new FileObject[0]);
+    }
+
+    protected void addSiblingFiles(FileObject rootFolder, FileObject metadataFile, Map<String, FileObject> files) throws FileSystemException {
+        try (FileObject folder = metadataFile.getParent()) {
+            for (FileObject sibling : folder.getChildren()) {
+                Optional<String> relativeName = fsFileNameHelper.getRelativeName(rootFolder, sibling);
+                if (sibling.isFile() && relativeName.isPresent() && !files.containsKey(relativeName.get())) {
+                    LOG.trace("Checking the file [{}] with the changed metadata file [{}]", relativeName.get(), metadataFile.getName());
+                    files.put(relativeName.get(), sibling);
+                } else {
+                    sibling.close();
+                }
+            }
+        }
+    }
 
-        List<String> lockedFileNames = Arrays.stream(files)
+    protected Set<String> getLockedFileNames(FileObject rootFolder, FileObject[] files) {
+        return Arrays.stream(files)
                 .filter(f -> fsFileNameHelper.isLockFile(f.getName().getBaseName()))
                 .map(f -> fsFileNameHelper.getRelativeName(rootFolder, f))
                 .filter(Optional::isPresent)
                 .map(fname -> fsFileNameHelper.stripLockSuffix(fname.get()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toSet());
+    }
+
+    protected List<FileObject> filterProcessableFiles(FileObject rootFolder, FileObject[] files, String domain) {
+        return filterProcessableFiles(rootFolder, files, domain, getLockedFileNames(rootFolder, files));
+    }
+
+    protected List<FileObject> filterProcessableFiles(FileObject rootFolder, FileObject[] files, String domain, Set<String> lockedFileNames) {
+        List<FileObject> filteredFiles = new LinkedList<>();
 
         for (FileObject file : files) {
             String fileName = file.getName().getBaseName();
 
-            if (!isMetadata(fileName)
-                    && !fsFileNameHelper.isAnyState(fileName)
-                    && !fsFileNameHelper.isProcessed(fileName)
+            if (isMetadata(fileName)
+                    || fsFileNameHelper.isAnyState(fileName)
+                    || fsFileNameHelper.isProcessed(fileName)
                     // exclude lock files:
-                    && !fsFileNameHelper.isLockFile(fileName)
-                    // exclude locked files:
-                    && !isLocked(lockedFileNames, fsFileNameHelper.getRelativeName(rootFolder, file))
-                    // exclude files that are (or could be) in use by other processes:
-                    && canReadFileSafely(file, domain)) {
+                    || fsFileNameHelper.isLockFile(fileName)) {
+                continue;
+            }
+            Optional<String> relativeName = fsFileNameHelper.getRelativeName(rootFolder, file);
+            // exclude locked files:
+            if (isLocked(lockedFileNames, relativeName)) {
+                continue;
+            }
+            // exclude files that are (or could be) in use by other processes:
+            if (!canReadFileSafely(file, domain)) {
+                // a watched file is checked again on the next run, even without new change
+                retry(domain, relativeName);
+                continue;
+            }
+            // exclude files whose metadata is missing or could still be written:
+            if (isMetadataReady(file, domain, relativeName)) {
                 filteredFiles.add(file);
             }
         }
@@ -314,13 +405,40 @@ public class FSSendMessagesService {
         return filteredFiles;
     }
 
+    /**
+     * Checks that the metadata file of the given file exists and was not modified recently. The file is checked again on
+     * the next run when its metadata was modified recently; when its metadata is missing, it is checked again once the
+     * metadata file is created (see {@link #resolveChangedFiles(FileObject, Set)}) or on the next listing of the OUT folder.
+     */
+    protected boolean isMetadataReady(FileObject file, String domain, Optional<String> relativeName) {
+        try (FileObject metadataFile = fsFilesManager.resolveSibling(file, METADATA_FILE_NAME)) {
+            if (!metadataFile.exists()) {
+                LOG.debug("Could not process file [{}] because its metadata file is missing.", file.getName().getPath());
+                return false;
+            }
+            if (checkTimestampChangedRecently(metadataFile, domain)) {
+                LOG.debug("Could not process file [{}] because its metadata file has changed recently.", file.getName().getPath());
+                retry(domain, relativeName);
+                return false;
+            }
+            return true;
+        } catch (FileSystemException e) {
+            LOG.warn("Could not check the metadata file of [{}]", file.getName().getPath(), e);
+            retry(domain, relativeName);
+            return false;
+        }
+    }
+
+    protected void retry(String domain, Optional<String> relativeName) {
+        relativeName.ifPresent(name -> fsOutgoingFolderWatcher.retry(domain, name));
+    }
+
     protected boolean isMetadata(String baseName) {
         return StringUtils.equals(baseName, METADATA_FILE_NAME);
     }
 
-    protected boolean isLocked(List<String> lockedFileNames, Optional<String> fileName) {
-        return fileName.isPresent()
-                && lockedFileNames.stream().anyMatch(fname -> fname.equals(fileName.get()));
+    protected boolean isLocked(Set<String> lockedFileNames, Optional<String> fileName) {
+        return fileName.isPresent() && lockedFileNames.contains(fileName.get());
     }
 
     protected boolean canReadFileSafely(FileObject fileObject, String domain) {
@@ -383,14 +501,14 @@ public class FSSendMessagesService {
 
         int delta = 2 * fsPluginProperties.getSendWorkerInterval(domain) + fsPluginProperties.getSendDelay(domain);
         long currentTime = new Date().getTime();
-        String[] keys = observedFilesInfo.keySet().toArray(new String[]{});
-        for (String key : keys) {
-            FileInfo fileInfo = observedFilesInfo.get(key);
+        observedFilesInfo.entrySet().removeIf(entry -> {
+            FileInfo fileInfo = entry.getValue();
             if (fileInfo.getDomain().equals(domain) && ((currentTime - fileInfo.getModified()) > delta)) {
-                LOG.debug("File [{}] is old and will not be observed anymore", key);
-                observedFilesInfo.remove(key);
+                LOG.debug("File [{}] is old and will not be observed anymore", entry.getKey());
+                return true;
             }
-        }
+            return false;
+        });
 
         LOG.trace("Ending clear of the observed files for domain [{}]; there are [{}] entries", domain, observedFilesInfo.size());
     }
@@ -4,6 +4,8 @@ import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.plugin.fs.exception.FSSetUpException;
 import eu.domibus.plugin.fs.property.FSPluginProperties;
+import eu.domibus.plugin.fs.vfs.FileObjectDataSource;
+import eu.domibus.plugin.fs.vfs.LocalFileObjectDataSource;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
 import org.apache.commons.lang.StringUtils;
@@ -15,6 +17,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import javax.activation.DataHandler;
+import java.io.File;
 
 /**
  * @author FERNANDES Henrique, GONCALVES Bruno
@@ -135,7 +138,20 @@ public class FSFilesManagerTest {
         DataHandler result = instance.getDataHandler(rootDir);
 
         Assert.assertNotNull(result);
-        Assert.assertNotNull(result.getDataSource());
+        Assert.assertTrue(result.getDataSource() instanceof FileObjectDataSource);
+    }
+
+    @Test
+    public void testGetDataHandler_LocalFile() throws Exception {
+        File localFile = File.createTempFile("FSFilesManagerTest", ".xml");
+        localFile.deleteOnExit();
+        try (FileObject file = VFS.getManager().resolveFile(localFile.toURI().toString())) {
+            DataHandler result = instance.getDataHandler(file);
+
+            Assert.assertTrue(result.getDataSource() instanceof LocalFileObjectDataSource);
+            Assert.assertEquals(localFile.getCanonicalFile(), ((LocalFileObjectDataSource) result.getDataSource()).getFile().getCanonicalFile());
+            Assert.assertEquals(localFile.getName(), result.getName());
+        }
     }
 
     @Test
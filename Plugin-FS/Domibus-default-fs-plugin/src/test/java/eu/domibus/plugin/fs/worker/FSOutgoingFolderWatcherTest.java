@@ -0,0 +1,195 @@
+package eu.domibus.plugin.fs.worker;
+
+import eu.domibus.plugin.fs.FSFileNameHelper;
+import eu.domibus.plugin.fs.property.FSPluginProperties;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.integration.junit4.JMockit;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.VFS;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class FSOutgoingFolderWatcherTest {
+
+    private static final String DOMAIN = "default";
+
+    private static final long EVENTS_TIMEOUT = 10000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Injectable
+    private FSPluginProperties fsPluginProperties;
+
+    private FSOutgoingFolderWatcher watcher;
+
+    private Path outPath;
+
+    private FileObject outgoingFolder;
+
+    @Before
+    public void setUp() throws IOException {
+        watcher = new FSOutgoingFolderWatcher(fsPluginProperties, new FSFileNameHelper(Collections.emptyList()));
+        outPath = temporaryFolder.newFolder("OUT").toPath();
+        outgoingFolder = VFS.getManager().resolveFile(outPath.toUri().toString());
+    }
+
+    @After
+    public void tearDown() throws FileSystemException {
+        watcher.stopAll();
+        outgoingFolder.close();
+    }
+
+    @Test
+    public void pollChanges_disabled() {
+        new Expectations() {{
+            fsPluginProperties.isSendWatchEnabled(DOMAIN);
+            result = false;
+        }};
+
+        Assert.assertFalse(watcher.pollChanges(DOMAIN, outgoingFolder));
+        Assert.assertTrue(watcher.folderWatches.isEmpty());
+    }
+
+    @Test
+    public void pollChanges_remoteFolder() throws FileSystemException {
+        new Expectations() {{
+            fsPluginProperties.isSendWatchEnabled(DOMAIN);
+            result = true;
+        }};
+
+        try (FileObject remoteFolder = VFS.getManager().resolveFile("ram:///FSOutgoingFolderWatcherTest/OUT")) {
+            Assert.assertFalse(watcher.pollChanges(DOMAIN, remoteFolder));
+        }
+        Assert.assertTrue(watcher.folderWatches.isEmpty());
+    }
+
+    @Test
+    public void pollChanges_createdFiles() throws Exception {
+        recordWatchEnabled();
+
+        // the folder is listed once when its watch starts
+        Assert.assertFalse(watcher.pollChanges(DOMAIN, outgoingFolder));
+        watcher.reconciled(DOMAIN, new HashSet<>(Collections.singletonList("old.xml")));
+
+        Files.createFile(outPath.resolve("content.xml"));
+        Path subFolder = Files.createDirectory(outPath.resolve("sub"));
+        Files.createFile(subFolder.resolve("invoice.pdf"));
+        Files.createFile(subFolder.resolve("invoice.pdf" + FSFileNameHelper.LOCK_SUFFIX));
+
+        Set<String> changedFiles = waitForChangedFiles("content.xml", "sub/invoice.pdf");
+        Assert.assertFalse(changedFiles.contains("sub/invoice.pdf" + FSFileNameHelper.LOCK_SUFFIX));
+        waitForLockedFile("sub/invoice.pdf");
+        Assert.assertTrue(watcher.getLockedFileNames(DOMAIN).contains("old.xml"));
+    }
+
+    @Test
+    public void pollChanges_deletedLockFile() throws Exception {
+        recordWatchEnabled();
+        Path lockFile = Files.createFile(outPath.resolve("invoice.pdf" + FSFileNameHelper.LOCK_SUFFIX));
+        Assert.assertFalse(watcher.pollChanges(DOMAIN, outgoingFolder));
+        watcher.reconciled(DOMAIN, new HashSet<>(Collections.singletonList("invoice.pdf")));
+
+        Files.delete(lockFile);
+
+        waitForChangedFiles("invoice.pdf");
+        Assert.assertFalse(watcher.getLockedFileNames(DOMAIN).contains("invoice.pdf"));
+    }
+
+    @Test
+    public void retry() {
+        recordWatchEnabled();
+        Assert.assertFalse(watcher.pollChanges(DOMAIN, outgoingFolder));
+
+        watcher.retry(DOMAIN, "content.xml");
+
+        Assert.assertTrue(watcher.pollChanges(DOMAIN, outgoingFolder));
+        Assert.assertEquals(Collections.singleton("content.xml"), watcher.takeChangedFiles(DOMAIN));
+        Assert.assertTrue(watcher.takeChangedFiles(DOMAIN).isEmpty());
+    }
+
+    @Test
+    public void retry_file() throws Exception {
+        recordWatchEnabled();
+        Assert.assertFalse(watcher.pollChanges(DOMAIN, outgoingFolder));
+        Files.createDirectory(outPath.resolve("sub"));
+
+        try (FileObject file = outgoingFolder.resolveFile("sub/invoice.pdf");
+             FileObject remoteFile = VFS.getManager().resolveFile("ram:///FSOutgoingFolderWatcherTest/OUT/content.xml")) {
+            watcher.retry(DOMAIN, file);
+            watcher.retry(DOMAIN, remoteFile);
+        }
+
+        Assert.assertEquals(Collections.singleton("sub/invoice.pdf"), watcher.takeChangedFiles(DOMAIN));
+    }
+
+    @Test
+    public void pollChanges_watchDisabled_stopped() {
+        new Expectations() {{
+            fsPluginProperties.isSendWatchEnabled(DOMAIN);
+            returns(true, false);
+        }};
+        Assert.assertFalse(watcher.pollChanges(DOMAIN, outgoingFolder));
+        Assert.assertEquals(1, watcher.folderWatches.size());
+
+        Assert.assertFalse(watcher.pollChanges(DOMAIN, outgoingFolder));
+        Assert.assertTrue(watcher.folderWatches.isEmpty());
+    }
+
+    @Test
+    public void retry_notWatched() {
+        watcher.retry(DOMAIN, "content.xml");
+
+        Assert.assertTrue(watcher.takeChangedFiles(DOMAIN).isEmpty());
+        Assert.assertTrue(watcher.getLockedFileNames(DOMAIN).isEmpty());
+    }
+
+    private void recordWatchEnabled() {
+        new Expectations() {{
+            fsPluginProperties.isSendWatchEnabled(DOMAIN);
+            result = true;
+
+            fsPluginProperties.getSendWatchReconciliationInterval(DOMAIN);
+            result = 0;
+        }};
+    }
+
+    private Set<String> waitForChangedFiles(String... expectedFiles) throws InterruptedException {
+        Set<String> changedFiles = new HashSet<>();
+        long deadline = System.currentTimeMillis() + EVENTS_TIMEOUT;
+        while (System.currentTimeMillis() < deadline) {
+            Assert.assertTrue(watcher.pollChanges(DOMAIN, outgoingFolder));
+            changedFiles.addAll(watcher.takeChangedFiles(DOMAIN));
+            if (changedFiles.containsAll(Arrays.asList(expectedFiles))) {
+                return changedFiles;
+            }
+            Thread.sleep(50);
+        }
+        Assert.fail("Changed files " + changedFiles + " do not contain all the expected files");
+        return changedFiles;
+    }
+
+    private void waitForLockedFile(String lockedFile) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + EVENTS_TIMEOUT;
+        while (!watcher.getLockedFileNames(DOMAIN).contains(lockedFile)) {
+            Assert.assertTrue("Locked file not found: " + lockedFile, System.currentTimeMillis() < deadline);
+            watcher.pollChanges(DOMAIN, outgoingFolder);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -47,6 +47,9 @@ public class FSProcessFileServiceTest {
     @Injectable
     protected FSFileNameHelper fsFileNameHelper;
 
+    @Injectable
+    protected FSOutgoingFolderWatcher fsOutgoingFolderWatcher;
+
 
     private String domain = null;
 
@@ -249,6 +252,9 @@ public class FSProcessFileServiceTest {
         new Verifications() {{
             backendFSPlugin.submit(withAny(new FSMessage(null, null)));
             maxTimes = 0;
+
+            fsFilesManager.deleteLockFile(processableFile);
+            fsOutgoingFolderWatcher.retry(domain, processableFile);
         }};
     }
 }
\ No newline at end of file
@@ -23,10 +23,7 @@ import javax.xml.bind.JAXBException;
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 import static eu.domibus.plugin.fs.worker.FSSendMessagesService.METADATA_FILE_NAME;
 
@@ -73,6 +70,9 @@ public class FSSendMessagesServiceTest {
     @Injectable
     protected FSFileNameHelper fsFileNameHelper;
 
+    @Injectable
+    protected FSOutgoingFolderWatcher fsOutgoingFolderWatcher;
+
     @Tested
     @Injectable
     private FSProcessFileService fsProcessFileService;
@@ -160,6 +160,9 @@ public class FSSendMessagesServiceTest {
             fsFilesManager.findAllDescendantFiles(outgoingFolder);
             result = new FileObject[]{metadataFile, contentFile};
 
+            fsFilesManager.resolveSibling(contentFile, METADATA_FILE_NAME);
+            result = metadataFile;
+
             instance.canReadFileSafely((FileObject) any, anyString);
             result = true;
 
@@ -199,6 +202,9 @@ public class FSSendMessagesServiceTest {
             fsFilesManager.findAllDescendantFiles(outgoingFolder);
             result = new FileObject[]{metadataFile, contentFile};
 
+            fsFilesManager.resolveSibling(contentFile, METADATA_FILE_NAME);
+            result = metadataFile;
+
             instance.canReadFileSafely((FileObject) any, anyString);
             result = true;
 
@@ -234,6 +240,9 @@ public class FSSendMessagesServiceTest {
             fsFilesManager.findAllDescendantFiles(outgoingFolder);
             result = new FileObject[]{metadataFile, contentFile};
 
+            fsFilesManager.resolveSibling(contentFile, METADATA_FILE_NAME);
+            result = metadataFile;
+
             fsPluginProperties.getAuthenticationUser(anyString);
             result = "user1";
 
@@ -258,6 +267,172 @@ public class FSSendMessagesServiceTest {
         }};
     }
 
+    @Test
+    public void testSendMessages_Watched() throws FileSystemException {
+        final String domain = FSSendMessagesService.DEFAULT_DOMAIN;
+        new Expectations(1, instance) {{
+            domibusConfigurationExtService.isSecuredLoginRequired();
+            result = false;
+
+            fsFilesManager.setUpFileSystem(domain);
+            result = rootDir;
+
+            fsFilesManager.getEnsureChildFolder(rootDir, FSFilesManager.OUTGOING_FOLDER);
+            result = outgoingFolder;
+
+            fsOutgoingFolderWatcher.pollChanges(domain, outgoingFolder);
+            result = true;
+
+            fsOutgoingFolderWatcher.takeChangedFiles(domain);
+            result = new HashSet<>(Arrays.asList("metadata.xml", "content.xml", "deleted.xml"));
+
+            fsOutgoingFolderWatcher.getLockedFileNames(domain);
+            result = new HashSet<>();
+
+            fsFileNameHelper.getRelativeName(outgoingFolder, (FileObject) any);
+            result = new Delegate<Optional<String>>() {
+                Optional<String> getRelativeName(FileObject rootFolder, FileObject file) {
+                    return Optional.of(file.getName().getBaseName());
+                }
+            };
+
+            fsFilesManager.resolveSibling((FileObject) any, METADATA_FILE_NAME);
+            result = metadataFile;
+
+            instance.canReadFileSafely((FileObject) any, anyString);
+            result = true;
+
+            fsPluginProperties.getDomainEnabled(anyString);
+            result = true;
+        }};
+
+        //tested method
+        instance.sendMessages(domain);
+
+        new Verifications() {{
+            fsFilesManager.findAllDescendantFiles((FileObject) any);
+            times = 0;
+
+            FileObject fileActual;
+            instance.enqueueProcessableFile(fileActual = withCapture());
+            times = 1;
+            Assert.assertEquals(contentFile.getName(), fileActual.getName());
+        }};
+    }
+
+    @Test
+    public void filterProcessableFiles_notReadableRetried() {
+        final String domain = FSSendMessagesService.DEFAULT_DOMAIN;
+        new Expectations(instance) {{
+            fsFileNameHelper.getRelativeName(outgoingFolder, contentFile);
+            result = Optional.of("content.xml");
+
+            instance.canReadFileSafely(contentFile, domain);
+            result = false;
+        }};
+
+        //tested method
+        List<FileObject> processableFiles = instance.filterProcessableFiles(outgoingFolder, new FileObject[]{contentFile}, domain, new HashSet<>());
+
+        Assert.assertTrue(processableFiles.isEmpty());
+        new Verifications() {{
+            fsOutgoingFolderWatcher.retry(domain, "content.xml");
+        }};
+    }
+
+    @Test
+    public void filterProcessableFiles_metadataMissing(@Injectable FileObject missingMetadataFile) throws FileSystemException {
+        final String domain = FSSendMessagesService.DEFAULT_DOMAIN;
+        new Expectations(instance) {{
+            fsFileNameHelper.getRelativeName(outgoingFolder, contentFile);
+            result = Optional.of("content.xml");
+
+            instance.canReadFileSafely(contentFile, domain);
+            result = true;
+
+            fsFilesManager.resolveSibling(contentFile, METADATA_FILE_NAME);
+            result = missingMetadataFile;
+
+            missingMetadataFile.exists();
+            result = false;
+        }};
+
+        //tested method
+        List<FileObject> processableFiles = instance.filterProcessableFiles(outgoingFolder, new FileObject[]{contentFile}, domain, new HashSet<>());
+
+        Assert.assertTrue(processableFiles.isEmpty());
+        new Verifications() {{
+            fsOutgoingFolderWatcher.retry(domain, anyString);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void filterProcessableFiles_metadataChangedRecentlyRetried() throws FileSystemException {
+        final String domain = FSSendMessagesService.DEFAULT_DOMAIN;
+        new Expectations(instance) {{
+            fsFileNameHelper.getRelativeName(outgoingFolder, contentFile);
+            result = Optional.of("content.xml");
+
+            instance.canReadFileSafely(contentFile, domain);
+            result = true;
+
+            fsFilesManager.resolveSibling(contentFile, METADATA_FILE_NAME);
+            result = metadataFile;
+
+            instance.checkTimestampChangedRecently(metadataFile, domain);
+            result = true;
+        }};
+
+        //tested method
+        List<FileObject> processableFiles = instance.filterProcessableFiles(outgoingFolder, new FileObject[]{contentFile}, domain, new HashSet<>());
+
+        Assert.assertTrue(processableFiles.isEmpty());
+        new Verifications() {{
+            fsOutgoingFolderWatcher.retry(domain, "content.xml");
+        }};
+    }
+
+    @Test
+    public void resolveChangedFiles_metadataAddsSiblingFiles() {
+        new Expectations() {{
+            fsFileNameHelper.getRelativeName(outgoingFolder, (FileObject) any);
+            result = new Delegate<Optional<String>>() {
+                Optional<String> getRelativeName(FileObject rootFolder, FileObject file) {
+                    return Optional.of(file.getName().getBaseName());
+                }
+            };
+        }};
+
+        //tested method
+        FileObject[] files = instance.resolveChangedFiles(outgoingFolder, new HashSet<>(Collections.singletonList("metadata.xml")));
+
+        Assert.assertEquals(2, files.length);
+        Set<String> fileNames = new HashSet<>();
+        for (FileObject file : files) {
+            fileNames.add(file.getName().getBaseName());
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList("metadata.xml", "content.xml")), fileNames);
+    }
+
+    @Test
+    public void processFileSafely_failedFileStillPresentRetried() throws Exception {
+        String domain = "default";
+
+        new Expectations(instance) {{
+            fsProcessFileService.processFile(contentFile, domain);
+            result = new RuntimeException();
+
+            instance.handleSendFailedMessage(contentFile, domain, anyString);
+        }};
+
+        instance.processFileSafely(contentFile, domain);
+
+        new Verifications() {{
+            fsOutgoingFolderWatcher.retry(domain, contentFile);
+        }};
+    }
+
     @Test
     public void testSendMessages_Domain1_BadConfiguration() throws MessagingProcessingException, FileSystemException, FSSetUpException {
         final String domain1 = "DOMAIN1";
@@ -537,7 +712,7 @@ public class FSSendMessagesServiceTest {
 
     @Test
     public void isLocked() {
-        List<String> lockedFileNames = Arrays.asList("file1.pdf", "file2.pdf");
+        Set<String> lockedFileNames = new HashSet<>(Arrays.asList("file1.pdf", "file2.pdf"));
         Optional<String> existingFileName = Optional.of("file1.pdf");
         Optional<String> nonExistingFileName = Optional.of("file11.pdf");
         Optional<String> emptyFileName = Optional.empty();
@@ -4,6 +4,7 @@ import eu.domibus.ext.services.DateExtService;
 import eu.domibus.plugin.ws.util.WSBasicDao;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.NoResultException;
@@ -80,6 +81,41 @@ public class WSBackendMessageLogDao extends WSBasicDao<WSBackendMessageLogEntity
         return query.getResultList();
     }
 
+    /**
+     * Find the next batch of the backend messages available for retry (see {@link #findRetryMessages()}), ordered by entity id.
+     * The entities are read only: their status is updated in bulk with {@link #markRetryMessagesAsScheduled(long, long, Date)}.
+     *
+     * @param lastEntityId the entity id of the last backend message of the previous batch, 0 for the first batch
+     * @param now          the date used to select the backend messages, the same for all the batches
+     * @param maxResults   the maximum number of backend messages in the batch
+     * @return the backend messages available for retry with an entity id greater than {@code lastEntityId}
+     */
+    public List<WSBackendMessageLogEntity> findRetryMessages(long lastEntityId, Date now, int maxResults) {
+        TypedQuery<WSBackendMessageLogEntity> query = em.createNamedQuery(
+                "WSBackendMessageLogEntity.findRetryMessagesAfter",
+                WSBackendMessageLogEntity.class);
+        query.setParameter("LAST_ENTITY_ID", lastEntityId);
+        query.setParameter("CURRENT_TIMESTAMP", now);
+        query.setParameter("BACKEND_MESSAGE_STATUS", WSBackendMessageStatus.WAITING_FOR_RETRY);
+        query.setHint(QueryHints.HINT_READONLY, true);
+        query.setMaxResults(maxResults);
+        return query.getResultList();
+    }
+
+    /**
+     * Marks as scheduled the backend messages available for retry with an entity id in the range (lastEntityId, maxEntityId]
+     *
+     * @return the number of backend messages marked as scheduled
+     */
+    public int markRetryMessagesAsScheduled(long lastEntityId, long maxEntityId, Date now) {
+        return em.createNamedQuery("WSBackendMessageLogEntity.markRetryMessagesAsScheduled")
+                .setParameter("LAST_ENTITY_ID", lastEntityId)
+                .setParameter("MAX_ENTITY_ID", maxEntityId)
+                .setParameter("CURRENT_TIMESTAMP", now)
+                .setParameter("BACKEND_MESSAGE_STATUS", WSBackendMessageStatus.WAITING_FOR_RETRY)
+                .executeUpdate();
+    }
+
     public WSBackendMessageLogEntity getById(long backendMessageEntityId) {
         return em.find(typeOfT, backendMessageEntityId);
     }
@@ -27,6 +27,26 @@ import java.util.Date;
                 "and 1 <= backendMessage.sendAttempts " +
                 "and backendMessage.sendAttempts <= backendMessage.sendAttemptsMax " +
                 "and (backendMessage.scheduled is null or backendMessage.scheduled=false)")
+@NamedQuery(name = "WSBackendMessageLogEntity.findRetryMessagesAfter",
+        query = "select backendMessage " +
+                "from WSBackendMessageLogEntity backendMessage " +
+                "where backendMessage.entityId > :LAST_ENTITY_ID " +
+                "and backendMessage.backendMessageStatus = :BACKEND_MESSAGE_STATUS " +
+                "and backendMessage.nextAttempt < :CURRENT_TIMESTAMP " +
+                "and 1 <= backendMessage.sendAttempts " +
+                "and backendMessage.sendAttempts <= backendMessage.sendAttemptsMax " +
+                "and (backendMessage.scheduled is null or backendMessage.scheduled=false) " +
+                "order by backendMessage.entityId")
+@NamedQuery(name = "WSBackendMessageLogEntity.markRetryMessagesAsScheduled",
+        query = "update WSBackendMessageLogEntity backendMessage " +
+                "set backendMessage.scheduled=true " +
+                "where backendMessage.entityId > :LAST_ENTITY_ID " +
+                "and backendMessage.entityId <= :MAX_ENTITY_ID " +
+                "and backendMessage.backendMessageStatus = :BACKEND_MESSAGE_STATUS " +
+                "and backendMessage.nextAttempt < :CURRENT_TIMESTAMP " +
+                "and 1 <= backendMessage.sendAttempts " +
+                "and backendMessage.sendAttempts <= backendMessage.sendAttemptsMax " +
+                "and (backendMessage.scheduled is null or backendMessage.scheduled=false)")
 public class WSBackendMessageLogEntity extends AbstractWSEntity {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSBackendMessageLogEntity.class);
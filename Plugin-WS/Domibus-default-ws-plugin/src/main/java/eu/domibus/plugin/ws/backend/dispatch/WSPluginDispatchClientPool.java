@@ -0,0 +1,213 @@
+package eu.domibus.plugin.ws.backend.dispatch;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.ext.services.TLSReaderExtService;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import eu.domibus.plugin.ws.property.WSPluginPropertyManager;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.springframework.stereotype.Service;
+
+import javax.xml.soap.SOAPMessage;
+import javax.xml.ws.Dispatch;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_POOL_MAX_IDLE;
+
+/**
+ * Keeps the dispatch clients created by the {@link WSPluginDispatchClientProvider} per domain and backend endpoint, so that
+ * the pushes to the same endpoint reuse the HTTP conduit of a previous push: its kept alive connections and its SSL socket
+ * factory, which resumes the TLS sessions instead of performing a full handshake.
+ * <p>
+ * A client is used by one push at a time. The clients of an endpoint are discarded when the TLS client parameters of the
+ * domain are reloaded and the clients of a domain are discarded when the dispatcher properties of the domain change.
+ *
+ * @since 5.2
+ */
+@Service
+public class WSPluginDispatchClientPool {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginDispatchClientPool.class);
+
+    protected final Map<String, Map<String, Pool>> pools = new ConcurrentHashMap<>();
+
+    protected final AtomicInteger borrowedClients = new AtomicInteger();
+
+    protected final WSPluginDispatchClientProvider wsPluginDispatchClientProvider;
+
+    protected final TLSReaderExtService tlsReaderDelegate;
+
+    protected final WSPluginPropertyManager wsPluginPropertyManager;
+
+    protected final Counter createdClients;
+
+    protected final Counter reusedClients;
+
+    protected final Counter discardedClients;
+
+    public WSPluginDispatchClientPool(WSPluginDispatchClientProvider wsPluginDispatchClientProvider,
+                                      TLSReaderExtService tlsReaderDelegate,
+                                      WSPluginPropertyManager wsPluginPropertyManager,
+                                      MetricRegistry metricRegistry) {
+        this.wsPluginDispatchClientProvider = wsPluginDispatchClientProvider;
+        this.tlsReaderDelegate = tlsReaderDelegate;
+        this.wsPluginPropertyManager = wsPluginPropertyManager;
+        this.createdClients = metricRegistry.counter(name(WSPluginDispatchClientPool.class, "created"));
+        this.reusedClients = metricRegistry.counter(name(WSPluginDispatchClientPool.class, "reused"));
+        this.discardedClients = metricRegistry.counter(name(WSPluginDispatchClientPool.class, "discarded"));
+        metricRegistry.gauge(name(WSPluginDispatchClientPool.class, "borrowed"), () -> (Gauge<Integer>) borrowedClients::get);
+        metricRegistry.gauge(name(WSPluginDispatchClientPool.class, "idle"), () -> (Gauge<Integer>) this::getIdleClients);
+    }
+
+    /**
+     * Takes an idle client of the endpoint or creates a new one; the client must be closed after the push to be given back
+     *
+     * @param domain   the domain of the push
+     * @param endpoint the backend endpoint
+     * @return the client, to be used by the current thread only
+     */
+    public WSPluginPooledDispatchClient borrow(String domain, String endpoint) {
+        if (getMaxIdle(domain) <= 0) {
+            LOG.trace("Pooling of the dispatch clients is disabled on domain [{}]", domain);
+            return new WSPluginPooledDispatchClient(this, null, createClient(domain, endpoint));
+        }
+        final Pool pool = getPool(domain, endpoint);
+        Dispatch<SOAPMessage> dispatch = pool.idle.pollFirst();
+        if (dispatch == null) {
+            dispatch = createClient(domain, endpoint);
+        } else {
+            pool.idleCount.decrementAndGet();
+            reusedClients.inc();
+            LOG.trace("Reusing the dispatch client for ws plugin endpoint [{}] on domain [{}]", endpoint, domain);
+        }
+        borrowedClients.incrementAndGet();
+        return new WSPluginPooledDispatchClient(this, pool, dispatch);
+    }
+
+    /**
+     * Discards all the clients of the domain, the clients in use being discarded when they are given back
+     *
+     * @param domain the domain or null for all the domains
+     */
+    public void invalidate(String domain) {
+        LOG.debug("Discarding the dispatch clients of domain [{}]", domain);
+        if (domain == null) {
+            pools.keySet().forEach(this::invalidate);
+            return;
+        }
+        final Map<String, Pool> domainPools = pools.remove(domain);
+        if (domainPools != null) {
+            domainPools.values().forEach(this::invalidate);
+        }
+    }
+
+    protected void giveBack(Pool pool, Dispatch<SOAPMessage> dispatch, boolean discard) {
+        if (pool == null) {
+            close(dispatch);
+            return;
+        }
+        borrowedClients.decrementAndGet();
+        if (discard || pool.invalidated || pool.idleCount.get() >= getMaxIdle(pool.domain)) {
+            close(dispatch);
+            return;
+        }
+        pool.idle.offerFirst(dispatch);
+        pool.idleCount.incrementAndGet();
+        if (pool.invalidated && pool.idle.remove(dispatch)) {
+            // the pool was invalidated while the client was given back
+            pool.idleCount.decrementAndGet();
+            close(dispatch);
+        }
+    }
+
+    protected Pool getPool(String domain, String endpoint) {
+        final TLSClientParameters tlsClientParameters = getTlsClientParameters(domain, endpoint);
+        final Map<String, Pool> domainPools = pools.computeIfAbsent(domain, code -> new ConcurrentHashMap<>());
+        final Pool pool = domainPools.get(endpoint);
+        if (pool != null && pool.tlsClientParameters == tlsClientParameters) {
+            return pool;
+        }
+        return domainPools.compute(endpoint, (key, current) -> {
+            if (current != null && current.tlsClientParameters == tlsClientParameters) {
+                return current;
+            }
+            if (current != null) {
+                LOG.info("The TLS configuration of domain [{}] was reloaded: discarding the dispatch clients of endpoint [{}]", domain, endpoint);
+                invalidate(current);
+            }
+            return new Pool(domain, tlsClientParameters);
+        });
+    }
+
+    protected TLSClientParameters getTlsClientParameters(String domain, String endpoint) {
+        if (!endpoint.startsWith("https://")) {
+            return null;
+        }
+        return tlsReaderDelegate.getTlsClientParameters(domain);
+    }
+
+    protected Dispatch<SOAPMessage> createClient(String domain, String endpoint) {
+        createdClients.inc();
+        return wsPluginDispatchClientProvider.getClient(domain, endpoint);
+    }
+
+    protected void invalidate(Pool pool) {
+        pool.invalidated = true;
+        Dispatch<SOAPMessage> dispatch;
+        while ((dispatch = pool.idle.pollFirst()) != null) {
+            pool.idleCount.decrementAndGet();
+            close(dispatch);
+        }
+    }
+
+    protected void close(Dispatch<SOAPMessage> dispatch) {
+        discardedClients.inc();
+        if (!(dispatch instanceof Closeable)) {
+            return;
+        }
+        try {
+            ((Closeable) dispatch).close();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not close the dispatch client", e);
+        }
+    }
+
+    protected int getMaxIdle(String domain) {
+        return NumberUtils.toInt(wsPluginPropertyManager.getKnownPropertyValue(domain, DISPATCHER_POOL_MAX_IDLE));
+    }
+
+    protected int getIdleClients() {
+        return pools.values().stream()
+                .flatMap(domainPools -> domainPools.values().stream())
+                .mapToInt(pool -> pool.idleCount.get())
+                .sum();
+    }
+
+    protected static class Pool {
+
+        protected final String domain;
+
+        protected final TLSClientParameters tlsClientParameters;
+
+        protected final Deque<Dispatch<SOAPMessage>> idle = new ConcurrentLinkedDeque<>();
+
+        protected final AtomicInteger idleCount = new AtomicInteger();
+
+        protected volatile boolean invalidated;
+
+        protected Pool(String domain, TLSClientParameters tlsClientParameters) {
+            this.domain = domain;
+            this.tlsClientParameters = tlsClientParameters;
+        }
+    }
+}
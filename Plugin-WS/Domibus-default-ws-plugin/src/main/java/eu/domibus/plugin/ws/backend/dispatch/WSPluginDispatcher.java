@@ -28,24 +28,23 @@ public class WSPluginDispatcher {
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginDispatcher.class);
     private final DomainContextExtService domainContextExtService;
 
-    private final WSPluginDispatchClientProvider wsPluginDispatchClientProvider;
+    private final WSPluginDispatchClientPool wsPluginDispatchClientPool;
     private final WSPluginPropertyManager wsPluginPropertyManager;
 
     public WSPluginDispatcher(DomainContextExtService domainContextExtService,
-                              WSPluginDispatchClientProvider wsPluginDispatchClientProvider,
+                              WSPluginDispatchClientPool wsPluginDispatchClientPool,
                               WSPluginPropertyManager wsPluginPropertyManager) {
         this.domainContextExtService = domainContextExtService;
-        this.wsPluginDispatchClientProvider = wsPluginDispatchClientProvider;
+        this.wsPluginDispatchClientPool = wsPluginDispatchClientPool;
         this.wsPluginPropertyManager = wsPluginPropertyManager;
     }
 
     public SOAPMessage dispatch(final SOAPMessage soapMessage, String endpoint) {
         DomainDTO domain = domainContextExtService.getCurrentDomain();
 
-        final Dispatch<SOAPMessage> dispatch = wsPluginDispatchClientProvider.getClient(domain.getCode(), endpoint);
-
         final SOAPMessage result;
-        try {
+        try (WSPluginPooledDispatchClient client = wsPluginDispatchClientPool.borrow(domain.getCode(), endpoint)) {
+            final Dispatch<SOAPMessage> dispatch = client.getDispatch();
             // adding basic authentication when notifying C4 via push events
             String username = wsPluginPropertyManager.getKnownPropertyValue(WSPluginPropertyManager.DISPATCHER_PUSH_AUTH_USERNAME);
             String password = wsPluginPropertyManager.getKnownPropertyValue(WSPluginPropertyManager.DISPATCHER_PUSH_AUTH_PASSWORD);
@@ -63,7 +62,12 @@ public class WSPluginDispatcher {
                 LOG.debug("Authorization header added for user [{}]", username);
             }
 
-            result = dispatch.invoke(soapMessage);
+            try {
+                result = dispatch.invoke(soapMessage);
+            } catch (final WebServiceException e) {
+                client.discard();
+                throw e;
+            }
         } catch (final WebServiceException e) {
             Exception exception = e;
             if (e.getCause() instanceof ConnectException) {
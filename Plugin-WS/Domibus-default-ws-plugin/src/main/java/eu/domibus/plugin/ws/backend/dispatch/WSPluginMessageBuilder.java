@@ -26,6 +26,7 @@ import javax.xml.soap.SOAPMessage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import static eu.domibus.plugin.ws.backend.reliability.retry.WSPluginBackendScheduleRetryService.MESSAGE_ID_SEPARATOR;
@@ -78,6 +79,20 @@ public class WSPluginMessageBuilder {
         return buildSOAPMessageNotifications(messageLogEntity);
     }
 
+    /**
+     * @param deletedMessages the DELETED notifications to be sent in one DELETED_BATCH notification
+     */
+    public SOAPMessage buildSOAPMessageDeleteBatch(final List<WSBackendMessageLogEntity> deletedMessages) {
+        DeleteBatch deleteBatch = new ObjectFactory().createDeleteBatch();
+        deletedMessages.forEach(deletedMessage -> deleteBatch.getMessageIds().add(deletedMessage.getMessageId()));
+        SOAPMessage soapMessage = createSOAPMessage(deleteBatch, null);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Getting message for class [{}]: [{}]", DeleteBatch.class, getXML(soapMessage));
+        }
+        return soapMessage;
+    }
+
     public SOAPMessage buildSOAPMessageSubmit(final WSBackendMessageLogEntity messageLogEntity) {
         UserMessage userMessage = new UserMessage();
         try {
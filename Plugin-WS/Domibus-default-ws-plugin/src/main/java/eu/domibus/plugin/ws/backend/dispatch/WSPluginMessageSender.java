@@ -15,6 +15,11 @@ import eu.domibus.plugin.ws.connector.WSPluginImpl;
 import eu.domibus.plugin.ws.exception.WSPluginException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
 import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.PUSH_MARK_AS_DOWNLOADED;
 
 /**
@@ -92,4 +97,46 @@ public class WSPluginMessageSender {
         }
     }
 
+    /**
+     * Send the DELETED notifications coalesced in one DELETED_BATCH notification to the backend service with reliability feature
+     *
+     * @param backendMessage    persisted DELETED message, giving the dispatch rule
+     * @param coalescedMessages persisted DELETED messages of the same dispatch rule
+     */
+    @Timer(clazz = WSPluginMessageSender.class, value = "wsplugin_outgoing_backend_message_notification_coalesced")
+    @Counter(clazz = WSPluginMessageSender.class, value = "wsplugin_outgoing_backend_message_notification_coalesced")
+    public void sendNotifications(final WSBackendMessageLogEntity backendMessage, final List<WSBackendMessageLogEntity> coalescedMessages) {
+        List<WSBackendMessageLogEntity> backendMessages = new ArrayList<>();
+        backendMessages.add(backendMessage);
+        backendMessages.addAll(coalescedMessages);
+        LOG.debug("Rule [{}] Send [{}] coalesced backend notifications [{}]",
+                backendMessage.getRuleName(),
+                backendMessages.size(),
+                backendMessage.getType());
+        WSPluginDispatchRule dispatchRule = null;
+        try {
+            dispatchRule = rulesService.getRule(backendMessage.getRuleName());
+            String endpoint = dispatchRule.getEndpoint();
+            LOG.debug("Endpoint identified: [{}]", endpoint);
+            dispatcher.dispatch(messageBuilder.buildSOAPMessageDeleteBatch(backendMessages), endpoint);
+            backendMessages.forEach(message -> message.setBackendMessageStatus(WSBackendMessageStatus.SENT));
+            LOG.info("Backend notifications [{}] for domibus ids [{}] sent to [{}] successfully",
+                    backendMessage.getType(),
+                    backendMessages.stream().map(WSBackendMessageLogEntity::getMessageId).collect(toList()),
+                    endpoint);
+        } catch (Throwable t) {//NOSONAR: Catching Throwable is done on purpose in order to even catch out of memory exceptions.
+            if (dispatchRule == null) {
+                // the backend messages are already marked as scheduled: they are left waiting for the next retry instead of
+                // rolling back the listener transaction, which would keep them scheduled
+                LOG.error("No dispatch rule found for coalesced backend messages with ID [{}]: they are sent again on the next retry",
+                        backendMessage.getEntityId(), t);
+                return;
+            }
+            for (WSBackendMessageLogEntity message : backendMessages) {
+                reliabilityService.handleReliability(message, dispatchRule);
+            }
+            LOG.error("Error occurred when sending coalesced backend messages with ID [{}]", backendMessage.getEntityId(), t);
+        }
+    }
+
 }
@@ -0,0 +1,48 @@
+package eu.domibus.plugin.ws.backend.dispatch;
+
+import javax.xml.soap.SOAPMessage;
+import javax.xml.ws.Dispatch;
+
+/**
+ * A dispatch client borrowed from the {@link WSPluginDispatchClientPool}, given back when closed.
+ *
+ * @since 5.2
+ */
+public class WSPluginPooledDispatchClient implements AutoCloseable {
+
+    private final WSPluginDispatchClientPool pool;
+
+    private final WSPluginDispatchClientPool.Pool endpointPool;
+
+    private final Dispatch<SOAPMessage> dispatch;
+
+    private boolean discard;
+
+    private boolean closed;
+
+    protected WSPluginPooledDispatchClient(WSPluginDispatchClientPool pool, WSPluginDispatchClientPool.Pool endpointPool, Dispatch<SOAPMessage> dispatch) {
+        this.pool = pool;
+        this.endpointPool = endpointPool;
+        this.dispatch = dispatch;
+    }
+
+    public Dispatch<SOAPMessage> getDispatch() {
+        return dispatch;
+    }
+
+    /**
+     * Marks the client so that it is not reused, e.g. after a failed push
+     */
+    public void discard() {
+        discard = true;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pool.giveBack(endpointPool, dispatch, discard);
+    }
+}
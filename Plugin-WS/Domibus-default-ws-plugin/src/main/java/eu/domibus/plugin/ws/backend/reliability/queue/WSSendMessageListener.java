@@ -19,8 +19,12 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageListener;
+import java.util.ArrayList;
+import java.util.List;
 
+import static eu.domibus.plugin.ws.backend.WSBackendMessageType.DELETED;
 import static eu.domibus.plugin.ws.backend.WSBackendMessageType.DELETED_BATCH;
+import static eu.domibus.plugin.ws.backend.reliability.retry.WSPluginBackendScheduleRetryService.ENTITY_ID_SEPARATOR;
 import static eu.domibus.plugin.ws.backend.reliability.queue.WSSendMessageListener.WS_SEND_MESSAGE_LISTENER;
 
 /**
@@ -40,6 +44,8 @@ public class WSSendMessageListener implements MessageListener {
 
     public static final String TYPE = "TYPE";
 
+    public static final String COALESCED_IDS = "COALESCED_IDS";
+
     private final WSPluginMessageSender wsPluginMessageSender;
     private final WSBackendMessageLogDao wsBackendMessageLogDao;
     private final DomainContextExtService domainContextExtService;
@@ -101,10 +107,40 @@ public class WSSendMessageListener implements MessageListener {
             return;
         }
 
+        if (backendMessage.getType() == DELETED) {
+            final List<WSBackendMessageLogEntity> coalescedMessages = getCoalescedMessages(message);
+            if (!coalescedMessages.isEmpty()) {
+                wsPluginMessageSender.sendNotifications(backendMessage, coalescedMessages);
+                backendMessage.setScheduled(false);
+                coalescedMessages.forEach(coalescedMessage -> coalescedMessage.setScheduled(false));
+                return;
+            }
+        }
+
         wsPluginMessageSender.sendNotification(backendMessage);
         backendMessage.setScheduled(false);
     }
 
+    protected List<WSBackendMessageLogEntity> getCoalescedMessages(Message message) {
+        List<WSBackendMessageLogEntity> coalescedMessages = new ArrayList<>();
+        String coalescedIds;
+        try {
+            coalescedIds = message.getStringProperty(COALESCED_IDS);
+        } catch (JMSException e) {
+            LOG.error("Unable to extract the coalesced backend message ids from JMS message", e);
+            return coalescedMessages;
+        }
+        for (String coalescedId : StringUtils.split(StringUtils.defaultString(coalescedIds), ENTITY_ID_SEPARATOR)) {
+            WSBackendMessageLogEntity coalescedMessage = wsBackendMessageLogDao.getById(Long.parseLong(coalescedId));
+            if (coalescedMessage == null) {
+                LOG.error("Error while consuming JMS message: coalesced [{}] entity not found.", coalescedId);
+                continue;
+            }
+            coalescedMessages.add(coalescedMessage);
+        }
+        return coalescedMessages;
+    }
+
     private void putMDCDomibusId(WSBackendMessageLogEntity backendMessage, String messageId) {
         if (backendMessage.getType() == DELETED_BATCH) {
             LOG.debug("MessageIds for DELETED_BATCH: [{}]", backendMessage.getMessageIds());
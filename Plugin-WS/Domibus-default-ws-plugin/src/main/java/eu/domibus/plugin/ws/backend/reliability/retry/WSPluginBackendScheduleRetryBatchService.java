@@ -0,0 +1,66 @@
+package eu.domibus.plugin.ws.backend.reliability.retry;
+
+import eu.domibus.ext.services.DateExtService;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import eu.domibus.plugin.ws.backend.WSBackendMessageLogEntity;
+import eu.domibus.plugin.ws.property.WSPluginPropertyManager;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_WORKER_BATCH_SIZE;
+
+/**
+ * Schedules the backend messages waiting for retry batch by batch, each batch in its own transaction, the batches being
+ * read by increasing entity id so that each batch query starts where the previous one stopped.
+ *
+ * @since 5.2
+ */
+@Service
+public class WSPluginBackendScheduleRetryBatchService {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginBackendScheduleRetryBatchService.class);
+
+    protected final WSPluginBackendScheduleRetryService retryService;
+
+    protected final WSPluginPropertyManager wsPluginPropertyManager;
+
+    protected final DateExtService dateExtService;
+
+    public WSPluginBackendScheduleRetryBatchService(WSPluginBackendScheduleRetryService retryService,
+                                                    WSPluginPropertyManager wsPluginPropertyManager,
+                                                    DateExtService dateExtService) {
+        this.retryService = retryService;
+        this.wsPluginPropertyManager = wsPluginPropertyManager;
+        this.dateExtService = dateExtService;
+    }
+
+    /**
+     * @return the number of backend messages scheduled per batch on the current domain, 0 if the batch mode is disabled
+     */
+    public int getBatchSize() {
+        return NumberUtils.toInt(wsPluginPropertyManager.getKnownPropertyValue(DISPATCHER_WORKER_BATCH_SIZE));
+    }
+
+    public void scheduleWaitingForRetry(int batchSize) {
+        final Date now = dateExtService.getUtcDate();
+        long lastEntityId = 0;
+        int scheduled = 0;
+        try {
+            List<WSBackendMessageLogEntity> batch;
+            do {
+                batch = retryService.scheduleWaitingForRetryBatch(lastEntityId, now, batchSize);
+                if (!batch.isEmpty()) {
+                    scheduled += batch.size();
+                    lastEntityId = batch.get(batch.size() - 1).getEntityId();
+                }
+            } while (batch.size() >= batchSize);
+        } catch (Exception e) {
+            LOG.error("Error while sending notifications.", e);
+        }
+        LOG.debug("Scheduled [{}] backend messages waiting for retry in batches of [{}]", scheduled, batchSize);
+    }
+}
@@ -13,20 +13,22 @@ import eu.domibus.plugin.ws.backend.WSBackendMessageLogEntity;
 import eu.domibus.plugin.ws.backend.WSBackendMessageType;
 import eu.domibus.plugin.ws.backend.reliability.queue.WSSendMessageListener;
 import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRule;
+import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRulesService;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.util.CollectionUtils;
 
 import javax.jms.JMSException;
 import javax.jms.Queue;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 import static eu.domibus.plugin.ws.backend.reliability.queue.WSMessageListenerContainerConfiguration.WS_PLUGIN_SEND_QUEUE;
 import static java.lang.String.join;
+import static java.util.stream.Collectors.joining;
 
 /**
  * @author Francois Gautier
@@ -36,6 +38,8 @@ import static java.lang.String.join;
 public class WSPluginBackendScheduleRetryService {
     public static final String MESSAGE_ID_SEPARATOR = ";";
 
+    public static final String ENTITY_ID_SEPARATOR = ",";
+
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginBackendScheduleRetryService.class);
 
     private final WSBackendMessageLogDao wsBackendMessageLogDao;
@@ -44,12 +48,16 @@ public class WSPluginBackendScheduleRetryService {
 
     protected Queue wsPluginSendQueue;
 
+    protected WSPluginDispatchRulesService wsPluginDispatchRulesService;
+
     public WSPluginBackendScheduleRetryService(WSBackendMessageLogDao wsBackendMessageLogDao,
                                                JMSExtService jmsExtService,
-                                               @Qualifier(WS_PLUGIN_SEND_QUEUE) Queue wsPluginSendQueue) {
+                                               @Qualifier(WS_PLUGIN_SEND_QUEUE) Queue wsPluginSendQueue,
+                                               WSPluginDispatchRulesService wsPluginDispatchRulesService) {
         this.wsBackendMessageLogDao = wsBackendMessageLogDao;
         this.jmsExtService = jmsExtService;
         this.wsPluginSendQueue = wsPluginSendQueue;
+        this.wsPluginDispatchRulesService = wsPluginDispatchRulesService;
     }
 
     public List<WSBackendMessageLogEntity> getMessagesNotAlreadyScheduled() {
@@ -78,18 +86,97 @@ public class WSPluginBackendScheduleRetryService {
         }
     }
 
+    /**
+     * Schedules the next batch of the backend messages waiting for retry in a new transaction: the backend messages are
+     * marked as scheduled in bulk and their JMS messages are sent in the same transaction. The DELETED notifications of
+     * a rule configured to coalesce them are sent by groups, in one JMS message per group. If some backend messages of
+     * the batch could not be marked as scheduled, the transaction is rolled back and no JMS message is sent.
+     *
+     * @param lastEntityId the entity id of the last backend message of the previous batch, 0 for the first batch
+     * @param now          the date used to select the backend messages, the same for all the batches
+     * @param batchSize    the maximum number of backend messages in the batch
+     * @return the backend messages of the batch
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<WSBackendMessageLogEntity> scheduleWaitingForRetryBatch(long lastEntityId, Date now, int batchSize) {
+        final List<WSBackendMessageLogEntity> backendMessages = wsBackendMessageLogDao.findRetryMessages(lastEntityId, now, batchSize);
+        if (CollectionUtils.isEmpty(backendMessages)) {
+            LOG.trace("No backend message found to be resend after entity id [{}]", lastEntityId);
+            return backendMessages;
+        }
+        final long maxEntityId = backendMessages.get(backendMessages.size() - 1).getEntityId();
+        final int scheduled = wsBackendMessageLogDao.markRetryMessagesAsScheduled(lastEntityId, maxEntityId, now);
+        if (scheduled != backendMessages.size()) {
+            // the backend messages changed in the meantime: none of them is scheduled, they are selected again by the next run
+            LOG.warn("[{}] backend messages marked as scheduled instead of [{}] for entity ids from [{}] to [{}]: the batch is skipped",
+                    scheduled, backendMessages.size(), lastEntityId, maxEntityId);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return backendMessages;
+        }
+
+        for (List<WSBackendMessageLogEntity> group : groupBackendMessages(backendMessages)) {
+            final WSBackendMessageLogEntity backendMessage = group.get(0);
+            final List<WSBackendMessageLogEntity> coalescedMessages = group.subList(1, group.size());
+            jmsExtService.sendMessageToQueue(createJmsMessage(backendMessage, coalescedMessages), wsPluginSendQueue);
+        }
+        LOG.debug("Scheduled [{}] backend messages for entity ids from [{}] to [{}]", backendMessages.size(), lastEntityId, maxEntityId);
+        return backendMessages;
+    }
+
+    /**
+     * Groups the DELETED notifications of the same rule and final recipient, up to the number configured in the rule,
+     * each other backend message being in its own group
+     */
+    protected List<List<WSBackendMessageLogEntity>> groupBackendMessages(List<WSBackendMessageLogEntity> backendMessages) {
+        List<List<WSBackendMessageLogEntity>> groups = new ArrayList<>();
+        Map<String, List<WSBackendMessageLogEntity>> openGroups = new HashMap<>();
+        for (WSBackendMessageLogEntity backendMessage : backendMessages) {
+            final int coalesce = getCoalesce(backendMessage);
+            if (coalesce <= 1) {
+                groups.add(Collections.singletonList(backendMessage));
+                continue;
+            }
+            final String groupKey = backendMessage.getRuleName() + MESSAGE_ID_SEPARATOR + backendMessage.getFinalRecipient();
+            List<WSBackendMessageLogEntity> group = openGroups.get(groupKey);
+            if (group == null || group.size() >= coalesce) {
+                group = new ArrayList<>();
+                openGroups.put(groupKey, group);
+                groups.add(group);
+            }
+            group.add(backendMessage);
+        }
+        return groups;
+    }
+
+    protected int getCoalesce(WSBackendMessageLogEntity backendMessage) {
+        if (backendMessage.getType() != WSBackendMessageType.DELETED) {
+            return 0;
+        }
+        final Integer coalesce = wsPluginDispatchRulesService.getRule(backendMessage.getRuleName()).getCoalesce();
+        return coalesce == null ? 0 : coalesce;
+    }
+
     public void scheduleBackendMessage(WSBackendMessageLogEntity backendMessage) {
         LOG.debug("Send backendMessage [{}] to queue [{}]", backendMessage.getEntityId(), getQueueName());
 
-        final JmsMessageDTO jmsMessage = JMSMessageDTOBuilder.
+        jmsExtService.sendMessageToQueue(createJmsMessage(backendMessage, Collections.emptyList()), wsPluginSendQueue);
+        backendMessage.setScheduled(true);
+    }
+
+    protected JmsMessageDTO createJmsMessage(WSBackendMessageLogEntity backendMessage, List<WSBackendMessageLogEntity> coalescedMessages) {
+        final JMSMessageDTOBuilder jmsMessageBuilder = JMSMessageDTOBuilder.
                 create()
                 .property(MessageConstants.MESSAGE_ID, backendMessage.getMessageId())
                 .property(MessageConstants.MSH_ROLE, MSHRole.SENDING.name())
                 .property(WSSendMessageListener.ID, backendMessage.getEntityId())
-                .property(WSSendMessageListener.TYPE, backendMessage.getType().name())
-                .build();
-        jmsExtService.sendMessageToQueue(jmsMessage, wsPluginSendQueue);
-        backendMessage.setScheduled(true);
+                .property(WSSendMessageListener.TYPE, backendMessage.getType().name());
+        if (!coalescedMessages.isEmpty()) {
+            LOG.debug("Coalescing [{}] backend messages with backend message [{}]", coalescedMessages.size(), backendMessage.getEntityId());
+            jmsMessageBuilder.property(WSSendMessageListener.COALESCED_IDS, coalescedMessages.stream()
+                    .map(coalescedMessage -> String.valueOf(coalescedMessage.getEntityId()))
+                    .collect(joining(ENTITY_ID_SEPARATOR)));
+        }
+        return jmsMessageBuilder.build();
     }
 
     private String getQueueName() {
@@ -21,8 +21,16 @@ public class WSPluginBackendSendRetryWorker extends DomibusQuartzJobExtBean {
     @Autowired
     protected WSPluginBackendScheduleRetryService retryService;
 
+    @Autowired
+    protected WSPluginBackendScheduleRetryBatchService retryBatchService;
+
     @Override
     protected void executeJob(final JobExecutionContext context, DomainDTO domain) {
+        final int batchSize = retryBatchService.getBatchSize();
+        if (batchSize > 0) {
+            retryBatchService.scheduleWaitingForRetry(batchSize);
+            return;
+        }
         retryService.scheduleWaitingForRetry();
     }
 }
@@ -20,6 +20,7 @@ public class WSPluginDispatchRule {
     private final Integer retryTimeout;
     private final Integer retryCount;
     private final WSPluginRetryStrategyType retryStrategy;
+    private final Integer coalesce;
 
     public WSPluginDispatchRule(String description,
                                 String recipient,
@@ -29,7 +30,8 @@ public class WSPluginDispatchRule {
                                 String retry,
                                 Integer retryTimeout,
                                 Integer retryCount,
-                                WSPluginRetryStrategyType retryStrategy) {
+                                WSPluginRetryStrategyType retryStrategy,
+                                Integer coalesce) {
         this.description = description;
         this.recipient = recipient;
         this.ruleName = ruleName;
@@ -39,6 +41,7 @@ public class WSPluginDispatchRule {
         this.retryTimeout = retryTimeout;
         this.retryCount = retryCount;
         this.retryStrategy = retryStrategy;
+        this.coalesce = coalesce;
     }
 
     public String getDescription() {
@@ -77,6 +80,13 @@ public class WSPluginDispatchRule {
         return retryStrategy;
     }
 
+    /**
+     * @return the maximum number of DELETED notifications sent again in one DELETED_BATCH notification, null or 0 if not coalesced
+     */
+    public Integer getCoalesce() {
+        return coalesce;
+    }
+
     @Override
     public String toString() {
         return "WSPluginDispatchRule{" +
@@ -88,6 +98,7 @@ public class WSPluginDispatchRule {
                 ", retryTimeout=" + retryTimeout +
                 ", retryCount=" + retryCount +
                 ", retryStrategy=" + retryStrategy +
+                ", coalesce=" + coalesce +
                 '}';
     }
 }
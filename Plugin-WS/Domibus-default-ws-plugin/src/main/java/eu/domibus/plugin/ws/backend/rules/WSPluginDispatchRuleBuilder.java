@@ -19,6 +19,7 @@ public class WSPluginDispatchRuleBuilder {
     private Integer retryTimeout;
     private Integer retryCount;
     private WSPluginRetryStrategyType retryStrategy;
+    private Integer coalesce;
 
     public WSPluginDispatchRule build() {
         return new WSPluginDispatchRule(
@@ -30,7 +31,8 @@ public class WSPluginDispatchRuleBuilder {
                 retry,
                 retryTimeout,
                 retryCount,
-                retryStrategy);
+                retryStrategy,
+                coalesce);
     }
 
     public WSPluginDispatchRuleBuilder(String ruleName) {
@@ -79,4 +81,9 @@ public class WSPluginDispatchRuleBuilder {
         this.retryStrategy = strategy;
         return this;
     }
+
+    public WSPluginDispatchRuleBuilder withCoalesce(Integer coalesce) {
+        this.coalesce = coalesce;
+        return this;
+    }
 }
@@ -0,0 +1,82 @@
+package eu.domibus.plugin.ws.backend.rules;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Immutable index of the dispatch rules of a domain.
+ * <p>
+ * The rules of each final recipient, i.e. the rules declaring this recipient and the rules without recipient, are
+ * resolved once when the index is built and kept in the order in which the rules are declared. The recipients and the
+ * rule names are compared ignoring the case.
+ *
+ * @since 5.2
+ */
+public class WSPluginDispatchRulesIndex {
+
+    private final List<WSPluginDispatchRule> rules;
+
+    private final List<WSPluginDispatchRule> wildcardRules;
+
+    private final Map<String, List<WSPluginDispatchRule>> rulesByRecipient;
+
+    private final Map<String, WSPluginDispatchRule> rulesByName;
+
+    public WSPluginDispatchRulesIndex(List<WSPluginDispatchRule> rules) {
+        List<WSPluginDispatchRule> wildcards = new ArrayList<>();
+        Map<String, List<WSPluginDispatchRule>> byRecipient = new HashMap<>();
+        Map<String, WSPluginDispatchRule> byName = new HashMap<>();
+        for (WSPluginDispatchRule rule : rules) {
+            byName.putIfAbsent(toKey(rule.getRuleName()), rule);
+            if (StringUtils.isBlank(rule.getRecipient())) {
+                // a rule without recipient applies to all the recipients, after their rules declared before it
+                wildcards.add(rule);
+                byRecipient.values().forEach(recipientRules -> recipientRules.add(rule));
+                continue;
+            }
+            byRecipient.computeIfAbsent(toKey(rule.getRecipient()), key -> new ArrayList<>(wildcards)).add(rule);
+        }
+        byRecipient.replaceAll((key, recipientRules) -> unmodifiableList(recipientRules));
+
+        this.rules = unmodifiableList(new ArrayList<>(rules));
+        this.wildcardRules = unmodifiableList(wildcards);
+        this.rulesByRecipient = byRecipient;
+        this.rulesByName = byName;
+    }
+
+    /**
+     * @return all the rules, in the order of their declaration
+     */
+    public List<WSPluginDispatchRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * @param finalRecipient of a message
+     * @return the ordered rules declaring the {@param finalRecipient} or without recipient
+     */
+    public List<WSPluginDispatchRule> getRulesByRecipient(String finalRecipient) {
+        if (finalRecipient == null) {
+            return wildcardRules;
+        }
+        return rulesByRecipient.getOrDefault(toKey(finalRecipient), wildcardRules);
+    }
+
+    /**
+     * @param ruleName the name of a rule
+     * @return the first rule declared with the {@param ruleName} or null if none
+     */
+    public WSPluginDispatchRule getRule(String ruleName) {
+        if (ruleName == null) {
+            return null;
+        }
+        return rulesByName.get(toKey(ruleName));
+    }
+
+    private static String toKey(String value) {
+        return StringUtils.lowerCase(value, Locale.ROOT);
+    }
+}
@@ -6,13 +6,14 @@ import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.plugin.ws.backend.WSBackendMessageType;
 import eu.domibus.plugin.ws.backend.reliability.strategy.WSPluginRetryStrategyType;
 import eu.domibus.plugin.ws.exception.WSPluginException;
+import eu.domibus.plugin.ws.property.WSPluginPropertyManager;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.RegExUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.*;
@@ -26,7 +27,7 @@ public class WSPluginDispatchRulesService {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginDispatchRulesService.class);
 
-    public static final String PUSH_RULE_BASE = "wsplugin.push.rules";
+    public static final String PUSH_RULE_BASE = WSPluginPropertyManager.PUSH_RULES;
     public static final String PUSH_RULE_PREFIX = PUSH_RULE_BASE + ".";
 
     public static final String PUSH_RULE_RECIPIENT = ".recipient";
@@ -37,26 +38,41 @@ public class WSPluginDispatchRulesService {
 
     public static final String PUSH_RULE_TYPE = ".type";
 
+    public static final String PUSH_RULE_COALESCE = ".coalesce";
+
     private final DomibusPropertyExtService domibusPropertyExtService;
-    private final Map<String, List<WSPluginDispatchRule>> rules = new HashMap<>();
+    private final Map<String, WSPluginDispatchRulesIndex> rulesIndexes = new ConcurrentHashMap<>();
 
     public WSPluginDispatchRulesService(DomibusPropertyExtService domibusPropertyExtService) {
         this.domibusPropertyExtService = domibusPropertyExtService;
     }
 
     public List<WSPluginDispatchRule> getRules() {
+        return getRulesIndex().getRules();
+    }
+
+    protected WSPluginDispatchRulesIndex getRulesIndex() {
         String domain = LOG.getMDC(DomibusLogger.MDC_DOMAIN);
-        List<WSPluginDispatchRule> domainRules = rules.get(domain);
-        if (domainRules == null) {
-            synchronized (rules) {
-                if (rules.get(domain) == null) {
-                    LOG.info("Find the rules of reliability for the domain [{}]", domain);
-                    domainRules = generateRules();
-                    rules.put(domain, domainRules);
-                }
-            }
+        return rulesIndexes.computeIfAbsent(defaultString(domain), key -> {
+            LOG.info("Find the rules of reliability for the domain [{}]", domain);
+            return new WSPluginDispatchRulesIndex(generateRules());
+        });
+    }
+
+    /**
+     * Builds the rules of the domain from its current properties and replaces the rules in use, which are kept if the
+     * new rules are not valid
+     *
+     * @param domain the code of the domain set in the current context, or null to rebuild the rules of all the domains on their next use
+     */
+    public void rebuildRules(String domain) {
+        if (domain == null) {
+            LOG.info("Clear the rules of reliability for all domains");
+            rulesIndexes.clear();
+            return;
         }
-        return rules.get(domain);
+        LOG.info("Rebuild the rules of reliability for the domain [{}]", domain);
+        rulesIndexes.put(domain, new WSPluginDispatchRulesIndex(generateRules()));
     }
 
     protected List<WSPluginDispatchRule> generateRules() {
@@ -80,6 +96,7 @@ public class WSPluginDispatchRulesService {
             ruleBuilder.withEndpoint(domibusPropertyExtService.getProperty(PUSH_RULE_PREFIX + ruleBuilder.getRuleName() + PUSH_RULE_ENDPOINT));
             ruleBuilder.withType(getTypes(domibusPropertyExtService.getProperty(PUSH_RULE_PREFIX + ruleBuilder.getRuleName() + PUSH_RULE_TYPE)));
             setRetryInformation(ruleBuilder, domibusPropertyExtService.getProperty(PUSH_RULE_PREFIX + ruleBuilder.getRuleName() + PUSH_RULE_RETRY));
+            setCoalesce(ruleBuilder, domibusPropertyExtService.getProperty(PUSH_RULE_PREFIX + ruleBuilder.getRuleName() + PUSH_RULE_COALESCE));
             WSPluginDispatchRule dispatchRule = ruleBuilder.build();
             result.add(dispatchRule);
             LOG.info("WSPlugin reliability dispatch rule found: [{}]", dispatchRule);
@@ -127,31 +144,29 @@ public class WSPluginDispatchRulesService {
      * @return order set of rules for a given {@param finalRecipient}
      */
     public List<WSPluginDispatchRule> getRulesByRecipient(String finalRecipient) {
-        return getRules()
-                .stream()
-                .filter(wsPluginDispatchRule -> isAMatch(finalRecipient, wsPluginDispatchRule.getRecipient()))
-                .collect(Collectors.toList());
+        return getRulesIndex().getRulesByRecipient(finalRecipient);
     }
 
-    /**
-     *
-     * @param finalRecipient recipient of the message.
-     * @param recipientRule recipient defined in the rule (if empty, sends to all recipient)
-     * @return true if the {@param finalRecipient} matches the {@param recipientRule} or if {@param recipientRule} is empty
-     */
-    private boolean isAMatch(String finalRecipient, String recipientRule) {
-        return StringUtils.isBlank(recipientRule) || equalsAnyIgnoreCase(finalRecipient, recipientRule);
-    }
-
-    protected List<WSPluginDispatchRule> getRulesByName(String ruleName) {
-        return getRules()
-                .stream()
-                .filter(wsPluginDispatchRule -> equalsAnyIgnoreCase(ruleName, wsPluginDispatchRule.getRuleName()))
-                .collect(Collectors.toList());
+    public WSPluginDispatchRule getRule(String ruleName) {
+        WSPluginDispatchRule rule = getRulesIndex().getRule(ruleName);
+        if (rule == null) {
+            return new WSPluginDispatchRuleBuilder(EMPTY).build();
+        }
+        return rule;
     }
 
-    public WSPluginDispatchRule getRule(String ruleName) {
-        return getRulesByName(ruleName).stream().findAny().orElse(new WSPluginDispatchRuleBuilder(EMPTY).build());
+    protected void setCoalesce(WSPluginDispatchRuleBuilder ruleBuilder, String property) {
+        LOG.debug("set coalesce information with property value: [{}]", property);
+        if (isBlank(property)) {
+            return;
+        }
+        try {
+            ruleBuilder.withCoalesce(Integer.parseInt(trim(property)));
+        } catch (NumberFormatException e) {
+            throw new WSPluginException(
+                    "The format of the property [" + PUSH_RULE_PREFIX + ruleBuilder.getRuleName() + PUSH_RULE_COALESCE + "] " +
+                            "is incorrect :[" + property + "]. It should be the maximum number of notifications (ex: 100)", e);
+        }
     }
 
     protected void setRetryInformation(WSPluginDispatchRuleBuilder ruleBuilder, String property) {
@@ -43,12 +43,16 @@ public class WSPluginPropertyManager extends DomibusPropertyExtServiceDelegateAb
     public static final String DISPATCHER_ALLOW_CHUNKING = "wsplugin.dispatcher.allowChunking";
     public static final String DISPATCHER_CHUNKING_THRESHOLD = "wsplugin.dispatcher.chunkingThreshold";
     public static final String DISPATCHER_CONNECTION_KEEP_ALIVE = "wsplugin.dispatcher.connection.keepAlive";
+    public static final String DISPATCHER_POOL_MAX_IDLE = "wsplugin.dispatcher.pool.maxIdle";
     public static final String DISPATCHER_CRON_EXPRESSION = "wsplugin.dispatcher.worker.cronExpression";
+    public static final String DISPATCHER_WORKER_BATCH_SIZE = "wsplugin.dispatcher.worker.batchSize";
     public static final String DISPATCHER_SEND_QUEUE_NAME = "wsplugin.send.queue";
     public static final String DISPATCHER_SEND_QUEUE_CONCURRENCY = "wsplugin.send.queue.concurrency";
     public static final String DISPATCHER_PUSH_AUTH_USERNAME = "wsplugin.push.auth.username";
     public static final String DISPATCHER_PUSH_AUTH_PASSWORD = "wsplugin.push.auth.password";
 
+    public static final String PUSH_RULES = "wsplugin.push.rules";
+
     public static final String PUSH_MARK_AS_DOWNLOADED = "wsplugin.push.markAsDownloaded";
     public static final String DOMAIN_ENABLED = "wsplugin.domain.enabled";
 
@@ -78,12 +82,15 @@ public class WSPluginPropertyManager extends DomibusPropertyExtServiceDelegateAb
                 new DomibusPropertyMetadataDTO(DISPATCHER_ALLOW_CHUNKING, Type.BOOLEAN, Module.WS_PLUGIN, Usage.DOMAIN, true),
                 new DomibusPropertyMetadataDTO(DISPATCHER_CHUNKING_THRESHOLD, Type.NUMERIC, Module.WS_PLUGIN, Usage.DOMAIN, true),
                 new DomibusPropertyMetadataDTO(DISPATCHER_CONNECTION_KEEP_ALIVE, Type.BOOLEAN, Module.WS_PLUGIN, Usage.DOMAIN, true),
+                new DomibusPropertyMetadataDTO(DISPATCHER_POOL_MAX_IDLE, Type.NUMERIC, Module.WS_PLUGIN, Usage.DOMAIN, true),
                 new DomibusPropertyMetadataDTO(DISPATCHER_CRON_EXPRESSION, Type.CRON, Module.WS_PLUGIN, Usage.DOMAIN, true),
+                new DomibusPropertyMetadataDTO(DISPATCHER_WORKER_BATCH_SIZE, Type.NUMERIC, Module.WS_PLUGIN, Usage.DOMAIN, true),
                 new DomibusPropertyMetadataDTO(DISPATCHER_SEND_QUEUE_NAME, Type.STRING, Module.WS_PLUGIN, Usage.GLOBAL),
                 new DomibusPropertyMetadataDTO(DISPATCHER_SEND_QUEUE_CONCURRENCY, Type.CONCURRENCY, Module.WS_PLUGIN, Usage.DOMAIN, true),
                 new DomibusPropertyMetadataDTO(DISPATCHER_PUSH_AUTH_USERNAME, Type.STRING, Module.WS_PLUGIN, Usage.DOMAIN),
                 new DomibusPropertyMetadataDTO(DISPATCHER_PUSH_AUTH_PASSWORD, Type.STRING, Module.WS_PLUGIN, Usage.DOMAIN),
-                new DomibusPropertyMetadataDTO(PUSH_MARK_AS_DOWNLOADED, Type.BOOLEAN, Module.WS_PLUGIN, Usage.DOMAIN, true)
+                new DomibusPropertyMetadataDTO(PUSH_MARK_AS_DOWNLOADED, Type.BOOLEAN, Module.WS_PLUGIN, Usage.DOMAIN, true),
+                new DomibusPropertyMetadataDTO(PUSH_RULES, Type.STRING, Module.WS_PLUGIN, true, Usage.DOMAIN, true, true, false, true)
         );
         knownProperties = allProperties.stream().collect(toMap(DomibusPropertyMetadataDTO::getName, identity()));
     }
@@ -0,0 +1,48 @@
+package eu.domibus.plugin.ws.property.listeners;
+
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import eu.domibus.plugin.property.PluginPropertyChangeListener;
+import eu.domibus.plugin.ws.backend.dispatch.WSPluginDispatchClientPool;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.*;
+
+/**
+ * Discards the pooled dispatch clients of the domain when a property used to create them changes
+ *
+ * @since 5.2
+ */
+@Service
+public class WSPluginDispatchClientPoolChangeListener implements PluginPropertyChangeListener {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginDispatchClientPoolChangeListener.class);
+
+    private final WSPluginDispatchClientPool wsPluginDispatchClientPool;
+
+    public WSPluginDispatchClientPoolChangeListener(WSPluginDispatchClientPool wsPluginDispatchClientPool) {
+        this.wsPluginDispatchClientPool = wsPluginDispatchClientPool;
+    }
+
+    @Override
+    public boolean handlesProperty(String propertyName) {
+        boolean doesHandle = StringUtils.equalsAny(propertyName,
+                DISPATCHER_CONNECTION_TIMEOUT,
+                DISPATCHER_RECEIVE_TIMEOUT,
+                DISPATCHER_ALLOW_CHUNKING,
+                DISPATCHER_CHUNKING_THRESHOLD,
+                DISPATCHER_CONNECTION_KEEP_ALIVE,
+                DISPATCHER_POOL_MAX_IDLE,
+                DISPATCHER_PUSH_AUTH_USERNAME,
+                DISPATCHER_PUSH_AUTH_PASSWORD);
+        LOG.trace("Handling [{}] property: [{}]", propertyName, doesHandle);
+        return doesHandle;
+    }
+
+    @Override
+    public void propertyValueChanged(String domainCode, String propertyName, String propertyValue) {
+        LOG.debug("Property [{}] changed on domain [{}]: discarding the pooled dispatch clients", propertyName, domainCode);
+        wsPluginDispatchClientPool.invalidate(domainCode);
+    }
+}
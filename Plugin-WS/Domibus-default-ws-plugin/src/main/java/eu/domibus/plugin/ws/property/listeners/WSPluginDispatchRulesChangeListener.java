@@ -0,0 +1,66 @@
+package eu.domibus.plugin.ws.property.listeners;
+
+import eu.domibus.ext.domain.DomainDTO;
+import eu.domibus.ext.services.DomainContextExtService;
+import eu.domibus.ext.services.DomainExtService;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import eu.domibus.plugin.property.PluginPropertyChangeListener;
+import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRulesService;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import static eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRulesService.PUSH_RULE_PREFIX;
+
+/**
+ * Rebuilds the dispatch rules of the domain when one of its push rule properties changes
+ *
+ * @since 5.2
+ */
+@Service
+public class WSPluginDispatchRulesChangeListener implements PluginPropertyChangeListener {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginDispatchRulesChangeListener.class);
+
+    private final WSPluginDispatchRulesService wsPluginDispatchRulesService;
+
+    private final DomainContextExtService domainContextExtService;
+
+    private final DomainExtService domainExtService;
+
+    public WSPluginDispatchRulesChangeListener(WSPluginDispatchRulesService wsPluginDispatchRulesService,
+                                               DomainContextExtService domainContextExtService,
+                                               DomainExtService domainExtService) {
+        this.wsPluginDispatchRulesService = wsPluginDispatchRulesService;
+        this.domainContextExtService = domainContextExtService;
+        this.domainExtService = domainExtService;
+    }
+
+    @Override
+    public boolean handlesProperty(String propertyName) {
+        boolean doesHandle = StringUtils.startsWith(propertyName, PUSH_RULE_PREFIX);
+        LOG.trace("Handling [{}] property: [{}]", propertyName, doesHandle);
+        return doesHandle;
+    }
+
+    @Override
+    public void propertyValueChanged(String domainCode, String propertyName, String propertyValue) {
+        LOG.debug("Property [{}] changed on domain [{}]: rebuilding the dispatch rules", propertyName, domainCode);
+        if (domainCode == null) {
+            wsPluginDispatchRulesService.rebuildRules(null);
+            return;
+        }
+        // the rules are read from the properties of the current domain
+        DomainDTO currentDomain = domainContextExtService.getCurrentDomainSafely();
+        try {
+            domainContextExtService.setCurrentDomain(domainExtService.getDomain(domainCode));
+            wsPluginDispatchRulesService.rebuildRules(domainCode);
+        } finally {
+            if (currentDomain == null) {
+                domainContextExtService.clearCurrentDomain();
+            } else {
+                domainContextExtService.setCurrentDomain(currentDomain);
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 
 import static java.time.LocalDateTime.of;
@@ -118,6 +119,24 @@ public class WSBackendMessageLogDaoIT extends AbstractBackendWSIT {
         MatcherAssert.assertThat(allFailedWithFilter, CoreMatchers.hasItems(entityFailed2021));
     }
 
+    @Test
+    public void findRetryMessages_batches() {
+        Date now = new Date();
+        List<WSBackendMessageLogEntity> firstBatch = wsBackendMessageLogDao.findRetryMessages(0, now, 1);
+        Assert.assertEquals(1, firstBatch.size());
+        long lastEntityId = firstBatch.get(0).getEntityId();
+
+        Assert.assertEquals(1, wsBackendMessageLogDao.markRetryMessagesAsScheduled(0, lastEntityId, now));
+
+        List<WSBackendMessageLogEntity> secondBatch = wsBackendMessageLogDao.findRetryMessages(lastEntityId, now, 1);
+        Assert.assertEquals(1, secondBatch.size());
+        Assert.assertTrue(secondBatch.get(0).getEntityId() > lastEntityId);
+        Assert.assertEquals(1, wsBackendMessageLogDao.markRetryMessagesAsScheduled(lastEntityId, secondBatch.get(0).getEntityId(), now));
+
+        Assert.assertEquals(0, wsBackendMessageLogDao.findRetryMessages(0, now, 1).size());
+        Assert.assertEquals(0, wsBackendMessageLogDao.markRetryMessagesAsScheduled(0, Long.MAX_VALUE, now));
+    }
+
     @Test
     public void findRetriableAfterRepushed() {
         List<WSBackendMessageLogEntity> beforeRepush = wsBackendMessageLogDao.findRetryMessages();
@@ -0,0 +1,169 @@
+package eu.domibus.plugin.ws.backend.dispatch;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.ext.services.TLSReaderExtService;
+import eu.domibus.plugin.ws.property.WSPluginPropertyManager;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.xml.soap.SOAPMessage;
+import javax.xml.ws.Dispatch;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_POOL_MAX_IDLE;
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class WSPluginDispatchClientPoolTest {
+
+    private static final String DOMAIN = "default";
+
+    private static final String ENDPOINT = "https://localhost:8443/backend";
+
+    @Injectable
+    private WSPluginDispatchClientProvider wsPluginDispatchClientProvider;
+
+    @Injectable
+    private TLSReaderExtService tlsReaderDelegate;
+
+    @Injectable
+    private WSPluginPropertyManager wsPluginPropertyManager;
+
+    @Injectable
+    private Dispatch<SOAPMessage> dispatch1;
+
+    @Injectable
+    private Dispatch<SOAPMessage> dispatch2;
+
+    private MetricRegistry metricRegistry;
+
+    private WSPluginDispatchClientPool wsPluginDispatchClientPool;
+
+    @Before
+    public void setUp() {
+        metricRegistry = new MetricRegistry();
+        wsPluginDispatchClientPool = new WSPluginDispatchClientPool(wsPluginDispatchClientProvider, tlsReaderDelegate, wsPluginPropertyManager, metricRegistry);
+    }
+
+    @Test
+    public void borrow_clientReused(@Injectable TLSClientParameters tlsClientParameters) {
+        mockMaxIdle("20");
+        new Expectations() {{
+            tlsReaderDelegate.getTlsClientParameters(DOMAIN);
+            result = tlsClientParameters;
+            wsPluginDispatchClientProvider.getClient(DOMAIN, ENDPOINT);
+            returns(dispatch1, dispatch2);
+        }};
+
+        try (WSPluginPooledDispatchClient client = wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT)) {
+            assertSame(dispatch1, client.getDispatch());
+            assertEquals(1, getGauge("borrowed"));
+        }
+        assertEquals(0, getGauge("borrowed"));
+        assertEquals(1, getGauge("idle"));
+
+        try (WSPluginPooledDispatchClient client = wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT)) {
+            assertSame(dispatch1, client.getDispatch());
+            try (WSPluginPooledDispatchClient concurrentClient = wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT)) {
+                assertSame(dispatch2, concurrentClient.getDispatch());
+            }
+        }
+
+        assertEquals(2, getGauge("idle"));
+        assertEquals(2, metricRegistry.counter(name(WSPluginDispatchClientPool.class, "created")).getCount());
+        assertEquals(1, metricRegistry.counter(name(WSPluginDispatchClientPool.class, "reused")).getCount());
+    }
+
+    @Test
+    public void borrow_discardedClientNotReused() {
+        mockMaxIdle("20");
+        new Expectations() {{
+            wsPluginDispatchClientProvider.getClient(DOMAIN, ENDPOINT);
+            returns(dispatch1, dispatch2);
+        }};
+
+        try (WSPluginPooledDispatchClient client = wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT)) {
+            client.discard();
+        }
+
+        try (WSPluginPooledDispatchClient client = wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT)) {
+            assertSame(dispatch2, client.getDispatch());
+        }
+        assertEquals(1, metricRegistry.counter(name(WSPluginDispatchClientPool.class, "discarded")).getCount());
+    }
+
+    @Test
+    public void borrow_tlsReloaded(@Injectable TLSClientParameters tlsClientParameters,
+                                   @Injectable TLSClientParameters reloadedTlsClientParameters) {
+        mockMaxIdle("20");
+        new Expectations() {{
+            tlsReaderDelegate.getTlsClientParameters(DOMAIN);
+            returns(tlsClientParameters, reloadedTlsClientParameters);
+            wsPluginDispatchClientProvider.getClient(DOMAIN, ENDPOINT);
+            returns(dispatch1, dispatch2);
+        }};
+
+        wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT).close();
+
+        try (WSPluginPooledDispatchClient client = wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT)) {
+            assertSame(dispatch2, client.getDispatch());
+        }
+        assertEquals(1, getGauge("idle"));
+    }
+
+    @Test
+    public void invalidate_clientInUseDiscarded() {
+        mockMaxIdle("20");
+        new Expectations() {{
+            wsPluginDispatchClientProvider.getClient(DOMAIN, ENDPOINT);
+            returns(dispatch1, dispatch2);
+        }};
+
+        wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT).close();
+        try (WSPluginPooledDispatchClient client = wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT)) {
+            assertSame(dispatch1, client.getDispatch());
+            wsPluginDispatchClientPool.invalidate(DOMAIN);
+        }
+
+        assertEquals(0, getGauge("idle"));
+        try (WSPluginPooledDispatchClient client = wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT)) {
+            assertSame(dispatch2, client.getDispatch());
+        }
+    }
+
+    @Test
+    public void borrow_poolingDisabled() {
+        mockMaxIdle("0");
+
+        wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT).close();
+        wsPluginDispatchClientPool.borrow(DOMAIN, ENDPOINT).close();
+
+        assertEquals(0, getGauge("idle"));
+        new Verifications() {{
+            wsPluginDispatchClientProvider.getClient(DOMAIN, ENDPOINT);
+            times = 2;
+        }};
+    }
+
+    private void mockMaxIdle(String maxIdle) {
+        new Expectations() {{
+            wsPluginPropertyManager.getKnownPropertyValue(DOMAIN, DISPATCHER_POOL_MAX_IDLE);
+            result = maxIdle;
+            minTimes = 0;
+        }};
+    }
+
+    private int getGauge(String gaugeName) {
+        return (Integer) ((Gauge<?>) metricRegistry.getGauges().get(name(WSPluginDispatchClientPool.class, gaugeName))).getValue();
+    }
+}
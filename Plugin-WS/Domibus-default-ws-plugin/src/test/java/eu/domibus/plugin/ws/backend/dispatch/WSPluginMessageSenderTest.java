@@ -15,6 +15,7 @@ import mockit.Expectations;
 import mockit.FullVerifications;
 import mockit.Injectable;
 import mockit.Tested;
+import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -22,8 +23,12 @@ import org.junit.runner.RunWith;
 import javax.xml.soap.SOAPMessage;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
+import java.util.Collections;
+import java.util.List;
 
 import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.PUSH_MARK_AS_DOWNLOADED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * @author François Gautier
@@ -208,4 +213,96 @@ public class WSPluginMessageSenderTest {
             times = 1;
         }};
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sendNotifications(@Injectable SOAPMessage soapMessage,
+                                  @Injectable WSPluginDispatchRule wsPluginDispatchRule) {
+        WSBackendMessageLogEntity backendMessage = createDeletedMessage(ID, MESSAGE_ID);
+        WSBackendMessageLogEntity coalescedMessage = createDeletedMessage(2L, "MessageId2");
+        new Expectations() {{
+            wsPluginDispatchRulesService.getRule(RULE_NAME);
+            result = wsPluginDispatchRule;
+
+            wsPluginDispatchRule.getEndpoint();
+            result = END_POINT;
+
+            wsPluginMessageBuilder.buildSOAPMessageDeleteBatch((List<WSBackendMessageLogEntity>) any);
+            result = soapMessage;
+        }};
+
+        wsPluginMessageSender.sendNotifications(backendMessage, Collections.singletonList(coalescedMessage));
+
+        assertEquals(WSBackendMessageStatus.SENT, backendMessage.getBackendMessageStatus());
+        assertEquals(WSBackendMessageStatus.SENT, coalescedMessage.getBackendMessageStatus());
+        new Verifications() {{
+            List<WSBackendMessageLogEntity> backendMessages;
+            wsPluginMessageBuilder.buildSOAPMessageDeleteBatch(backendMessages = withCapture());
+            assertEquals(2, backendMessages.size());
+
+            wsPluginDispatcher.dispatch(soapMessage, END_POINT);
+            times = 1;
+
+            reliabilityService.handleReliability((WSBackendMessageLogEntity) any, (WSPluginDispatchRule) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void sendNotifications_exception(@Injectable SOAPMessage soapMessage,
+                                            @Injectable WSPluginDispatchRule wsPluginDispatchRule) {
+        WSBackendMessageLogEntity backendMessage = createDeletedMessage(ID, MESSAGE_ID);
+        WSBackendMessageLogEntity coalescedMessage = createDeletedMessage(2L, "MessageId2");
+        new Expectations() {{
+            wsPluginDispatchRulesService.getRule(RULE_NAME);
+            result = wsPluginDispatchRule;
+
+            wsPluginDispatchRule.getEndpoint();
+            result = END_POINT;
+
+            wsPluginMessageBuilder.buildSOAPMessageDeleteBatch((List<WSBackendMessageLogEntity>) any);
+            result = soapMessage;
+
+            wsPluginDispatcher.dispatch(soapMessage, END_POINT);
+            result = new IllegalStateException("ERROR");
+        }};
+
+        wsPluginMessageSender.sendNotifications(backendMessage, Collections.singletonList(coalescedMessage));
+
+        new Verifications() {{
+            reliabilityService.handleReliability(backendMessage, wsPluginDispatchRule);
+            times = 1;
+            reliabilityService.handleReliability(coalescedMessage, wsPluginDispatchRule);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void sendNotifications_noRule() {
+        WSBackendMessageLogEntity backendMessage = createDeletedMessage(ID, MESSAGE_ID);
+        WSBackendMessageLogEntity coalescedMessage = createDeletedMessage(2L, "MessageId2");
+        new Expectations() {{
+            wsPluginDispatchRulesService.getRule(RULE_NAME);
+            result = null;
+        }};
+
+        wsPluginMessageSender.sendNotifications(backendMessage, Collections.singletonList(coalescedMessage));
+
+        assertNull(backendMessage.getBackendMessageStatus());
+        assertNull(coalescedMessage.getBackendMessageStatus());
+        new Verifications() {{
+            wsPluginDispatcher.dispatch((SOAPMessage) any, anyString);
+            times = 0;
+            reliabilityService.handleReliability((WSBackendMessageLogEntity) any, (WSPluginDispatchRule) any);
+            times = 0;
+        }};
+    }
+
+    private WSBackendMessageLogEntity createDeletedMessage(long entityId, String messageId) {
+        WSBackendMessageLogEntity backendMessage = new WSBackendMessageLogEntity();
+        backendMessage.setEntityId(entityId);
+        backendMessage.setMessageId(messageId);
+        backendMessage.setRuleName(RULE_NAME);
+        backendMessage.setType(WSBackendMessageType.DELETED);
+        return backendMessage;
+    }
+}
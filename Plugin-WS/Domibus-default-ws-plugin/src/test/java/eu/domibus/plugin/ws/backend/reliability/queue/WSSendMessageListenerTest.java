@@ -17,7 +17,10 @@ import org.junit.runner.RunWith;
 
 import javax.jms.JMSException;
 import javax.jms.Message;
+import java.util.Collections;
+import java.util.List;
 
+import static eu.domibus.plugin.ws.backend.WSBackendMessageType.DELETED;
 import static eu.domibus.plugin.ws.backend.WSBackendMessageType.RECEIVE_SUCCESS;
 import static eu.domibus.plugin.ws.backend.WSBackendMessageType.SUBMIT_MESSAGE;
 
@@ -202,4 +205,52 @@ public class WSSendMessageListenerTest {
             times = 1;
         }};
     }
-}
\ No newline at end of file
+
+    @Test
+    public void onMessage_coalesced(@Injectable WSBackendMessageLogEntity coalescedMessage) throws JMSException {
+        new Expectations() {{
+            message.getStringProperty(MessageConstants.DOMAIN);
+            result = MessageConstants.DOMAIN;
+
+            message.getStringProperty(MessageConstants.MESSAGE_ID);
+            result = MessageConstants.MESSAGE_ID;
+
+            message.getLongProperty(WSSendMessageListener.ID);
+            result = ID;
+
+            message.getStringProperty(WSSendMessageListener.TYPE);
+            result = DELETED.name();
+
+            message.getStringProperty(WSSendMessageListener.COALESCED_IDS);
+            result = "2";
+
+            wsBackendMessageLogDao.getById(ID);
+            result = backendMessage;
+
+            wsBackendMessageLogDao.getById(2L);
+            result = coalescedMessage;
+
+            backendMessage.getMessageId();
+            result = MessageConstants.MESSAGE_ID;
+
+            backendMessage.getType();
+            result = DELETED;
+        }};
+        wsSendMessageListener.doOnMessage(message);
+
+        new FullVerifications() {{
+            domainContextExtService.setCurrentDomain((DomainDTO) any);
+
+            List<WSBackendMessageLogEntity> coalescedMessages;
+            wsPluginMessageSender.sendNotifications(backendMessage, coalescedMessages = withCapture());
+            times = 1;
+            Assert.assertEquals(Collections.singletonList(coalescedMessage), coalescedMessages);
+
+            backendMessage.setScheduled(false);
+            times = 1;
+
+            coalescedMessage.setScheduled(false);
+            times = 1;
+        }};
+    }
+}
@@ -0,0 +1,86 @@
+package eu.domibus.plugin.ws.backend.reliability.retry;
+
+import eu.domibus.ext.services.DateExtService;
+import eu.domibus.plugin.ws.backend.WSBackendMessageLogEntity;
+import eu.domibus.plugin.ws.property.WSPluginPropertyManager;
+import mockit.Expectations;
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class WSPluginBackendScheduleRetryBatchServiceTest {
+
+    @Tested
+    private WSPluginBackendScheduleRetryBatchService retryBatchService;
+
+    @Injectable
+    private WSPluginBackendScheduleRetryService retryService;
+
+    @Injectable
+    private WSPluginPropertyManager wsPluginPropertyManager;
+
+    @Injectable
+    private DateExtService dateExtService;
+
+    @Test
+    public void scheduleWaitingForRetry_untilLastBatch(@Injectable WSBackendMessageLogEntity entity1,
+                                                       @Injectable WSBackendMessageLogEntity entity2,
+                                                       @Injectable WSBackendMessageLogEntity entity3) {
+        Date now = new Date();
+        new Expectations() {{
+            dateExtService.getUtcDate();
+            result = now;
+
+            retryService.scheduleWaitingForRetryBatch(0L, now, 2);
+            result = Arrays.asList(entity1, entity2);
+
+            entity2.getEntityId();
+            result = 20L;
+
+            retryService.scheduleWaitingForRetryBatch(20L, now, 2);
+            result = Collections.singletonList(entity3);
+
+            entity3.getEntityId();
+            result = 30L;
+        }};
+
+        retryBatchService.scheduleWaitingForRetry(2);
+
+        new FullVerifications() {
+        };
+    }
+
+    @Test
+    public void scheduleWaitingForRetry_fullLastBatch(@Injectable WSBackendMessageLogEntity entity1) {
+        Date now = new Date();
+        new Expectations() {{
+            dateExtService.getUtcDate();
+            result = now;
+
+            retryService.scheduleWaitingForRetryBatch(0L, now, 1);
+            result = Collections.singletonList(entity1);
+
+            entity1.getEntityId();
+            result = 10L;
+
+            retryService.scheduleWaitingForRetryBatch(10L, now, 1);
+            result = Collections.emptyList();
+        }};
+
+        retryBatchService.scheduleWaitingForRetry(1);
+
+        new FullVerifications() {
+        };
+    }
+}
@@ -8,10 +8,13 @@ import eu.domibus.plugin.ws.backend.WSBackendMessageLogEntity;
 import eu.domibus.plugin.ws.backend.WSBackendMessageType;
 import eu.domibus.plugin.ws.backend.reliability.queue.WSSendMessageListener;
 import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRule;
+import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRulesService;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import javax.jms.JMSException;
 import javax.jms.Queue;
@@ -49,6 +52,9 @@ public class WSPluginBackendScheduleRetryServiceTest {
     @Injectable
     protected Queue wsPluginSendQueue;
 
+    @Injectable
+    protected WSPluginDispatchRulesService wsPluginDispatchRulesService;
+
 
     @Test
     public void getMessagesNotAlreadyScheduled() {
@@ -192,4 +198,94 @@ public class WSPluginBackendScheduleRetryServiceTest {
 
         }};
     }
+
+    @Test
+    public void scheduleWaitingForRetryBatch_coalesced(@Injectable WSPluginDispatchRule rule) {
+        Date now = new Date();
+        WSBackendMessageLogEntity deleted1 = createBackendMessage(1L, WSBackendMessageType.DELETED);
+        WSBackendMessageLogEntity sendSuccess = createBackendMessage(2L, WSBackendMessageType.SEND_SUCCESS);
+        WSBackendMessageLogEntity deleted3 = createBackendMessage(3L, WSBackendMessageType.DELETED);
+        WSBackendMessageLogEntity deleted4 = createBackendMessage(4L, WSBackendMessageType.DELETED);
+        new Expectations() {{
+            wsBackendMessageLogDao.findRetryMessages(0L, now, 10);
+            result = Arrays.asList(deleted1, sendSuccess, deleted3, deleted4);
+
+            wsBackendMessageLogDao.markRetryMessagesAsScheduled(0L, 4L, now);
+            result = 4;
+
+            wsPluginDispatchRulesService.getRule(RULE_NAME);
+            result = rule;
+
+            rule.getCoalesce();
+            result = 2;
+        }};
+
+        List<WSBackendMessageLogEntity> batch = retryService.scheduleWaitingForRetryBatch(0L, now, 10);
+
+        assertEquals(4, batch.size());
+        new Verifications() {{
+            List<JmsMessageDTO> jmsMessageDTO = new ArrayList<>();
+            jmsExtService.sendMessageToQueue(withCapture(jmsMessageDTO), wsPluginSendQueue);
+            times = 3;
+
+            assertEquals(1L, jmsMessageDTO.get(0).getProperties().get(WSSendMessageListener.ID));
+            assertEquals("3", jmsMessageDTO.get(0).getProperties().get(WSSendMessageListener.COALESCED_IDS));
+            assertEquals(2L, jmsMessageDTO.get(1).getProperties().get(WSSendMessageListener.ID));
+            assertNull(jmsMessageDTO.get(1).getProperties().get(WSSendMessageListener.COALESCED_IDS));
+            assertEquals(4L, jmsMessageDTO.get(2).getProperties().get(WSSendMessageListener.ID));
+            assertNull(jmsMessageDTO.get(2).getProperties().get(WSSendMessageListener.COALESCED_IDS));
+        }};
+    }
+
+    @Test
+    public void scheduleWaitingForRetryBatch_notAllScheduled(@Mocked TransactionAspectSupport transactionAspectSupport,
+                                                             @Injectable TransactionStatus transactionStatus) {
+        Date now = new Date();
+        WSBackendMessageLogEntity deleted1 = createBackendMessage(1L, WSBackendMessageType.DELETED);
+        WSBackendMessageLogEntity sendSuccess = createBackendMessage(2L, WSBackendMessageType.SEND_SUCCESS);
+        new Expectations() {{
+            wsBackendMessageLogDao.findRetryMessages(0L, now, 10);
+            result = Arrays.asList(deleted1, sendSuccess);
+
+            wsBackendMessageLogDao.markRetryMessagesAsScheduled(0L, 2L, now);
+            result = 1;
+
+            TransactionAspectSupport.currentTransactionStatus();
+            result = transactionStatus;
+        }};
+
+        List<WSBackendMessageLogEntity> batch = retryService.scheduleWaitingForRetryBatch(0L, now, 10);
+
+        assertEquals(2, batch.size());
+        new Verifications() {{
+            transactionStatus.setRollbackOnly();
+            times = 1;
+            jmsExtService.sendMessageToQueue((JmsMessageDTO) any, (Queue) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void scheduleWaitingForRetryBatch_empty() {
+        Date now = new Date();
+        new Expectations() {{
+            wsBackendMessageLogDao.findRetryMessages(5L, now, 10);
+            result = new ArrayList<>();
+        }};
+
+        assertTrue(retryService.scheduleWaitingForRetryBatch(5L, now, 10).isEmpty());
+
+        new FullVerifications() {
+        };
+    }
+
+    private WSBackendMessageLogEntity createBackendMessage(long entityId, WSBackendMessageType type) {
+        WSBackendMessageLogEntity backendMessage = new WSBackendMessageLogEntity();
+        backendMessage.setEntityId(entityId);
+        backendMessage.setMessageId(MESSAGE_ID + entityId);
+        backendMessage.setType(type);
+        backendMessage.setRuleName(RULE_NAME);
+        backendMessage.setFinalRecipient(FINAL_RECIPIENT);
+        return backendMessage;
+    }
 }
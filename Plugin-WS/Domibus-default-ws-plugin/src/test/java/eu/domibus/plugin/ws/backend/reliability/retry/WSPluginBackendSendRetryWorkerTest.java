@@ -19,6 +19,9 @@ public class WSPluginBackendSendRetryWorkerTest {
     @Injectable
     protected WSPluginBackendScheduleRetryService retryService;
 
+    @Injectable
+    protected WSPluginBackendScheduleRetryBatchService retryBatchService;
+
     @Injectable
     protected WSPluginMessageSender wsPluginMessageSender;
 
@@ -34,6 +37,10 @@ public class WSPluginBackendSendRetryWorkerTest {
     @Test
     public void executeJob(@Injectable WSBackendMessageLogEntity entity1,
                            @Injectable WSBackendMessageLogEntity entity2) {
+        new Expectations() {{
+            retryBatchService.getBatchSize();
+            result = 0;
+        }};
 
         retryWorker.executeJob(null, null);
 
@@ -42,4 +49,19 @@ public class WSPluginBackendSendRetryWorkerTest {
             times = 1;
         }};
     }
+
+    @Test
+    public void executeJob_batch() {
+        new Expectations() {{
+            retryBatchService.getBatchSize();
+            result = 500;
+        }};
+
+        retryWorker.executeJob(null, null);
+
+        new FullVerifications() {{
+            retryBatchService.scheduleWaitingForRetry(500);
+            times = 1;
+        }};
+    }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package eu.domibus.plugin.ws.backend.rules;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Compares the filtering of all the dispatch rules done by {@link WSPluginDispatchRulesService} until 5.1 with the
+ * {@link WSPluginDispatchRulesIndex}, for rule sets with one rule per recipient and a few rules without recipient.
+ * Not executed as part of the build: run the main method from the test classpath.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WSPluginDispatchRulesBenchmark {
+
+    @Param({"100", "10000"})
+    public int recipientCount;
+
+    private List<WSPluginDispatchRule> rules;
+
+    private WSPluginDispatchRulesIndex rulesIndex;
+
+    private List<String> finalRecipients;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rules = new ArrayList<>();
+        for (int i = 0; i < recipientCount; i++) {
+            if (i % 1000 == 0) {
+                rules.add(new WSPluginDispatchRuleBuilder("all" + i).withEndpoint("http://localhost:8080/all").build());
+            }
+            rules.add(new WSPluginDispatchRuleBuilder("rule" + i)
+                    .withRecipient("urn:oasis:names:tc:ebcore:partyid-type:unregistered:recipient" + i)
+                    .withEndpoint("http://localhost:8080/backend" + i)
+                    .build());
+        }
+        rulesIndex = new WSPluginDispatchRulesIndex(rules);
+
+        finalRecipients = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            // mixed case, as the recipients are compared ignoring the case
+            finalRecipients.add("urn:oasis:names:tc:ebcore:partyid-type:unregistered:RECIPIENT" + ((i * 7919) % (recipientCount + 10)));
+        }
+    }
+
+    @Benchmark
+    public List<WSPluginDispatchRule> filterAllRules() {
+        String finalRecipient = nextFinalRecipient();
+        return rules.stream()
+                .filter(rule -> StringUtils.isBlank(rule.getRecipient()) || StringUtils.equalsAnyIgnoreCase(finalRecipient, rule.getRecipient()))
+                .collect(toList());
+    }
+
+    @Benchmark
+    public List<WSPluginDispatchRule> rulesIndex() {
+        return rulesIndex.getRulesByRecipient(nextFinalRecipient());
+    }
+
+    @Benchmark
+    public WSPluginDispatchRulesIndex buildRulesIndex() {
+        return new WSPluginDispatchRulesIndex(rules);
+    }
+
+    private String nextFinalRecipient() {
+        next = (next + 1) % finalRecipients.size();
+        return finalRecipients.get(next);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WSPluginDispatchRulesBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package eu.domibus.plugin.ws.backend.rules;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.2
+ */
+public class WSPluginDispatchRulesIndexTest {
+
+    private final WSPluginDispatchRule all1 = new WSPluginDispatchRuleBuilder("all1").build();
+    private final WSPluginDispatchRule red1 = new WSPluginDispatchRuleBuilder("red1").withRecipient("Red").build();
+    private final WSPluginDispatchRule blue1 = new WSPluginDispatchRuleBuilder("blue1").withRecipient("blue").build();
+    private final WSPluginDispatchRule all2 = new WSPluginDispatchRuleBuilder("all2").withRecipient(" ").build();
+    private final WSPluginDispatchRule red2 = new WSPluginDispatchRuleBuilder("red2").withRecipient("RED").build();
+
+    private final WSPluginDispatchRulesIndex index = new WSPluginDispatchRulesIndex(Arrays.asList(all1, red1, blue1, all2, red2));
+
+    @Test
+    public void getRules() {
+        assertEquals(Arrays.asList(all1, red1, blue1, all2, red2), index.getRules());
+    }
+
+    @Test
+    public void getRulesByRecipient_inDeclarationOrder() {
+        assertEquals(Arrays.asList(all1, red1, all2, red2), index.getRulesByRecipient("red"));
+        assertEquals(Arrays.asList(all1, blue1, all2), index.getRulesByRecipient("BLUE"));
+    }
+
+    @Test
+    public void getRulesByRecipient_unknownRecipient() {
+        assertEquals(Arrays.asList(all1, all2), index.getRulesByRecipient("green"));
+        assertEquals(Arrays.asList(all1, all2), index.getRulesByRecipient(null));
+    }
+
+    @Test
+    public void getRulesByRecipient_noRule() {
+        WSPluginDispatchRulesIndex emptyIndex = new WSPluginDispatchRulesIndex(Collections.emptyList());
+
+        assertTrue(emptyIndex.getRulesByRecipient("red").isEmpty());
+        assertNull(emptyIndex.getRule("red1"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getRulesByRecipient_immutable() {
+        index.getRulesByRecipient("red").add(blue1);
+    }
+
+    @Test
+    public void getRule() {
+        assertSame(red1, index.getRule("RED1"));
+        assertSame(all2, index.getRule("all2"));
+        assertNull(index.getRule("unknown"));
+        assertNull(index.getRule(null));
+    }
+}
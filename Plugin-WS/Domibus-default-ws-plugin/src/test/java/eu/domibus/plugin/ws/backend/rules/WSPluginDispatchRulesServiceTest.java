@@ -83,6 +83,26 @@ public class WSPluginDispatchRulesServiceTest {
         rulesService.setRetryInformation(ruleBuilder, "60;5");
     }
 
+    @Test
+    public void setCoalesce_ok() {
+        WSPluginDispatchRuleBuilder ruleBuilder = new WSPluginDispatchRuleBuilder(RULE_NAME_1);
+        rulesService.setCoalesce(ruleBuilder, "100");
+        assertEquals(100, ruleBuilder.build().getCoalesce().intValue());
+    }
+
+    @Test
+    public void setCoalesce_empty() {
+        WSPluginDispatchRuleBuilder ruleBuilder = new WSPluginDispatchRuleBuilder(RULE_NAME_1);
+        rulesService.setCoalesce(ruleBuilder, "");
+        assertNull(ruleBuilder.build().getCoalesce());
+    }
+
+    @Test(expected = WSPluginException.class)
+    public void setCoalesce_NumberFormatException() {
+        WSPluginDispatchRuleBuilder ruleBuilder = new WSPluginDispatchRuleBuilder(RULE_NAME_1);
+        rulesService.setCoalesce(ruleBuilder, "many");
+    }
+
     @Test
     public void initRules_noRuleFound() {
         new Expectations() {{
@@ -153,13 +173,56 @@ public class WSPluginDispatchRulesServiceTest {
     }
 
     @Test
-    public void getRulesByRecipient(@Injectable WSPluginDispatchRule wsPluginDispatchRule) {
+    public void getRulesByRecipient() {
+        WSPluginDispatchRule rule1 = new WSPluginDispatchRuleBuilder(RULE_NAME_1).withRecipient("Recipient").build();
+        WSPluginDispatchRule rule3 = new WSPluginDispatchRuleBuilder(RULE_NAME_3).withRecipient("other").build();
+
         new Expectations(rulesService) {{
-            rulesService.getRules();
-            result = Collections.singletonList(wsPluginDispatchRule);
+            rulesService.generateRules();
+            result = Arrays.asList(rule1, rule3);
             times = 1;
         }};
-        rulesService.getRulesByRecipient("recipient");
+        LOG.putMDC(DomibusLogger.MDC_DOMAIN, "getRulesByRecipient");
+
+        assertEquals(Collections.singletonList(rule1), rulesService.getRulesByRecipient("recipient"));
+        assertEquals(Collections.singletonList(rule3), rulesService.getRulesByRecipient("OTHER"));
+    }
+
+    @Test
+    public void rebuildRules() {
+        WSPluginDispatchRule rule1 = new WSPluginDispatchRuleBuilder(RULE_NAME_1).build();
+        WSPluginDispatchRule rule3 = new WSPluginDispatchRuleBuilder(RULE_NAME_3).build();
+
+        new Expectations(rulesService) {{
+            rulesService.generateRules();
+            returns(Collections.singletonList(rule1), Arrays.asList(rule1, rule3));
+        }};
+        LOG.putMDC(DomibusLogger.MDC_DOMAIN, "rebuildRules");
+        assertEquals(1, rulesService.getRules().size());
+
+        rulesService.rebuildRules("rebuildRules");
+
+        assertEquals(Arrays.asList(rule1, rule3), rulesService.getRules());
+    }
+
+    @Test
+    public void rebuildRules_invalidRulesKept() {
+        WSPluginDispatchRule rule1 = new WSPluginDispatchRuleBuilder(RULE_NAME_1).build();
+
+        new Expectations(rulesService) {{
+            rulesService.generateRules();
+            result = Collections.singletonList(rule1);
+            result = new WSPluginException("invalid rule");
+        }};
+        LOG.putMDC(DomibusLogger.MDC_DOMAIN, "rebuildRules_invalidRulesKept");
+        assertEquals(1, rulesService.getRules().size());
+
+        try {
+            rulesService.rebuildRules("rebuildRules_invalidRulesKept");
+            fail();
+        } catch (WSPluginException e) {
+            assertEquals(Collections.singletonList(rule1), rulesService.getRules());
+        }
     }
 
     @Test
@@ -202,31 +265,17 @@ public class WSPluginDispatchRulesServiceTest {
     }
 
     @Test
-    public void getRulesByName_found() {
+    public void getOneRule_found() {
         WSPluginDispatchRule rule1 = new WSPluginDispatchRuleBuilder(RULE_NAME_1).build();
         WSPluginDispatchRule rule3 = new WSPluginDispatchRuleBuilder(RULE_NAME_3).build();
 
         new Expectations(rulesService) {{
-            rulesService.getRules();
+            rulesService.generateRules();
             result = Arrays.asList(rule1, rule3);
             times = 1;
         }};
-        List<WSPluginDispatchRule> rulesByName = rulesService.getRulesByName(RULE_NAME_1);
-
-        assertEquals(1, rulesByName.size());
-        assertEquals(rule1, rulesByName.get(0));
-    }
-
-    @Test
-    public void getOneRule_found(@Injectable WSPluginDispatchRule wsPluginDispatchRule) {
-        WSPluginDispatchRule rule1 = new WSPluginDispatchRuleBuilder(RULE_NAME_1).build();
-
-        new Expectations(rulesService) {{
-            rulesService.getRulesByName(RULE_NAME_1);
-            result = rule1;
-            times = 1;
-        }};
-        WSPluginDispatchRule ruleFound = rulesService.getRule(RULE_NAME_1);
+        LOG.putMDC(DomibusLogger.MDC_DOMAIN, "getOneRule_found");
+        WSPluginDispatchRule ruleFound = rulesService.getRule(RULE_NAME_1.toUpperCase());
 
         assertEquals(rule1, ruleFound);
     }
@@ -236,14 +285,15 @@ public class WSPluginDispatchRulesServiceTest {
         WSPluginDispatchRule rule3 = new WSPluginDispatchRuleBuilder(RULE_NAME_3).build();
 
         new Expectations(rulesService) {{
-            rulesService.getRulesByName(RULE_NAME_1);
-            result = rule3;
+            rulesService.generateRules();
+            result = Collections.singletonList(rule3);
             times = 1;
         }};
+        LOG.putMDC(DomibusLogger.MDC_DOMAIN, "getOneRule_notFound");
         WSPluginDispatchRule ruleFound = rulesService.getRule(RULE_NAME_1);
 
         assertNotNull(ruleFound);
-        assertNotNull(StringUtils.EMPTY, ruleFound.getRuleName());
+        assertEquals(StringUtils.EMPTY, ruleFound.getRuleName());
     }
 
     @Test
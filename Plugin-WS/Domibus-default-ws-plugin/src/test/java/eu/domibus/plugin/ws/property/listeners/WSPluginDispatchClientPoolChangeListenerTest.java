@@ -0,0 +1,49 @@
+package eu.domibus.plugin.ws.property.listeners;
+
+import eu.domibus.plugin.ws.backend.dispatch.WSPluginDispatchClientPool;
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.integration.junit4.JMockit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.*;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class WSPluginDispatchClientPoolChangeListenerTest {
+
+    @Injectable
+    private WSPluginDispatchClientPool wsPluginDispatchClientPool;
+
+    private WSPluginDispatchClientPoolChangeListener listener;
+
+    @Before
+    public void setUp() {
+        listener = new WSPluginDispatchClientPoolChangeListener(wsPluginDispatchClientPool);
+    }
+
+    @Test
+    public void handlesProperty_true() {
+        Assert.assertTrue(listener.handlesProperty(DISPATCHER_RECEIVE_TIMEOUT));
+        Assert.assertTrue(listener.handlesProperty(DISPATCHER_PUSH_AUTH_PASSWORD));
+    }
+
+    @Test
+    public void handlesProperty_false() {
+        Assert.assertFalse(listener.handlesProperty(DISPATCHER_CRON_EXPRESSION));
+    }
+
+    @Test
+    public void propertyValueChanged() {
+        listener.propertyValueChanged("default", DISPATCHER_CONNECTION_KEEP_ALIVE, "false");
+
+        new FullVerifications() {{
+            wsPluginDispatchClientPool.invalidate("default");
+        }};
+    }
+}
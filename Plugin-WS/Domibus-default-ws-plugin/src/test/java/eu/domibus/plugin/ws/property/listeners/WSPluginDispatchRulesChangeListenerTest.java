@@ -0,0 +1,81 @@
+package eu.domibus.plugin.ws.property.listeners;
+
+import eu.domibus.ext.domain.DomainDTO;
+import eu.domibus.ext.services.DomainContextExtService;
+import eu.domibus.ext.services.DomainExtService;
+import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRulesService;
+import mockit.Expectations;
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.VerificationsInOrder;
+import mockit.integration.junit4.JMockit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_CRON_EXPRESSION;
+
+/**
+ * @since 5.2
+ */
+@RunWith(JMockit.class)
+public class WSPluginDispatchRulesChangeListenerTest {
+
+    private static final String RULE_ENDPOINT = "wsplugin.push.rules.red.endpoint";
+
+    @Injectable
+    private WSPluginDispatchRulesService wsPluginDispatchRulesService;
+
+    @Injectable
+    private DomainContextExtService domainContextExtService;
+
+    @Injectable
+    private DomainExtService domainExtService;
+
+    private WSPluginDispatchRulesChangeListener listener;
+
+    @Before
+    public void setUp() {
+        listener = new WSPluginDispatchRulesChangeListener(wsPluginDispatchRulesService, domainContextExtService, domainExtService);
+    }
+
+    @Test
+    public void handlesProperty_true() {
+        Assert.assertTrue(listener.handlesProperty(RULE_ENDPOINT));
+    }
+
+    @Test
+    public void handlesProperty_false() {
+        Assert.assertFalse(listener.handlesProperty(DISPATCHER_CRON_EXPRESSION));
+    }
+
+    @Test
+    public void propertyValueChanged() {
+        DomainDTO domain = new DomainDTO("red", "Red");
+        new Expectations() {{
+            domainContextExtService.getCurrentDomainSafely();
+            result = null;
+
+            domainExtService.getDomain("red");
+            result = domain;
+        }};
+
+        listener.propertyValueChanged("red", RULE_ENDPOINT, "http://localhost:8080/backend");
+
+        new VerificationsInOrder() {{
+            domainContextExtService.setCurrentDomain(domain);
+            wsPluginDispatchRulesService.rebuildRules("red");
+            domainContextExtService.clearCurrentDomain();
+        }};
+    }
+
+    @Test
+    public void propertyValueChanged_noDomain() {
+        listener.propertyValueChanged(null, RULE_ENDPOINT, "http://localhost:8080/backend");
+
+        new FullVerifications() {{
+            wsPluginDispatchRulesService.rebuildRules(null);
+        }};
+    }
+}
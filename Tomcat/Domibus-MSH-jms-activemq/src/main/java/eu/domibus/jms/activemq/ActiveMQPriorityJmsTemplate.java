@@ -0,0 +1,22 @@
+package eu.domibus.jms.activemq;
+
+import eu.domibus.jms.spi.helper.PriorityJmsTemplate;
+import org.apache.activemq.ScheduledMessage;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+
+/**
+ * ActiveMQ does not implement the JMS 2.0 delivery delay of the producer so the delay is passed to the broker scheduler instead
+ *
+ * @since 5.2
+ */
+public class ActiveMQPriorityJmsTemplate extends PriorityJmsTemplate {
+
+    @Override
+    protected void doSendWithDeliveryDelay(MessageProducer producer, Message message, int priority, long deliveryDelay) throws JMSException {
+        message.setLongProperty(ScheduledMessage.AMQ_SCHEDULED_DELAY, deliveryDelay);
+        producer.send(message, getDeliveryMode(), priority, getTimeToLive());
+    }
+}
@@ -96,7 +96,7 @@ public class DomibusJMSActiveMQConfiguration {
 
     @Bean("jmsSender")
     public JmsTemplate jmsSender(@Qualifier(DomibusJMSConstants.DOMIBUS_JMS_CACHING_CONNECTION_FACTORY) ConnectionFactory connectionFactory) {
-        PriorityJmsTemplate result = new PriorityJmsTemplate();
+        PriorityJmsTemplate result = new ActiveMQPriorityJmsTemplate();
         result.setSessionTransacted(true);
         result.setSessionAcknowledgeMode(Session.SESSION_TRANSACTED);
         result.setConnectionFactory(connectionFactory);
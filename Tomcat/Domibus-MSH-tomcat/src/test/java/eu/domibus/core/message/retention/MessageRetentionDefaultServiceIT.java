@@ -3,6 +3,7 @@ package eu.domibus.core.message.retention;
 import eu.domibus.api.model.MessageStatus;
 import eu.domibus.api.model.PartInfo;
 import eu.domibus.api.model.UserMessageLog;
+import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.common.MessageStatusChangeEvent;
 import eu.domibus.common.NotificationType;
 import eu.domibus.core.message.DeleteMessageAbstractIT;
@@ -28,6 +29,7 @@ import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_STREAMING_ENABLED;
 import static java.lang.Integer.MAX_VALUE;
 import static org.junit.Assert.*;
 
@@ -50,6 +52,9 @@ public class MessageRetentionDefaultServiceIT extends DeleteMessageAbstractIT {
 
     @Autowired
     BackendConnectorHelper backendConnectorHelper;
+
+    @Autowired
+    DomibusPropertyProvider domibusPropertyProvider;
     
     ArgumentCaptor<MessageStatusChangeEvent> argCaptor = ArgumentCaptor.forClass(MessageStatusChangeEvent.class);
 
@@ -216,6 +221,27 @@ public class MessageRetentionDefaultServiceIT extends DeleteMessageAbstractIT {
                 CollectionUtils.isEqualCollection(initialMap.entrySet(), finalMap.entrySet()));
     }
 
+    @Test
+    public void deleteExpiredDownloaded_deletesAll_inChunks_ifStreamingEnabled() throws XmlProcessingException, IOException, SOAPException, ParserConfigurationException, SAXException {
+        //given
+        uploadPmodeWithCustomMpc(true, 0, MAX_VALUE, 2, MAX_VALUE);
+        Map<String, Integer> initialMap = messageDBUtil.getTableCounts(tablesToExclude);
+        String messageId = receiveMessageToDelete();
+        setMessageStatus(messageId, MessageStatus.DOWNLOADED);
+        makeMessageFieldOlder(messageId, "downloaded", 10);
+        domibusPropertyProvider.setProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_STREAMING_ENABLED, "true");
+        try {
+            //when
+            service.deleteExpiredDownloadedMessages(MPC_URI, 100, false);
+        } finally {
+            domibusPropertyProvider.setProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_STREAMING_ENABLED, "false");
+        }
+        //then
+        Map<String, Integer> finalMap = messageDBUtil.getTableCounts(tablesToExclude);
+        assertTrue("Expecting all data to be deleted but instead we have:\n" + getMessageDetails(initialMap, finalMap),
+                CollectionUtils.isEqualCollection(initialMap.entrySet(), finalMap.entrySet()));
+    }
+
     private static String getMessageDetails(Map<String, Integer> initialMap, Map<String, Integer> finalMap) {
         return initialMap.entrySet().stream()
                 .filter(mapEntry -> !Objects.equals(mapEntry.getValue(), finalMap.get(mapEntry.getKey())))